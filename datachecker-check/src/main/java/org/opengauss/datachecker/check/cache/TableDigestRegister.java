@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
+import org.opengauss.datachecker.common.entry.enums.Endpoint;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The partition digests shipped by the extract services before the extract status of the table is refreshed
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/31
+ * @since ：11
+ */
+@Slf4j
+@Service
+public class TableDigestRegister {
+    private final Map<String, PartitionDigest> digestCache = new ConcurrentHashMap<>();
+
+    /**
+     * refresh the partition digests of a table of an endpoint
+     *
+     * @param digests partition digests
+     */
+    public void refresh(List<PartitionDigest> digests) {
+        digests.forEach(digest -> digestCache.put(
+            buildKey(digest.getTableName(), digest.getEndpoint(), digest.getPartition()), digest));
+    }
+
+    /**
+     * get the partition digest, null if the digest is not shipped
+     *
+     * @param tableName table name
+     * @param endpoint  endpoint
+     * @param partition partition
+     * @return partition digest
+     */
+    public PartitionDigest get(String tableName, Endpoint endpoint, int partition) {
+        return digestCache.get(buildKey(tableName, endpoint, partition));
+    }
+
+    /**
+     * remove the partition digests of both endpoints when the partition is checked
+     *
+     * @param tableName table name
+     * @param partition partition
+     */
+    public void remove(String tableName, int partition) {
+        digestCache.remove(buildKey(tableName, Endpoint.SOURCE, partition));
+        digestCache.remove(buildKey(tableName, Endpoint.SINK, partition));
+    }
+
+    /**
+     * clear all the digests
+     */
+    public void removeAll() {
+        digestCache.clear();
+        log.info("table digest register cache information clearing");
+    }
+
+    private String buildKey(String tableName, Endpoint endpoint, int partition) {
+        return tableName + "_" + endpoint.getCode() + "_" + partition;
+    }
+}
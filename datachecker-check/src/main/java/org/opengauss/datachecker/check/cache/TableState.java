@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.cache;
+
+import static org.opengauss.datachecker.check.cache.TableStatusRegister.TASK_STATUS_COMPLETED_VALUE;
+import static org.opengauss.datachecker.check.cache.TableStatusRegister.TASK_STATUS_CONSUMER_VALUE;
+import static org.opengauss.datachecker.check.cache.TableStatusRegister.TASK_STATUS_DEFAULT_VALUE;
+
+/**
+ * <pre>
+ * The state of a table in {@link TableStatusRegister}, derived from the status flags of the table.
+ * ERROR -> the extraction of any endpoint is failed
+ * EXTRACTING -> the extraction of the source or the sink is not completed
+ * EXTRACTED -> both endpoints complete the extraction, the table is waiting for the verification
+ * INCOMPLETE -> the check flag is set before both endpoints complete the extraction
+ * CHECKED -> the verification of all the partitions is completed
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+public enum TableState {
+    ERROR, EXTRACTING, EXTRACTED, INCOMPLETE, CHECKED;
+
+    /**
+     * the state of the status flags
+     *
+     * @param status status flags of the table
+     * @return table state
+     */
+    public static TableState of(int status) {
+        if (status < TASK_STATUS_DEFAULT_VALUE) {
+            return ERROR;
+        }
+        if (status < TASK_STATUS_COMPLETED_VALUE) {
+            return EXTRACTING;
+        }
+        if (status == TASK_STATUS_COMPLETED_VALUE) {
+            return EXTRACTED;
+        }
+        return status == TASK_STATUS_CONSUMER_VALUE ? CHECKED : INCOMPLETE;
+    }
+}
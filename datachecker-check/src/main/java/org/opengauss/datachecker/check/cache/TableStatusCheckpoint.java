@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.cache;
+
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.common.constant.Constants.InitialCapacity;
+import org.opengauss.datachecker.common.entry.check.CheckPartition;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.DSYNC;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * <pre>
+ * Append-only checkpoint of the table status register.
+ * Every table status, table partition status and written check result location is appended to the checkpoint file
+ * as one json line, and the line is synchronized to the storage device before the append returns.
+ * Replaying the lines in order restores the latest status, a broken last line left by a crash is ignored.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/27
+ * @since ：11
+ */
+@Slf4j
+public class TableStatusCheckpoint {
+    private static final String TYPE = "type";
+    private static final String TABLE = "table";
+    private static final String PARTITION = "partition";
+    private static final String STATUS = "status";
+    private static final String PATH = "path";
+    private static final String TYPE_TABLE = "T";
+    private static final String TYPE_PARTITION = "P";
+    private static final String TYPE_RESULT = "R";
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final Path checkpointPath;
+    private FileChannel channel;
+
+    /**
+     * Build the checkpoint of the specified file, the file is created when the first record is appended
+     *
+     * @param checkpointPath checkpoint file
+     */
+    public TableStatusCheckpoint(Path checkpointPath) {
+        this.checkpointPath = checkpointPath;
+    }
+
+    /**
+     * append the table status record
+     *
+     * @param table  table name
+     * @param status table status
+     */
+    public void appendTableStatus(String table, int status) {
+        append(tableRecord(table, status));
+    }
+
+    /**
+     * append the table partition status record
+     *
+     * @param table     table name
+     * @param partition partition
+     * @param status    partition status
+     */
+    public void appendPartitionStatus(String table, int partition, int status) {
+        append(partitionRecord(table, partition, status));
+    }
+
+    /**
+     * append the location of the written check result of the table partition
+     *
+     * @param checkPartition table partition
+     * @param path           check result file
+     */
+    public void appendResult(CheckPartition checkPartition, String path) {
+        append(resultRecord(checkPartition, path));
+    }
+
+    /**
+     * Replay the checkpoint file, the latest record of the same table, partition or result wins
+     *
+     * @return checkpoint snapshot
+     */
+    public synchronized Snapshot replay() {
+        Snapshot snapshot = new Snapshot();
+        if (!Files.exists(checkpointPath)) {
+            return snapshot;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(checkpointPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                replayRecord(snapshot, line);
+            }
+        } catch (IOException ex) {
+            log.error("replay table status checkpoint {} error:", checkpointPath, ex);
+        }
+        return snapshot;
+    }
+
+    private void replayRecord(Snapshot snapshot, String line) {
+        final JSONObject record;
+        try {
+            record = JSONObject.parseObject(line);
+        } catch (JSONException ex) {
+            log.warn("ignore broken table status checkpoint record {}", line);
+            return;
+        }
+        if (Objects.isNull(record) || Objects.isNull(record.getString(TYPE))) {
+            return;
+        }
+        final String table = record.getString(TABLE);
+        switch (record.getString(TYPE)) {
+            case TYPE_TABLE:
+                snapshot.tableStatus.put(table, record.getIntValue(STATUS));
+                break;
+            case TYPE_PARTITION:
+                snapshot.partitionStatus.computeIfAbsent(table, key -> new HashMap<>(InitialCapacity.CAPACITY_16))
+                                        .put(record.getIntValue(PARTITION), record.getIntValue(STATUS));
+                break;
+            case TYPE_RESULT:
+                snapshot.resultPaths.put(new CheckPartition(table, record.getIntValue(PARTITION)),
+                    record.getString(PATH));
+                break;
+            default:
+                log.warn("ignore unknown table status checkpoint record {}", line);
+        }
+    }
+
+    /**
+     * Compact the checkpoint file, the file is atomically replaced by the records of the snapshot
+     *
+     * @param snapshot checkpoint snapshot
+     */
+    public synchronized void rewrite(Snapshot snapshot) {
+        List<String> records = new ArrayList<>();
+        snapshot.tableStatus.forEach((table, status) -> records.add(tableRecord(table, status)));
+        snapshot.partitionStatus.forEach((table, partitions) -> partitions.forEach(
+            (partition, status) -> records.add(partitionRecord(table, partition, status))));
+        snapshot.resultPaths.forEach((checkPartition, path) -> records.add(resultRecord(checkPartition, path)));
+        final Path compactPath = Path.of(checkpointPath + COMPACT_SUFFIX);
+        try {
+            closeChannel();
+            Files.createDirectories(checkpointPath.toAbsolutePath().getParent());
+            try (FileChannel compactChannel = FileChannel.open(compactPath, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                for (String record : records) {
+                    write(compactChannel, record);
+                }
+                compactChannel.force(true);
+            }
+            Files.move(compactPath, checkpointPath, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException ex) {
+            log.error("compact table status checkpoint {} error:", checkpointPath, ex);
+        }
+    }
+
+    /**
+     * delete the checkpoint file
+     */
+    public synchronized void delete() {
+        try {
+            closeChannel();
+            Files.deleteIfExists(checkpointPath);
+        } catch (IOException ex) {
+            log.error("delete table status checkpoint {} error:", checkpointPath, ex);
+        }
+    }
+
+    /**
+     * close the checkpoint file
+     */
+    public synchronized void close() {
+        try {
+            closeChannel();
+        } catch (IOException ex) {
+            log.error("close table status checkpoint {} error:", checkpointPath, ex);
+        }
+    }
+
+    private synchronized void append(String record) {
+        try {
+            if (Objects.isNull(channel)) {
+                Files.createDirectories(checkpointPath.toAbsolutePath().getParent());
+                channel = FileChannel.open(checkpointPath, CREATE, WRITE, APPEND, DSYNC);
+            }
+            write(channel, record);
+        } catch (IOException ex) {
+            log.error("append table status checkpoint {} error:", record, ex);
+        }
+    }
+
+    private void write(FileChannel fileChannel, String record) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap((record + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            fileChannel.write(buffer);
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (Objects.nonNull(channel)) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static String tableRecord(String table, int status) {
+        JSONObject record = new JSONObject();
+        record.put(TYPE, TYPE_TABLE);
+        record.put(TABLE, table);
+        record.put(STATUS, status);
+        return record.toJSONString();
+    }
+
+    private static String partitionRecord(String table, int partition, int status) {
+        JSONObject record = new JSONObject();
+        record.put(TYPE, TYPE_PARTITION);
+        record.put(TABLE, table);
+        record.put(PARTITION, partition);
+        record.put(STATUS, status);
+        return record.toJSONString();
+    }
+
+    private static String resultRecord(CheckPartition checkPartition, String path) {
+        JSONObject record = new JSONObject();
+        record.put(TYPE, TYPE_RESULT);
+        record.put(TABLE, checkPartition.getTableName());
+        record.put(PARTITION, checkPartition.getPartition());
+        record.put(PATH, path);
+        return record.toJSONString();
+    }
+
+    /**
+     * The table status, table partition status and check result location restored from the checkpoint
+     */
+    @Getter
+    public static class Snapshot {
+        private final Map<String, Integer> tableStatus = new HashMap<>();
+        private final Map<String, Map<Integer, Integer>> partitionStatus = new HashMap<>();
+        private final Map<CheckPartition, String> resultPaths = new HashMap<>();
+    }
+}
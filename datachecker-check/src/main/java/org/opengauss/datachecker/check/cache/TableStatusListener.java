@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.cache;
+
+/**
+ * The listener of the table state transitions of {@link TableStatusRegister}.
+ * It is called in the thread which updates the table status, so it must return quickly.
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@FunctionalInterface
+public interface TableStatusListener {
+    /**
+     * the state of the table is changed
+     *
+     * @param tableName table name
+     * @param oldState  old state, null if the table is added
+     * @param newState  new state
+     */
+    void onStateChanged(String tableName, TableState oldState, TableState newState);
+}
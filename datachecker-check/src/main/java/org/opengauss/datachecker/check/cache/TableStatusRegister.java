@@ -16,7 +16,9 @@
 package org.opengauss.datachecker.check.cache;
 
 import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.check.modules.check.ExportCheckResult;
 import org.opengauss.datachecker.common.constant.Constants.InitialCapacity;
+import org.opengauss.datachecker.common.entry.check.CheckPartition;
 import org.opengauss.datachecker.common.entry.check.CheckProgress;
 import org.opengauss.datachecker.common.entry.check.Pair;
 import org.opengauss.datachecker.common.exception.ExtractException;
@@ -24,17 +26,27 @@ import org.opengauss.datachecker.common.util.ThreadUtil;
 import org.springframework.stereotype.Service;
 
 import javax.validation.constraints.NotEmpty;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.IntStream;
 
 /**
@@ -86,18 +98,145 @@ public class TableStatusRegister implements Cache<String, Integer> {
     private static final Map<String, Integer> TABLE_STATUS_CACHE = new ConcurrentHashMap<>();
     private static final Map<String, Map<Integer, Integer>> TABLE_PARTITIONS_STATUS_CACHE = new ConcurrentHashMap<>();
 
+    /**
+     * <pre>
+     * The table count of each {@link TableState}, it is changed together with the table status
+     * in {@link #changeStatus(String, UnaryOperator)}, so the progress queries do not scan the tables.
+     * The count of the partitions which are not verified of each table,
+     * the table is verified when it is decreased to 0.
+     * </pre>
+     */
+    private static final Map<TableState, LongAdder> TABLE_STATE_COUNTS = new EnumMap<>(TableState.class);
+    private static final Map<String, AtomicInteger> TABLE_UNCHECKED_PARTITIONS = new ConcurrentHashMap<>();
+    private static final List<TableStatusListener> STATUS_LISTENERS = new CopyOnWriteArrayList<>();
+
+    static {
+        for (TableState state : TableState.values()) {
+            TABLE_STATE_COUNTS.put(state, new LongAdder());
+        }
+    }
+
     /**
      * complete
      */
     private static final BlockingDeque<String> COMPLETED_TABLE_QUEUE = new LinkedBlockingDeque<>();
 
     /**
-     * The service starts to recover cached information. Recover historical data based on persistent cached data
-     * Scan the cache file at the specified location, parse the JSON string, and deserialize the current cache data
+     * <pre>
+     * The extraction status of the kafka partitions which are reported by the extract services
+     * before the whole table is extracted, the status is OR'd by the endpoint code like the table status.
+     * The partitions extracted by both endpoints are queued, and the partitions whose verification is started
+     * are recorded, so they are not checked again when the table is extracted.
+     * </pre>
+     */
+    private static final Map<String, Map<Integer, Integer>> TABLE_PARTITIONS_EXTRACT_CACHE = new ConcurrentHashMap<>();
+    private static final BlockingDeque<CheckPartition> COMPLETED_PARTITION_QUEUE = new LinkedBlockingDeque<>();
+    private static final Set<CheckPartition> STARTED_PARTITIONS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * the table status change signal, it wakes up the thread waiting for the completed table
+     */
+    private static final ReentrantLock STATUS_LOCK = new ReentrantLock();
+    private static final Condition STATUS_CHANGED = STATUS_LOCK.newCondition();
+
+    /**
+     * The tables which have completed the verification before the restart of the check service,
+     * and the location of their check results. they are restored from the checkpoint by {@link #recover()}
+     */
+    private static final Map<String, Map<Integer, Integer>> RECOVERED_TABLE_PARTITIONS = new ConcurrentHashMap<>();
+    private static final Map<CheckPartition, String> CHECK_RESULT_PATHS = new ConcurrentHashMap<>();
+    private static final Map<CheckPartition, String> RECOVERED_RESULT_PATHS = new ConcurrentHashMap<>();
+
+    private volatile TableStatusCheckpoint checkpoint;
+
+    /**
+     * <pre>
+     * The service starts to recover cached information. Recover historical data based on persistent cached data.
+     * Replay the checkpoint file under the check result export path,
+     * the tables which have completed the verification are restored,
+     * and they are set to verified when the table status is initialized by {@link #init(Set)}.
+     * the other tables are verified again. Then the checkpoint is compacted to the restored tables.
+     * </pre>
      */
     @Override
     public void recover() {
-        // Scan the cache file at the specified location, parse the JSON string, and deserialize the current cache data
+        if (Objects.nonNull(checkpoint)) {
+            checkpoint.close();
+        }
+        checkpoint = new TableStatusCheckpoint(Path.of(ExportCheckResult.getCheckpointPath()));
+        final TableStatusCheckpoint.Snapshot snapshot = checkpoint.replay();
+        RECOVERED_TABLE_PARTITIONS.clear();
+        RECOVERED_RESULT_PATHS.clear();
+        CHECK_RESULT_PATHS.clear();
+        snapshot.getTableStatus().forEach((tableName, status) -> {
+            if (status == TASK_STATUS_CONSUMER_VALUE) {
+                RECOVERED_TABLE_PARTITIONS.put(tableName,
+                    snapshot.getPartitionStatus().getOrDefault(tableName, Collections.emptyMap()));
+            }
+        });
+        snapshot.getResultPaths().forEach((checkPartition, path) -> {
+            if (RECOVERED_TABLE_PARTITIONS.containsKey(checkPartition.getTableName())) {
+                RECOVERED_RESULT_PATHS.put(checkPartition, path);
+            }
+        });
+        CHECK_RESULT_PATHS.putAll(RECOVERED_RESULT_PATHS);
+        persistent();
+        log.info("recover {} checked tables from checkpoint {}", RECOVERED_TABLE_PARTITIONS.size(),
+            ExportCheckResult.getCheckpointPath());
+    }
+
+    /**
+     * whether some tables have been restored from the checkpoint
+     *
+     * @return has recovered tables
+     */
+    public boolean hasRecovered() {
+        return !RECOVERED_TABLE_PARTITIONS.isEmpty();
+    }
+
+    /**
+     * whether the table has completed the verification before the restart of the check service
+     *
+     * @param tableName table name
+     * @return is recovered checked table
+     */
+    public boolean isRecoveredChecked(String tableName) {
+        return RECOVERED_TABLE_PARTITIONS.containsKey(tableName);
+    }
+
+    /**
+     * the location of the check results of the tables restored from the checkpoint
+     *
+     * @return check result location
+     */
+    public Map<CheckPartition, String> getRecoveredResultPaths() {
+        return Collections.unmodifiableMap(RECOVERED_RESULT_PATHS);
+    }
+
+    /**
+     * Record the location of the written check result of the table partition
+     *
+     * @param checkPartition table partition
+     * @param path           check result file
+     */
+    public void persistentResult(CheckPartition checkPartition, String path) {
+        CHECK_RESULT_PATHS.put(checkPartition, path);
+        if (Objects.nonNull(checkpoint)) {
+            checkpoint.appendResult(checkPartition, path);
+        }
+    }
+
+    /**
+     * The full verification is completed, delete the checkpoint
+     */
+    public void removeCheckpoint() {
+        if (Objects.nonNull(checkpoint)) {
+            checkpoint.delete();
+            checkpoint = null;
+        }
+        RECOVERED_TABLE_PARTITIONS.clear();
+        RECOVERED_RESULT_PATHS.clear();
+        CHECK_RESULT_PATHS.clear();
     }
 
     /**
@@ -118,8 +257,36 @@ public class TableStatusRegister implements Cache<String, Integer> {
      * @return boolean
      */
     public boolean isCheckCompleted() {
-        return TABLE_STATUS_CACHE.values().stream().filter(status -> status >= TASK_STATUS_DEFAULT_VALUE)
-                                 .allMatch(status -> status == TASK_STATUS_CONSUMER_VALUE);
+        return stateCount(TableState.EXTRACTING) + stateCount(TableState.EXTRACTED) + stateCount(TableState.INCOMPLETE)
+            == 0;
+    }
+
+    /**
+     * the count of the tables in the state
+     *
+     * @param state table state
+     * @return table count
+     */
+    public int stateCount(TableState state) {
+        return TABLE_STATE_COUNTS.get(state).intValue();
+    }
+
+    /**
+     * Add the listener of the table state transitions
+     *
+     * @param listener listener
+     */
+    public void addListener(TableStatusListener listener) {
+        STATUS_LISTENERS.add(listener);
+    }
+
+    /**
+     * Remove the listener of the table state transitions
+     *
+     * @param listener listener
+     */
+    public void removeListener(TableStatusListener listener) {
+        STATUS_LISTENERS.remove(listener);
     }
 
     /**
@@ -146,7 +313,9 @@ public class TableStatusRegister implements Cache<String, Integer> {
     public void rest() {
         init(TABLE_STATUS_CACHE.keySet());
         TABLE_PARTITIONS_STATUS_CACHE.clear();
+        TABLE_UNCHECKED_PARTITIONS.clear();
         COMPLETED_TABLE_QUEUE.clear();
+        clearPartitionsExtractStatus();
     }
 
     /**
@@ -173,8 +342,7 @@ public class TableStatusRegister implements Cache<String, Integer> {
      * @return task has extract completed count
      */
     private int extractCompletedCount() {
-        return (int) TABLE_STATUS_CACHE.values().stream().filter(status -> status >= TASK_STATUS_COMPLETED_VALUE)
-                                       .count();
+        return stateCount(TableState.EXTRACTED) + stateCount(TableState.INCOMPLETE) + stateCount(TableState.CHECKED);
     }
 
     /**
@@ -183,8 +351,7 @@ public class TableStatusRegister implements Cache<String, Integer> {
      * @return table has check completed count
      */
     public int checkCompletedCount() {
-        return (int) TABLE_STATUS_CACHE.values().stream().filter(status -> status >= TASK_STATUS_CONSUMER_VALUE)
-                                       .count();
+        return stateCount(TableState.CHECKED);
     }
 
     /**
@@ -213,8 +380,18 @@ public class TableStatusRegister implements Cache<String, Integer> {
     @Override
     public void init(@NotEmpty Set<String> keys) {
         keys.forEach(key -> {
-            TABLE_STATUS_CACHE.put(key, TASK_STATUS_DEFAULT_VALUE);
+            if (RECOVERED_TABLE_PARTITIONS.containsKey(key)) {
+                final Map<Integer, Integer> partitions = RECOVERED_TABLE_PARTITIONS.get(key);
+                TABLE_PARTITIONS_STATUS_CACHE.put(key, new ConcurrentHashMap<>(partitions));
+                TABLE_UNCHECKED_PARTITIONS.put(key, new AtomicInteger(
+                    (int) partitions.values().stream().filter(status -> status != TASK_STATUS_CONSUMER_VALUE)
+                                    .count()));
+                changeStatus(key, oldStatus -> TASK_STATUS_CONSUMER_VALUE);
+            } else {
+                changeStatus(key, oldStatus -> TASK_STATUS_DEFAULT_VALUE);
+            }
         });
+        signalStatusChanged();
     }
 
     /**
@@ -229,11 +406,13 @@ public class TableStatusRegister implements Cache<String, Integer> {
             // The current key already exists and cannot be added repeatedly
             throw new ExtractException("The current key= " + key + " already exists and cannot be added repeatedly");
         }
-        TABLE_STATUS_CACHE.put(key, value);
+        changeStatus(key, oldStatus -> value);
+        signalStatusChanged();
     }
 
     /**
-     * table of partitions status
+     * table of partitions status, the status of the partitions is kept if it has been initialized
+     * when the first partition of the table is checked before the table is extracted
      *
      * @param key        table name
      * @param partitions partitions
@@ -243,11 +422,58 @@ public class TableStatusRegister implements Cache<String, Integer> {
             // The current key already exists and cannot be added repeatedly
             throw new ExtractException("The current key= " + key + " already exists and cannot be added repeatedly");
         }
-        Map<Integer, Integer> partitionMap = new ConcurrentHashMap<>(InitialCapacity.CAPACITY_16);
-        IntStream.range(0, partitions).forEach(partition -> {
-            partitionMap.put(partition, TASK_STATUS_COMPLETED_VALUE);
+        TABLE_PARTITIONS_STATUS_CACHE.computeIfAbsent(key, tableName -> {
+            Map<Integer, Integer> partitionMap = new ConcurrentHashMap<>(InitialCapacity.CAPACITY_16);
+            IntStream.range(0, partitions).forEach(partition -> {
+                partitionMap.put(partition, TASK_STATUS_COMPLETED_VALUE);
+            });
+            TABLE_UNCHECKED_PARTITIONS.put(tableName, new AtomicInteger(partitions));
+            return partitionMap;
         });
-        TABLE_PARTITIONS_STATUS_CACHE.put(key, partitionMap);
+    }
+
+    /**
+     * Update the extraction status of the kafka partition of the table reported by the endpoint,
+     * the partition is queued when both endpoints have extracted it
+     *
+     * @param key       table name
+     * @param partition partition
+     * @param value     endpoint code
+     */
+    public void updatePartitionExtract(String key, int partition, int value) {
+        if (!TABLE_STATUS_CACHE.containsKey(key)) {
+            log.error("current key={} does not exist", key);
+            return;
+        }
+        final int[] oldStatus = new int[1];
+        final int status = TABLE_PARTITIONS_EXTRACT_CACHE.computeIfAbsent(key, tableName -> new ConcurrentHashMap<>())
+                                                         .compute(partition, (idx, current) -> {
+                                                             oldStatus[0] = Objects.isNull(current)
+                                                                 ? TASK_STATUS_DEFAULT_VALUE : current;
+                                                             return oldStatus[0] | value;
+                                                         });
+        log.debug("update table [{}] partition[{}] extract status : {} -> {}", key, partition, oldStatus[0], status);
+        if (status == TASK_STATUS_COMPLETED_VALUE && oldStatus[0] != TASK_STATUS_COMPLETED_VALUE) {
+            COMPLETED_PARTITION_QUEUE.offer(new CheckPartition(key, partition));
+            signalStatusChanged();
+        }
+    }
+
+    /**
+     * Record the partition whose verification is started
+     *
+     * @param key       table name
+     * @param partition partition
+     * @return false if the verification of the partition has been started
+     */
+    public boolean startPartitionCheck(String key, int partition) {
+        return STARTED_PARTITIONS.add(new CheckPartition(key, partition));
+    }
+
+    private void clearPartitionsExtractStatus() {
+        TABLE_PARTITIONS_EXTRACT_CACHE.clear();
+        COMPLETED_PARTITION_QUEUE.clear();
+        STARTED_PARTITIONS.clear();
     }
 
     /**
@@ -263,14 +489,23 @@ public class TableStatusRegister implements Cache<String, Integer> {
             log.error("current key={} does not exist", key);
             return 0;
         }
-        Integer odlValue = TABLE_STATUS_CACHE.get(key);
-        TABLE_STATUS_CACHE.put(key, odlValue | value);
-        final Integer status = TABLE_STATUS_CACHE.get(key);
+        final Pair<Integer, Integer> transition =
+            changeStatus(key, oldStatus -> Objects.isNull(oldStatus) ? null : oldStatus | value);
+        final Integer odlValue = transition.getSource();
+        final Integer status = transition.getSink();
+        if (Objects.isNull(status)) {
+            log.error("current key={} is removed", key);
+            return 0;
+        }
         log.debug("update table[{}] status : {} -> {}", key, odlValue, status);
-        if (status == TASK_STATUS_COMPLETED_VALUE) {
+        if (!Objects.equals(odlValue, status) && Objects.nonNull(checkpoint)) {
+            checkpoint.appendTableStatus(key, status);
+        }
+        if (status == TASK_STATUS_COMPLETED_VALUE && !Objects.equals(odlValue, status)) {
             putLast(key);
             log.debug("add table[{}] queue last", key);
         }
+        signalStatusChanged();
         return status;
     }
 
@@ -282,19 +517,64 @@ public class TableStatusRegister implements Cache<String, Integer> {
      * @param value     status
      */
     public void update(String key, Integer partition, Integer value) {
-        if (!TABLE_PARTITIONS_STATUS_CACHE.containsKey(key)) {
+        final Map<Integer, Integer> partitions = TABLE_PARTITIONS_STATUS_CACHE.get(key);
+        final AtomicInteger uncheckedPartitions = TABLE_UNCHECKED_PARTITIONS.get(key);
+        if (Objects.isNull(partitions) || Objects.isNull(uncheckedPartitions)) {
             log.error("current partition key={}  does not exist", key);
             return;
         }
-        TABLE_PARTITIONS_STATUS_CACHE.get(key).put(partition, TASK_STATUS_COMPLETED_VALUE | value);
-        log.debug("update table [{}] partition[{}] status : {}", key, partition, TASK_STATUS_CONSUMER_VALUE);
-        boolean isAllCompleted = TABLE_PARTITIONS_STATUS_CACHE.get(key).values().stream()
-                                                              .allMatch(status -> status == TASK_STATUS_CONSUMER_VALUE);
-        if (isAllCompleted) {
+        final int status = TASK_STATUS_COMPLETED_VALUE | value;
+        final Integer oldStatus = partitions.put(partition, status);
+        if (Objects.nonNull(checkpoint)) {
+            checkpoint.appendPartitionStatus(key, partition, status);
+        }
+        log.debug("update table [{}] partition[{}] status : {}", key, partition, status);
+        final int wasUnchecked = Objects.nonNull(oldStatus) && oldStatus != TASK_STATUS_CONSUMER_VALUE ? 1 : 0;
+        final int isUnchecked = status != TASK_STATUS_CONSUMER_VALUE ? 1 : 0;
+        if (uncheckedPartitions.addAndGet(isUnchecked - wasUnchecked) == 0) {
             update(key, TASK_STATUS_CHECK_VALUE);
         }
     }
 
+    /**
+     * Change the status of the table and the count of its state atomically, and notify the listeners
+     * if the state of the table is changed
+     *
+     * @param key        table name
+     * @param transition status transition, the old status is null if the table is added,
+     *                   and the table is removed if the new status is null
+     * @return old status and new status
+     */
+    private Pair<Integer, Integer> changeStatus(String key, UnaryOperator<Integer> transition) {
+        final Integer[] oldStatus = new Integer[1];
+        final Integer status = TABLE_STATUS_CACHE.compute(key, (tableName, current) -> {
+            final Integer changed = transition.apply(current);
+            oldStatus[0] = current;
+            if (Objects.nonNull(current)) {
+                TABLE_STATE_COUNTS.get(TableState.of(current)).decrement();
+            }
+            if (Objects.nonNull(changed)) {
+                TABLE_STATE_COUNTS.get(TableState.of(changed)).increment();
+            }
+            return changed;
+        });
+        final TableState oldState = Objects.isNull(oldStatus[0]) ? null : TableState.of(oldStatus[0]);
+        if (Objects.nonNull(status) && oldState != TableState.of(status)) {
+            notifyListeners(key, oldState, TableState.of(status));
+        }
+        return Pair.of(oldStatus[0], status);
+    }
+
+    private void notifyListeners(String key, TableState oldState, TableState state) {
+        for (TableStatusListener listener : STATUS_LISTENERS) {
+            try {
+                listener.onStateChanged(key, oldState, state);
+            } catch (RuntimeException ex) {
+                log.error("notify table[{}] state {} -> {} error", key, oldState, state, ex);
+            }
+        }
+    }
+
     private void putLast(String key) {
         try {
             COMPLETED_TABLE_QUEUE.putLast(key);
@@ -348,7 +628,7 @@ public class TableStatusRegister implements Cache<String, Integer> {
      * @return cache size
      */
     public Integer cacheSize() {
-        return TABLE_STATUS_CACHE.keySet().size();
+        return TABLE_STATUS_CACHE.size();
     }
 
     /**
@@ -358,7 +638,8 @@ public class TableStatusRegister implements Cache<String, Integer> {
      */
     @Override
     public void remove(String key) {
-        TABLE_STATUS_CACHE.remove(key);
+        changeStatus(key, oldStatus -> null);
+        signalStatusChanged();
     }
 
     /**
@@ -366,19 +647,43 @@ public class TableStatusRegister implements Cache<String, Integer> {
      */
     @Override
     public void removeAll() {
-        TABLE_STATUS_CACHE.clear();
+        TABLE_STATUS_CACHE.keySet().forEach(key -> changeStatus(key, oldStatus -> null));
         COMPLETED_TABLE_QUEUE.clear();
         TABLE_PARTITIONS_STATUS_CACHE.clear();
+        TABLE_UNCHECKED_PARTITIONS.clear();
+        clearPartitionsExtractStatus();
+        signalStatusChanged();
         log.info("table status register cache information clearing");
     }
 
     /**
      * The cache persistence interface will persist the cache information locally
-     * Persist the cache information to the local cache file, serialize it into JSON string,
-     * and save it to the local specified file
+     * The checkpoint file is rewritten by the verified tables, their partition status and check result location.
+     * the status changes after that are appended to the checkpoint when they happen.
      */
     @Override
     public void persistent() {
+        if (Objects.isNull(checkpoint)) {
+            return;
+        }
+        TableStatusCheckpoint.Snapshot snapshot = new TableStatusCheckpoint.Snapshot();
+        RECOVERED_TABLE_PARTITIONS.forEach((tableName, partitions) -> {
+            snapshot.getTableStatus().put(tableName, TASK_STATUS_CONSUMER_VALUE);
+            snapshot.getPartitionStatus().put(tableName, new HashMap<>(partitions));
+        });
+        TABLE_STATUS_CACHE.forEach((tableName, status) -> {
+            if (status == TASK_STATUS_CONSUMER_VALUE) {
+                snapshot.getTableStatus().put(tableName, status);
+                snapshot.getPartitionStatus().put(tableName,
+                    new HashMap<>(TABLE_PARTITIONS_STATUS_CACHE.getOrDefault(tableName, Collections.emptyMap())));
+            }
+        });
+        CHECK_RESULT_PATHS.forEach((checkPartition, path) -> {
+            if (snapshot.getTableStatus().containsKey(checkPartition.getTableName())) {
+                snapshot.getResultPaths().put(checkPartition, path);
+            }
+        });
+        checkpoint.rewrite(snapshot);
     }
 
     /**
@@ -392,6 +697,76 @@ public class TableStatusRegister implements Cache<String, Integer> {
         return COMPLETED_TABLE_QUEUE.poll();
     }
 
+    /**
+     * <pre>
+     * Return and delete the statistical queue {@code completed_table_queue} header node
+     * that has completed the data extraction task.
+     * If the queue is empty, the current thread is blocked until a table completes the data extraction task,
+     * or all the tables have completed the verification.
+     * </pre>
+     *
+     * @return Return the queue header node. If all the tables have completed the verification, return null
+     */
+    public String completedTableTake() {
+        STATUS_LOCK.lock();
+        try {
+            String tableName;
+            while ((tableName = COMPLETED_TABLE_QUEUE.poll()) == null && !isCheckCompleted()) {
+                STATUS_CHANGED.await();
+            }
+            return tableName;
+        } catch (InterruptedException ex) {
+            log.error("take completed table is interrupted");
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            STATUS_LOCK.unlock();
+        }
+    }
+
+    /**
+     * <pre>
+     * Like {@link #completedTableTake()}, and the partitions extracted by both endpoints before their table
+     * are passed to the partition consumer ahead of the completed tables.
+     * The consumer is called without holding the status lock, so it may update the status.
+     * </pre>
+     *
+     * @param partitionConsumer consumer of the extracted partitions
+     * @return Return the queue header node. If all the tables have completed the verification, return null
+     */
+    public String completedTableTake(Consumer<CheckPartition> partitionConsumer) {
+        while (true) {
+            List<CheckPartition> partitions = new ArrayList<>();
+            String tableName = null;
+            STATUS_LOCK.lock();
+            try {
+                while (COMPLETED_PARTITION_QUEUE.drainTo(partitions) == 0
+                    && (tableName = COMPLETED_TABLE_QUEUE.poll()) == null && !isCheckCompleted()) {
+                    STATUS_CHANGED.await();
+                }
+            } catch (InterruptedException ex) {
+                log.error("take completed table is interrupted");
+                Thread.currentThread().interrupt();
+                return null;
+            } finally {
+                STATUS_LOCK.unlock();
+            }
+            partitions.forEach(partitionConsumer);
+            if (Objects.nonNull(tableName) || partitions.isEmpty()) {
+                return tableName;
+            }
+        }
+    }
+
+    private void signalStatusChanged() {
+        STATUS_LOCK.lock();
+        try {
+            STATUS_CHANGED.signalAll();
+        } finally {
+            STATUS_LOCK.unlock();
+        }
+    }
+
     /**
      * Check whether there is a completed data extraction task. If yes, update completed_ Table table
      * Check whether there is a completed data verification task. If yes, update consumer_ COMPLETED_ Table table
@@ -399,53 +774,30 @@ public class TableStatusRegister implements Cache<String, Integer> {
      * @return check table count
      */
     private int doCheckingStatus() {
-        Set<String> keys = TABLE_STATUS_CACHE.keySet();
-        if (keys.size() <= 0) {
+        if (TABLE_STATUS_CACHE.isEmpty()) {
             return 0;
         }
-        List<String> extractErrorList = new ArrayList<>();
-        List<String> notExtractCompleteList = new ArrayList<>();
-        List<String> notCheckCompleteList = new ArrayList<>();
-        List<String> checkCompleteList = new ArrayList<>();
-        keys.forEach(tableName -> {
-            Integer status = get(tableName);
-            if (status <= TASK_STATUS_ERROR) {
-                extractErrorList.add(tableName);
-            } else if (status < TASK_STATUS_COMPLETED_VALUE) {
-                notExtractCompleteList.add(tableName);
-            } else if (status == TASK_STATUS_COMPLETED_VALUE) {
-                notCheckCompleteList.add(tableName);
-            } else if (status == TASK_STATUS_CONSUMER_VALUE) {
-                checkCompleteList.add(tableName);
-            } else {
-                log.debug("process check status running");
-            }
-        });
-        final int lastCheckCount = CHECK_COUNT.getAndSet(extractErrorList.size() + checkCompleteList.size());
+        final int lastCheckCount = CHECK_COUNT.getAndSet(getCheckedCount());
         if (CHECK_COUNT.get() > lastCheckCount) {
             log.debug("progress info: {} is being extracted, {} is being verified, {} is completed,and {} is error",
-                notExtractCompleteList.size(), notCheckCompleteList.size(), checkCompleteList.size(),
-                extractErrorList.size());
+                extractingCount(), extractCount(), checkCount(), errorCount());
         }
         return CHECK_COUNT.get();
     }
 
     private int errorCount() {
-        return (int) TABLE_STATUS_CACHE.values().stream().filter(status -> status < TASK_STATUS_DEFAULT_VALUE).count();
+        return stateCount(TableState.ERROR);
     }
 
     private int extractingCount() {
-        return (int) TABLE_STATUS_CACHE.values().stream().filter(
-            status -> status >= TASK_STATUS_DEFAULT_VALUE && status < TASK_STATUS_COMPLETED_VALUE).count();
+        return stateCount(TableState.EXTRACTING);
     }
 
     private int extractCount() {
-        return (int) TABLE_STATUS_CACHE.values().stream().filter(status -> status == TASK_STATUS_COMPLETED_VALUE)
-                                       .count();
+        return stateCount(TableState.EXTRACTED);
     }
 
     private int checkCount() {
-        return (int) TABLE_STATUS_CACHE.values().stream().filter(status -> status == TASK_STATUS_CONSUMER_VALUE)
-                                       .count();
+        return stateCount(TableState.CHECKED);
     }
 }
@@ -15,6 +15,8 @@
 
 package org.opengauss.datachecker.check.client;
 
+import org.opengauss.datachecker.common.entry.check.ChunkChecksum;
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
 import org.opengauss.datachecker.common.entry.common.DistributeRuleEntry;
 import org.opengauss.datachecker.common.entry.common.Rule;
 import org.opengauss.datachecker.common.entry.enums.CheckMode;
@@ -151,6 +153,26 @@ public class ExtractFallbackFactory implements FallbackFactory<ExtractFeignClien
             return Result.error("Remote call, query secondary verification increment log data exception");
         }
 
+        @Override
+        public Result<List<ChunkChecksum>> queryChunkChecksum(String tableName, List<ChunkChecksum> ranges) {
+            return Result.error("Remote call, query the chunk checksum exception");
+        }
+
+        @Override
+        public Result<List<ChunkChecksum>> splitChunkChecksum(String tableName, int chunkCount, ChunkChecksum range) {
+            return Result.error("Remote call, split the chunk checksum exception");
+        }
+
+        @Override
+        public Result<List<RowDataHash>> queryChunkRowData(String tableName, ChunkChecksum range) {
+            return Result.error("Remote call, query the chunk row data exception");
+        }
+
+        @Override
+        public Result<Void> pullTableRows(RowPullRequest request) {
+            return Result.error("Remote call, pull the table rows exception");
+        }
+
         @Override
         public Result<ExtractConfig> getEndpointConfig() {
             return Result.error("Remote call,  Get the current endpoint configuration information, abnormal“");
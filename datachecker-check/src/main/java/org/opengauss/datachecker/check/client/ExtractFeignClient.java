@@ -15,6 +15,8 @@
 
 package org.opengauss.datachecker.check.client;
 
+import org.opengauss.datachecker.common.entry.check.ChunkChecksum;
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
 import org.opengauss.datachecker.common.entry.common.DistributeRuleEntry;
 import org.opengauss.datachecker.common.entry.common.Rule;
 import org.opengauss.datachecker.common.entry.enums.CheckMode;
@@ -177,6 +179,50 @@ public interface ExtractFeignClient {
     @PostMapping("/extract/query/secondary/data/row/hash")
     Result<List<RowDataHash>> querySecondaryCheckRowData(@RequestBody SourceDataLog dataLog);
 
+    /**
+     * Query the checksums of the chunks of the table, aggregated in database
+     *
+     * @param tableName tableName
+     * @param ranges    primary key ranges of the chunks
+     * @return chunk checksums
+     */
+    @PostMapping("/extract/query/chunk/checksum")
+    Result<List<ChunkChecksum>> queryChunkChecksum(@RequestParam(name = "tableName") String tableName,
+        @RequestBody List<ChunkChecksum> ranges);
+
+    /**
+     * Split the range of the table to chunks and query the checksums of them
+     *
+     * @param tableName  tableName
+     * @param chunkCount chunk count
+     * @param range      the range to split
+     * @return chunk checksums
+     */
+    @PostMapping("/extract/split/chunk/checksum")
+    Result<List<ChunkChecksum>> splitChunkChecksum(@RequestParam(name = "tableName") String tableName,
+        @RequestParam(name = "chunkCount") int chunkCount, @RequestBody ChunkChecksum range);
+
+    /**
+     * Query the row hash of all the rows of the chunk
+     *
+     * @param tableName tableName
+     * @param range     primary key range of the chunk
+     * @return row data hash
+     */
+    @PostMapping("/extract/query/chunk/data/row/hash")
+    Result<List<RowDataHash>> queryChunkRowData(@RequestParam(name = "tableName") String tableName,
+        @RequestBody ChunkChecksum range);
+
+    /**
+     * Pull the rows of the different digest leaves of the table extracted digest first,
+     * the pulled rows are sent to the topic of the table
+     *
+     * @param request the pulled rows
+     * @return interface invoking result
+     */
+    @PostMapping("/extract/pull/table/rows")
+    Result<Void> pullTableRows(@RequestBody RowPullRequest request);
+
     /**
      * Get the current endpoint configuration information
      *
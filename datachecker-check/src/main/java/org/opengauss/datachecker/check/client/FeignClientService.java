@@ -16,6 +16,8 @@
 package org.opengauss.datachecker.check.client;
 
 import org.opengauss.datachecker.common.constant.WorkerSwitch;
+import org.opengauss.datachecker.common.entry.check.ChunkChecksum;
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
 import org.opengauss.datachecker.common.entry.common.DistributeRuleEntry;
 import org.opengauss.datachecker.common.entry.common.Rule;
 import org.opengauss.datachecker.common.entry.enums.CheckMode;
@@ -23,6 +25,7 @@ import org.opengauss.datachecker.common.entry.enums.Endpoint;
 import org.opengauss.datachecker.common.entry.enums.RuleType;
 import org.opengauss.datachecker.common.entry.extract.ExtractConfig;
 import org.opengauss.datachecker.common.entry.extract.ExtractTask;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.opengauss.datachecker.common.entry.extract.TableMetadata;
 import org.opengauss.datachecker.common.exception.DispatchClientException;
 import org.opengauss.datachecker.common.web.Result;
@@ -247,6 +250,73 @@ public class FeignClientService {
         }
     }
 
+    /**
+     * Query the checksums of the chunks of the table
+     *
+     * @param endpoint  endpoint type
+     * @param tableName table Name
+     * @param ranges    primary key ranges of the chunks
+     * @return chunk checksums
+     */
+    public List<ChunkChecksum> queryChunkChecksum(@NonNull Endpoint endpoint, String tableName,
+        List<ChunkChecksum> ranges) {
+        Result<List<ChunkChecksum>> result = getClient(endpoint).queryChunkChecksum(tableName, ranges);
+        if (result.isSuccess()) {
+            return result.getData();
+        } else {
+            throw new DispatchClientException(endpoint, "query the chunk checksum failed," + result.getMessage());
+        }
+    }
+
+    /**
+     * Split the range of the table to chunks on the endpoint and query the checksums of them
+     *
+     * @param endpoint   endpoint type
+     * @param tableName  table Name
+     * @param range      the range to split
+     * @param chunkCount chunk count
+     * @return chunk checksums
+     */
+    public List<ChunkChecksum> splitChunkChecksum(@NonNull Endpoint endpoint, String tableName, ChunkChecksum range,
+        int chunkCount) {
+        Result<List<ChunkChecksum>> result = getClient(endpoint).splitChunkChecksum(tableName, chunkCount, range);
+        if (result.isSuccess()) {
+            return result.getData();
+        } else {
+            throw new DispatchClientException(endpoint, "split the chunk checksum failed," + result.getMessage());
+        }
+    }
+
+    /**
+     * Query the row hash of all the rows of the chunk
+     *
+     * @param endpoint  endpoint type
+     * @param tableName table Name
+     * @param range     primary key range of the chunk
+     * @return row data hash
+     */
+    public List<RowDataHash> queryChunkRowData(@NonNull Endpoint endpoint, String tableName, ChunkChecksum range) {
+        Result<List<RowDataHash>> result = getClient(endpoint).queryChunkRowData(tableName, range);
+        if (result.isSuccess()) {
+            return result.getData();
+        } else {
+            throw new DispatchClientException(endpoint, "query the chunk row data failed," + result.getMessage());
+        }
+    }
+
+    /**
+     * Pull the rows of the different digest leaves of the table extracted digest first
+     *
+     * @param endpoint endpoint type
+     * @param request  the pulled rows
+     */
+    public void pullTableRows(@NonNull Endpoint endpoint, RowPullRequest request) {
+        Result<Void> result = getClient(endpoint).pullTableRows(request);
+        if (!result.isSuccess()) {
+            throw new DispatchClientException(endpoint, "pull the table rows failed," + result.getMessage());
+        }
+    }
+
     /**
      * Query the schema information of the extraction end database
      *
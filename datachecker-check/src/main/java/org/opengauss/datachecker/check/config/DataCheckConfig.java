@@ -17,6 +17,7 @@ package org.opengauss.datachecker.check.config;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.check.modules.merkle.MerkleTree.SignatureCombiner;
 import org.opengauss.datachecker.common.util.JsonObjectUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -52,6 +53,10 @@ public class DataCheckConfig {
         return properties.getBucketExpectCapacity();
     }
 
+    public SignatureCombiner getMerkleSignatureCombiner() {
+        return properties.isMerkleLongSignature() ? SignatureCombiner.XX_HASH64 : SignatureCombiner.ADLER32;
+    }
+
     public String getCheckResultPath() {
         return properties.getDataPath();
     }
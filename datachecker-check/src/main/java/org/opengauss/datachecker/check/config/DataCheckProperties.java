@@ -97,4 +97,45 @@ public class DataCheckProperties {
     private int autoDeleteTopic;
 
     private int errorRate;
+
+    /**
+     * merkle-long-signature : Configure whether the internal node signatures of the merkle tree are 64-bit hashes.
+     * If false, the Adler32 checksum is used.
+     */
+    private boolean merkleLongSignature;
+
+    /**
+     * check-memory-budget : The heap in MB which can be used by the running check tasks at the same time.
+     * The check tasks which do not fit are queued. 0 means 60% of the max heap.
+     */
+    @Range(min = 0, message = "The check memory budget can not be negative")
+    private int checkMemoryBudget;
+
+    /**
+     * spill-row-threshold : The partition row count above which the rows of the partition are sorted into run files
+     * on local disk and compared by an external merge, instead of the in-memory buckets. 0 means never spill.
+     */
+    @Range(min = 0, message = "The spill row threshold can not be negative")
+    private int spillRowThreshold;
+
+    /**
+     * chunk-fan-out : The count of the sub chunks which a different chunk is split to,
+     * when the table is checked by the chunk checksums.
+     */
+    @Range(min = 2, max = 1024, message = "The chunk fan out scop is [2,1024]")
+    private int chunkFanOut = 16;
+
+    /**
+     * chunk-row-threshold : The different chunk of no more rows is not split any more,
+     * the rows of it are queried from both endpoints and compared row by row.
+     */
+    @Range(min = 1, max = 100000, message = "The chunk row threshold scop is [1,100000]")
+    private int chunkRowThreshold = 5000;
+
+    /**
+     * row-pull-timeout : The seconds the check of a partition waits for the rows pulled from both endpoints,
+     * the partition fails when the rows are not pulled in time.
+     */
+    @Range(min = 1, message = "The row pull timeout must be positive")
+    private int rowPullTimeout = 1800;
 }
@@ -18,7 +18,9 @@ package org.opengauss.datachecker.check.config;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.opengauss.datachecker.common.codec.RowDataHashDeserializer;
 import org.opengauss.datachecker.common.constant.Constants.InitialCapacity;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -41,6 +43,8 @@ import java.util.Map;
 @Component
 @EnableConfigurationProperties(KafkaProperties.class)
 public class KafkaConsumerConfig {
+    private static final String READ_COMMITTED = "read_committed";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String servers;
     @Value("${spring.kafka.consumer.enable-auto-commit}")
@@ -66,12 +70,14 @@ public class KafkaConsumerConfig {
         propsMap.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, servers);
         propsMap.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, isEnableAutoCommit);
         propsMap.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
-        propsMap.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        propsMap.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, RowDataHashDeserializer.class.getName());
         propsMap.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         propsMap.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
         propsMap.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecordsConfig);
         propsMap.put(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, fetchMaxBytes);
         propsMap.put(ConsumerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
+        // the rows of the aborted extraction shards are skipped, only the committed shards are checked
+        propsMap.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, READ_COMMITTED);
         return propsMap;
     }
 
@@ -81,7 +87,7 @@ public class KafkaConsumerConfig {
      * @return ConsumerFactory
      */
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, RowDataHash> consumerFactory() {
         return new DefaultKafkaConsumerFactory<>(consumerConfigs());
     }
 }
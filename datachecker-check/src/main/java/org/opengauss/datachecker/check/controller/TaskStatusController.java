@@ -18,15 +18,18 @@ package org.opengauss.datachecker.check.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.opengauss.datachecker.check.modules.task.TaskManagerService;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.constraints.NotEmpty;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -55,6 +58,45 @@ public class TaskStatusController {
         taskManagerService.refreshTableExtractStatus(tableName, endpoint, status);
     }
 
+    /**
+     * Refresh the extraction status of the kafka partition of the table, the partition is checked
+     * when both endpoints have extracted it, even if the table is still being extracted
+     *
+     * @param tableName tableName
+     * @param partition kafka partition
+     * @param endpoint  endpoint {@link org.opengauss.datachecker.common.entry.enums.Endpoint}
+     */
+    @Operation(summary = "Refresh the extraction status of the kafka partition of the data extraction table")
+    @PostMapping("/table/extract/partition/status")
+    public void refreshPartitionExtractStatus(@NotEmpty String tableName, int partition,
+        @NonNull Endpoint endpoint) {
+        taskManagerService.refreshPartitionExtractStatus(tableName, partition, endpoint);
+    }
+
+    /**
+     * Refresh the status of the rows of the table extracted digest first pulled from the endpoint
+     *
+     * @param tableName tableName
+     * @param endpoint  endpoint {@link org.opengauss.datachecker.common.entry.enums.Endpoint}
+     * @param status    status, -1 if the rows can not be pulled
+     */
+    @Operation(summary = "Refresh the status of the pulled rows of the table extracted digest first")
+    @PostMapping("/table/rows/pull/status")
+    public void refreshTableRowPullStatus(@NotEmpty String tableName, @NonNull Endpoint endpoint, int status) {
+        taskManagerService.refreshTableRowPullStatus(tableName, endpoint, status);
+    }
+
+    /**
+     * Refresh the partition digests of the table, they are shipped before the extract status of the table
+     *
+     * @param digests partition digests
+     */
+    @Operation(summary = "Refresh the partition digests of the data extraction table")
+    @PostMapping("/table/extract/digest")
+    public void refreshTableDigest(@RequestBody @NotEmpty List<PartitionDigest> digests) {
+        taskManagerService.refreshTableDigest(digests);
+    }
+
     /**
      * query check status of all table
      *
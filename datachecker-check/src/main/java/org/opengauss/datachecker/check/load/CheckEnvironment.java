@@ -22,6 +22,7 @@ import org.opengauss.datachecker.common.entry.enums.RuleType;
 import org.opengauss.datachecker.common.entry.extract.Database;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +46,7 @@ public class CheckEnvironment {
     private static boolean metaLoading = false;
 
     private ExecutorService threadPoolExecutor = null;
+    private ExecutorService sinkConsumerExecutor = null;
 
     /**
      * Set the configuration information related to the endpoint database
@@ -100,6 +102,15 @@ public class CheckEnvironment {
         this.threadPoolExecutor = executorService;
     }
 
+    /**
+     * Set the thread pool consuming the sink data of the running check tasks
+     *
+     * @param executorService thread pool
+     */
+    protected void setSinkConsumerExecutorService(ExecutorService executorService) {
+        this.sinkConsumerExecutor = executorService;
+    }
+
     /**
      * Set the export path of verification results
      *
@@ -136,6 +147,25 @@ public class CheckEnvironment {
         return threadPoolExecutor;
     }
 
+    /**
+     * get the thread pool consuming the sink data of the running check tasks
+     *
+     * @return thread pool
+     */
+    public ExecutorService getSinkConsumerExecutorService() {
+        return sinkConsumerExecutor;
+    }
+
+    /**
+     * shutdown the thread pool consuming the sink data
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (sinkConsumerExecutor != null) {
+            sinkConsumerExecutor.shutdownNow();
+        }
+    }
+
     public void addRules(Map<RuleType, List<Rule>> rules) {
         RULES.putAll(rules);
     }
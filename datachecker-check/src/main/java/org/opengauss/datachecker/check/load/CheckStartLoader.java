@@ -16,6 +16,7 @@
 package org.opengauss.datachecker.check.load;
 
 import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.check.cache.TableStatusRegister;
 import org.opengauss.datachecker.check.client.FeignClientService;
 import org.opengauss.datachecker.check.modules.report.CheckResultManagerService;
 import org.opengauss.datachecker.check.modules.report.ProgressService;
@@ -52,6 +53,8 @@ public class CheckStartLoader extends AbstractCheckLoader {
     private KafkaTopicDeleteProvider kafkaTopicDeleteProvider;
     @Resource
     private ProgressService progressService;
+    @Resource
+    private TableStatusRegister tableStatusRegister;
     @Override
     public void load(CheckEnvironment checkEnvironment) {
         if (Objects.equals(CheckMode.FULL, checkEnvironment.getCheckMode())) {
@@ -61,6 +64,8 @@ public class CheckStartLoader extends AbstractCheckLoader {
             final LocalDateTime endTime = LocalDateTime.now();
             log.info("check task execute success ,cost time ={}", Duration.between(startTime, endTime).toSeconds());
             checkResultManagerService.summaryCheckResult();
+            // the full check is completed, the next check starts from scratch
+            tableStatusRegister.removeCheckpoint();
             kafkaTopicDeleteProvider.deleteTopicIfAllCheckedCompleted();
             feignClient.shutdown(FULL_CHECK_COMPLETED);
             shutdown(FULL_CHECK_COMPLETED);
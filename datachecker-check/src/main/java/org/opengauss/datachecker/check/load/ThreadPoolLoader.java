@@ -38,6 +38,10 @@ public class ThreadPoolLoader extends AbstractCheckLoader {
     @Override
     public void load(CheckEnvironment checkEnvironment) {
         checkEnvironment.setCheckExecutorService(ThreadPoolFactory.newThreadPool("check", coreSize, Integer.MAX_VALUE));
+        // every running check task consumes its sink data on one thread, so the pool has as many core threads
+        // as the check pool and a sink consumer is never queued behind the running checks
+        checkEnvironment.setSinkConsumerExecutorService(
+            ThreadPoolFactory.newThreadPool("check-sink-consumer", coreSize, Integer.MAX_VALUE));
         log.info("check service load thread pool success");
     }
 }
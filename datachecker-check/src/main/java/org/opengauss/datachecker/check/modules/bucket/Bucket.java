@@ -17,13 +17,13 @@ package org.opengauss.datachecker.check.modules.bucket;
 
 import lombok.Data;
 import lombok.experimental.Accessors;
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
 import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.opengauss.datachecker.common.util.ByteUtil;
 
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 /**
  * @author ：wangchao
@@ -46,12 +46,12 @@ public class Bucket implements Serializable {
 
     /**
      * <pre>
-     * The initialization capacity of the bucket container is set to the average capacity.
+     * The row record storage of the bucket, the initialization capacity is set to the average capacity.
      * <p>
      * If the average capacity is exceeded, the capacity will be expanded
      * </pre>
      */
-    private Map<String, RowDataHash> bucket = new ConcurrentHashMap<>(initialCapacity);
+    private BucketRowStore bucket;
     /**
      * bucket number
      */
@@ -70,6 +70,7 @@ public class Bucket implements Serializable {
      */
     public Bucket(int initialCapacity) {
         this.initialCapacity = initialCapacity;
+        this.bucket = new BucketRowStore(initialCapacity);
     }
 
     /**
@@ -79,11 +80,33 @@ public class Bucket implements Serializable {
      * of the current bucket or the row hash value of the currently inserted record.
      *
      * @param rowDataHash Row record hash object
-     * @return Return Insert Collection Results
      */
-    public RowDataHash put(@NotNull RowDataHash rowDataHash) {
+    public void put(@NotNull RowDataHash rowDataHash) {
         signature = signature ^ rowDataHash.getRowHash();
-        return bucket.put(rowDataHash.getPrimaryKey(), rowDataHash);
+        bucket.put(rowDataHash);
+    }
+
+    /**
+     * Compare the row records of the two buckets by sort merge, only the primary keys of the different rows
+     * are materialized. the rows with the same primary key are different if the row hash is different.
+     *
+     * @param other the other bucket
+     * @return Difference primary keys, onlyOnLeft is insert keys, onlyOnRight is delete keys, differing is update keys
+     */
+    public DifferencePair<Set<String>, Set<String>, Set<String>> difference(@NotNull Bucket other) {
+        return bucket.difference(other.bucket);
+    }
+
+    /**
+     * Compare the row records of the two buckets, the compare stops when {@code limit} different primary keys
+     * are collected.
+     *
+     * @param other the other bucket
+     * @param limit the max count of the collected different primary keys
+     * @return Difference primary keys
+     */
+    public DifferencePair<Set<String>, Set<String>, Set<String>> difference(@NotNull Bucket other, int limit) {
+        return bucket.difference(other.bucket, limit);
     }
 
     /**
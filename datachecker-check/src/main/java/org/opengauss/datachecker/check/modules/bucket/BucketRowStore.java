@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.bucket;
+
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * <pre>
+ * Row record storage of the bucket.
+ * The rows are stored in an open addressing hash table keyed by the primary key hash,
+ * the primary key hash, row hash and partition of the rows are kept in parallel primitive arrays,
+ * and the primary key strings are kept as UTF-8 bytes in a compact side arena.
+ * Two rows are the same row if both the primary key hash and the primary key are equal,
+ * so the primary key hash collision of different primary keys is still handled correctly.
+ * {@link RowDataHash} objects and primary key strings are only materialized for the rows returned to the caller,
+ * e.g. the primary keys of the different rows.
+ * The storage is not thread safe.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/25
+ * @since ：11
+ */
+public class BucketRowStore implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int MIN_ARENA_CAPACITY = 64;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int AVERAGE_KEY_BYTES = 8;
+    private static final long MIX_MULTIPLIER = 0xff51afd7ed558ccdL;
+
+    /**
+     * the key length of the slot is stored as {@code byteLength + 1}, 0 means the slot is empty
+     */
+    private static final int EMPTY_SLOT = 0;
+
+    private long[] keyHashes;
+    private long[] rowHashes;
+    private int[] partitions;
+    private int[] keyOffsets;
+    private int[] keyLengths;
+    private byte[] keyArena;
+    private int arenaSize;
+    private int size;
+    private int threshold;
+
+    /**
+     * Build the storage with expected row count
+     *
+     * @param expectedSize expected row count
+     */
+    public BucketRowStore(int expectedSize) {
+        final int capacity = tableSizeFor(Math.max(MIN_CAPACITY, (int) Math.min(MAX_CAPACITY, expectedSize * 4L / 3)));
+        allocate(capacity);
+        keyArena = new byte[Math.max(MIN_ARENA_CAPACITY, Math.min(expectedSize, MAX_CAPACITY / AVERAGE_KEY_BYTES)
+            * AVERAGE_KEY_BYTES)];
+    }
+
+    /**
+     * Add the row record into the storage, the row with the same primary key is replaced
+     *
+     * @param rowDataHash row record
+     */
+    public void put(RowDataHash rowDataHash) {
+        final byte[] key = rowDataHash.getPrimaryKey().getBytes(StandardCharsets.UTF_8);
+        final long keyHash = rowDataHash.getPrimaryKeyHash();
+        final int slot = findSlot(keyHash, key, 0, key.length);
+        if (keyLengths[slot] != EMPTY_SLOT) {
+            rowHashes[slot] = rowDataHash.getRowHash();
+            partitions[slot] = rowDataHash.getPartition();
+            return;
+        }
+        keyHashes[slot] = keyHash;
+        rowHashes[slot] = rowDataHash.getRowHash();
+        partitions[slot] = rowDataHash.getPartition();
+        keyOffsets[slot] = appendKey(key);
+        keyLengths[slot] = key.length + 1;
+        if (++size > threshold) {
+            resize(keyHashes.length << 1);
+        }
+    }
+
+    /**
+     * row count of the storage
+     *
+     * @return row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Materialize all the rows of the storage
+     *
+     * @param consumer row consumer
+     */
+    public void forEach(Consumer<RowDataHash> consumer) {
+        for (int slot = 0; slot < keyLengths.length; slot++) {
+            if (keyLengths[slot] != EMPTY_SLOT) {
+                consumer.accept(materialize(slot));
+            }
+        }
+    }
+
+    /**
+     * Materialize all the rows of the storage into map, the key of the map is the primary key
+     *
+     * @return row map
+     */
+    public Map<String, RowDataHash> toRowMap() {
+        Map<String, RowDataHash> rowMap = new HashMap<>(Math.max(MIN_CAPACITY, (int) (size / 0.75f) + 1));
+        forEach(row -> rowMap.put(row.getPrimaryKey(), row));
+        return rowMap;
+    }
+
+    /**
+     * The primary keys of all the rows of the storage
+     *
+     * @return primary key set
+     */
+    public Set<String> keySet() {
+        Set<String> keys = new HashSet<>(Math.max(MIN_CAPACITY, (int) (size / 0.75f) + 1));
+        for (int slot = 0; slot < keyLengths.length; slot++) {
+            if (keyLengths[slot] != EMPTY_SLOT) {
+                keys.add(primaryKey(slot));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * <pre>
+     * Compare the rows of the two storage by sort merge.
+     * The (primary key hash, primary key) of the rows of both storage are sorted,
+     * and the two sorted lists are walked in a single merge pass,
+     * only the primary keys of the different rows are materialized.
+     * onlyOnLeft  : the primary keys only in the current storage
+     * onlyOnRight : the primary keys only in the {@code other} storage
+     * differing   : the primary keys in both storage, but the row hash is different
+     * </pre>
+     *
+     * @param other the other storage
+     * @return Difference primary keys
+     */
+    public DifferencePair<Set<String>, Set<String>, Set<String>> difference(BucketRowStore other) {
+        return difference(other, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compare the rows of the two storage by sort merge, the merge stops when {@code limit} different primary keys
+     * are collected.
+     *
+     * @param other the other storage
+     * @param limit the max count of the collected different primary keys
+     * @return Difference primary keys
+     */
+    public DifferencePair<Set<String>, Set<String>, Set<String>> difference(BucketRowStore other, int limit) {
+        Set<String> onlyOnLeft = new HashSet<>();
+        Set<String> onlyOnRight = new HashSet<>();
+        Set<String> differing = new HashSet<>();
+        final int[] leftSlots = sortedSlots();
+        final int[] rightSlots = other.sortedSlots();
+        int left = 0;
+        int right = 0;
+        int remaining = limit;
+        while (left < leftSlots.length && right < rightSlots.length && remaining > 0) {
+            final int leftSlot = leftSlots[left];
+            final int rightSlot = rightSlots[right];
+            final int compare = compareKey(this, leftSlot, other, rightSlot);
+            if (compare < 0) {
+                onlyOnLeft.add(primaryKey(leftSlot));
+                remaining--;
+                left++;
+            } else if (compare > 0) {
+                onlyOnRight.add(other.primaryKey(rightSlot));
+                remaining--;
+                right++;
+            } else {
+                if (rowHashes[leftSlot] != other.rowHashes[rightSlot]) {
+                    differing.add(primaryKey(leftSlot));
+                    remaining--;
+                }
+                left++;
+                right++;
+            }
+        }
+        for (; left < leftSlots.length && remaining > 0; left++, remaining--) {
+            onlyOnLeft.add(primaryKey(leftSlots[left]));
+        }
+        for (; right < rightSlots.length && remaining > 0; right++, remaining--) {
+            onlyOnRight.add(other.primaryKey(rightSlots[right]));
+        }
+        return DifferencePair.of(onlyOnLeft, onlyOnRight, differing);
+    }
+
+    /**
+     * <pre>
+     * Write the rows sorted by (primary key hash, primary key bytes), it is the sorted run of {@link SpillRowStore}.
+     * The record format is (primary key hash:long)(row hash:long)(primary key length:int)(primary key:byte)
+     * </pre>
+     *
+     * @param output run output
+     * @throws IOException write run error
+     */
+    void writeSorted(DataOutput output) throws IOException {
+        for (int slot : sortedSlots()) {
+            final int keyLength = keyLengths[slot] - 1;
+            output.writeLong(keyHashes[slot]);
+            output.writeLong(rowHashes[slot]);
+            output.writeInt(keyLength);
+            output.write(keyArena, keyOffsets[slot], keyLength);
+        }
+    }
+
+    /**
+     * the occupied slots sorted by (primary key hash, primary key bytes)
+     */
+    private int[] sortedSlots() {
+        int[] slots = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < keyLengths.length; slot++) {
+            if (keyLengths[slot] != EMPTY_SLOT) {
+                slots[count++] = slot;
+            }
+        }
+        sort(slots, 0, count - 1);
+        return slots;
+    }
+
+    private void sort(int[] slots, int low, int high) {
+        int from = low;
+        int to = high;
+        while (to - from >= INSERTION_SORT_THRESHOLD) {
+            final int pivot = slots[medianOfThree(slots, from, from + ((to - from) >>> 1), to)];
+            int lower = from;
+            int upper = to;
+            while (lower <= upper) {
+                while (compareKey(this, slots[lower], this, pivot) < 0) {
+                    lower++;
+                }
+                while (compareKey(this, slots[upper], this, pivot) > 0) {
+                    upper--;
+                }
+                if (lower <= upper) {
+                    swap(slots, lower++, upper--);
+                }
+            }
+            // recurse into the smaller part, and loop on the larger part
+            if (upper - from < to - lower) {
+                sort(slots, from, upper);
+                from = lower;
+            } else {
+                sort(slots, lower, to);
+                to = upper;
+            }
+        }
+        for (int idx = from + 1; idx <= to; idx++) {
+            final int current = slots[idx];
+            int pos = idx - 1;
+            while (pos >= from && compareKey(this, slots[pos], this, current) > 0) {
+                slots[pos + 1] = slots[pos];
+                pos--;
+            }
+            slots[pos + 1] = current;
+        }
+    }
+
+    private int medianOfThree(int[] slots, int first, int middle, int last) {
+        final int firstMiddle = compareKey(this, slots[first], this, slots[middle]);
+        final int middleLast = compareKey(this, slots[middle], this, slots[last]);
+        final int firstLast = compareKey(this, slots[first], this, slots[last]);
+        if (firstMiddle < 0) {
+            return middleLast < 0 ? middle : firstLast < 0 ? last : first;
+        }
+        return middleLast > 0 ? middle : firstLast > 0 ? last : first;
+    }
+
+    private static void swap(int[] slots, int first, int second) {
+        final int temp = slots[first];
+        slots[first] = slots[second];
+        slots[second] = temp;
+    }
+
+    private static int compareKey(BucketRowStore left, int leftSlot, BucketRowStore right, int rightSlot) {
+        final int compare = Long.compare(left.keyHashes[leftSlot], right.keyHashes[rightSlot]);
+        if (compare != 0) {
+            return compare;
+        }
+        final int leftOffset = left.keyOffsets[leftSlot];
+        final int rightOffset = right.keyOffsets[rightSlot];
+        return Arrays.compareUnsigned(left.keyArena, leftOffset, leftOffset + left.keyLengths[leftSlot] - 1,
+            right.keyArena, rightOffset, rightOffset + right.keyLengths[rightSlot] - 1);
+    }
+
+    private String primaryKey(int slot) {
+        return new String(keyArena, keyOffsets[slot], keyLengths[slot] - 1, StandardCharsets.UTF_8);
+    }
+
+    private RowDataHash materialize(int slot) {
+        return new RowDataHash().setPrimaryKey(primaryKey(slot)).setPrimaryKeyHash(keyHashes[slot])
+                                .setRowHash(rowHashes[slot]).setPartition(partitions[slot]);
+    }
+
+    /**
+     * find the slot of the key, or the empty slot where the key should be inserted
+     */
+    private int findSlot(long keyHash, byte[] key, int keyOffset, int keyLength) {
+        final int mask = keyHashes.length - 1;
+        int slot = mix(keyHash) & mask;
+        while (keyLengths[slot] != EMPTY_SLOT) {
+            if (keyHashes[slot] == keyHash && keyLengths[slot] == keyLength + 1 && Arrays
+                .equals(keyArena, keyOffsets[slot], keyOffsets[slot] + keyLength, key, keyOffset,
+                    keyOffset + keyLength)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * The rows of a bucket share the low bits of the primary key hash, which is the bucket number,
+     * so the primary key hash is mixed before it is used as the slot index.
+     */
+    private static int mix(long keyHash) {
+        long hash = keyHash ^ (keyHash >>> 33);
+        hash *= MIX_MULTIPLIER;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    private int appendKey(byte[] key) {
+        if (arenaSize + key.length > keyArena.length) {
+            final long newLength = Math.max((long) keyArena.length << 1, (long) arenaSize + key.length);
+            if (newLength > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("bucket primary key arena is too large");
+            }
+            keyArena = Arrays.copyOf(keyArena, (int) newLength);
+        }
+        final int offset = arenaSize;
+        System.arraycopy(key, 0, keyArena, offset, key.length);
+        arenaSize += key.length;
+        return offset;
+    }
+
+    private void allocate(int capacity) {
+        keyHashes = new long[capacity];
+        rowHashes = new long[capacity];
+        partitions = new int[capacity];
+        keyOffsets = new int[capacity];
+        keyLengths = new int[capacity];
+        threshold = capacity == MAX_CAPACITY ? Integer.MAX_VALUE : (int) (capacity * 0.75f);
+    }
+
+    private void resize(int capacity) {
+        final long[] oldKeyHashes = keyHashes;
+        final long[] oldRowHashes = rowHashes;
+        final int[] oldPartitions = partitions;
+        final int[] oldKeyOffsets = keyOffsets;
+        final int[] oldKeyLengths = keyLengths;
+        allocate(capacity);
+        final int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldKeyLengths.length; oldSlot++) {
+            if (oldKeyLengths[oldSlot] == EMPTY_SLOT) {
+                continue;
+            }
+            int slot = mix(oldKeyHashes[oldSlot]) & mask;
+            while (keyLengths[slot] != EMPTY_SLOT) {
+                slot = (slot + 1) & mask;
+            }
+            keyHashes[slot] = oldKeyHashes[oldSlot];
+            rowHashes[slot] = oldRowHashes[oldSlot];
+            partitions[slot] = oldPartitions[oldSlot];
+            keyOffsets[slot] = oldKeyOffsets[oldSlot];
+            keyLengths[slot] = oldKeyLengths[oldSlot];
+        }
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Math.min(MAX_CAPACITY, Integer.highestOneBit(capacity - 1) << 1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach(row -> builder.append(builder.length() > 1 ? ", " : "").append(row.getPrimaryKey()).append('=')
+                              .append(row));
+        return builder.append('}').toString();
+    }
+}
@@ -18,8 +18,10 @@ package org.opengauss.datachecker.check.modules.bucket;
 import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.springframework.lang.NonNull;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
 /**
@@ -85,27 +87,39 @@ public class BuilderBucketHandler {
      */
     public void builder(@NonNull List<RowDataHash> rowDataHashList, int totalCount,
         @NonNull Map<Integer, Bucket> bucketMap) {
+        rowDataHashList.forEach(streamBuilder(totalCount, bucketMap));
+    }
+
+    /**
+     * <pre>
+     * Build the bucket row consumer, each consumed row is allocated to
+     * bucket {@link org.opengauss.datachecker.check.modules.bucket.Bucket} immediately,
+     * so that the buckets can be built while the rows are still being pulled.
+     * </pre>
+     *
+     * @param totalCount Record the total number for {@link RowDataHash}.
+     * @param bucketMap  {@code bucketMap<K,V>} K为当前桶V的编号。
+     * @return bucket row consumer
+     */
+    public Consumer<RowDataHash> streamBuilder(int totalCount, @NonNull Map<Integer, Bucket> bucketMap) {
         // Calculate the current maximum number of barrels according to the total number of current records
         int maxBucketCount = calculateMaxBucketCount(totalCount);
         // Average bucket capacity - used to initialize the bucket capacity size
         int averageCapacity = totalCount / maxBucketCount;
-        rowDataHashList.forEach(row -> {
+        return row -> {
             long primaryKeyHash = row.getPrimaryKeyHash();
             // Calculate bucket number information
             int bucketNumber = calculateBucketNumber(primaryKeyHash, maxBucketCount);
-            Bucket bucket;
             // Obtain the bucket with the specified number according to the row information,
             // and create the bucket if it does not exist
-            if (bucketMap.containsKey(bucketNumber)) {
-                bucket = bucketMap.get(bucketNumber);
-            } else {
+            Bucket bucket = bucketMap.get(bucketNumber);
+            if (bucket == null) {
                 bucket = new Bucket(averageCapacity).setNumber(bucketNumber);
                 bucketMap.put(bucketNumber, bucket);
             }
             // Add row to the bucket with the specified bucket number
             bucket.put(row);
-        });
-
+        };
     }
 
     /**
@@ -130,10 +144,50 @@ public class BuilderBucketHandler {
      * @param bucketCount    Number of barrels the number of barrels is 2^n
      * @return Line record bucket number
      */
-    private int calculateBucketNumber(long primaryKeyHash, int bucketCount) {
+    private static int calculateBucketNumber(long primaryKeyHash, int bucketCount) {
         return (int) (Math.abs(primaryKeyHash) & (bucketCount - 1));
     }
 
+    /**
+     * <pre>
+     * Re-bucket the rows of the source and destination bucket lists onto a common bucket count.
+     * The common bucket count is the smallest 2^n which covers the largest bucket number of both sides,
+     * and the bucket number of each row is recalculated by the same primary key hash masking.
+     * Both lists are replaced by the buckets numbered 0 to bucketCount-1 in order, the missing ones are empty,
+     * so that the Merkel trees built on them have the same depth.
+     * </pre>
+     *
+     * @param sourceBucketList source bucket list
+     * @param sinkBucketList   sink bucket list
+     * @return common bucket count
+     */
+    public static int rebucket(@NonNull List<Bucket> sourceBucketList, @NonNull List<Bucket> sinkBucketList) {
+        int maxBucketNumber = Math.max(maxBucketNumber(sourceBucketList), maxBucketNumber(sinkBucketList));
+        int bucketCount = BUCKET_COUNT_LIMITS[0];
+        while (bucketCount <= maxBucketNumber && bucketCount < BUCKET_MAX_COUNT_LIMITS) {
+            bucketCount = bucketCount << 1;
+        }
+        rebucket(sourceBucketList, bucketCount);
+        rebucket(sinkBucketList, bucketCount);
+        return bucketCount;
+    }
+
+    private static void rebucket(List<Bucket> bucketList, int bucketCount) {
+        int rowCount = bucketList.stream().mapToInt(Bucket::getBucketCount).sum();
+        List<Bucket> rebuckets = new ArrayList<>(bucketCount);
+        for (int bucketNumber = 0; bucketNumber < bucketCount; bucketNumber++) {
+            rebuckets.add(new Bucket(rowCount / bucketCount).setNumber(bucketNumber));
+        }
+        bucketList.forEach(bucket -> bucket.getBucket().forEach(
+            row -> rebuckets.get(calculateBucketNumber(row.getPrimaryKeyHash(), bucketCount)).put(row)));
+        bucketList.clear();
+        bucketList.addAll(rebuckets);
+    }
+
+    private static int maxBucketNumber(List<Bucket> bucketList) {
+        return bucketList.stream().mapToInt(Bucket::getNumber).max().orElse(0);
+    }
+
     /**
      * Construct empty barrels according to the number
      *
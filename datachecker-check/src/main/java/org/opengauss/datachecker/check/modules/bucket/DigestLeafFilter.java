@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.bucket;
+
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
+import org.opengauss.datachecker.common.entry.check.RowPullPartition;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+import java.util.BitSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * <pre>
+ * The leaves of the source and sink partition digests whose signature or row count are different.
+ * Both digests are folded to the smaller leaf count, the rows of the equal leaves are the same on both endpoints,
+ * so only the rows of the different leaves need to be bucketed and compared.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/31
+ * @since ：11
+ */
+public final class DigestLeafFilter implements Predicate<RowDataHash> {
+    private final int leafCount;
+    private final BitSet differingLeaves;
+
+    private DigestLeafFilter(int leafCount, BitSet differingLeaves) {
+        this.leafCount = leafCount;
+        this.differingLeaves = differingLeaves;
+    }
+
+    /**
+     * compare the source and sink digests of the same partition
+     *
+     * @param source source partition digest
+     * @param sink   sink partition digest
+     * @return different leaves
+     */
+    public static DigestLeafFilter of(PartitionDigest source, PartitionDigest sink) {
+        final int leafCount = Math.min(source.getSignatures().length, sink.getSignatures().length);
+        final PartitionDigest sourceDigest = source.fold(leafCount);
+        final PartitionDigest sinkDigest = sink.fold(leafCount);
+        BitSet differingLeaves = new BitSet(leafCount);
+        for (int leaf = 0; leaf < leafCount; leaf++) {
+            if (sourceDigest.getSignatures()[leaf] != sinkDigest.getSignatures()[leaf]
+                || sourceDigest.getRowCounts()[leaf] != sinkDigest.getRowCounts()[leaf]) {
+                differingLeaves.set(leaf);
+            }
+        }
+        return new DigestLeafFilter(leafCount, differingLeaves);
+    }
+
+    /**
+     * all the leaves are the same
+     *
+     * @return true if no leaf is different
+     */
+    public boolean isEmpty() {
+        return differingLeaves.isEmpty();
+    }
+
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    public int getDifferingLeafCount() {
+        return differingLeaves.cardinality();
+    }
+
+    /**
+     * the rows of the different leaves pulled from the extract services
+     *
+     * @param partition kafka partition
+     * @return pulled rows of the partition
+     */
+    public RowPullPartition toPullPartition(int partition) {
+        return new RowPullPartition().setPartition(partition).setLeafCount(leafCount).setLeaves(
+            differingLeaves.stream().boxed().collect(Collectors.toSet()));
+    }
+
+    /**
+     * the row belongs to a different leaf
+     *
+     * @param row row
+     * @return true if the row should be compared
+     */
+    @Override
+    public boolean test(RowDataHash row) {
+        return differingLeaves.get(PartitionDigest.leafOf(row.getPrimaryKeyHash(), leafCount));
+    }
+}
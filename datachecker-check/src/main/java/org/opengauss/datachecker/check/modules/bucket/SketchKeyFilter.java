@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.bucket;
+
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
+import org.opengauss.datachecker.common.entry.check.InvertibleBloomFilter;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
+import org.opengauss.datachecker.common.entry.check.RowPullPartition;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * <pre>
+ * The primary key hashes of the different rows peeled from the sketches of the source and sink partition digests.
+ * Only the rows of these primary key hashes need to be bucketed and compared.
+ * The filter can not be created if any sketch is missing, the sketches are of different sizes,
+ * or there are more different rows than the sketch can peel, then the digest leaves are compared instead.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+public final class SketchKeyFilter implements Predicate<RowDataHash> {
+    private final Set<Long> primaryKeyHashes;
+
+    private SketchKeyFilter(Set<Long> primaryKeyHashes) {
+        this.primaryKeyHashes = primaryKeyHashes;
+    }
+
+    /**
+     * subtract the sink sketch from the source sketch of the same partition and peel the different rows
+     *
+     * @param source source partition digest
+     * @param sink   sink partition digest
+     * @return primary key hashes of the different rows, or null if they can not be peeled
+     */
+    public static SketchKeyFilter of(PartitionDigest source, PartitionDigest sink) {
+        final InvertibleBloomFilter sourceSketch = source.getSketch();
+        final InvertibleBloomFilter sinkSketch = sink.getSketch();
+        if (Objects.isNull(sourceSketch) || !sourceSketch.isComparable(sinkSketch)) {
+            return null;
+        }
+        final DifferencePair<Set<Long>, Set<Long>, Set<Long>> difference = sourceSketch.subtract(sinkSketch).peel();
+        if (Objects.isNull(difference)) {
+            return null;
+        }
+        Set<Long> primaryKeyHashes = new HashSet<>(difference.getDiffering());
+        primaryKeyHashes.addAll(difference.getOnlyOnLeft());
+        primaryKeyHashes.addAll(difference.getOnlyOnRight());
+        return new SketchKeyFilter(primaryKeyHashes);
+    }
+
+    /**
+     * no different row is peeled
+     *
+     * @return true if the sketches are the same
+     */
+    public boolean isEmpty() {
+        return primaryKeyHashes.isEmpty();
+    }
+
+    public int getKeyCount() {
+        return primaryKeyHashes.size();
+    }
+
+    /**
+     * the rows of the peeled primary key hashes pulled from the extract services
+     *
+     * @param partition kafka partition
+     * @return pulled rows of the partition
+     */
+    public RowPullPartition toPullPartition(int partition) {
+        return new RowPullPartition().setPartition(partition).setPrimaryKeyHashes(primaryKeyHashes);
+    }
+
+    /**
+     * the row is one of the different rows
+     *
+     * @param row row
+     * @return true if the row should be compared
+     */
+    @Override
+    public boolean test(RowDataHash row) {
+        return primaryKeyHashes.contains(row.getPrimaryKeyHash());
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.bucket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * <pre>
+ * External memory row record storage of the oversized partition.
+ * The rows are collected in a {@link BucketRowStore} of fixed row count, when it is full the rows are written
+ * to a run file on local disk sorted by (primary key hash, primary key bytes), and a new run is started.
+ * The comparison merges the runs of both sides in a single k-way merge pass, each run is read sequentially
+ * by positional reads into its own fixed size read buffer, so the heap does not grow with the partition row count,
+ * only the primary keys of the different rows are materialized,
+ * the same as {@link BucketRowStore#difference(BucketRowStore)}.
+ * The run files are opened by the comparison and closed as soon as it is completed.
+ * When a primary key is put more than once, the last row wins, the same as {@link BucketRowStore#put(RowDataHash)}.
+ * The storage is not thread safe.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/30
+ * @since ：11
+ */
+@Slf4j
+public class SpillRowStore implements Closeable {
+    /**
+     * Default row count of one sorted run
+     */
+    public static final int DEFAULT_RUN_ROW_COUNT = 1 << 19;
+
+    /**
+     * Default read buffer size of one run in the comparison
+     */
+    public static final int DEFAULT_READ_BUFFER_SIZE = 1 << 16;
+
+    private static final String RUN_FILE_SUFFIX = ".run";
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final int RECORD_HEADER_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final Path spillDirectory;
+    private final String runFilePrefix;
+    private final int runRowCount;
+    private final int readBufferSize;
+    private final List<Path> runFiles = new ArrayList<>();
+    private BucketRowStore currentRun;
+    private long putCount;
+    private int openRunCount;
+
+    /**
+     * Build the storage, the run files are named by the prefix under the spill directory
+     *
+     * @param spillDirectory spill directory
+     * @param runFilePrefix  run file name prefix
+     * @param runRowCount    row count of one sorted run
+     */
+    public SpillRowStore(Path spillDirectory, String runFilePrefix, int runRowCount) {
+        this(spillDirectory, runFilePrefix, runRowCount, DEFAULT_READ_BUFFER_SIZE);
+    }
+
+    /**
+     * Build the storage, the run files are named by the prefix under the spill directory
+     *
+     * @param spillDirectory spill directory
+     * @param runFilePrefix  run file name prefix
+     * @param runRowCount    row count of one sorted run
+     * @param readBufferSize read buffer size of one run in the comparison, not less than the record header
+     */
+    public SpillRowStore(Path spillDirectory, String runFilePrefix, int runRowCount, int readBufferSize) {
+        this.spillDirectory = spillDirectory;
+        this.runFilePrefix = runFilePrefix;
+        this.runRowCount = runRowCount;
+        this.readBufferSize = Math.max(readBufferSize, RECORD_HEADER_BYTES);
+        this.currentRun = new BucketRowStore(runRowCount);
+    }
+
+    /**
+     * Add the row record into the storage, the current run is written to disk when it is full
+     *
+     * @param rowDataHash row record
+     */
+    public void put(RowDataHash rowDataHash) {
+        currentRun.put(rowDataHash);
+        putCount++;
+        if (currentRun.size() >= runRowCount) {
+            flushRun();
+        }
+    }
+
+    /**
+     * the count of the put rows, include the rows of the same primary key
+     *
+     * @return put row count
+     */
+    public long getPutCount() {
+        return putCount;
+    }
+
+    /**
+     * the count of the run files written to disk
+     *
+     * @return run count
+     */
+    public int getRunCount() {
+        return runFiles.size();
+    }
+
+    /**
+     * the count of the run files which are opened and not closed yet
+     *
+     * @return open run count
+     */
+    public int getOpenRunCount() {
+        return openRunCount;
+    }
+
+    /**
+     * <pre>
+     * Compare the rows of the two storage by k-way external merge of the sorted runs.
+     * onlyOnLeft  : the primary keys only in the current storage
+     * onlyOnRight : the primary keys only in the {@code other} storage
+     * differing   : the primary keys in both storage, but the row hash is different
+     * </pre>
+     *
+     * @param other the other storage
+     * @return Difference primary keys
+     */
+    public DifferencePair<Set<String>, Set<String>, Set<String>> difference(SpillRowStore other) {
+        return difference(other, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compare the rows of the two storage, the merge stops when {@code limit} different primary keys are collected.
+     *
+     * @param other the other storage
+     * @param limit the max count of the collected different primary keys
+     * @return Difference primary keys
+     */
+    public DifferencePair<Set<String>, Set<String>, Set<String>> difference(SpillRowStore other, int limit) {
+        flushRun();
+        other.flushRun();
+        final List<RunCursor> leftRuns = openRuns();
+        try {
+            final List<RunCursor> rightRuns = other.openRuns();
+            try {
+                return merge(new RunMerger(leftRuns), new RunMerger(rightRuns), limit);
+            } finally {
+                other.closeRuns(rightRuns);
+            }
+        } finally {
+            closeRuns(leftRuns);
+        }
+    }
+
+    private DifferencePair<Set<String>, Set<String>, Set<String>> merge(RunMerger left, RunMerger right, int limit) {
+        Set<String> onlyOnLeft = new HashSet<>();
+        Set<String> onlyOnRight = new HashSet<>();
+        Set<String> differing = new HashSet<>();
+        left.next();
+        right.next();
+        int remaining = limit;
+        while (left.current != null && right.current != null && remaining > 0) {
+            final int compare = compareKey(left.current, right.current);
+            if (compare < 0) {
+                onlyOnLeft.add(left.current.primaryKey());
+                remaining--;
+                left.next();
+            } else if (compare > 0) {
+                onlyOnRight.add(right.current.primaryKey());
+                remaining--;
+                right.next();
+            } else {
+                if (left.current.rowHash != right.current.rowHash) {
+                    differing.add(left.current.primaryKey());
+                    remaining--;
+                }
+                left.next();
+                right.next();
+            }
+        }
+        for (; left.current != null && remaining > 0; left.next(), remaining--) {
+            onlyOnLeft.add(left.current.primaryKey());
+        }
+        for (; right.current != null && remaining > 0; right.next(), remaining--) {
+            onlyOnRight.add(right.current.primaryKey());
+        }
+        return DifferencePair.of(onlyOnLeft, onlyOnRight, differing);
+    }
+
+    /**
+     * delete the run files of the storage, the runs are already closed by the comparison
+     */
+    @Override
+    public void close() {
+        runFiles.forEach(runFile -> {
+            try {
+                Files.deleteIfExists(runFile);
+            } catch (IOException ex) {
+                log.error("delete spill run {} error:", runFile, ex);
+            }
+        });
+        runFiles.clear();
+        currentRun = new BucketRowStore(0);
+    }
+
+    private void flushRun() {
+        if (currentRun.size() == 0) {
+            return;
+        }
+        final Path runFile = spillDirectory.resolve(runFilePrefix + "_" + runFiles.size() + RUN_FILE_SUFFIX);
+        try {
+            Files.createDirectories(spillDirectory);
+            try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(runFile), OUTPUT_BUFFER_SIZE))) {
+                currentRun.writeSorted(output);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("write spill run " + runFile + " error", ex);
+        }
+        runFiles.add(runFile);
+        currentRun = new BucketRowStore(runRowCount);
+    }
+
+    private List<RunCursor> openRuns() {
+        List<RunCursor> cursors = new ArrayList<>(runFiles.size());
+        for (int runIndex = 0; runIndex < runFiles.size(); runIndex++) {
+            try {
+                cursors.add(new RunCursor(runIndex, FileChannel.open(runFiles.get(runIndex), READ), readBufferSize));
+                openRunCount++;
+            } catch (IOException ex) {
+                closeRuns(cursors);
+                throw new UncheckedIOException("open spill run " + runFiles.get(runIndex) + " error", ex);
+            }
+        }
+        return cursors;
+    }
+
+    /**
+     * close the channels of the runs at once, the cursors must not be read any more
+     *
+     * @param cursors cursors of the opened runs
+     */
+    private void closeRuns(List<RunCursor> cursors) {
+        cursors.forEach(cursor -> {
+            try {
+                cursor.channel.close();
+            } catch (IOException ex) {
+                log.error("close spill run {} error:", runFiles.get(cursor.runIndex), ex);
+            }
+            openRunCount--;
+        });
+        cursors.clear();
+    }
+
+    private static int compareKey(RunCursor left, RunCursor right) {
+        final int compare = Long.compare(left.keyHash, right.keyHash);
+        if (compare != 0) {
+            return compare;
+        }
+        return Arrays.compareUnsigned(left.key, 0, left.keyLength, right.key, 0, right.keyLength);
+    }
+
+    /**
+     * The sorted distinct rows of all the runs of one side, the row of the latest run wins
+     */
+    private static final class RunMerger {
+        private final PriorityQueue<RunCursor> queue;
+        private RunCursor current;
+
+        private RunMerger(List<RunCursor> cursors) {
+            // the same primary key of the later run comes first
+            queue = new PriorityQueue<>(Math.max(1, cursors.size()), (left, right) -> {
+                final int compare = compareKey(left, right);
+                return compare != 0 ? compare : Integer.compare(right.runIndex, left.runIndex);
+            });
+            cursors.stream().filter(RunCursor::advance).forEach(queue::add);
+        }
+
+        /**
+         * move to the next distinct primary key, the current row is null when all the runs are consumed
+         */
+        private void next() {
+            if (current != null) {
+                final RunCursor last = current;
+                // skip the older rows of the same primary key
+                while (!queue.isEmpty() && compareKey(queue.peek(), last) == 0) {
+                    final RunCursor older = queue.poll();
+                    if (older.advance()) {
+                        queue.add(older);
+                    }
+                }
+                if (last.advance()) {
+                    queue.add(last);
+                }
+            }
+            current = queue.poll();
+        }
+    }
+
+    /**
+     * <pre>
+     * The read position of a run, the run is read by positional reads into the read buffer of the cursor,
+     * which is refilled when the buffered bytes are not enough for the next record.
+     * The primary key of the current record is copied into the reused key bytes,
+     * since a record may span two fills of the read buffer.
+     * </pre>
+     */
+    private static final class RunCursor {
+        private final int runIndex;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long readPosition;
+        private long keyHash;
+        private long rowHash;
+        private byte[] key = new byte[64];
+        private int keyLength;
+
+        private RunCursor(int runIndex, FileChannel channel, int readBufferSize) {
+            this.runIndex = runIndex;
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(readBufferSize);
+            this.buffer.flip();
+        }
+
+        private boolean advance() {
+            try {
+                if (!fill(RECORD_HEADER_BYTES)) {
+                    return false;
+                }
+                keyHash = buffer.getLong();
+                rowHash = buffer.getLong();
+                keyLength = buffer.getInt();
+                if (key.length < keyLength) {
+                    key = new byte[Math.max(keyLength, key.length << 1)];
+                }
+                int copied = 0;
+                while (copied < keyLength) {
+                    if (!fill(1)) {
+                        throw new EOFException("spill run " + runIndex + " is truncated");
+                    }
+                    final int length = Math.min(buffer.remaining(), keyLength - copied);
+                    buffer.get(key, copied, length);
+                    copied += length;
+                }
+                return true;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("read spill run " + runIndex + " error", ex);
+            }
+        }
+
+        /**
+         * make sure the read buffer has at least {@code required} bytes, not more than the buffer capacity
+         *
+         * @param required required byte count
+         * @return false if the run has not enough bytes
+         * @throws IOException read error
+         */
+        private boolean fill(int required) throws IOException {
+            if (buffer.remaining() >= required) {
+                return true;
+            }
+            buffer.compact();
+            try {
+                while (buffer.position() < required) {
+                    final int read = channel.read(buffer, readPosition);
+                    if (read < 0) {
+                        return false;
+                    }
+                    readPosition += read;
+                }
+                return true;
+            } finally {
+                buffer.flip();
+            }
+        }
+
+        private String primaryKey() {
+            return new String(key, 0, keyLength, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -37,6 +37,7 @@ import java.util.Set;
 @Getter
 public abstract class AbstractCheckDiffResultBuilder<C extends CheckDiffResult, B extends AbstractCheckDiffResultBuilder<C, B>> {
     private static final int MAX_DIFF_REPAIR_SIZE = 5000;
+    private static final int PERCENT = 100;
 
     private String table;
     private int partitions;
@@ -48,6 +49,9 @@ public abstract class AbstractCheckDiffResultBuilder<C extends CheckDiffResult,
     private String process;
     private boolean isTableStructureEquals;
     private boolean isExistTableMiss;
+    private boolean isTruncated;
+    private long estimatedDiffCount;
+    private String failedMessage;
     private Endpoint onlyExistEndpoint;
     private CheckMode checkMode;
     private ConditionLimit conditionLimit;
@@ -209,6 +213,30 @@ public abstract class AbstractCheckDiffResultBuilder<C extends CheckDiffResult,
         return self();
     }
 
+    /**
+     * Mark the difference keys as truncated, the collection of the difference keys stopped at the diff budget
+     *
+     * @param isTruncated        the difference keys are truncated
+     * @param estimatedDiffCount the estimated count of the different rows
+     * @return CheckDiffResultBuilder
+     */
+    public B truncated(boolean isTruncated, long estimatedDiffCount) {
+        this.isTruncated = isTruncated;
+        this.estimatedDiffCount = estimatedDiffCount;
+        return self();
+    }
+
+    /**
+     * Mark the partition as failed to be checked, the difference keys of it are not reported
+     *
+     * @param failedMessage the reason why the partition is not checked
+     * @return CheckDiffResultBuilder
+     */
+    public B failed(String failedMessage) {
+        this.failedMessage = failedMessage;
+        return self();
+    }
+
     /**
      * Set the keyUpdateSet properties of the builder
      *
@@ -270,12 +298,37 @@ public abstract class AbstractCheckDiffResultBuilder<C extends CheckDiffResult,
         }
     }
 
+    /**
+     * <pre>
+     * The diff budget of the full check: the smallest count of the difference keys which is too large to build
+     * the repair dml, that is more than {@code MAX_DIFF_REPAIR_SIZE} and the error rate is more than
+     * {@code errorRate}. Collecting more difference keys than the budget does not change the check result.
+     * </pre>
+     *
+     * @param rowCount  row count of the source and destination
+     * @param errorRate error rate
+     * @return diff budget
+     */
+    public static int diffBudget(int rowCount, int errorRate) {
+        if (rowCount <= 0) {
+            return Integer.MAX_VALUE;
+        }
+        final long errorRateBudget = ((long) errorRate + 1) * rowCount;
+        final long minErrorDiffCount = (errorRateBudget + PERCENT - 1) / PERCENT;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MAX_DIFF_REPAIR_SIZE + 1, minErrorDiffCount));
+    }
+
     protected boolean isNotLargeDiffKeys() {
         if (Objects.equals(CheckMode.INCREMENT, checkMode)) {
             return true;
         }
+        if (isTruncated) {
+            log.info("check table[{}.{}] diff is truncated, estimated-diff-count={}, not to build repair dml", schema,
+                table, estimatedDiffCount);
+            return false;
+        }
         int totalRepair = getKeySetSize(keyDeleteSet) + getKeySetSize(keyInsertSet) + getKeySetSize(keyUpdateSet);
-        int curErrorRate = rowCount > 0 ? (totalRepair * 100 / rowCount) : 0;
+        int curErrorRate = rowCount > 0 ? (totalRepair * PERCENT / rowCount) : 0;
         if (totalRepair <= MAX_DIFF_REPAIR_SIZE || curErrorRate <= errorRate) {
             return true;
         } else {
@@ -31,8 +31,10 @@ import java.util.Objects;
 import java.util.Set;
 
 import static org.opengauss.datachecker.check.modules.check.CheckResultConstants.CHECKED_DIFF_TOO_LARGE;
+import static org.opengauss.datachecker.check.modules.check.CheckResultConstants.CHECKED_DIFF_TRUNCATED;
 import static org.opengauss.datachecker.check.modules.check.CheckResultConstants.CHECKED_PARTITIONS;
 import static org.opengauss.datachecker.check.modules.check.CheckResultConstants.CHECKED_ROW_CONDITION;
+import static org.opengauss.datachecker.check.modules.check.CheckResultConstants.CHECK_FAILED;
 import static org.opengauss.datachecker.check.modules.check.CheckResultConstants.FAILED_MESSAGE;
 import static org.opengauss.datachecker.check.modules.check.CheckResultConstants.RESULT_FAILED;
 import static org.opengauss.datachecker.check.modules.check.CheckResultConstants.RESULT_SUCCESS;
@@ -49,7 +51,7 @@ import static org.opengauss.datachecker.check.modules.check.CheckResultConstants
 @Data
 @JSONType(
     orders = {"process", "schema", "table", "topic", "partitions", "beginOffset", "checkMode", "result", "message",
-        "startTime", "endTime", "keyInsertSet", "keyUpdateSet", "keyDeleteSet"},
+        "startTime", "endTime", "truncated", "estimatedDiffCount", "keyInsertSet", "keyUpdateSet", "keyDeleteSet"},
     ignores = {"totalRepair", "buildRepairDml", "isBuildRepairDml", "rowCondition"})
 public class CheckDiffResult {
     private String process;
@@ -59,6 +61,8 @@ public class CheckDiffResult {
     private int partitions;
     private long beginOffset;
     private int totalRepair;
+    private boolean truncated;
+    private long estimatedDiffCount;
     private CheckMode checkMode;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
@@ -94,10 +98,15 @@ public class CheckDiffResult {
         if (builder.isExistTableMiss()) {
             initEmptyCollections();
             resultTableNotExist(builder.getOnlyExistEndpoint());
+        } else if (Objects.nonNull(builder.getFailedMessage())) {
+            initEmptyCollections();
+            resultCheckFailed(builder.getFailedMessage());
         } else if (builder.isTableStructureEquals()) {
             keyUpdateSet = builder.getKeyUpdateSet();
             keyInsertSet = builder.getKeyInsertSet();
             keyDeleteSet = builder.getKeyDeleteSet();
+            truncated = builder.isTruncated();
+            estimatedDiffCount = builder.getEstimatedDiffCount();
             totalRepair = keyUpdateSet.size() + keyInsertSet.size() + keyDeleteSet.size();
             resultAnalysis(builder.isNotLargeDiffKeys());
         } else {
@@ -122,6 +131,12 @@ public class CheckDiffResult {
         message = String.format(TABLE_NOT_EXISTS, table, onlyExistEndpoint.getDescription());
     }
 
+    private void resultCheckFailed(String failedMessage) {
+        result = RESULT_FAILED;
+        message = String.format(CHECKED_PARTITIONS, schema, table, partitions) + String.format(CHECK_FAILED,
+            failedMessage);
+    }
+
     private void resultAnalysis(boolean isNotLargeDiffKeys) {
         if (Objects.nonNull(rowCondition)) {
             message =
@@ -136,6 +151,9 @@ public class CheckDiffResult {
         } else {
             result = RESULT_FAILED;
             message += String.format(FAILED_MESSAGE, keyInsertSet.size(), keyUpdateSet.size(), keyDeleteSet.size());
+            if (truncated) {
+                message += String.format(CHECKED_DIFF_TRUNCATED, totalRepair, estimatedDiffCount);
+            }
             if (totalRepair > 0 && !isNotLargeDiffKeys) {
                 message += CHECKED_DIFF_TOO_LARGE;
             }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.check;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.check.config.DataCheckConfig;
+import org.opengauss.datachecker.check.modules.bucket.SpillRowStore;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * Memory admission controller of the check tasks.
+ * The heap used by a check task is estimated from the partition row count and the primary key size,
+ * and the task is submitted to the check thread pool only when the memory tokens are granted from the budget.
+ * The tasks which do not fit are queued in submission order, they are dispatched when the running tasks
+ * release their tokens. A task larger than the whole budget is dispatched when no other task is running.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/29
+ * @since ：11
+ */
+@Slf4j
+@Service
+public class CheckMemoryGovernor {
+    private static final long MB = 1024L * 1024L;
+    private static final double DEFAULT_BUDGET_HEAP_RATIO = 0.6;
+    /**
+     * Heap of one row in the bucket row store without the primary key, include the hash table slots
+     */
+    private static final long ROW_STORE_BYTES = 64L;
+    /**
+     * Estimated bytes of one primary key column, when the average row length is not known
+     */
+    private static final long PRIMARY_COLUMN_BYTES = 24L;
+    /**
+     * Fixed heap of a check task, the buckets, the merkle trees and the consumer buffers
+     */
+    private static final long TASK_BASE_BYTES = 4L * MB;
+
+    private final Deque<PendingTask> pendingTasks = new ArrayDeque<>();
+    private long budget;
+    private int spillRowThreshold;
+    private long usedMemory;
+
+    @Resource
+    private DataCheckConfig dataCheckConfig;
+
+    /**
+     * Create the governor, the budget is loaded from the configuration
+     */
+    public CheckMemoryGovernor() {
+    }
+
+    /**
+     * Create the governor with the specified budget
+     *
+     * @param budget memory budget in bytes
+     */
+    CheckMemoryGovernor(long budget) {
+        this(budget, 0);
+    }
+
+    /**
+     * Create the governor with the specified budget and spill row threshold
+     *
+     * @param budget            memory budget in bytes
+     * @param spillRowThreshold partition row count above which the rows are spilled to disk, 0 means never spill
+     */
+    CheckMemoryGovernor(long budget, int spillRowThreshold) {
+        this.budget = budget;
+        this.spillRowThreshold = spillRowThreshold;
+    }
+
+    @PostConstruct
+    private void initBudget() {
+        final int memoryBudget = dataCheckConfig.getDataCheckProperties().getCheckMemoryBudget();
+        spillRowThreshold = dataCheckConfig.getDataCheckProperties().getSpillRowThreshold();
+        budget = memoryBudget > 0 ? memoryBudget * MB
+            : (long) (Runtime.getRuntime().maxMemory() * DEFAULT_BUDGET_HEAP_RATIO);
+        log.info("check memory budget is {} MB", budget / MB);
+    }
+
+    /**
+     * <pre>
+     * Estimate the heap of checking one partition, both the source and the sink rows are loaded.
+     * The rows are kept as primary key and hashes, so the primary key size is estimated by the primary key columns,
+     * and it is limited by the average row length of the table.
+     * The partition above the spill row threshold keeps only one sorted run of each side in heap,
+     * the other rows are written to the run files on disk.
+     * </pre>
+     *
+     * @param tableMetadata     table metadata
+     * @param partitionRowCount row count of the partition
+     * @return estimated heap in bytes
+     */
+    public long estimate(TableMetadata tableMetadata, long partitionRowCount) {
+        long primaryKeyBytes = PRIMARY_COLUMN_BYTES;
+        if (Objects.nonNull(tableMetadata)) {
+            if (Objects.nonNull(tableMetadata.getPrimaryMetas()) && !tableMetadata.getPrimaryMetas().isEmpty()) {
+                primaryKeyBytes = PRIMARY_COLUMN_BYTES * tableMetadata.getPrimaryMetas().size();
+            }
+            if (tableMetadata.getAvgRowLength() > 0) {
+                primaryKeyBytes = Math.min(primaryKeyBytes, tableMetadata.getAvgRowLength());
+            }
+        }
+        long heapRowCount = Math.max(partitionRowCount, 0L);
+        if (spillRowThreshold > 0 && partitionRowCount > spillRowThreshold) {
+            heapRowCount = Math.min(heapRowCount, SpillRowStore.DEFAULT_RUN_ROW_COUNT);
+        }
+        return TASK_BASE_BYTES + 2 * heapRowCount * (ROW_STORE_BYTES + primaryKeyBytes);
+    }
+
+    /**
+     * Submit the check task, it is created and submitted to the executor when the memory tokens are granted
+     *
+     * @param executor     check thread pool
+     * @param taskSupplier check task supplier
+     * @param memory       estimated heap of the task in bytes
+     */
+    public synchronized void submit(ExecutorService executor, Supplier<Runnable> taskSupplier, long memory) {
+        pendingTasks.addLast(new PendingTask(executor, taskSupplier, memory));
+        dispatch();
+    }
+
+    /**
+     * memory tokens which have been granted to the running tasks
+     *
+     * @return used memory in bytes
+     */
+    public synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /**
+     * the count of the tasks waiting for the memory tokens
+     *
+     * @return pending task count
+     */
+    public synchronized int getPendingCount() {
+        return pendingTasks.size();
+    }
+
+    private void dispatch() {
+        while (!pendingTasks.isEmpty()) {
+            final PendingTask task = pendingTasks.peekFirst();
+            final long grant = Math.min(task.memory, budget);
+            if (usedMemory > 0 && usedMemory + grant > budget) {
+                log.debug("check memory budget is exhausted, used {} MB, {} tasks are waiting", usedMemory / MB,
+                    pendingTasks.size());
+                return;
+            }
+            pendingTasks.pollFirst();
+            usedMemory += grant;
+            try {
+                task.executor.submit(() -> runAndRelease(task.taskSupplier, grant));
+            } catch (RejectedExecutionException ex) {
+                usedMemory -= grant;
+                log.error("check task is rejected by the check thread pool", ex);
+            }
+        }
+    }
+
+    private void runAndRelease(Supplier<Runnable> taskSupplier, long grant) {
+        try {
+            taskSupplier.get().run();
+        } finally {
+            release(grant);
+        }
+    }
+
+    private synchronized void release(long grant) {
+        usedMemory -= grant;
+        dispatch();
+    }
+
+    private static final class PendingTask {
+        private final ExecutorService executor;
+        private final Supplier<Runnable> taskSupplier;
+        private final long memory;
+
+        private PendingTask(ExecutorService executor, Supplier<Runnable> taskSupplier, long memory) {
+            this.executor = executor;
+            this.taskSupplier = taskSupplier;
+            this.memory = memory;
+        }
+    }
+}
@@ -32,6 +32,8 @@ public interface CheckResultConstants {
     String CHECKED_ROW_CONDITION = "%s.%s checked, row limit %s,%s ";
     String CHECKED_PARTITIONS = "%s.%s_[%s] checked ";
     String CHECKED_DIFF_TOO_LARGE = " data error is too large , please check the database sync !";
+    String CHECK_FAILED = " failed , %s !";
+    String CHECKED_DIFF_TRUNCATED = " diff truncated at %d keys, about %d rows are different ,";
     String LEFT_SQUARE_BRACKET = "[";
     String COMMA = ",";
     String RIGHT_SQUARE_BRACKET = "]";
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.check;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.check.cache.TableStatusRegister;
+import org.opengauss.datachecker.check.client.FeignClientService;
+import org.opengauss.datachecker.check.config.DataCheckProperties;
+import org.opengauss.datachecker.check.modules.bucket.BucketRowStore;
+import org.opengauss.datachecker.check.modules.report.CheckResultManagerService;
+import org.opengauss.datachecker.check.service.StatisticalService;
+import org.opengauss.datachecker.common.entry.check.CheckPartition;
+import org.opengauss.datachecker.common.entry.check.ChunkChecksum;
+import org.opengauss.datachecker.common.entry.check.DataCheckParam;
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
+import org.opengauss.datachecker.common.entry.check.Pair;
+import org.opengauss.datachecker.common.entry.enums.CheckMode;
+import org.opengauss.datachecker.common.entry.enums.Endpoint;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.springframework.lang.NonNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * <pre>
+ * Check the table by the chunk checksums aggregated in the databases of both endpoints.
+ * The checksums of the whole table are compared first, a different chunk is split to {@code chunkFanOut} sub chunks
+ * on the endpoint which has more rows in it, and the checksums of the same sub chunks are queried on the other
+ * endpoint, so only the different chunks are split recursively.
+ * When the different chunk has no more than {@code chunkRowThreshold} rows, the row hashes of it are queried from
+ * both endpoints and compared row by row.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Slf4j
+public class ChunkChecksumCheckRunnable implements Runnable {
+    private static final int MAX_ERROR_RATE = 20;
+    private static final int PARTITION = 0;
+
+    private final DifferencePair<Set<String>, Set<String>, Set<String>> difference =
+        DifferencePair.of(new HashSet<>(), new HashSet<>(), new HashSet<>());
+    private final Deque<Pair<ChunkChecksum, ChunkChecksum>> differentChunks = new ArrayDeque<>();
+    private final FeignClientService feignClient;
+    private final StatisticalService statisticalService;
+    private final TableStatusRegister tableStatusRegister;
+    private final CheckResultManagerService checkResultManagerService;
+    private final DataCheckParam checkParam;
+    private final String tableName;
+    private final int chunkFanOut;
+    private final int chunkRowThreshold;
+    private final LocalDateTime startTime;
+    private int rowCount;
+    private int comparedChunkCount;
+    private boolean isDiffTruncated;
+
+    /**
+     * ChunkChecksumCheckRunnable
+     *
+     * @param checkParam checkParam
+     * @param support    support
+     */
+    public ChunkChecksumCheckRunnable(@NonNull DataCheckParam checkParam, @NonNull DataCheckRunnableSupport support) {
+        this.checkParam = checkParam;
+        tableName = checkParam.getTableName();
+        startTime = LocalDateTime.now();
+        feignClient = support.getFeignClientService();
+        statisticalService = support.getStatisticalService();
+        tableStatusRegister = support.getTableStatusRegister();
+        checkResultManagerService = support.getCheckResultManagerService();
+        final DataCheckProperties properties = support.getDataCheckConfig().getDataCheckProperties();
+        chunkFanOut = properties.getChunkFanOut();
+        chunkRowThreshold = properties.getChunkRowThreshold();
+    }
+
+    @Override
+    public void run() {
+        Thread.currentThread().setName(tableName + "_chunk_" + Thread.currentThread().getId());
+        try {
+            checkTableData();
+            log.debug("check table {} by chunk checksum complete!", tableName);
+        } catch (Exception ignore) {
+            log.error("check table by chunk checksum has some error,", ignore);
+        } finally {
+            statisticalService.statistics(tableName.concat("_").concat(String.valueOf(PARTITION)), startTime);
+            try {
+                checkResult();
+            } finally {
+                tableStatusRegister.update(tableName, PARTITION, TableStatusRegister.TASK_STATUS_CHECK_VALUE);
+                differentChunks.clear();
+            }
+        }
+    }
+
+    private void checkTableData() {
+        final List<ChunkChecksum> table = List.of(new ChunkChecksum());
+        final ChunkChecksum source = feignClient.queryChunkChecksum(Endpoint.SOURCE, tableName, table).get(0);
+        final ChunkChecksum sink = feignClient.queryChunkChecksum(Endpoint.SINK, tableName, table).get(0);
+        // row count of the source and destination, the same as the digest totals of DataCheckRunnable
+        rowCount = (int) Math.min(Integer.MAX_VALUE, source.getRowCount() + sink.getRowCount());
+        addDifferentChunk(source, sink);
+        while (!differentChunks.isEmpty() && !isDiffTruncated) {
+            final Pair<ChunkChecksum, ChunkChecksum> chunk = differentChunks.pop();
+            if (Math.max(chunk.getSource().getRowCount(), chunk.getSink().getRowCount()) <= chunkRowThreshold) {
+                compareChunkRows(chunk.getSource());
+            } else {
+                splitChunk(chunk.getSource(), chunk.getSink());
+            }
+        }
+        log.info("Complete the chunk checksum verification of table [{}], compared {} chunks row by row", tableName,
+            comparedChunkCount);
+    }
+
+    /**
+     * Split the different chunk on the endpoint which has more rows in it, each sub chunk of that endpoint has
+     * {@code 1 / chunkFanOut} rows of the chunk, so the recursion always converges.
+     *
+     * @param source source chunk
+     * @param sink   sink chunk of the same range
+     */
+    private void splitChunk(ChunkChecksum source, ChunkChecksum sink) {
+        final boolean isSplitOnSource = source.getRowCount() >= sink.getRowCount();
+        final Endpoint splitEndpoint = isSplitOnSource ? Endpoint.SOURCE : Endpoint.SINK;
+        final Endpoint otherEndpoint = isSplitOnSource ? Endpoint.SINK : Endpoint.SOURCE;
+        final List<ChunkChecksum> splitChunks = feignClient.splitChunkChecksum(splitEndpoint, tableName,
+            isSplitOnSource ? source : sink, chunkFanOut);
+        if (splitChunks.size() <= 1) {
+            // no boundary is found in the range, the rows of it are compared directly
+            compareChunkRows(source);
+            return;
+        }
+        final List<ChunkChecksum> ranges = splitChunks.stream().map(ChunkChecksum::range).collect(Collectors.toList());
+        final List<ChunkChecksum> otherChunks = feignClient.queryChunkChecksum(otherEndpoint, tableName, ranges);
+        for (int idx = splitChunks.size() - 1; idx >= 0; idx--) {
+            if (isSplitOnSource) {
+                addDifferentChunk(splitChunks.get(idx), otherChunks.get(idx));
+            } else {
+                addDifferentChunk(otherChunks.get(idx), splitChunks.get(idx));
+            }
+        }
+    }
+
+    private void addDifferentChunk(ChunkChecksum source, ChunkChecksum sink) {
+        if (!source.isSameChecksum(sink)) {
+            differentChunks.push(Pair.of(source, sink));
+        }
+    }
+
+    private void compareChunkRows(ChunkChecksum range) {
+        comparedChunkCount++;
+        final BucketRowStore sourceStore = queryChunkRows(Endpoint.SOURCE, range);
+        final BucketRowStore sinkStore = queryChunkRows(Endpoint.SINK, range);
+        addDifference(sourceStore.difference(sinkStore, remainingDiffBudget()));
+    }
+
+    private BucketRowStore queryChunkRows(Endpoint endpoint, ChunkChecksum range) {
+        final List<RowDataHash> rows = feignClient.queryChunkRowData(endpoint, tableName, range.range());
+        final BucketRowStore rowStore = new BucketRowStore(rows.size());
+        rows.forEach(rowStore::put);
+        return rowStore;
+    }
+
+    /**
+     * The rest count of the difference keys which can be collected,
+     * the same diff budget as {@link DataCheckRunnable}
+     *
+     * @return rest diff budget
+     */
+    private int remainingDiffBudget() {
+        return Math.max(0, AbstractCheckDiffResultBuilder.diffBudget(rowCount, MAX_ERROR_RATE) - getDiffCount());
+    }
+
+    private void addDifference(DifferencePair<Set<String>, Set<String>, Set<String>> subDifference) {
+        difference.getDiffering().addAll(subDifference.getDiffering());
+        difference.getOnlyOnLeft().addAll(subDifference.getOnlyOnLeft());
+        difference.getOnlyOnRight().addAll(subDifference.getOnlyOnRight());
+        if (remainingDiffBudget() == 0) {
+            isDiffTruncated = true;
+        }
+    }
+
+    private int getDiffCount() {
+        return difference.getDiffering().size() + difference.getOnlyOnLeft().size()
+            + difference.getOnlyOnRight().size();
+    }
+
+    /**
+     * The diff count of the truncated result is estimated by the average diff count of the compared chunks,
+     * each chunk not compared yet has at least one different row
+     *
+     * @return estimated diff count
+     */
+    private long getEstimatedDiffCount() {
+        final long diffCount = getDiffCount();
+        if (!isDiffTruncated || comparedChunkCount == 0) {
+            return diffCount;
+        }
+        return diffCount * (comparedChunkCount + differentChunks.size()) / comparedChunkCount;
+    }
+
+    private void checkResult() {
+        final AbstractCheckDiffResultBuilder<?, ?> builder = AbstractCheckDiffResultBuilder.builder();
+        CheckDiffResult result =
+            builder.process(checkParam.getProcess()).table(tableName).schema(checkParam.getSchema())
+                   .partitions(PARTITION).isTableStructureEquals(true).startTime(startTime)
+                   .endTime(LocalDateTime.now()).isExistTableMiss(false, null).rowCount(rowCount)
+                   .errorRate(MAX_ERROR_RATE).checkMode(CheckMode.FULL).keyUpdateSet(difference.getDiffering())
+                   .keyInsertSet(difference.getOnlyOnLeft()).keyDeleteSet(difference.getOnlyOnRight())
+                   .truncated(isDiffTruncated, getEstimatedDiffCount()).build();
+        log.info("completed chunk checksum check and export results of {}", tableName);
+        checkResultManagerService.addResult(new CheckPartition(tableName, PARTITION), result);
+    }
+}
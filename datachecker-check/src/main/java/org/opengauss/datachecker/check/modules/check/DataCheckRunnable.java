@@ -15,15 +15,19 @@
 
 package org.opengauss.datachecker.check.modules.check;
 
-import com.google.common.collect.MapDifference;
-import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.opengauss.datachecker.check.cache.TableDigestRegister;
 import org.opengauss.datachecker.check.cache.TableStatusRegister;
 import org.opengauss.datachecker.check.client.FeignClientService;
 import org.opengauss.datachecker.check.modules.bucket.Bucket;
 import org.opengauss.datachecker.check.modules.bucket.BuilderBucketHandler;
+import org.opengauss.datachecker.check.modules.bucket.DigestLeafFilter;
+import org.opengauss.datachecker.check.modules.bucket.SketchKeyFilter;
+import org.opengauss.datachecker.check.modules.bucket.SpillRowStore;
 import org.opengauss.datachecker.check.modules.merkle.MerkleTree;
 import org.opengauss.datachecker.check.modules.merkle.MerkleTree.Node;
+import org.opengauss.datachecker.check.modules.merkle.MerkleTree.SignatureCombiner;
 import org.opengauss.datachecker.check.modules.report.CheckResultManagerService;
 import org.opengauss.datachecker.check.service.StatisticalService;
 import org.opengauss.datachecker.common.constant.Constants;
@@ -31,29 +35,34 @@ import org.opengauss.datachecker.common.entry.check.CheckPartition;
 import org.opengauss.datachecker.common.entry.check.DataCheckParam;
 import org.opengauss.datachecker.common.entry.check.DifferencePair;
 import org.opengauss.datachecker.common.entry.check.Pair;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
 import org.opengauss.datachecker.common.entry.enums.CheckMode;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
 import org.opengauss.datachecker.common.entry.extract.ConditionLimit;
 import org.opengauss.datachecker.common.entry.extract.RowDataHash;
-import org.opengauss.datachecker.common.exception.LargeDataDiffException;
-import org.opengauss.datachecker.common.exception.MerkleTreeDepthException;
+import org.opengauss.datachecker.common.exception.CheckingException;
 import org.opengauss.datachecker.common.util.TopicUtil;
 import org.springframework.lang.NonNull;
 import org.springframework.util.CollectionUtils;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * DataCheckRunnable
@@ -65,18 +74,25 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class DataCheckRunnable implements Runnable {
     private static final int THRESHOLD_MIN_BUCKET_SIZE = 2;
+    private static final int MAX_ERROR_RATE = 20;
 
     private final List<Bucket> sourceBucketList = Collections.synchronizedList(new ArrayList<>());
     private final List<Bucket> sinkBucketList = Collections.synchronizedList(new ArrayList<>());
-    private final DifferencePair<Map<String, RowDataHash>, Map<String, RowDataHash>, Map<String, Pair<Node, Node>>>
-        difference = DifferencePair.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    private final DifferencePair<Set<String>, Set<String>, Set<String>> difference =
+        DifferencePair.of(new HashSet<>(), new HashSet<>(), new HashSet<>());
     private final Map<Integer, Pair<Integer, Integer>> bucketNumberDiffMap = new HashMap<>();
     private final FeignClientService feignClient;
     private final StatisticalService statisticalService;
     private final TableStatusRegister tableStatusRegister;
+    private final TableDigestRegister tableDigestRegister;
     private final DataCheckParam checkParam;
-    private final KafkaConsumerHandler kafkaConsumerHandler;
+    private final KafkaConsumerService kafkaConsumerService;
     private final CheckResultManagerService checkResultManagerService;
+    private final SignatureCombiner signatureCombiner;
+    private final ExecutorService sinkConsumerExecutor;
+    private final RowPullService rowPullService;
+    private final int spillRowThreshold;
+    private final int rowPullTimeout;
     private String sinkSchema;
     private String sourceTopic;
     private String sinkTopic;
@@ -88,6 +104,14 @@ public class DataCheckRunnable implements Runnable {
     private int bucketCapacity;
     private LocalDateTime startTime;
     private CheckPartition checkPartition;
+    private List<KafkaConsumer<String, RowDataHash>> kafkaConsumers = Collections.emptyList();
+    private KafkaConsumerHandler sourceConsumerHandler;
+    private KafkaConsumerHandler sinkConsumerHandler;
+    private int mismatchedLeafCount;
+    private int comparedLeafCount;
+    private boolean isDiffTruncated;
+    private Predicate<RowDataHash> digestFilter;
+    private String failedMessage;
 
     /**
      * DataCheckRunnable
@@ -101,14 +125,24 @@ public class DataCheckRunnable implements Runnable {
         feignClient = support.getFeignClientService();
         statisticalService = support.getStatisticalService();
         tableStatusRegister = support.getTableStatusRegister();
+        tableDigestRegister = support.getTableDigestRegister();
         checkResultManagerService = support.getCheckResultManagerService();
-        kafkaConsumerHandler = buildKafkaHandler(support);
+        signatureCombiner = support.getDataCheckConfig().getMerkleSignatureCombiner();
+        sinkConsumerExecutor = support.getCheckEnvironment().getSinkConsumerExecutorService();
+        rowPullService = support.getRowPullService();
+        spillRowThreshold = support.getDataCheckConfig().getDataCheckProperties().getSpillRowThreshold();
+        rowPullTimeout = support.getDataCheckConfig().getDataCheckProperties().getRowPullTimeout();
+        kafkaConsumerService = support.getKafkaConsumerService();
     }
 
-    private KafkaConsumerHandler buildKafkaHandler(DataCheckRunnableSupport support) {
-        KafkaConsumerService kafkaConsumerService = support.getKafkaConsumerService();
-        return new KafkaConsumerHandler(kafkaConsumerService.buildKafkaConsumer(false),
-            kafkaConsumerService.getRetryFetchRecordTimes());
+    /**
+     * Lease the source and the sink consumers from the consumer pool, they are released when the check is done
+     */
+    private void leaseKafkaConsumers() {
+        kafkaConsumers = kafkaConsumerService.leaseKafkaConsumers(2);
+        final int retryTimes = kafkaConsumerService.getRetryFetchRecordTimes();
+        sourceConsumerHandler = new KafkaConsumerHandler(kafkaConsumers.get(0), retryTimes);
+        sinkConsumerHandler = new KafkaConsumerHandler(kafkaConsumers.get(1), retryTimes);
     }
 
     /**
@@ -132,37 +166,174 @@ public class DataCheckRunnable implements Runnable {
             log.error("check table has some error,", ignore);
         } finally {
             statisticalService.statistics(getStatisticsName(tableName, partitions), startTime);
-            refreshCheckStatus();
-            checkResult();
-            cleanCheckThreadEnvironment();
+            try {
+                // the check result is persisted before the checkpoint records the partition as checked
+                checkResult();
+            } finally {
+                refreshCheckStatus();
+                cleanCheckThreadEnvironment();
+            }
             log.debug("check table result {} complete!", tableName);
         }
     }
 
     private void checkTableData() {
+        if (compareDigest()) {
+            return;
+        }
+        // the rows of the table extracted digest first are in kafka only after they are pulled
+        try {
+            rowPullService.awaitPulledRows(tableName, rowPullTimeout);
+        } catch (CheckingException ex) {
+            failedMessage = ex.getMessage();
+            log.error("table[{}-{}] is not checked, {}", tableName, partitions, failedMessage);
+            return;
+        }
+        leaseKafkaConsumers();
+        if (shouldSpill()) {
+            checkTableDataSpilled();
+            return;
+        }
         // Initialize bucket list
         initBucketList();
+        if (sourceBucketList.size() != sinkBucketList.size()) {
+            // The Merkel trees of different bucket counts have different depth, re-bucket both sides
+            rebucket();
+        }
         // No Merkel tree verification algorithm scenario
         if (!shouldCheckMerkleTree(sourceBucketList.size(), sinkBucketList.size())) {
-            compareNoMerkleTree(sourceBucketList.size(), sinkBucketList.size());
+            compareNoMerkleTree(sourceBucketList.size());
         } else {
             // Construct Merkel tree constraint: bucketList cannot be empty, and size > =2
-            MerkleTree sourceTree = new MerkleTree(sourceBucketList);
-            MerkleTree sinkTree = new MerkleTree(sinkBucketList);
-
-            // Merkel tree comparison
-            if (sourceTree.getDepth() != sinkTree.getDepth()) {
-                refreshCheckStatus();
-                throw new MerkleTreeDepthException(String.format(Locale.ROOT,
-                    "source & sink data have large different, Please synchronize data again! "
-                        + "merkel tree depth different,source depth=[%d],sink depth=[%d]", sourceTree.getDepth(),
-                    sinkTree.getDepth()));
-            }
+            MerkleTree sourceTree = new MerkleTree(sourceBucketList, signatureCombiner);
+            MerkleTree sinkTree = new MerkleTree(sinkBucketList, signatureCombiner);
             // Recursively compare two Merkel trees and return the difference record.
             compareMerkleTree(sourceTree, sinkTree);
         }
     }
 
+    /**
+     * Re-bucket the source and destination rows onto a common bucket count,
+     * so that lopsided partitions are still compared by the Merkel trees.
+     */
+    private void rebucket() {
+        final int sourceBucketCount = sourceBucketList.size();
+        final int sinkBucketCount = sinkBucketList.size();
+        final int bucketCount = BuilderBucketHandler.rebucket(sourceBucketList, sinkBucketList);
+        log.info("table[{}-{}] source-bucket-count=[{}] sink-bucket-count=[{}], re-bucket to [{}]", tableName,
+            partitions, sourceBucketCount, sinkBucketCount, bucketCount);
+    }
+
+    /**
+     * <pre>
+     * Compare the partition digests shipped by the extract services before the row data.
+     * If all the leaves are the same, the partition is checked without consuming the rows,
+     * otherwise only the rows peeled from the sketches, or the rows of the different leaves if the sketches
+     * can not be peeled, are bucketed and compared.
+     * The rows of all the leaves are compared if the digest of any endpoint is not received.
+     * </pre>
+     *
+     * @return true if the partition is the same on both endpoints
+     */
+    private boolean compareDigest() {
+        final PartitionDigest sourceDigest = tableDigestRegister.get(tableName, Endpoint.SOURCE, partitions);
+        final PartitionDigest sinkDigest = tableDigestRegister.get(tableName, Endpoint.SINK, partitions);
+        if (Objects.isNull(sourceDigest) || Objects.isNull(sinkDigest)) {
+            return false;
+        }
+        // only the different rows are consumed, the row count of the partition is the total of the digests
+        rowCount = (int) (sourceDigest.totalRowCount() + sinkDigest.totalRowCount());
+        final DigestLeafFilter digestLeafFilter = DigestLeafFilter.of(sourceDigest, sinkDigest);
+        if (digestLeafFilter.isEmpty()) {
+            log.info("table[{}-{}] digests of the {} leaves are the same, the rows are not consumed", tableName,
+                partitions, digestLeafFilter.getLeafCount());
+            return true;
+        }
+        final SketchKeyFilter sketchKeyFilter = SketchKeyFilter.of(sourceDigest, sinkDigest);
+        // the sketches of the rows sent twice may be peeled empty, the different leaves are compared then
+        if (Objects.nonNull(sketchKeyFilter) && !sketchKeyFilter.isEmpty()) {
+            digestFilter = sketchKeyFilter;
+            log.info("table[{}-{}] {} different rows are peeled from the sketches, only the rows of them are compared",
+                tableName, partitions, sketchKeyFilter.getKeyCount());
+            return false;
+        }
+        digestFilter = digestLeafFilter;
+        log.info("table[{}-{}] digests of {} in {} leaves are different, only the rows of them are compared",
+            tableName, partitions, digestLeafFilter.getDifferingLeafCount(), digestLeafFilter.getLeafCount());
+        return false;
+    }
+
+    /**
+     * the rows which are the same by the digests are skipped
+     *
+     * @param rowConsumer row consumer
+     * @return row consumer of the different rows
+     */
+    private Consumer<RowDataHash> filterDigest(Consumer<RowDataHash> rowConsumer) {
+        final Predicate<RowDataHash> rowFilter = digestFilter;
+        if (Objects.isNull(rowFilter)) {
+            return rowConsumer;
+        }
+        return row -> {
+            if (rowFilter.test(row)) {
+                rowConsumer.accept(row);
+            }
+        };
+    }
+
+    /**
+     * The consumed rows are the row count of the partition, unless only the different rows of the digests are
+     * consumed, then the row count is the total of the digests
+     *
+     * @param consumedCount consumed row count of both endpoints
+     */
+    private void refreshConsumedRowCount(long consumedCount) {
+        if (Objects.isNull(digestFilter)) {
+            rowCount = (int) consumedCount;
+        }
+    }
+
+    private boolean shouldSpill() {
+        return spillRowThreshold > 0 && tablePartitionRowCount > spillRowThreshold;
+    }
+
+    /**
+     * The partition is too large for the in-memory buckets, the rows of both sides are sorted into run files
+     * on local disk and compared by an external merge.
+     */
+    private void checkTableDataSpilled() {
+        final String filePrefix = checkParam.getProcess() + "_" + TopicUtil.getTableWithLetter(tableName) + "_"
+            + partitions + "_";
+        final Path spillDirectory = Path.of(ExportCheckResult.getSpillPath());
+        log.info("table[{}-{}] row count {} exceeds the spill threshold {}, compare by the spilled runs", tableName,
+            partitions, tablePartitionRowCount, spillRowThreshold);
+        try (SpillRowStore sourceStore = new SpillRowStore(spillDirectory, filePrefix + Endpoint.SOURCE.name(),
+            SpillRowStore.DEFAULT_RUN_ROW_COUNT);
+            SpillRowStore sinkStore = new SpillRowStore(spillDirectory, filePrefix + Endpoint.SINK.name(),
+                SpillRowStore.DEFAULT_RUN_ROW_COUNT)) {
+            final CompletableFuture<Long> sinkFuture = CompletableFuture.supplyAsync(
+                () -> sinkConsumerHandler.consumerCheckRowData(sinkTopic, partitions, filterDigest(sinkStore::put)),
+                sinkConsumerExecutor);
+            final long sourceCount;
+            try {
+                sourceCount = sourceConsumerHandler.consumerCheckRowData(sourceTopic, partitions,
+                    filterDigest(sourceStore::put));
+            } catch (RuntimeException ex) {
+                // wait for the sink consumer, it is closed when the check thread environment is cleaned
+                sinkFuture.exceptionally(error -> 0L).join();
+                throw ex;
+            }
+            final long sinkCount = sinkFuture.join();
+            refreshConsumedRowCount(sourceCount + sinkCount);
+            log.debug("table[{}-{}] spilled source-runs=[{}] sink-runs=[{}]", tableName, partitions,
+                sourceStore.getRunCount(), sinkStore.getRunCount());
+            mismatchedLeafCount = 1;
+            comparedLeafCount = 1;
+            addDifference(sourceStore.difference(sinkStore, remainingDiffBudget()));
+        }
+        log.info("Complete the spilled data verification of table [{}-{}]", tableName, partitions);
+    }
+
     private void paramInit() {
         tableName = checkParam.getTableName();
         partitions = checkParam.getPartitions();
@@ -173,6 +344,11 @@ public class DataCheckRunnable implements Runnable {
         tablePartitionRowCount = checkParam.getTablePartitionRowCount();
         errorRate = checkParam.getErrorRate();
         bucketCapacity = checkParam.getBucketCapacity();
+        mismatchedLeafCount = 0;
+        comparedLeafCount = 0;
+        isDiffTruncated = false;
+        digestFilter = null;
+        failedMessage = null;
         resetThreadName(tableName, partitions);
         checkPartition = new CheckPartition(tableName, partitions);
     }
@@ -192,17 +368,36 @@ public class DataCheckRunnable implements Runnable {
         difference.getOnlyOnLeft().clear();
         difference.getOnlyOnRight().clear();
         difference.getDiffering().clear();
+        // the source and sink consumers are not polling any more, they are reset and reused by the other tasks
+        kafkaConsumers.forEach(kafkaConsumerService::releaseKafkaConsumer);
+        kafkaConsumers = Collections.emptyList();
+        tableDigestRegister.remove(tableName, partitions);
     }
 
     /**
      * Initialize bucket list
      */
     private void initBucketList() {
-        // Get the Kafka partition number corresponding to the current task
-        // Initialize source bucket column list data
-        initBucketList(Endpoint.SOURCE, partitions, sourceBucketList);
-        // Initialize destination bucket column list data
-        initBucketList(Endpoint.SINK, partitions, sinkBucketList);
+        Map<Integer, Bucket> sourceBucketMap = new ConcurrentHashMap<>(Constants.InitialCapacity.EMPTY);
+        Map<Integer, Bucket> sinkBucketMap = new ConcurrentHashMap<>(Constants.InitialCapacity.EMPTY);
+        // Pull the destination data concurrently with the source data, the buckets are built while pulling
+        final CompletableFuture<Long> sinkFuture =
+            CompletableFuture.supplyAsync(() -> initBucketMap(Endpoint.SINK, sinkBucketMap), sinkConsumerExecutor);
+        final long sourceCount;
+        try {
+            sourceCount = initBucketMap(Endpoint.SOURCE, sourceBucketMap);
+        } catch (RuntimeException ex) {
+            // wait for the sink consumer, it is closed when the check thread environment is cleaned
+            sinkFuture.exceptionally(error -> 0L).join();
+            throw ex;
+        }
+        final long sinkCount = sinkFuture.join();
+        refreshConsumedRowCount(sourceCount + sinkCount);
+        // Statistics bucket list information
+        bucketNoStatistics(Endpoint.SOURCE, sourceBucketMap.keySet());
+        bucketNoStatistics(Endpoint.SINK, sinkBucketMap.keySet());
+        sourceBucketList.addAll(sourceBucketMap.values());
+        sinkBucketList.addAll(sinkBucketMap.values());
         // Align the source and destination bucket list
         alignAllBuckets();
         sortBuckets(sourceBucketList);
@@ -230,32 +425,24 @@ public class DataCheckRunnable implements Runnable {
     }
 
     /**
-     * Pull the Kafka partition {@code partitions} data
+     * Consume the Kafka partition {@code partitions} data
      * of the specified table {@code tableName} of the specified endpoint {@code endpoint} service.
      * <p>
-     * And assemble Kafka data into the specified bucket list {@code bucketList}
+     * And assemble Kafka data into the specified bucket map {@code bucketMap} while consuming
      *
-     * @param endpoint   Endpoint Type
-     * @param partitions kafka partitions
-     * @param bucketList Bucket list
+     * @param endpoint  Endpoint Type
+     * @param bucketMap Bucket map
+     * @return consumed record count
      */
-    private void initBucketList(Endpoint endpoint, int partitions, List<Bucket> bucketList) {
-        Map<Integer, Bucket> bucketMap = new ConcurrentHashMap<>(Constants.InitialCapacity.EMPTY);
-        // Use feign client to pull Kafka data
-        List<RowDataHash> dataList = getTopicPartitionsData(getTopicName(endpoint), partitions);
-        rowCount = rowCount + dataList.size();
-        if (CollectionUtils.isEmpty(dataList)) {
-            return;
-        }
-        log.debug("initialize the verification data, and pull the total number of [{}-{}-{}] data records to {}",
-            endpoint.getDescription(), tableName, partitions, dataList.size());
+    private long initBucketMap(Endpoint endpoint, Map<Integer, Bucket> bucketMap) {
         BuilderBucketHandler bucketBuilder = new BuilderBucketHandler(bucketCapacity);
-
-        // Use the pulled data to build the bucket list
-        bucketBuilder.builder(dataList, tablePartitionRowCount, bucketMap);
-        // Statistics bucket list information
-        bucketNoStatistics(endpoint, bucketMap.keySet());
-        bucketList.addAll(bucketMap.values());
+        final KafkaConsumerHandler consumerHandler =
+            Objects.equals(Endpoint.SOURCE, endpoint) ? sourceConsumerHandler : sinkConsumerHandler;
+        final long count = consumerHandler.consumerCheckRowData(getTopicName(endpoint), partitions,
+            filterDigest(bucketBuilder.streamBuilder(tablePartitionRowCount, bucketMap)));
+        log.debug("initialize the verification data, and pull the total number of [{}-{}-{}] data records to {}",
+            endpoint.getDescription(), tableName, partitions, count);
+        return count;
     }
 
     private String getTopicName(Endpoint endpoint) {
@@ -276,37 +463,67 @@ public class DataCheckRunnable implements Runnable {
         if (CollectionUtils.isEmpty(diffNodeList)) {
             return;
         }
-        diffNodeList.forEach(diffNode -> {
-            Bucket sourceBucket = diffNode.getSource().getBucket();
-            Bucket sinkBucket = diffNode.getSink().getBucket();
-            DifferencePair<Map, Map, Map> subDifference = compareBucket(sourceBucket, sinkBucket);
-            difference.getDiffering().putAll(subDifference.getDiffering());
-            difference.getOnlyOnLeft().putAll(subDifference.getOnlyOnLeft());
-            difference.getOnlyOnRight().putAll(subDifference.getOnlyOnRight());
-        });
+        mismatchedLeafCount = diffNodeList.size();
+        for (Pair<Node, Node> diffNode : diffNodeList) {
+            if (isDiffTruncated) {
+                // the rest mismatched leaves are only counted for the estimated diff count
+                break;
+            }
+            compareBucket(diffNode.getSource().getBucket(), diffNode.getSink().getBucket());
+        }
         log.info("Complete the data verification of table [{}-{}]", tableName, partitions);
     }
 
     /**
-     * Compare the difference data recorded inside the two barrels
+     * Compare the difference data recorded inside the two barrels within the rest diff budget
      * <p>
      *
      * @param sourceBucket Source barrel
      * @param sinkBucket   Sink barrel
-     * @return Difference record
      */
-    private DifferencePair<Map, Map, Map> compareBucket(Bucket sourceBucket, Bucket sinkBucket) {
-        Map<String, RowDataHash> sourceMap = sourceBucket.getBucket();
-        Map<String, RowDataHash> sinkMap = sinkBucket.getBucket();
-        MapDifference<String, RowDataHash> bucketDifference = Maps.difference(sourceMap, sinkMap);
-        Map<String, RowDataHash> entriesOnlyOnLeft = bucketDifference.entriesOnlyOnLeft();
-        Map<String, RowDataHash> entriesOnlyOnRight = bucketDifference.entriesOnlyOnRight();
-        Map<String, MapDifference.ValueDifference<RowDataHash>> entriesDiffering = bucketDifference.entriesDiffering();
-        Map<String, Pair<RowDataHash, RowDataHash>> differing = new HashMap<>(Constants.InitialCapacity.EMPTY);
-        entriesDiffering.forEach((key, diff) -> {
-            differing.put(key, Pair.of(diff.leftValue(), diff.rightValue()));
-        });
-        return DifferencePair.of(entriesOnlyOnLeft, entriesOnlyOnRight, differing);
+    private void compareBucket(Bucket sourceBucket, Bucket sinkBucket) {
+        comparedLeafCount++;
+        addDifference(sourceBucket.difference(sinkBucket, remainingDiffBudget()));
+    }
+
+    /**
+     * <pre>
+     * The rest count of the difference keys which can be collected.
+     * When the difference keys reach the diff budget of {@link AbstractCheckDiffResultBuilder#diffBudget},
+     * the repair dml is not built anyway, so the comparison stops collecting and the result is truncated.
+     * </pre>
+     *
+     * @return rest diff budget
+     */
+    private int remainingDiffBudget() {
+        return Math.max(0, AbstractCheckDiffResultBuilder.diffBudget(rowCount, MAX_ERROR_RATE) - getDiffCount());
+    }
+
+    private void addDifference(DifferencePair<Set<String>, Set<String>, Set<String>> subDifference) {
+        difference.getDiffering().addAll(subDifference.getDiffering());
+        difference.getOnlyOnLeft().addAll(subDifference.getOnlyOnLeft());
+        difference.getOnlyOnRight().addAll(subDifference.getOnlyOnRight());
+        if (remainingDiffBudget() == 0) {
+            isDiffTruncated = true;
+        }
+    }
+
+    private int getDiffCount() {
+        return difference.getDiffering().size() + difference.getOnlyOnLeft().size()
+            + difference.getOnlyOnRight().size();
+    }
+
+    /**
+     * The diff count of the truncated result is estimated by the average diff count of the compared leaves
+     *
+     * @return estimated diff count
+     */
+    private long getEstimatedDiffCount() {
+        final long diffCount = getDiffCount();
+        if (!isDiffTruncated || comparedLeafCount == 0) {
+            return diffCount;
+        }
+        return Math.max(diffCount, diffCount * mismatchedLeafCount / comparedLeafCount);
     }
 
     /**
@@ -371,50 +588,24 @@ public class DataCheckRunnable implements Runnable {
         });
     }
 
-    /**
-     * Pull the Kafka partition {@code partitions} data
-     * of the table {@code tableName} of the specified topicName
-     *
-     * @param topicName  topicName
-     * @param partitions kafka partitions
-     * @return Specify table Kafka partition data
-     */
-    private List<RowDataHash> getTopicPartitionsData(String topicName, int partitions) {
-        return kafkaConsumerHandler.queryCheckRowData(topicName, partitions);
-    }
-
     private boolean shouldCheckMerkleTree(int sourceBucketCount, int sinkBucketCount) {
         return sourceBucketCount >= THRESHOLD_MIN_BUCKET_SIZE && sinkBucketCount >= THRESHOLD_MIN_BUCKET_SIZE;
     }
 
     /**
-     * Comparison under Merkel tree constraints
+     * Comparison without Merkel tree constraint, the source and destination have the same bucket count
      *
-     * @param sourceBucketCount source bucket count
-     * @param sinkBucketCount   sink bucket count
-     * @return Whether it meets the Merkel verification scenario
+     * @param bucketCount bucket count
      */
-    private void compareNoMerkleTree(int sourceBucketCount, int sinkBucketCount) {
-        // Comparison without Merkel tree constraint
-        if (sourceBucketCount == sinkBucketCount) {
-            // sourceSize == 0, that is, all buckets are empty
-            if (sourceBucketCount == 0) {
-                // Table is empty, verification succeeded!
-                log.info("table[{}-{}] is an empty table,this check successful!", tableName, partitions);
-            } else {
-                // sourceSize is less than thresholdMinBucketSize, that is, there is only one bucket. Compare
-                DifferencePair<Map, Map, Map> subDifference =
-                    compareBucket(sourceBucketList.get(0), sinkBucketList.get(0));
-                difference.getDiffering().putAll(subDifference.getDiffering());
-                difference.getOnlyOnLeft().putAll(subDifference.getOnlyOnLeft());
-                difference.getOnlyOnRight().putAll(subDifference.getOnlyOnRight());
-            }
-            refreshCheckStatus();
+    private void compareNoMerkleTree(int bucketCount) {
+        // sourceSize == 0, that is, all buckets are empty
+        if (bucketCount == 0) {
+            // Table is empty, verification succeeded!
+            log.info("table[{}-{}] is an empty table,this check successful!", tableName, partitions);
         } else {
-            refreshCheckStatus();
-            throw new LargeDataDiffException(String.format(
-                "table[%s] source & sink data have large different," + "source-bucket-count=[%s] sink-bucket-count=[%s]"
-                    + " Please synchronize data again! ", tableName, sourceBucketCount, sinkBucketCount));
+            // sourceSize is less than thresholdMinBucketSize, that is, there is only one bucket. Compare
+            mismatchedLeafCount = 1;
+            compareBucket(sourceBucketList.get(0), sinkBucketList.get(0));
         }
     }
 
@@ -424,9 +615,9 @@ public class DataCheckRunnable implements Runnable {
             builder.process(checkParam.getProcess()).table(tableName).topic(sourceTopic).schema(sinkSchema)
                    .conditionLimit(getConditionLimit()).partitions(partitions).isTableStructureEquals(true)
                    .startTime(startTime).endTime(LocalDateTime.now()).isExistTableMiss(false, null).rowCount(rowCount)
-                   .errorRate(20).checkMode(CheckMode.FULL).keyUpdateSet(difference.getDiffering().keySet())
-                   .keyInsertSet(difference.getOnlyOnLeft().keySet()).keyDeleteSet(difference.getOnlyOnRight().keySet())
-                   .build();
+                   .errorRate(MAX_ERROR_RATE).checkMode(CheckMode.FULL).keyUpdateSet(difference.getDiffering())
+                   .keyInsertSet(difference.getOnlyOnLeft()).keyDeleteSet(difference.getOnlyOnRight())
+                   .truncated(isDiffTruncated, getEstimatedDiffCount()).failed(failedMessage).build();
         log.info("completed data check and export results of {}", checkPartition);
         checkResultManagerService.addResult(checkPartition, result);
     }
@@ -17,9 +17,11 @@ package org.opengauss.datachecker.check.modules.check;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.opengauss.datachecker.check.cache.TableDigestRegister;
 import org.opengauss.datachecker.check.cache.TableStatusRegister;
 import org.opengauss.datachecker.check.client.FeignClientService;
 import org.opengauss.datachecker.check.config.DataCheckConfig;
+import org.opengauss.datachecker.check.load.CheckEnvironment;
 import org.opengauss.datachecker.check.modules.report.CheckResultManagerService;
 import org.opengauss.datachecker.check.service.StatisticalService;
 import org.springframework.stereotype.Service;
@@ -37,8 +39,11 @@ import org.springframework.stereotype.Service;
 public class DataCheckRunnableSupport {
     private final FeignClientService feignClientService;
     private final TableStatusRegister tableStatusRegister;
+    private final TableDigestRegister tableDigestRegister;
     private final DataCheckConfig dataCheckConfig;
     private final StatisticalService statisticalService;
     private final KafkaConsumerService kafkaConsumerService;
     private final CheckResultManagerService checkResultManagerService;
+    private final CheckEnvironment checkEnvironment;
+    private final RowPullService rowPullService;
 }
@@ -50,6 +50,8 @@ public class DataCheckService {
     private CheckEnvironment checkEnvironment;
     @Resource
     private EndpointMetaDataManager endpointMetaDataManager;
+    @Resource
+    private CheckMemoryGovernor checkMemoryGovernor;
 
     /**
      * submit check table data runnable
@@ -68,7 +70,25 @@ public class DataCheckService {
         checkParam.setProcess(process).setTableName(tableName).setSchema(getSinkSchema()).setSourceMetadata(sourceMeta)
                   .setTablePartitionRowCount(tablePartitionRowCount).setBucketCapacity(bucketCapacity)
                   .setPartitions(partitions).setProperties(kafkaProperties).setErrorRate(errorRate);
-        executors.submit(new DataCheckRunnable(checkParam, dataCheckRunnableSupport));
+        // The check task is queued until its estimated memory is granted from the memory budget
+        checkMemoryGovernor.submit(executors, () -> new DataCheckRunnable(checkParam, dataCheckRunnableSupport),
+            checkMemoryGovernor.estimate(sourceMeta, tablePartitionRowCount));
+    }
+
+    /**
+     * submit check table data runnable of the table checked by the chunk checksums,
+     * the checksums are aggregated in database, so the task is not queued by the memory budget
+     *
+     * @param process   process
+     * @param tableName tableName
+     */
+    public void checkTableChunkChecksum(String process, String tableName) {
+        final TableMetadata sourceMeta = endpointMetaDataManager.getTableMetadata(Endpoint.SOURCE, tableName);
+        DataCheckParam checkParam = new DataCheckParam();
+        checkParam.setProcess(process).setTableName(tableName).setSchema(getSinkSchema()).setSourceMetadata(sourceMeta)
+                  .setErrorRate(dataCheckConfig.getDataCheckProperties().getErrorRate());
+        checkEnvironment.getCheckExecutorService().submit(
+            new ChunkChecksumCheckRunnable(checkParam, dataCheckRunnableSupport));
     }
 
     private String getSinkSchema() {
@@ -45,13 +45,23 @@ public class ExportCheckResult {
     private static final DateTimeFormatter FORMATTER_DIR = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
     private static final String CHECK_RESULT_BAK_DIR = File.separator + "result_bak" + File.separator;
     private static final String CHECK_RESULT_PATH = File.separator + "result" + File.separator;
+    private static final String CHECKPOINT_PATH = File.separator + "checkpoint" + File.separator;
+    private static final String CHECKPOINT_FILE_NAME = "table_status.checkpoint";
+    private static final String SPILL_PATH = File.separator + "spill" + File.separator;
 
     private static String ROOT_PATH = "";
 
-    public static void export(CheckDiffResult result) {
+    /**
+     * Export the check result to the check result path
+     *
+     * @param result check result
+     * @return check result file name
+     */
+    public static String export(CheckDiffResult result) {
         String fileName = getCheckResultFileName(result);
         FileUtils.deleteFile(fileName);
         FileUtils.writeFile(fileName, JsonObjectUtil.format(result));
+        return fileName;
     }
 
     private static String getCheckResultFileName(CheckDiffResult result) {
@@ -77,6 +87,10 @@ public class ExportCheckResult {
         String checkResultPath = getResultPath();
         FileUtils.createDirectories(checkResultPath);
         FileUtils.createDirectories(getResultBakRootDir());
+        FileUtils.createDirectories(ROOT_PATH.concat(CHECKPOINT_PATH));
+        FileUtils.createDirectories(getSpillPath());
+        // the spill runs left by the last process are useless
+        FileUtils.loadDirectory(getSpillPath()).forEach(file -> FileUtils.deleteFile(file.toString()));
     }
 
     public static void backCheckResultDirectory() {
@@ -101,6 +115,25 @@ public class ExportCheckResult {
         return ROOT_PATH.concat(CHECK_RESULT_PATH);
     }
 
+    /**
+     * The checkpoint file of the full verification, it is kept out of the check result path,
+     * so that it is not moved when the check result path is backed up.
+     *
+     * @return checkpoint file
+     */
+    public static String getCheckpointPath() {
+        return ROOT_PATH.concat(CHECKPOINT_PATH).concat(CHECKPOINT_FILE_NAME);
+    }
+
+    /**
+     * The directory of the sorted run files of the spilled partitions
+     *
+     * @return spill path
+     */
+    public static String getSpillPath() {
+        return ROOT_PATH.concat(SPILL_PATH);
+    }
+
     private static String getResultBakRootDir() {
         return ROOT_PATH.concat(CHECK_RESULT_BAK_DIR);
     }
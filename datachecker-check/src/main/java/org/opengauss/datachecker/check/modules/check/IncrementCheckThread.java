@@ -15,8 +15,6 @@
 
 package org.opengauss.datachecker.check.modules.check;
 
-import com.google.common.collect.MapDifference;
-import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.opengauss.datachecker.check.client.FeignClientService;
@@ -24,6 +22,7 @@ import org.opengauss.datachecker.check.modules.bucket.Bucket;
 import org.opengauss.datachecker.check.modules.bucket.BuilderBucketHandler;
 import org.opengauss.datachecker.check.modules.merkle.MerkleTree;
 import org.opengauss.datachecker.check.modules.merkle.MerkleTree.Node;
+import org.opengauss.datachecker.check.modules.merkle.MerkleTree.SignatureCombiner;
 import org.opengauss.datachecker.check.modules.report.CheckResultManagerService;
 import org.opengauss.datachecker.common.constant.Constants.InitialCapacity;
 import org.opengauss.datachecker.common.entry.check.CheckPartition;
@@ -36,7 +35,6 @@ import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.opengauss.datachecker.common.entry.extract.SourceDataLog;
 import org.opengauss.datachecker.common.entry.extract.TableMetadataHash;
 import org.opengauss.datachecker.common.exception.DispatchClientException;
-import org.opengauss.datachecker.common.exception.MerkleTreeDepthException;
 import org.opengauss.datachecker.common.web.Result;
 import org.springframework.lang.NonNull;
 
@@ -45,9 +43,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -70,11 +68,12 @@ public class IncrementCheckThread extends Thread {
     private final FeignClientService feignClient;
     private final List<Bucket> sourceBucketList = new ArrayList<>();
     private final List<Bucket> sinkBucketList = new ArrayList<>();
-    private final DifferencePair<Map<String, RowDataHash>, Map<String, RowDataHash>, Map<String, Pair<Node, Node>>>
-        difference = DifferencePair.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    private final DifferencePair<Set<String>, Set<String>, Set<String>> difference =
+        DifferencePair.of(new HashSet<>(), new HashSet<>(), new HashSet<>());
     private final Map<Integer, Pair<Integer, Integer>> bucketNumberDiffMap = new HashMap<>();
     private final QueryRowDataWapper queryRowDataWapper;
     private final CheckResultManagerService checkResultManagerService;
+    private final SignatureCombiner signatureCombiner;
     private final SourceDataLog dataLog;
     private final String process;
     private String sinkSchema;
@@ -102,6 +101,7 @@ public class IncrementCheckThread extends Thread {
         bucketCapacity = checkParam.getBucketCapacity();
         feignClient = support.getFeignClientService();
         checkResultManagerService = support.getCheckResultManagerService();
+        signatureCombiner = support.getDataCheckConfig().getMerkleSignatureCombiner();
         queryRowDataWapper = new QueryRowDataWapper(feignClient);
     }
 
@@ -193,34 +193,37 @@ public class IncrementCheckThread extends Thread {
     }
 
     private void compareCommonMerkleTree() {
+        if (sourceBucketList.size() != sinkBucketList.size()) {
+            // The Merkel trees of different bucket counts have different depth, re-bucket both sides
+            final int bucketCount = BuilderBucketHandler.rebucket(sourceBucketList, sinkBucketList);
+            log.info("table[{}.{}] source & sink bucket count is different, re-bucket to [{}]", sinkSchema,
+                tableName, bucketCount);
+        }
         // No Merkel tree verification algorithm scenario
         if (!shouldCheckMerkleTree(sourceBucketList.size(), sinkBucketList.size())) {
-            compareNoMerkleTree(sourceBucketList.size(), sinkBucketList.size());
+            compareNoMerkleTree(sourceBucketList.size());
         } else {
             // Construct Merkel tree constraint: bucketList cannot be empty, and size > =2
-            MerkleTree sourceTree = new MerkleTree(sourceBucketList);
-            MerkleTree sinkTree = new MerkleTree(sinkBucketList);
+            MerkleTree sourceTree = new MerkleTree(sourceBucketList, signatureCombiner);
+            MerkleTree sinkTree = new MerkleTree(sinkBucketList, signatureCombiner);
 
             // Recursively compare two Merkel trees and return the difference record.
             compareMerkleTree(sourceTree, sinkTree);
         }
     }
 
-    private void compareNoMerkleTree(int sourceBucketCount, int sinkBucketCount) {
-        // Comparison without Merkel tree constraint
-        if (sourceBucketCount == sinkBucketCount) {
-            // sourceSize == 0, that is, all buckets are empty
-            if (sourceBucketCount == 0) {
-                // Table is empty, verification succeeded!
-                log.info("table[{}.{}] is an empty table,this check successful!", sinkSchema, tableName);
-            } else {
-                // sourceSize is less than thresholdMinBucketSize, that is, there is only one bucket. Compare
-                DifferencePair<Map, Map, Map> subDifference =
-                    compareBucket(sourceBucketList.get(0), sinkBucketList.get(0));
-                difference.getDiffering().putAll(subDifference.getDiffering());
-                difference.getOnlyOnLeft().putAll(subDifference.getOnlyOnLeft());
-                difference.getOnlyOnRight().putAll(subDifference.getOnlyOnRight());
-            }
+    private void compareNoMerkleTree(int bucketCount) {
+        // Comparison without Merkel tree constraint, the source and destination have the same bucket count
+        if (bucketCount == 0) {
+            // Table is empty, verification succeeded!
+            log.info("table[{}.{}] is an empty table,this check successful!", sinkSchema, tableName);
+        } else {
+            // sourceSize is less than thresholdMinBucketSize, that is, there is only one bucket. Compare
+            DifferencePair<Set<String>, Set<String>, Set<String>> subDifference =
+                compareBucket(sourceBucketList.get(0), sinkBucketList.get(0));
+            difference.getDiffering().addAll(subDifference.getDiffering());
+            difference.getOnlyOnLeft().addAll(subDifference.getOnlyOnLeft());
+            difference.getOnlyOnRight().addAll(subDifference.getOnlyOnRight());
         }
     }
 
@@ -244,9 +247,9 @@ public class IncrementCheckThread extends Thread {
 
     private List<String> parseDiffResult() {
         List<String> diffKeyList = new ArrayList<>();
-        diffKeyList.addAll(difference.getDiffering().keySet());
-        diffKeyList.addAll(difference.getOnlyOnRight().keySet());
-        diffKeyList.addAll(difference.getOnlyOnLeft().keySet());
+        diffKeyList.addAll(difference.getDiffering());
+        diffKeyList.addAll(difference.getOnlyOnRight());
+        diffKeyList.addAll(difference.getOnlyOnLeft());
         return diffKeyList;
     }
 
@@ -305,13 +308,6 @@ public class IncrementCheckThread extends Thread {
      * @param sinkTree   sink tree
      */
     private void compareMerkleTree(@NonNull MerkleTree sourceTree, @NonNull MerkleTree sinkTree) {
-        // Merkel tree comparison
-        if (sourceTree.getDepth() != sinkTree.getDepth()) {
-            throw new MerkleTreeDepthException(String.format(Locale.ROOT,
-                "source & sink data have large different, Please synchronize data again! "
-                    + "merkel tree depth different,source depth=[%d],sink depth=[%d]", sourceTree.getDepth(),
-                sinkTree.getDepth()));
-        }
         Node source = sourceTree.getRoot();
         Node sink = sinkTree.getRoot();
         List<Pair<Node, Node>> diffNodeList = new LinkedList<>();
@@ -322,10 +318,11 @@ public class IncrementCheckThread extends Thread {
         diffNodeList.forEach(diffNode -> {
             Bucket sourceBucket = diffNode.getSource().getBucket();
             Bucket sinkBucket = diffNode.getSink().getBucket();
-            DifferencePair<Map, Map, Map> subDifference = compareBucket(sourceBucket, sinkBucket);
-            difference.getDiffering().putAll(subDifference.getDiffering());
-            difference.getOnlyOnLeft().putAll(subDifference.getOnlyOnLeft());
-            difference.getOnlyOnRight().putAll(subDifference.getOnlyOnRight());
+            DifferencePair<Set<String>, Set<String>, Set<String>> subDifference =
+                compareBucket(sourceBucket, sinkBucket);
+            difference.getDiffering().addAll(subDifference.getDiffering());
+            difference.getOnlyOnLeft().addAll(subDifference.getOnlyOnLeft());
+            difference.getOnlyOnRight().addAll(subDifference.getOnlyOnRight());
         });
     }
 
@@ -416,22 +413,13 @@ public class IncrementCheckThread extends Thread {
      * @param sinkBucket   Sink end barrel
      * @return Difference Pair record
      */
-    private DifferencePair<Map, Map, Map> compareBucket(Bucket sourceBucket, Bucket sinkBucket) {
+    private DifferencePair<Set<String>, Set<String>, Set<String>> compareBucket(Bucket sourceBucket,
+        Bucket sinkBucket) {
         if (sourceBucket == null || sinkBucket == null) {
-            return DifferencePair.of(sourceBucket == null ? sinkBucket.getBucket() : new HashMap<>(),
-                sinkBucket == null ? sourceBucket.getBucket() : new HashMap<>(), new HashMap());
+            return DifferencePair.of(sourceBucket == null ? sinkBucket.getBucket().keySet() : new HashSet<>(),
+                sinkBucket == null ? sourceBucket.getBucket().keySet() : new HashSet<>(), new HashSet<>());
         }
-        Map<String, RowDataHash> sourceMap = sourceBucket.getBucket();
-        Map<String, RowDataHash> sinkMap = sinkBucket.getBucket();
-        MapDifference<String, RowDataHash> bucketDifference = Maps.difference(sourceMap, sinkMap);
-        Map<String, RowDataHash> entriesOnlyOnLeft = bucketDifference.entriesOnlyOnLeft();
-        Map<String, RowDataHash> entriesOnlyOnRight = bucketDifference.entriesOnlyOnRight();
-        Map<String, MapDifference.ValueDifference<RowDataHash>> entriesDiffering = bucketDifference.entriesDiffering();
-        Map<String, Pair<RowDataHash, RowDataHash>> differing = new HashMap<>(InitialCapacity.CAPACITY_16);
-        entriesDiffering.forEach((key, diff) -> {
-            differing.put(key, Pair.of(diff.leftValue(), diff.rightValue()));
-        });
-        return DifferencePair.of(entriesOnlyOnLeft, entriesOnlyOnRight, differing);
+        return sourceBucket.difference(sinkBucket);
     }
 
     /**
@@ -471,8 +459,8 @@ public class IncrementCheckThread extends Thread {
             builder.table(tableName).process(process).beginOffset(dataLog.getBeginOffset()).schema(sinkSchema)
                    .partitions(0).rowCount(rowCount).startTime(startTime).endTime(LocalDateTime.now())
                    .isExistTableMiss(isExistTableMiss, onlyExistEndpoint).checkMode(CheckMode.INCREMENT)
-                   .isTableStructureEquals(isTableStructureEquals).keyUpdateSet(difference.getDiffering().keySet())
-                   .keyInsertSet(difference.getOnlyOnLeft().keySet()).keyDeleteSet(difference.getOnlyOnRight().keySet())
+                   .isTableStructureEquals(isTableStructureEquals).keyUpdateSet(difference.getDiffering())
+                   .keyInsertSet(difference.getOnlyOnLeft()).keyDeleteSet(difference.getOnlyOnRight())
                    .build();
         checkResultManagerService.addResult(new CheckPartition(tableName, 0), result);
     }
@@ -15,19 +15,22 @@
 
 package org.opengauss.datachecker.check.modules.check;
 
-import com.alibaba.fastjson.JSON;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.exception.CheckingPollingException;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * KafkaConsumerHandler
@@ -38,18 +41,21 @@ import java.util.Map;
  */
 @Slf4j
 public class KafkaConsumerHandler {
-    private static final int KAFKA_CONSUMER_POLL_DURATION = 20;
+    private static final int KAFKA_CONSUMER_POLL_DURATION = 200;
+    private static final long KAFKA_CONSUMER_IDLE_TIMEOUT = 2000L;
 
-    private final KafkaConsumer<String, String> kafkaConsumer;
+    private final KafkaConsumer<String, RowDataHash> kafkaConsumer;
+    private final long idleTimeout;
 
     /**
      * Constructor
      *
      * @param consumer   consumer
-     * @param retryTimes retryTimes
+     * @param retryTimes retryTimes, the consumer gives up after {@code retryTimes} idle timeouts without any record
      */
-    public KafkaConsumerHandler(KafkaConsumer<String, String> consumer, int retryTimes) {
+    public KafkaConsumerHandler(KafkaConsumer<String, RowDataHash> consumer, int retryTimes) {
         kafkaConsumer = consumer;
+        idleTimeout = Math.max(retryTimes, 1) * KAFKA_CONSUMER_IDLE_TIMEOUT;
     }
 
     /**
@@ -72,18 +78,50 @@ public class KafkaConsumerHandler {
      * @return kafka partitions data
      */
     public List<RowDataHash> queryRowData(String topic, int partitions, boolean shouldChangeConsumerGroup) {
-        List<RowDataHash> data = new LinkedList<>();
+        List<RowDataHash> data = new ArrayList<>();
+        consumerRowData(topic, partitions, shouldChangeConsumerGroup, data::add);
+        return data;
+    }
+
+    /**
+     * <pre>
+     * Consume the Kafka partition data corresponding to the specified table,
+     * each polled record is handed to {@code rowConsumer} as soon as it arrives.
+     * The partition is consumed from its beginning offset to the end offset at the time of the call.
+     * </pre>
+     *
+     * @param topic       Kafka topic
+     * @param partitions  Kafka partitions
+     * @param rowConsumer row consumer
+     * @return consumed record count
+     * @throws CheckingPollingException the end offset is not reached before the idle timeout
+     */
+    public long consumerCheckRowData(String topic, int partitions, Consumer<RowDataHash> rowConsumer) {
+        return consumerRowData(topic, partitions, false, rowConsumer);
+    }
+
+    /**
+     * close the kafka consumer
+     */
+    public void closeConsumer() {
+        kafkaConsumer.close();
+    }
+
+    private long consumerRowData(String topic, int partitions, boolean shouldChangeConsumerGroup,
+        Consumer<RowDataHash> rowConsumer) {
         final TopicPartition topicPartition = new TopicPartition(topic, partitions);
         kafkaConsumer.assign(List.of(topicPartition));
         long endOfOffset = getEndOfOffset(topicPartition);
         long beginOfOffset = beginningOffsets(topicPartition);
         if (shouldChangeConsumerGroup) {
             resetOffsetToBeginning(kafkaConsumer, topicPartition);
+        } else {
+            kafkaConsumer.seek(topicPartition, beginOfOffset);
         }
-        consumerTopicRecords(data, kafkaConsumer, endOfOffset);
+        long count = consumerTopicRecords(topicPartition, endOfOffset, rowConsumer);
         log.debug("consumer topic=[{}] partitions=[{}] dataList=[{}] ,beginOfOffset={},endOfOffset={}", topic,
-            partitions, data.size(), beginOfOffset, endOfOffset);
-        return data;
+            partitions, count, beginOfOffset, endOfOffset);
+        return count;
     }
 
     private long getEndOfOffset(TopicPartition topicPartition) {
@@ -96,7 +134,7 @@ public class KafkaConsumerHandler {
         return topicPartitionLongMap.get(topicPartition);
     }
 
-    private void resetOffsetToBeginning(KafkaConsumer<String, String> consumer, TopicPartition topicPartition) {
+    private void resetOffsetToBeginning(KafkaConsumer<String, RowDataHash> consumer, TopicPartition topicPartition) {
         Map<TopicPartition, OffsetAndMetadata> offset = new HashMap<>();
         consumer.seekToBeginning(List.of(topicPartition));
         long position = consumer.position(topicPartition);
@@ -104,21 +142,34 @@ public class KafkaConsumerHandler {
         consumer.commitSync(offset);
     }
 
-    private void consumerTopicRecords(List<RowDataHash> data, KafkaConsumer<String, String> kafkaConsumer,
-        long endOfOffset) {
-        if (endOfOffset == 0) {
-            return;
-        }
-        while (endOfOffset > data.size()) {
-            getTopicRecords(data, kafkaConsumer);
+    /**
+     * Poll the records until the consumer position reaches {@code endOfOffset}.
+     * Offsets of the partition may be not continuous, so the boundary is the position instead of the record count.
+     */
+    private long consumerTopicRecords(TopicPartition topicPartition, long endOfOffset,
+        Consumer<RowDataHash> rowConsumer) {
+        long count = 0;
+        long lastPosition = kafkaConsumer.position(topicPartition);
+        long lastProgressTime = System.currentTimeMillis();
+        while (lastPosition < endOfOffset) {
+            ConsumerRecords<String, RowDataHash> consumerRecords =
+                kafkaConsumer.poll(Duration.ofMillis(KAFKA_CONSUMER_POLL_DURATION));
+            for (ConsumerRecord<String, RowDataHash> record : consumerRecords) {
+                if (record.offset() < endOfOffset) {
+                    rowConsumer.accept(record.value());
+                    count++;
+                }
+            }
+            final long position = kafkaConsumer.position(topicPartition);
+            if (position > lastPosition) {
+                lastPosition = position;
+                lastProgressTime = System.currentTimeMillis();
+            } else if (System.currentTimeMillis() - lastProgressTime > idleTimeout) {
+                throw new CheckingPollingException(String.format(Locale.ROOT,
+                    "consumer topic=[%s] partitions=[%d] timeout, position=%d is not reach endOfOffset=%d",
+                    topicPartition.topic(), topicPartition.partition(), position, endOfOffset));
+            }
         }
-    }
-
-    private void getTopicRecords(List<RowDataHash> dataList, KafkaConsumer<String, String> kafkaConsumer) {
-        ConsumerRecords<String, String> consumerRecords =
-            kafkaConsumer.poll(Duration.ofMillis(KAFKA_CONSUMER_POLL_DURATION));
-        consumerRecords.forEach(record -> {
-            dataList.add(new RowDataHash(record.value()));
-        });
+        return count;
     }
 }
@@ -19,13 +19,32 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.KafkaException;
 import org.opengauss.datachecker.check.config.KafkaConsumerConfig;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.exception.CheckingPollingException;
 import org.opengauss.datachecker.common.util.IdGenerator;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+
 /**
+ * <pre>
  * KafkaConsumerService
+ * The consumers of the default consumer group are pooled, a consumer is leased by a check task for one partition
+ * and released back to the pool, so the check tasks do not pay the consumer setup for every partition.
+ * The pool is bounded by {@code data.check.kafka-consumer-pool-size}.
+ * </pre>
  *
  * @author ：wangchao
  * @date ：Created in 2022/8/31
@@ -36,11 +55,25 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class KafkaConsumerService {
     private static final String CLIENT_ID_SUFFIX = "Random";
+    private static final int MIN_CONSUMER_POOL_SIZE = 2;
 
     private final KafkaConsumerConfig kafkaConsumerConfig;
+    private final Deque<KafkaConsumer<String, RowDataHash>> idleConsumers = new ConcurrentLinkedDeque<>();
+    private final Set<KafkaConsumer<String, RowDataHash>> leasedConsumers = ConcurrentHashMap.newKeySet();
+    private Semaphore leasePermits;
+    private volatile boolean isShutdown;
 
     @Value("${data.check.retry-fetch-record-times}")
     private int retryFetchRecordTimes = 5;
+    @Value("${data.check.kafka-consumer-pool-size:20}")
+    private int consumerPoolSize = 20;
+
+    @PostConstruct
+    void initConsumerPool() {
+        consumerPoolSize = Math.max(consumerPoolSize, MIN_CONSUMER_POOL_SIZE);
+        leasePermits = new Semaphore(consumerPoolSize, true);
+        log.info("kafka consumer pool size is {}", consumerPoolSize);
+    }
 
     /**
      * consumer retry times
@@ -57,13 +90,115 @@ public class KafkaConsumerService {
      * @param isNewGroup isNewGroup
      * @return consumer
      */
-    public KafkaConsumer<String, String> buildKafkaConsumer(boolean isNewGroup) {
-        Consumer<String, String> consumer;
+    public KafkaConsumer<String, RowDataHash> buildKafkaConsumer(boolean isNewGroup) {
+        Consumer<String, RowDataHash> consumer;
         if (isNewGroup) {
             consumer = kafkaConsumerConfig.consumerFactory().createConsumer(IdGenerator.nextId36(), CLIENT_ID_SUFFIX);
         } else {
             consumer = kafkaConsumerConfig.consumerFactory().createConsumer();
         }
-        return (KafkaConsumer<String, String>) consumer;
+        return (KafkaConsumer<String, RowDataHash>) consumer;
+    }
+
+    /**
+     * <pre>
+     * Lease the consumers of the default consumer group from the pool, block until all of them are available.
+     * The consumers of one lease are granted at once, so the tasks which hold part of their consumers
+     * do not block each other. The pool is fair, the leases are granted in request order.
+     * The leased consumers are not assigned to any partition, they must be released by
+     * {@link #releaseKafkaConsumer(KafkaConsumer)}.
+     * </pre>
+     *
+     * @param count consumer count
+     * @return leased consumers
+     */
+    public List<KafkaConsumer<String, RowDataHash>> leaseKafkaConsumers(int count) {
+        if (count < 1 || count > consumerPoolSize) {
+            throw new IllegalArgumentException("lease " + count + " kafka consumers from pool of " + consumerPoolSize);
+        }
+        try {
+            leasePermits.acquire(count);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CheckingPollingException("lease kafka consumer is interrupted");
+        }
+        List<KafkaConsumer<String, RowDataHash>> consumers = new ArrayList<>(count);
+        try {
+            for (int idx = 0; idx < count; idx++) {
+                consumers.add(takeIdleConsumer());
+            }
+        } catch (RuntimeException ex) {
+            consumers.forEach(this::releaseKafkaConsumer);
+            leasePermits.release(count - consumers.size());
+            throw ex;
+        }
+        return consumers;
+    }
+
+    /**
+     * Release the leased consumer back to the pool, the partition assignment of the consumer is cleared.
+     * The consumer is closed if it is broken or the pool is shutdown.
+     *
+     * @param consumer leased consumer
+     */
+    public void releaseKafkaConsumer(KafkaConsumer<String, RowDataHash> consumer) {
+        if (Objects.isNull(consumer) || !leasedConsumers.remove(consumer)) {
+            return;
+        }
+        try {
+            if (isShutdown) {
+                closeConsumer(consumer);
+            } else {
+                consumer.unsubscribe();
+                idleConsumers.addFirst(consumer);
+            }
+        } catch (KafkaException | IllegalStateException ex) {
+            log.warn("reset kafka consumer error, it is closed instead of pooled: {}", ex.getMessage());
+            closeConsumer(consumer);
+        } finally {
+            leasePermits.release();
+        }
+    }
+
+    /**
+     * the count of the pooled consumers which are not leased
+     *
+     * @return idle consumer count
+     */
+    public int getIdleConsumerCount() {
+        return idleConsumers.size();
+    }
+
+    /**
+     * close the pooled consumers, the leased consumers are closed when they are released
+     */
+    @PreDestroy
+    public void shutdown() {
+        isShutdown = true;
+        KafkaConsumer<String, RowDataHash> consumer;
+        while ((consumer = idleConsumers.pollFirst()) != null) {
+            closeConsumer(consumer);
+        }
+        log.info("kafka consumer pool is shutdown, leased consumers {}", leasedConsumers.size());
+    }
+
+    private KafkaConsumer<String, RowDataHash> takeIdleConsumer() {
+        if (isShutdown) {
+            throw new IllegalStateException("kafka consumer pool is shutdown");
+        }
+        KafkaConsumer<String, RowDataHash> consumer = idleConsumers.pollFirst();
+        if (Objects.isNull(consumer)) {
+            consumer = buildKafkaConsumer(false);
+        }
+        leasedConsumers.add(consumer);
+        return consumer;
+    }
+
+    private void closeConsumer(KafkaConsumer<String, RowDataHash> consumer) {
+        try {
+            consumer.close();
+        } catch (KafkaException ex) {
+            log.warn("close kafka consumer error: {}", ex.getMessage());
+        }
     }
 }
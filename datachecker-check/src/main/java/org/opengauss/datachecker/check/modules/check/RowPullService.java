@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+
+package org.opengauss.datachecker.check.modules.check;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.check.cache.TableDigestRegister;
+import org.opengauss.datachecker.check.client.FeignClientService;
+import org.opengauss.datachecker.check.modules.bucket.DigestLeafFilter;
+import org.opengauss.datachecker.check.modules.bucket.SketchKeyFilter;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
+import org.opengauss.datachecker.common.entry.check.RowPullPartition;
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
+import org.opengauss.datachecker.common.entry.enums.Endpoint;
+import org.opengauss.datachecker.common.exception.CheckingException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <pre>
+ * The rows of the tables extracted digest first are not sent to kafka by the extraction, only the partition
+ * digests are shipped. When both endpoints have extracted the table, the digests of the partitions to check are
+ * compared, and the rows of the different leaves are pulled from both endpoints by one request per endpoint.
+ * Only the rows of the primary key hashes peeled from the sketches are pulled if the sketches can be peeled,
+ * so the check consumes the different rows only.
+ * All the rows of a partition are pulled if the digest of any endpoint is missing,
+ * and nothing is pulled if all the partitions are the same.
+ * The check of a partition waits until both endpoints have sent the pulled rows, or fails when an endpoint
+ * can not pull the rows or does not report the pull status in time.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RowPullService {
+    private final FeignClientService feignClientService;
+    private final TableDigestRegister tableDigestRegister;
+    private final Map<String, TableRowPull> pullCache = new ConcurrentHashMap<>();
+
+    /**
+     * pull the rows of the different leaves of the partitions of the table from both endpoints
+     *
+     * @param tableName  table name
+     * @param partitions the partitions to check
+     */
+    public void pull(String tableName, List<Integer> partitions) {
+        final RowPullRequest request = buildRequest(tableName, partitions);
+        if (request.getPartitions().isEmpty()) {
+            log.info("table[{}] digests of {} partitions are the same, no row is pulled", tableName,
+                partitions.size());
+            return;
+        }
+        final TableRowPull tableRowPull = new TableRowPull();
+        pullCache.put(tableName, tableRowPull);
+        log.info("pull the rows of table[{}] partitions {} of {}", tableName, request.getPartitions().size(),
+            partitions.size());
+        try {
+            feignClientService.pullTableRows(Endpoint.SOURCE, request);
+            feignClientService.pullTableRows(Endpoint.SINK, request);
+        } catch (RuntimeException ex) {
+            // the check of the table waiting for the pulled rows fails instead of waiting for the timeout
+            tableRowPull.pulled.completeExceptionally(ex);
+            log.error("pull the rows of table[{}] failed", tableName, ex);
+        }
+    }
+
+    /**
+     * Build the rows pulled from the extract services,
+     * it is built before the checks of the partitions remove their digests
+     *
+     * @param tableName  table name
+     * @param partitions the partitions to check
+     * @return pulled rows
+     */
+    RowPullRequest buildRequest(String tableName, List<Integer> partitions) {
+        final RowPullRequest request = new RowPullRequest().setTableName(tableName);
+        partitions.forEach(partition -> {
+            final PartitionDigest source = tableDigestRegister.get(tableName, Endpoint.SOURCE, partition);
+            final PartitionDigest sink = tableDigestRegister.get(tableName, Endpoint.SINK, partition);
+            if (Objects.isNull(source) || Objects.isNull(sink)) {
+                request.getPartitions().add(new RowPullPartition().setPartition(partition));
+                return;
+            }
+            final DigestLeafFilter digestLeafFilter = DigestLeafFilter.of(source, sink);
+            if (digestLeafFilter.isEmpty()) {
+                return;
+            }
+            final SketchKeyFilter sketchKeyFilter = SketchKeyFilter.of(source, sink);
+            if (Objects.nonNull(sketchKeyFilter) && !sketchKeyFilter.isEmpty()) {
+                request.getPartitions().add(sketchKeyFilter.toPullPartition(partition));
+            } else {
+                request.getPartitions().add(digestLeafFilter.toPullPartition(partition));
+            }
+        });
+        return request;
+    }
+
+    /**
+     * refresh the status of the pulled rows of an endpoint
+     *
+     * @param tableName table name
+     * @param endpoint  endpoint
+     * @param status    status, -1 if the rows can not be pulled
+     */
+    public void refreshPullStatus(String tableName, Endpoint endpoint, int status) {
+        final TableRowPull tableRowPull = pullCache.get(tableName);
+        if (Objects.isNull(tableRowPull)) {
+            log.warn("the rows of table[{}] are not pulled, ignore the pull status of {}", tableName,
+                endpoint.getDescription());
+            return;
+        }
+        if (status < 0) {
+            tableRowPull.pulled.completeExceptionally(new CheckingException(
+                "pull the rows of table " + tableName + " failed on " + endpoint.getDescription()));
+            return;
+        }
+        if (tableRowPull.endpoints.accumulateAndGet(endpoint.getCode(), (codes, code) -> codes | code)
+            == Endpoint.CHECK.getCode()) {
+            tableRowPull.pulled.complete(null);
+        }
+    }
+
+    /**
+     * wait until both endpoints have sent the pulled rows of the table, returns at once if no row is pulled
+     *
+     * @param tableName      table name
+     * @param timeoutSeconds the max seconds to wait for the pulled rows
+     * @throws CheckingException if the rows can not be pulled, or are not pulled in time
+     */
+    public void awaitPulledRows(String tableName, long timeoutSeconds) {
+        final TableRowPull tableRowPull = pullCache.get(tableName);
+        if (Objects.isNull(tableRowPull)) {
+            return;
+        }
+        try {
+            tableRowPull.pulled.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            throw new CheckingException(
+                "pull the rows of table " + tableName + " failed: " + ex.getCause().getMessage());
+        } catch (TimeoutException ex) {
+            throw new CheckingException(
+                "the rows of table " + tableName + " are not pulled in " + timeoutSeconds + " seconds");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CheckingException("wait for the pulled rows of table " + tableName + " is interrupted");
+        }
+    }
+
+    /**
+     * clear the status of all the pulled rows
+     */
+    public void removeAll() {
+        pullCache.clear();
+    }
+
+    private static final class TableRowPull {
+        private final CompletableFuture<Void> pulled = new CompletableFuture<>();
+        private final AtomicInteger endpoints = new AtomicInteger();
+    }
+}
@@ -20,13 +20,15 @@ import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import org.opengauss.datachecker.check.modules.bucket.Bucket;
 import org.opengauss.datachecker.common.util.ByteUtil;
+import org.opengauss.datachecker.common.util.LongHashFunctionWrapper;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.zip.Adler32;
 
 /**
@@ -62,14 +64,15 @@ public class MerkleTree {
     private static final int NODE_TYPE_BYTE_LENGTH = 1;
 
     /**
-     * Adler32 for verification
+     * Adler32 for verification, each thread building the tree has its own instance
      */
-    private volatile static Adler32 crc;
-
-    static {
-        crc = new Adler32();
-    }
+    private static final ThreadLocal<Adler32> THREAD_ADLER32 = ThreadLocal.withInitial(Adler32::new);
+    private static final LongHashFunctionWrapper HASH_UTIL = new LongHashFunctionWrapper();
 
+    /**
+     * The signature combiner of the internal nodes
+     */
+    private SignatureCombiner combiner = SignatureCombiner.ADLER32;
     /**
      * The leaf node byte length Merkel tree is used in serialization and deserialization.
      */
@@ -87,6 +90,17 @@ public class MerkleTree {
      * @param bucketList bucketList
      */
     public MerkleTree(List<Bucket> bucketList) {
+        this(bucketList, SignatureCombiner.ADLER32);
+    }
+
+    /**
+     * Merkel tree constructor, the internal node signatures are combined by the specified combiner
+     *
+     * @param bucketList bucketList
+     * @param combiner   signature combiner of the internal nodes
+     */
+    public MerkleTree(List<Bucket> bucketList, SignatureCombiner combiner) {
+        this.combiner = combiner;
         constructTree(bucketList);
     }
 
@@ -106,7 +120,8 @@ public class MerkleTree {
     }
 
     /**
-     * Construct Merkel tree
+     * Construct Merkel tree.
+     * The levels which have more than {@link MerkleConstant#PARALLEL_THRESHOLD} nodes are built in parallel.
      *
      * @param bucketList bucketList
      */
@@ -115,15 +130,15 @@ public class MerkleTree {
             throw new IllegalArgumentException("ERROR:Fail to construct merkle tree ! leafHashes data invalid !");
         }
         nnodes = bucketList.size();
-        List<Node> parents = buttomLevel(bucketList);
-        nnodes += parents.size();
+        Node[] parents = buttomLevel(bucketList);
+        nnodes += parents.length;
         depth = 1;
-        while (parents.size() > 1) {
-            parents = constructInternalLevel(parents);
+        while (parents.length > 1) {
+            parents = constructLevel(parents);
             depth++;
-            nnodes += parents.size();
+            nnodes += parents.length;
         }
-        root = parents.get(0);
+        root = parents[0];
     }
 
     /**
@@ -132,24 +147,14 @@ public class MerkleTree {
      * @param bucketList bucketList
      * @return node list
      */
-    private List<Node> buttomLevel(List<Bucket> bucketList) {
-        List<Node> parents = new ArrayList<>(bucketList.size() / MerkleConstant.EVEN_NUMBER);
-        for (int i = 0; i < bucketList.size() - 1; i = i + MerkleConstant.EVEN_NUMBER) {
-            Node leaf1 = constructLeafNode(bucketList.get(i));
-            Node leaf2 = constructLeafNode(bucketList.get(i + 1));
-
-            Node parent = constructInternalNode(leaf1, leaf2);
-            parents.add(parent);
-        }
-        if (bucketList.size() % MerkleConstant.EVEN_NUMBER == 1) {
-            Node leaf1 = constructLeafNode(bucketList.get(bucketList.size() - 1));
-            // In the case of an odd number of nodes, copy the last node
-            Node parent = constructInternalNode(leaf1, null);
-            parents.add(parent);
+    private Node[] buttomLevel(List<Bucket> bucketList) {
+        Node[] leaves = new Node[bucketList.size()];
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i] = constructLeafNode(bucketList.get(i));
         }
         // Set leaf node signature byte length
-        leafSignatureByteLength = parents.get(0).getLeft().getSignature().length;
-        return parents;
+        leafSignatureByteLength = leaves[0].getSignature().length;
+        return constructLevel(leaves);
     }
 
     /**
@@ -158,19 +163,60 @@ public class MerkleTree {
      * @param children child node
      * @return Internal node set
      */
-    private List<Node> constructInternalLevel(List<Node> children) {
-        List<Node> parents = new ArrayList<>(children.size() / MerkleConstant.EVEN_NUMBER);
-        for (int i = 0; i < children.size() - 1; i = i + MerkleConstant.EVEN_NUMBER) {
-            Node parent = constructInternalNode(children.get(i), children.get(i + 1));
-            parents.add(parent);
+    private Node[] constructLevel(Node[] children) {
+        Node[] parents = new Node[(children.length + 1) / MerkleConstant.EVEN_NUMBER];
+        if (parents.length > MerkleConstant.PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new LevelTask(children, parents, 0, parents.length));
+        } else {
+            constructInternalLevel(children, parents, 0, parents.length);
         }
+        return parents;
+    }
 
-        if (children.size() % MerkleConstant.EVEN_NUMBER == 1) {
+    /**
+     * Internal node construction of the parent range [from, to)
+     *
+     * @param children child node
+     * @param parents  Internal node set
+     * @param from     index of the first parent, inclusive
+     * @param to       index of the last parent, exclusive
+     */
+    private void constructInternalLevel(Node[] children, Node[] parents, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int left = i * MerkleConstant.EVEN_NUMBER;
             // In the case of an odd number of nodes, only the left node is calculated
-            Node parent = constructInternalNode(children.get(children.size() - 1), null);
-            parents.add(parent);
+            Node right = left + 1 < children.length ? children[left + 1] : null;
+            parents[i] = constructInternalNode(children[left], right);
+        }
+    }
+
+    /**
+     * Build the parent range of one level, the range is split until it is not larger than the threshold
+     */
+    private class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Node[] children;
+        private final transient Node[] parents;
+        private final int from;
+        private final int to;
+
+        LevelTask(Node[] children, Node[] parents, int from, int to) {
+            this.children = children;
+            this.parents = parents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MerkleConstant.PARALLEL_THRESHOLD) {
+                constructInternalLevel(children, parents, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new LevelTask(children, parents, from, middle), new LevelTask(children, parents, middle, to));
         }
-        return parents;
     }
 
     /**
@@ -206,11 +252,46 @@ public class MerkleTree {
         if (right == null) {
             return left.getSignature();
         }
-        // Here, deler32 is used for signature
-        crc.reset();
-        crc.update(left.signature);
-        crc.update(right.signature);
-        return ByteUtil.toBytes(crc.getValue());
+        return ByteUtil.toBytes(combiner.combine(left.signature, right.signature));
+    }
+
+    /**
+     * The signature combiner of the internal nodes
+     */
+    public enum SignatureCombiner {
+        /**
+         * Adler32 checksum of the child signatures, the signature has 32 significant bits
+         */
+        ADLER32 {
+            @Override
+            long combine(byte[] left, byte[] right) {
+                Adler32 adler32 = THREAD_ADLER32.get();
+                adler32.reset();
+                adler32.update(left);
+                adler32.update(right);
+                return adler32.getValue();
+            }
+        },
+        /**
+         * XX3 64-bit hash of the child signatures, it has fewer false equal signatures than Adler32
+         */
+        XX_HASH64 {
+            @Override
+            long combine(byte[] left, byte[] right) {
+                byte[] signatures = Arrays.copyOf(left, left.length + right.length);
+                System.arraycopy(right, 0, signatures, left.length, right.length);
+                return HASH_UTIL.hashBytes(signatures);
+            }
+        };
+
+        /**
+         * combine the signatures of the left and right child node
+         *
+         * @param left  left signature
+         * @param right right signature
+         * @return internal node signature
+         */
+        abstract long combine(byte[] left, byte[] right);
     }
 
     /**
@@ -310,5 +391,6 @@ public class MerkleTree {
     interface MerkleConstant {
         int CONSTRUCT_TREE_MIN_SIZE = 2;
         int EVEN_NUMBER = 2;
+        int PARALLEL_THRESHOLD = 4096;
     }
 }
@@ -15,16 +15,21 @@
 
 package org.opengauss.datachecker.check.modules.report;
 
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.opengauss.datachecker.check.cache.TableStatusRegister;
 import org.opengauss.datachecker.check.client.FeignClientService;
 import org.opengauss.datachecker.check.event.CheckFailedReportEvent;
 import org.opengauss.datachecker.check.event.CheckSuccessReportEvent;
 import org.opengauss.datachecker.check.load.CheckEnvironment;
 import org.opengauss.datachecker.check.modules.check.CheckDiffResult;
 import org.opengauss.datachecker.check.modules.check.CheckResultConstants;
+import org.opengauss.datachecker.check.modules.check.ExportCheckResult;
 import org.opengauss.datachecker.common.entry.check.CheckPartition;
+import org.opengauss.datachecker.common.entry.enums.CheckMode;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
 import org.opengauss.datachecker.common.entry.report.CheckProgress;
 import org.opengauss.datachecker.common.entry.report.CheckSummary;
@@ -38,9 +43,11 @@ import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
 import java.io.File;
+import java.nio.file.Path;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -62,6 +69,8 @@ public class CheckResultManagerService implements ApplicationContextAware {
     private CheckEnvironment checkEnvironment;
     @Resource
     private FeignClientService feignClient;
+    @Resource
+    private TableStatusRegister tableStatusRegister;
 
     private final Map<CheckPartition, CheckDiffResult> checkResultCache = new ConcurrentHashMap<>();
     private final Map<String, CheckDiffResult> noCheckedCache = new ConcurrentHashMap<>();
@@ -73,6 +82,10 @@ public class CheckResultManagerService implements ApplicationContextAware {
      * @param checkDiffResult checkDiffResult
      */
     public void addResult(CheckPartition checkPartition, CheckDiffResult checkDiffResult) {
+        if (Objects.equals(CheckMode.FULL, checkDiffResult.getCheckMode())) {
+            // the check result of the full verification is written before the checkpoint records its location
+            tableStatusRegister.persistentResult(checkPartition, ExportCheckResult.export(checkDiffResult));
+        }
         checkResultCache.put(checkPartition, checkDiffResult);
         if (StringUtils.equals(CheckResultConstants.RESULT_SUCCESS, checkDiffResult.getResult())) {
             context.publishEvent(new CheckSuccessReportEvent(checkDiffResult));
@@ -97,6 +110,7 @@ public class CheckResultManagerService implements ApplicationContextAware {
      */
     public void summaryCheckResult() {
         try {
+            recoverCheckResult();
             String logFilePath = getLogRootPath();
             final List<CheckDiffResult> successList = filterResultByResult(CheckResultConstants.RESULT_SUCCESS);
             final List<CheckDiffResult> failedList = filterResultByResult(CheckResultConstants.RESULT_FAILED);
@@ -110,6 +124,26 @@ public class CheckResultManagerService implements ApplicationContextAware {
         }
     }
 
+    /**
+     * Load the check results of the tables verified before the restart of the check service
+     */
+    private void recoverCheckResult() {
+        tableStatusRegister.getRecoveredResultPaths().forEach((checkPartition, path) -> {
+            if (checkResultCache.containsKey(checkPartition)) {
+                return;
+            }
+            try {
+                final String content = FileUtils.readFileContents(Path.of(path));
+                final CheckDiffResult result = JSONObject.parseObject(content, CheckDiffResult.class);
+                if (Objects.nonNull(result)) {
+                    checkResultCache.put(checkPartition, result);
+                }
+            } catch (JSONException ex) {
+                log.error("load check result {} has error", path);
+            }
+        });
+    }
+
     private void reduceFailedRepair(String logFilePath, List<CheckDiffResult> failedList) {
         failedList.forEach(tableFailed -> {
             final String repairFile = logFilePath + getRepairFileName(tableFailed);
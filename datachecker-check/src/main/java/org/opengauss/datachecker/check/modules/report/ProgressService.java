@@ -16,6 +16,7 @@
 package org.opengauss.datachecker.check.modules.report;
 
 import lombok.SneakyThrows;
+import org.opengauss.datachecker.check.cache.TableState;
 import org.opengauss.datachecker.check.cache.TableStatusRegister;
 import org.opengauss.datachecker.check.load.CheckEnvironment;
 import org.opengauss.datachecker.check.service.EndpointMetaDataManager;
@@ -27,6 +28,7 @@ import org.opengauss.datachecker.common.util.ThreadUtil;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import java.io.File;
 import java.time.Duration;
@@ -57,6 +59,27 @@ public class ProgressService {
     private EndpointMetaDataManager endpointMetaDataManager;
     private final ScheduledExecutorService executorService = ThreadUtil.newSingleThreadScheduledExecutor();
 
+    /**
+     * The progress is also refreshed when the last table completes the verification,
+     * so the waiters of {@link #getCheckProgress(int)} are not only woken by the scheduled task.
+     */
+    @PostConstruct
+    public void listenTableStatus() {
+        tableStatusRegister.addListener((tableName, oldState, newState) -> {
+            if (newState == TableState.CHECKED || newState == TableState.ERROR) {
+                refreshIfAllChecked();
+            }
+        });
+    }
+
+    private void refreshIfAllChecked() {
+        final int tableCount = progressRef.get() == null ? 0 : progressRef.get().getTableCount();
+        final int checkedCount = tableStatusRegister.getCheckedCount();
+        if (tableCount > 0 && checkedCount == tableCount) {
+            refreshCompleteProgress(checkedCount);
+        }
+    }
+
     /**
      * Schedule loading scheduled tasks
      */
@@ -81,7 +104,8 @@ public class ProgressService {
     }
 
     /**
-     * Get the progress and return the latest progress information when the scheduled task is closed
+     * Get the progress and return the latest progress information when the scheduled task is closed.
+     * In full mode, the current thread is blocked until the progress is completed.
      *
      * @return progress
      * @param completeCount completeCount
@@ -89,15 +113,19 @@ public class ProgressService {
     @SneakyThrows
     public CheckProgress getCheckProgress(int completeCount) {
         if (isFullMode()) {
-            while (!isComplete()) {
-                ThreadUtil.sleepHalfSecond();
-            }
-        }else {
+            awaitComplete();
+        } else {
             refreshCompleteProgress(completeCount);
         }
         return progressRef.get();
     }
 
+    private synchronized void awaitComplete() throws InterruptedException {
+        while (!isComplete()) {
+            wait();
+        }
+    }
+
     private boolean isFullMode() {
         return Objects.equals(checkEnvironment.getCheckMode(), CheckMode.FULL);
     }
@@ -145,6 +173,9 @@ public class ProgressService {
     public synchronized void refreshCompleteProgress(int completeCount) {
         progressRef.updateAndGet(refreshProgressUnaryOperator(completeCount));
         appendProgressLog();
+        if (isComplete()) {
+            notifyAll();
+        }
     }
 
     private void appendProgressLog() {
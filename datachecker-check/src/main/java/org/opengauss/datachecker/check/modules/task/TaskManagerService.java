@@ -15,6 +15,7 @@
 
 package org.opengauss.datachecker.check.modules.task;
 
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
 
 import java.util.List;
@@ -37,6 +38,31 @@ public interface TaskManagerService {
      */
     void refreshTableExtractStatus(String tableName, Endpoint endpoint, int status);
 
+    /**
+     * Refresh the extraction status of the kafka partition of the table
+     *
+     * @param tableName tableName
+     * @param partition kafka partition
+     * @param endpoint  endpoint {@link org.opengauss.datachecker.common.entry.enums.Endpoint}
+     */
+    void refreshPartitionExtractStatus(String tableName, int partition, Endpoint endpoint);
+
+    /**
+     * Refresh the status of the rows of the table extracted digest first pulled from the endpoint
+     *
+     * @param tableName tableName
+     * @param endpoint  endpoint {@link org.opengauss.datachecker.common.entry.enums.Endpoint}
+     * @param status    status, -1 if the rows can not be pulled
+     */
+    void refreshTableRowPullStatus(String tableName, Endpoint endpoint, int status);
+
+    /**
+     * Refresh the partition digests of the table shipped by the extract service
+     *
+     * @param digests partition digests
+     */
+    void refreshTableDigest(List<PartitionDigest> digests);
+
     /**
      * Initialize task status
      *
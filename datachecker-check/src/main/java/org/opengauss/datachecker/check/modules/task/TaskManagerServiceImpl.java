@@ -17,7 +17,10 @@ package org.opengauss.datachecker.check.modules.task;
 
 import com.alibaba.fastjson.JSON;
 import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.check.cache.TableDigestRegister;
 import org.opengauss.datachecker.check.cache.TableStatusRegister;
+import org.opengauss.datachecker.check.modules.check.RowPullService;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
 import org.opengauss.datachecker.common.exception.CheckingException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +44,10 @@ import static org.opengauss.datachecker.check.cache.TableStatusRegister.TASK_STA
 public class TaskManagerServiceImpl implements TaskManagerService {
     @Autowired
     private TableStatusRegister tableStatusRegister;
+    @Autowired
+    private TableDigestRegister tableDigestRegister;
+    @Autowired
+    private RowPullService rowPullService;
 
     /**
      * Refresh the execution status of the data extraction table of the specified task
@@ -56,6 +63,45 @@ public class TaskManagerServiceImpl implements TaskManagerService {
         tableStatusRegister.update(tableName, status);
     }
 
+    /**
+     * Refresh the extraction status of the kafka partition of the table
+     *
+     * @param tableName tableName
+     * @param partition kafka partition
+     * @param endpoint  endpoint {@link org.opengauss.datachecker.common.entry.enums.Endpoint}
+     */
+    @Override
+    public void refreshPartitionExtractStatus(String tableName, int partition, Endpoint endpoint) {
+        log.debug("the [{}] has extracted partition [{}] of table [{}]", endpoint.getDescription(), partition,
+            tableName);
+        tableStatusRegister.updatePartitionExtract(tableName, partition, endpoint.getCode());
+    }
+
+    /**
+     * Refresh the status of the rows of the table extracted digest first pulled from the endpoint
+     *
+     * @param tableName tableName
+     * @param endpoint  endpoint {@link org.opengauss.datachecker.common.entry.enums.Endpoint}
+     * @param status    status, -1 if the rows can not be pulled
+     */
+    @Override
+    public void refreshTableRowPullStatus(String tableName, Endpoint endpoint, int status) {
+        log.info("the [{}] refreshes the pulled rows status of table [{}] to [{}]", endpoint.getDescription(),
+            tableName, status);
+        rowPullService.refreshPullStatus(tableName, endpoint, status);
+    }
+
+    /**
+     * Refresh the partition digests of the table shipped by the extract service
+     *
+     * @param digests partition digests
+     */
+    @Override
+    public void refreshTableDigest(List<PartitionDigest> digests) {
+        log.debug("refresh the digest of table [{}] partitions [{}]", digests.get(0).getTableName(), digests.size());
+        tableDigestRegister.refresh(digests);
+    }
+
     /**
      * Initialize task status
      *
@@ -81,6 +127,8 @@ public class TaskManagerServiceImpl implements TaskManagerService {
     @Override
     public void cleanTaskStatus() {
         tableStatusRegister.removeAll();
+        tableDigestRegister.removeAll();
+        rowPullService.removeAll();
     }
 
     /**
@@ -17,6 +17,7 @@ package org.opengauss.datachecker.check.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.opengauss.datachecker.check.modules.check.KafkaConsumerHandler;
 import org.opengauss.datachecker.check.modules.check.KafkaConsumerService;
 import org.opengauss.datachecker.common.entry.check.TopicRecordInfo;
@@ -53,10 +54,15 @@ public class TableKafkaService {
         Topic topic = new Topic().setTopicName(topicName).setPartitions(partitionTotal);
 
         IntStream.range(0, topic.getPartitions()).forEach(partitions -> {
-            final KafkaConsumerHandler consumerHandler =
-                new KafkaConsumerHandler(kafkaConsumerService.buildKafkaConsumer(false),
-                    kafkaConsumerService.getRetryFetchRecordTimes());
-            final List<RowDataHash> rowDataHashes = consumerHandler.queryRowData(topicName, partitions, true);
+            final KafkaConsumer<String, RowDataHash> kafkaConsumer =
+                kafkaConsumerService.leaseKafkaConsumers(1).get(0);
+            final List<RowDataHash> rowDataHashes;
+            try {
+                rowDataHashes = new KafkaConsumerHandler(kafkaConsumer, kafkaConsumerService.getRetryFetchRecordTimes())
+                    .queryRowData(topicName, partitions, true);
+            } finally {
+                kafkaConsumerService.releaseKafkaConsumer(kafkaConsumer);
+            }
             log.info("topic={},partitions={} record-size={}", topicName, partitions, rowDataHashes.size());
             final TopicRecordInfo recordInfo =
                 new TopicRecordInfo().setTopic(topic.getTopicName()).setPartitions(partitions)
@@ -17,16 +17,17 @@ package org.opengauss.datachecker.check.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.opengauss.datachecker.check.cache.TableStatusRegister;
 import org.opengauss.datachecker.check.client.FeignClientService;
 import org.opengauss.datachecker.check.load.CheckEnvironment;
 import org.opengauss.datachecker.check.modules.check.DataCheckService;
 import org.opengauss.datachecker.check.modules.check.ExportCheckResult;
+import org.opengauss.datachecker.check.modules.check.RowPullService;
 import org.opengauss.datachecker.check.service.CheckService;
 import org.opengauss.datachecker.check.service.CheckTableStructureService;
 import org.opengauss.datachecker.check.service.EndpointMetaDataManager;
 import org.opengauss.datachecker.check.event.KafkaTopicDeleteProvider;
+import org.opengauss.datachecker.common.entry.check.CheckPartition;
 import org.opengauss.datachecker.common.entry.check.CheckProgress;
 import org.opengauss.datachecker.common.entry.enums.CheckMode;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
@@ -48,9 +49,12 @@ import javax.annotation.Resource;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -87,6 +91,16 @@ public class CheckServiceImpl implements CheckService {
     private static final String SELF_CHECK_POLL_THREAD_NAME = "check-polling-thread";
     private static final String START_MESSAGE = "the execution time of %s process is %s";
 
+    /**
+     * The tables checked by the chunk checksums, their rows are not extracted to kafka
+     */
+    private final Set<String> chunkChecksumTables = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The tables extracted digest first, the rows of their different digest leaves are pulled before checking
+     */
+    private final Set<String> digestFirstTables = ConcurrentHashMap.newKeySet();
+
     @Autowired
     private FeignClientService feignClientService;
     @Autowired
@@ -99,6 +113,8 @@ public class CheckServiceImpl implements CheckService {
     private CheckTableStructureService checkTableStructureService;
     @Resource
     private CheckEnvironment checkEnvironment;
+    @Autowired
+    private RowPullService rowPullService;
     @Value("${data.check.auto-clean-environment}")
     private boolean isAutoCleanEnvironment = true;
     @Resource
@@ -116,7 +132,11 @@ public class CheckServiceImpl implements CheckService {
         Assert.isTrue(Objects.equals(CheckMode.FULL, checkEnvironment.getCheckMode()),
             "current check mode is " + CheckMode.INCREMENT.getDescription() + " , not start full check.");
         if (STARTED.compareAndSet(false, true)) {
-            ExportCheckResult.backCheckResultDirectory();
+            tableStatusRegister.recover();
+            if (!tableStatusRegister.hasRecovered()) {
+                // the check results of the verified tables are kept when resuming from the checkpoint
+                ExportCheckResult.backCheckResultDirectory();
+            }
             try {
                 tableStatusRegister.selfCheck();
                 startCheckFullMode();
@@ -156,11 +176,17 @@ public class CheckServiceImpl implements CheckService {
         // Source endpoint task construction
         final List<ExtractTask> extractTasks = feignClientService.buildExtractTaskAllTables(Endpoint.SOURCE, processNo);
         log.info("check full mode : build extract task source {}", processNo);
-        // Sink endpoint task construction
-        feignClientService.buildExtractTaskAllTables(Endpoint.SINK, processNo, extractTasks);
+        extractTasks.stream().filter(ExtractTask::isChunkChecksum).map(ExtractTask::getTableName)
+                    .forEach(chunkChecksumTables::add);
+        extractTasks.stream().filter(ExtractTask::isDigestFirst).map(ExtractTask::getTableName)
+                    .forEach(digestFirstTables::add);
+        // Sink endpoint task construction, the tables verified before the restart are skipped
+        final List<ExtractTask> sinkExtractTasks = extractTasks.stream().filter(
+            task -> !tableStatusRegister.isRecoveredChecked(task.getTableName())).collect(Collectors.toList());
+        feignClientService.buildExtractTaskAllTables(Endpoint.SINK, processNo, sinkExtractTasks);
         log.info("check full mode : build extract task sink {}", processNo);
         checkTableStructureService.check(processNo);
-        // Perform all tasks
+        // Perform all tasks, both endpoints skip the tables whose check status is restored as verified
         feignClientService.execExtractTaskAllTables(Endpoint.SOURCE, processNo);
         feignClientService.execExtractTaskAllTables(Endpoint.SINK, processNo);
         log.info("check full mode : exec extract task (source and sink ) {}", processNo);
@@ -171,12 +197,16 @@ public class CheckServiceImpl implements CheckService {
     /**
      * Data verification polling thread
      * It is used to monitor the completion status of data extraction tasks in real time.
-     * When the status of a data extraction task changes to complete, start a data verification independent thread.
-     * And start the current task to verify the data.
+     * The thread is blocked until the status of a data extraction task changes to complete,
+     * then start a data verification independent thread, and start the current task to verify the data.
+     * The kafka partitions extracted by both endpoints are verified before their table is extracted.
+     * The thread exits when all the tables have completed the verification.
      */
     public void startCheckPollingThread() {
-        while (!tableStatusRegister.isCheckCompleted()) {
-            checkTableWithSyncExtracting();
+        String tableName;
+        while ((tableName = tableStatusRegister.completedTableTake(this::startCheckPartition)) != null) {
+            log.info("start checking thread of table {}", tableName);
+            startCheckTableThread(tableName);
         }
     }
 
@@ -192,27 +222,25 @@ public class CheckServiceImpl implements CheckService {
         }
     }
 
-    private void checkTableWithSyncExtracting() {
-
-        if (!tableStatusRegister.isCheckCompleted()) {
-            String tableName = tableStatusRegister.completedTablePoll();
-            if (StringUtils.isNotEmpty(tableName)) {
-                log.info("start checking thread of table {}", tableName);
-                startCheckTableThread(tableName);
-            }
-        }
-    }
-
     private void startCheckTableThread(String tableName) {
         final TableMetadata tableMetadata = endpointMetaDataManager.getTableMetadata(Endpoint.SOURCE, tableName);
-        if (Objects.nonNull(tableMetadata)) {
+        if (Objects.nonNull(tableMetadata) && chunkChecksumTables.contains(tableName)) {
+            tableStatusRegister.initPartitionsStatus(tableName, 1);
+            dataCheckService.checkTableChunkChecksum(getCurrentCheckProcess(), tableName);
+        } else if (Objects.nonNull(tableMetadata)) {
             int taskCount = TaskUtil.calcAutoTaskCount(tableMetadata.getTableRows());
             final int partitions = TopicUtil.calcPartitions(taskCount);
             final int tablePartitionRowCount =
                 TaskUtil.calcTablePartitionRowCount(tableMetadata.getTableRows(), partitions);
             String process = getCurrentCheckProcess();
             tableStatusRegister.initPartitionsStatus(tableName, partitions);
-            IntStream.range(0, partitions).forEach(idxPartition -> {
+            final List<Integer> checkPartitions =
+                IntStream.range(0, partitions).filter(idx -> tableStatusRegister.startPartitionCheck(tableName, idx))
+                         .boxed().collect(Collectors.toList());
+            if (digestFirstTables.contains(tableName)) {
+                rowPullService.pull(tableName, checkPartitions);
+            }
+            checkPartitions.forEach(idxPartition -> {
                 // Verify the data according to the table name and Kafka partition
                 dataCheckService.checkTableData(process, tableName, idxPartition, tablePartitionRowCount);
             });
@@ -222,6 +250,25 @@ public class CheckServiceImpl implements CheckService {
         }
     }
 
+    private void startCheckPartition(CheckPartition checkPartition) {
+        final String tableName = checkPartition.getTableName();
+        final TableMetadata tableMetadata = endpointMetaDataManager.getTableMetadata(Endpoint.SOURCE, tableName);
+        if (Objects.isNull(tableMetadata) || chunkChecksumTables.contains(tableName)) {
+            return;
+        }
+        int taskCount = TaskUtil.calcAutoTaskCount(tableMetadata.getTableRows());
+        final int partitions = TopicUtil.calcPartitions(taskCount);
+        final int tablePartitionRowCount =
+            TaskUtil.calcTablePartitionRowCount(tableMetadata.getTableRows(), partitions);
+        tableStatusRegister.initPartitionsStatus(tableName, partitions);
+        if (checkPartition.getPartition() < partitions
+            && tableStatusRegister.startPartitionCheck(tableName, checkPartition.getPartition())) {
+            log.info("start checking thread of table {} partition {}", tableName, checkPartition.getPartition());
+            dataCheckService.checkTableData(getCurrentCheckProcess(), tableName, checkPartition.getPartition(),
+                tablePartitionRowCount);
+        }
+    }
+
     private void completeProgressBar(ScheduledExecutorService scheduledExecutor) {
         CheckProgress process = CHECK_PROGRESS_REFERENCE.get();
         final CheckProgress newProcess = tableStatusRegister.extractProgress();
@@ -265,6 +312,8 @@ public class CheckServiceImpl implements CheckService {
         }
         ThreadUtil.sleep(3000);
         PROCESS_SIGNATURE.set(null);
+        chunkChecksumTables.clear();
+        digestFirstTables.clear();
         STARTED.set(false);
         CHECKING.set(true);
         log.info("clear and reset the current verification service!");
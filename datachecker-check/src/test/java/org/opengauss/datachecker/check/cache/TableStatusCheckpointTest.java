@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opengauss.datachecker.check.modules.check.ExportCheckResult;
+import org.opengauss.datachecker.common.entry.check.CheckPartition;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TableStatusCheckpointTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/27
+ * @since ：11
+ */
+class TableStatusCheckpointTest {
+    private static final Set<String> TABLES = Set.of("t_1", "t_2", "t_3", "t_4");
+
+    @TempDir
+    Path dataPath;
+
+    @BeforeEach
+    void setUp() {
+        ExportCheckResult.initEnvironment(dataPath.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        final TableStatusRegister register = new TableStatusRegister();
+        register.removeCheckpoint();
+        register.removeAll();
+    }
+
+    @DisplayName("the verified tables are restored after restart, and only the other tables are checked again")
+    @Test
+    void testResumeAfterRestart() {
+        TableStatusRegister register = new TableStatusRegister();
+        register.recover();
+        assertThat(register.hasRecovered()).isFalse();
+        register.init(TABLES);
+        // t_1 and t_2 are verified, t_3 is extracted and in checking, t_4 is extracting when the process is killed
+        checkTable(register, "t_1", 2);
+        checkTable(register, "t_2", 1);
+        extractTable(register, "t_3");
+        register.initPartitionsStatus("t_3", 2);
+        register.update("t_3", 0, TableStatusRegister.TASK_STATUS_CHECK_VALUE);
+        register.update("t_4", 1);
+        register.removeAll();
+
+        TableStatusRegister restarted = new TableStatusRegister();
+        restarted.recover();
+        restarted.init(TABLES);
+        assertThat(restarted.isRecoveredChecked("t_1")).isTrue();
+        assertThat(restarted.isRecoveredChecked("t_3")).isFalse();
+        assertThat(restarted.get("t_1")).isEqualTo(TableStatusRegister.TASK_STATUS_CONSUMER_VALUE);
+        assertThat(restarted.get("t_2")).isEqualTo(TableStatusRegister.TASK_STATUS_CONSUMER_VALUE);
+        assertThat(restarted.get("t_3")).isEqualTo(TableStatusRegister.TASK_STATUS_DEFAULT_VALUE);
+        assertThat(restarted.getTablePartitionsStatusCache().get("t_1")).containsOnlyKeys(0, 1);
+        assertThat(restarted.getRecoveredResultPaths()).containsOnlyKeys(new CheckPartition("t_1", 0),
+            new CheckPartition("t_1", 1), new CheckPartition("t_2", 0));
+
+        TABLES.forEach(table -> extractTable(restarted, table));
+        List<String> dispatched = new ArrayList<>();
+        String table;
+        while ((table = restarted.completedTablePoll()) != null) {
+            dispatched.add(table);
+        }
+        assertThat(dispatched).containsExactlyInAnyOrder("t_3", "t_4");
+    }
+
+    @DisplayName("the broken last record of the checkpoint is ignored")
+    @Test
+    void testBrokenLastRecord() throws IOException {
+        final Path checkpointPath = Path.of(ExportCheckResult.getCheckpointPath());
+        TableStatusCheckpoint checkpoint = new TableStatusCheckpoint(checkpointPath);
+        checkpoint.appendTableStatus("t_1", TableStatusRegister.TASK_STATUS_CONSUMER_VALUE);
+        checkpoint.appendResult(new CheckPartition("t_1", 0), "t_1_0.txt");
+        checkpoint.close();
+        Files.write(checkpointPath, "{\"type\":\"T\",\"table\":\"t_1\",\"sta".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        final TableStatusCheckpoint.Snapshot snapshot = new TableStatusCheckpoint(checkpointPath).replay();
+        assertThat(snapshot.getTableStatus()).containsEntry("t_1", TableStatusRegister.TASK_STATUS_CONSUMER_VALUE)
+                                             .hasSize(1);
+        assertThat(snapshot.getResultPaths()).containsEntry(new CheckPartition("t_1", 0), "t_1_0.txt");
+    }
+
+    private void extractTable(TableStatusRegister register, String table) {
+        register.update(table, 1);
+        register.update(table, 2);
+    }
+
+    private void checkTable(TableStatusRegister register, String table, int partitions) {
+        extractTable(register, table);
+        register.initPartitionsStatus(table, partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            final CheckPartition checkPartition = new CheckPartition(table, partition);
+            register.persistentResult(checkPartition, table + "_" + partition + ".txt");
+            register.update(table, partition, TableStatusRegister.TASK_STATUS_CHECK_VALUE);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.bucket;
+
+import com.google.common.collect.MapDifference;
+import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.util.LongHashFunctionWrapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BucketRowStoreTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/25
+ * @since ：11
+ */
+@Slf4j
+class BucketRowStoreTest {
+    private static final LongHashFunctionWrapper HASH_UTIL = new LongHashFunctionWrapper();
+    private static final int TIMED_ROW_COUNT = 200000;
+    private static final int TIMED_ROUNDS = 5;
+
+    @DisplayName("sort merge difference of the row store is the same as the map difference")
+    @Test
+    void testDifferenceSameAsMapDifference() {
+        Random random = new Random(20230325L);
+        for (int round = 0; round < 50; round++) {
+            BucketRowStore sourceStore = new BucketRowStore(random.nextInt(100));
+            BucketRowStore sinkStore = new BucketRowStore(random.nextInt(100));
+            Map<String, RowDataHash> sourceMap = new HashMap<>();
+            Map<String, RowDataHash> sinkMap = new HashMap<>();
+            final int rowCount = random.nextInt(2000);
+            for (int idx = 0; idx < rowCount; idx++) {
+                final String primaryKey = (idx % 7 == 0 ? "主键" : "") + random.nextInt(rowCount + 1);
+                final RowDataHash row = row(primaryKey, random.nextInt(3));
+                final int target = random.nextInt(10);
+                if (target < 8) {
+                    put(sourceStore, sourceMap, row);
+                }
+                if (target > 0) {
+                    final long rowHash = target == 9 ? random.nextLong() : row.getRowHash();
+                    put(sinkStore, sinkMap, row(primaryKey, row.getPartition()).setRowHash(rowHash));
+                }
+            }
+            assertSameDifference(sourceStore.difference(sinkStore), Maps.difference(sourceMap, sinkMap));
+            assertThat(sourceStore.size()).isEqualTo(sourceMap.size());
+            assertThat(sinkStore.toRowMap()).isEqualTo(sinkMap);
+        }
+    }
+
+    @DisplayName("timed comparison of the sort merge difference and the map difference of the same rows")
+    @Test
+    void testDifferenceTimedAgainstMapDifference() {
+        Random random = new Random(20230401L);
+        BucketRowStore sourceStore = new BucketRowStore(TIMED_ROW_COUNT);
+        BucketRowStore sinkStore = new BucketRowStore(TIMED_ROW_COUNT);
+        Map<String, RowDataHash> sourceMap = new HashMap<>();
+        Map<String, RowDataHash> sinkMap = new HashMap<>();
+        for (int idx = 0; idx < TIMED_ROW_COUNT; idx++) {
+            final RowDataHash row = row(String.valueOf(idx), 0);
+            final int target = random.nextInt(100);
+            if (target > 0) {
+                put(sourceStore, sourceMap, row);
+            }
+            if (target < 99) {
+                final long rowHash = target == 50 ? random.nextLong() : row.getRowHash();
+                put(sinkStore, sinkMap, row(row.getPrimaryKey(), 0).setRowHash(rowHash));
+            }
+        }
+        long sortMergeNanos = Long.MAX_VALUE;
+        long mapDifferenceNanos = Long.MAX_VALUE;
+        for (int round = 0; round < TIMED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            final DifferencePair<Set<String>, Set<String>, Set<String>> result = sourceStore.difference(sinkStore);
+            sortMergeNanos = Math.min(sortMergeNanos, System.nanoTime() - start);
+            start = System.nanoTime();
+            final MapDifference<String, RowDataHash> expected = Maps.difference(sourceMap, sinkMap);
+            mapDifferenceNanos = Math.min(mapDifferenceNanos, System.nanoTime() - start);
+            assertSameDifference(result, expected);
+        }
+        log.info("difference of {} rows: sort merge {} ms, map difference {} ms", TIMED_ROW_COUNT,
+            TimeUnit.NANOSECONDS.toMillis(sortMergeNanos), TimeUnit.NANOSECONDS.toMillis(mapDifferenceNanos));
+    }
+
+    @DisplayName("different primary keys with the same primary key hash are different rows")
+    @Test
+    void testPrimaryKeyHashCollision() {
+        BucketRowStore sourceStore = new BucketRowStore(0);
+        BucketRowStore sinkStore = new BucketRowStore(0);
+        sourceStore.put(new RowDataHash().setPrimaryKey("a").setPrimaryKeyHash(1L).setRowHash(10L));
+        sourceStore.put(new RowDataHash().setPrimaryKey("b").setPrimaryKeyHash(1L).setRowHash(20L));
+        sinkStore.put(new RowDataHash().setPrimaryKey("b").setPrimaryKeyHash(1L).setRowHash(21L));
+        sinkStore.put(new RowDataHash().setPrimaryKey("c").setPrimaryKeyHash(1L).setRowHash(30L));
+
+        final DifferencePair<Set<String>, Set<String>, Set<String>> difference = sourceStore.difference(sinkStore);
+        assertThat(sourceStore.size()).isEqualTo(2);
+        assertThat(difference.getOnlyOnLeft()).containsOnly("a");
+        assertThat(difference.getOnlyOnRight()).containsOnly("c");
+        assertThat(difference.getDiffering()).containsOnly("b");
+    }
+
+    @DisplayName("rows with the same primary key and row hash are the same row even if the partition is different")
+    @Test
+    void testPartitionIsNotCompared() {
+        BucketRowStore sourceStore = new BucketRowStore(4);
+        BucketRowStore sinkStore = new BucketRowStore(4);
+        sourceStore.put(row("1", 0));
+        sinkStore.put(row("1", 0).setPartition(2));
+        sourceStore.put(row("2", 0));
+        sinkStore.put(row("2", 1));
+
+        final DifferencePair<Set<String>, Set<String>, Set<String>> difference = sourceStore.difference(sinkStore);
+        assertThat(difference.getOnlyOnLeft()).isEmpty();
+        assertThat(difference.getOnlyOnRight()).isEmpty();
+        assertThat(difference.getDiffering()).containsOnly("2");
+        assertThat(sinkStore.keySet()).containsOnly("1", "2");
+    }
+
+    @DisplayName("sort merge difference stops when the limit of the different primary keys is collected")
+    @Test
+    void testDifferenceLimit() {
+        BucketRowStore sourceStore = new BucketRowStore(100);
+        BucketRowStore sinkStore = new BucketRowStore(100);
+        for (int idx = 0; idx < 100; idx++) {
+            sourceStore.put(row(String.valueOf(idx), 0));
+            sinkStore.put(row(String.valueOf(idx + 50), idx % 2));
+        }
+        final DifferencePair<Set<String>, Set<String>, Set<String>> all = sourceStore.difference(sinkStore);
+        assertThat(diffCount(all)).isEqualTo(125);
+        for (int limit : new int[] {0, 1, 60, 124, 125, 1000}) {
+            final DifferencePair<Set<String>, Set<String>, Set<String>> limited =
+                sourceStore.difference(sinkStore, limit);
+            assertThat(limited.getOnlyOnLeft()).isSubsetOf(all.getOnlyOnLeft());
+            assertThat(limited.getOnlyOnRight()).isSubsetOf(all.getOnlyOnRight());
+            assertThat(limited.getDiffering()).isSubsetOf(all.getDiffering());
+            assertThat(diffCount(limited)).isEqualTo(Math.min(limit, 125));
+        }
+    }
+
+    @DisplayName("bucket signature and replaced rows are the same as the previous map bucket")
+    @Test
+    void testBucketSignature() {
+        Bucket bucket = new Bucket(4).setNumber(1);
+        long signature = 1L;
+        for (int idx = 0; idx < 100; idx++) {
+            final RowDataHash row = row(String.valueOf(idx % 60), 0);
+            bucket.put(row);
+            signature ^= row.getRowHash();
+        }
+        assertThat(bucket.getBucketCount()).isEqualTo(60);
+        assertThat(bucket.getSignature()).isEqualTo(new Bucket(0).setSignature(signature).getSignature());
+    }
+
+    private int diffCount(DifferencePair<Set<String>, Set<String>, Set<String>> difference) {
+        return difference.getOnlyOnLeft().size() + difference.getOnlyOnRight().size()
+            + difference.getDiffering().size();
+    }
+
+    private void put(BucketRowStore store, Map<String, RowDataHash> map, RowDataHash row) {
+        store.put(row);
+        map.put(row.getPrimaryKey(), row);
+    }
+
+    private RowDataHash row(String primaryKey, int partition) {
+        return new RowDataHash().setPrimaryKey(primaryKey).setPrimaryKeyHash(HASH_UTIL.hashChars(primaryKey) << 4)
+                                .setRowHash(HASH_UTIL.hashChars(primaryKey + partition)).setPartition(partition);
+    }
+
+    private void assertSameDifference(DifferencePair<Set<String>, Set<String>, Set<String>> result,
+        MapDifference<String, RowDataHash> expected) {
+        assertThat(result.getOnlyOnLeft()).isEqualTo(expected.entriesOnlyOnLeft().keySet());
+        assertThat(result.getOnlyOnRight()).isEqualTo(expected.entriesOnlyOnRight().keySet());
+        assertThat(result.getDiffering()).isEqualTo(expected.entriesDiffering().keySet());
+    }
+}
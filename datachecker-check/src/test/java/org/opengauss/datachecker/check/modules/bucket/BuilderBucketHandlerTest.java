@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.bucket;
+
+import com.google.common.collect.MapDifference;
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.check.modules.merkle.MerkleTree;
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.util.LongHashFunctionWrapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BuilderBucketHandlerTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/28
+ * @since ：11
+ */
+class BuilderBucketHandlerTest {
+    private static final LongHashFunctionWrapper HASH_UTIL = new LongHashFunctionWrapper();
+
+    @DisplayName("lopsided bucket lists are re-bucketed onto a common bucket count")
+    @Test
+    void testRebucket() {
+        Map<String, RowDataHash> sourceRows = new HashMap<>();
+        Map<String, RowDataHash> sinkRows = new HashMap<>();
+        IntStream.range(0, 20000).forEach(idx -> {
+            final RowDataHash row = row(String.valueOf(idx), idx % 1000 == 0 ? -1L : idx);
+            if (idx % 3000 != 1) {
+                sourceRows.put(row.getPrimaryKey(), row);
+            }
+            if (idx % 700 != 2) {
+                sinkRows.put(row.getPrimaryKey(), row(row.getPrimaryKey(), idx));
+            }
+        });
+        // the source has 4 buckets, the sink has 128 buckets
+        final List<Bucket> sourceBucketList = buildBucketList(sourceRows, 8000);
+        final List<Bucket> sinkBucketList = buildBucketList(sinkRows, 200);
+        assertThat(sourceBucketList).hasSize(4);
+        assertThat(sinkBucketList).hasSize(128);
+
+        final int bucketCount = BuilderBucketHandler.rebucket(sourceBucketList, sinkBucketList);
+        assertThat(bucketCount).isEqualTo(128);
+        assertRebucketed(sourceBucketList, sourceRows, bucketCount);
+        assertRebucketed(sinkBucketList, sinkRows, bucketCount);
+        assertThat(new MerkleTree(sourceBucketList).getDepth()).isEqualTo(new MerkleTree(sinkBucketList).getDepth());
+
+        Set<String> onlyOnLeft = new HashSet<>();
+        Set<String> onlyOnRight = new HashSet<>();
+        Set<String> differing = new HashSet<>();
+        for (int idx = 0; idx < bucketCount; idx++) {
+            final DifferencePair<Set<String>, Set<String>, Set<String>> pair =
+                sourceBucketList.get(idx).difference(sinkBucketList.get(idx));
+            onlyOnLeft.addAll(pair.getOnlyOnLeft());
+            onlyOnRight.addAll(pair.getOnlyOnRight());
+            differing.addAll(pair.getDiffering());
+        }
+        final MapDifference<String, RowDataHash> expected = Maps.difference(sourceRows, sinkRows);
+        assertThat(onlyOnLeft).isEqualTo(expected.entriesOnlyOnLeft().keySet());
+        assertThat(onlyOnRight).isEqualTo(expected.entriesOnlyOnRight().keySet());
+        assertThat(differing).isEqualTo(expected.entriesDiffering().keySet());
+    }
+
+    @DisplayName("a single bucket and an empty side are re-bucketed to two buckets")
+    @Test
+    void testRebucketSingleBucket() {
+        List<Bucket> sourceBucketList = new ArrayList<>();
+        List<Bucket> sinkBucketList = new ArrayList<>(List.of(BuilderBucketHandler.builderEmpty(0)));
+        sinkBucketList.get(0).put(row("1", 1L));
+        assertThat(BuilderBucketHandler.rebucket(sourceBucketList, sinkBucketList)).isEqualTo(2);
+        assertThat(sourceBucketList).hasSize(2).allMatch(bucket -> bucket.getBucketCount() == 0);
+        assertThat(sinkBucketList.stream().mapToInt(Bucket::getBucketCount).sum()).isEqualTo(1);
+    }
+
+    private List<Bucket> buildBucketList(Map<String, RowDataHash> rows, int bucketCapacity) {
+        Map<Integer, Bucket> bucketMap = new HashMap<>();
+        new BuilderBucketHandler(bucketCapacity).builder(new ArrayList<>(rows.values()), 20000, bucketMap);
+        return new ArrayList<>(bucketMap.values());
+    }
+
+    private void assertRebucketed(List<Bucket> bucketList, Map<String, RowDataHash> rows, int bucketCount) {
+        assertThat(bucketList.stream().map(Bucket::getNumber).collect(Collectors.toList())).isEqualTo(
+            IntStream.range(0, bucketCount).boxed().collect(Collectors.toList()));
+        Map<String, RowDataHash> rebucketRows = new HashMap<>();
+        bucketList.forEach(bucket -> bucket.getBucket().forEach(row -> {
+            assertThat(Math.abs(row.getPrimaryKeyHash()) & (bucketCount - 1)).isEqualTo(bucket.getNumber());
+            rebucketRows.put(row.getPrimaryKey(), row);
+        }));
+        assertThat(rebucketRows).isEqualTo(rows);
+    }
+
+    private RowDataHash row(String primaryKey, long rowHash) {
+        return new RowDataHash().setPrimaryKey(primaryKey).setPrimaryKeyHash(HASH_UTIL.hashChars(primaryKey))
+                                .setRowHash(rowHash);
+    }
+}
@@ -7,11 +7,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.opengauss.datachecker.check.modules.check.AbstractCheckDiffResultBuilder;
 import org.opengauss.datachecker.check.modules.check.CheckDiffResult;
+import org.opengauss.datachecker.check.modules.check.CheckResultConstants;
 import org.opengauss.datachecker.common.entry.extract.Topic;
+import org.opengauss.datachecker.common.entry.enums.CheckMode;
 import org.opengauss.datachecker.common.util.JsonObjectUtil;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * CheckDiffResultTest
@@ -59,4 +65,51 @@ public class CheckDiffResultTest {
                         .keyDeleteSet(deleteSet).build();
         System.out.println(JsonObjectUtil.format(result));
     }
+
+    @DisplayName("diff budget is the smallest diff count which is too large to build the repair dml")
+    @Test
+    void testDiffBudget() {
+        assertThat(AbstractCheckDiffResultBuilder.diffBudget(0, 20)).isEqualTo(Integer.MAX_VALUE);
+        assertThat(AbstractCheckDiffResultBuilder.diffBudget(rowCount, 20)).isEqualTo(5001);
+        final int budget = AbstractCheckDiffResultBuilder.diffBudget(1000000, 20);
+        assertThat(budget).isEqualTo(210000);
+        assertThat(buildResult(1000000, budget - 1, false).getMessage()).doesNotContain("too large");
+        assertThat(buildResult(1000000, budget, false).getMessage()).contains("too large");
+    }
+
+    @DisplayName("truncated result keeps the collected keys and reports the estimated diff count")
+    @Test
+    void testTruncatedResult() {
+        final CheckDiffResult result = buildResult(10000000, 100, true);
+        assertThat(result.isTruncated()).isTrue();
+        assertThat(result.getEstimatedDiffCount()).isEqualTo(3200);
+        assertThat(result.getKeyUpdateSet()).hasSize(100);
+        assertThat(result.getMessage()).contains("about 3200 rows", "too large");
+    }
+
+    @DisplayName("the partition failed to be checked is reported as failed without the difference keys")
+    @Test
+    void testFailedResult() {
+        final CheckDiffResult result = AbstractCheckDiffResultBuilder.builder().table(tableName).schema(sinkSchema)
+                                                                     .partitions(partitions)
+                                                                     .isTableStructureEquals(true)
+                                                                     .isExistTableMiss(false, null)
+                                                                     .checkMode(CheckMode.FULL)
+                                                                     .failed("the rows are not pulled")
+                                                                     .build();
+        assertThat(result.getResult()).isEqualTo(CheckResultConstants.RESULT_FAILED);
+        assertThat(result.getMessage()).contains("the rows are not pulled");
+        assertThat(result.getKeyUpdateSet()).isEmpty();
+        assertThat(result.getKeyInsertSet()).isEmpty();
+        assertThat(result.getKeyDeleteSet()).isEmpty();
+    }
+
+    private CheckDiffResult buildResult(int rowCount, int diffCount, boolean isTruncated) {
+        final Set<String> keys = IntStream.range(0, diffCount).mapToObj(String::valueOf).collect(Collectors.toSet());
+        return AbstractCheckDiffResultBuilder.builder().table(tableName).topic(topic.getTopicName())
+                                             .schema(sinkSchema).partitions(partitions)
+                                             .isTableStructureEquals(true).isExistTableMiss(false, null)
+                                             .rowCount(rowCount).errorRate(20).checkMode(CheckMode.FULL)
+                                             .keyUpdateSet(keys).truncated(isTruncated, 3200L).build();
+    }
 }
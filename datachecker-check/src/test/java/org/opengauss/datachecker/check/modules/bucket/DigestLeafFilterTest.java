@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.bucket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.util.LongHashFunctionWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * DigestLeafFilterTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/31
+ * @since ：11
+ */
+class DigestLeafFilterTest {
+    private static final LongHashFunctionWrapper HASH_UTIL = new LongHashFunctionWrapper();
+
+    @DisplayName("the same rows have the same digests even if the leaf counts are different")
+    @Test
+    void testSameRows() {
+        List<RowDataHash> rows = rows(new Random(20230331L), 5000);
+        final DigestLeafFilter leafFilter = DigestLeafFilter.of(digest(rows, 1024), digest(rows, 64));
+        assertThat(leafFilter.getLeafCount()).isEqualTo(64);
+        assertThat(leafFilter.isEmpty()).isTrue();
+    }
+
+    @DisplayName("comparing only the rows of the different leaves finds all the differences")
+    @Test
+    void testOnlyDifferentLeavesCompared() {
+        final Random random = new Random(20230331L);
+        for (int round = 0; round < 20; round++) {
+            List<RowDataHash> sourceRows = rows(random, 3000);
+            List<RowDataHash> sinkRows = new ArrayList<>();
+            sourceRows.forEach(row -> {
+                final int target = random.nextInt(1000);
+                if (target == 0) {
+                    sinkRows.add(new RowDataHash().setPrimaryKey(row.getPrimaryKey())
+                                                  .setPrimaryKeyHash(row.getPrimaryKeyHash())
+                                                  .setRowHash(random.nextLong()));
+                } else if (target > 1) {
+                    sinkRows.add(row);
+                }
+            });
+            sinkRows.addAll(rows(random, 3));
+            final DigestLeafFilter leafFilter =
+                DigestLeafFilter.of(digest(sourceRows, 1 << (4 + random.nextInt(6))), digest(sinkRows, 256));
+            final BucketRowStore sourceStore = new BucketRowStore(0);
+            final BucketRowStore sinkStore = new BucketRowStore(0);
+            sourceRows.stream().filter(leafFilter).forEach(sourceStore::put);
+            sinkRows.stream().filter(leafFilter).forEach(sinkStore::put);
+
+            final DifferencePair<Set<String>, Set<String>, Set<String>> expected =
+                store(sourceRows).difference(store(sinkRows));
+            final DifferencePair<Set<String>, Set<String>, Set<String>> result = sourceStore.difference(sinkStore);
+            assertThat(result.getOnlyOnLeft()).isEqualTo(expected.getOnlyOnLeft());
+            assertThat(result.getOnlyOnRight()).isEqualTo(expected.getOnlyOnRight());
+            assertThat(result.getDiffering()).isEqualTo(expected.getDiffering());
+            assertThat(sourceStore.size()).isLessThan(sourceRows.size());
+        }
+    }
+
+    private List<RowDataHash> rows(Random random, int rowCount) {
+        List<RowDataHash> rows = new ArrayList<>(rowCount);
+        for (int idx = 0; idx < rowCount; idx++) {
+            final String primaryKey = String.valueOf(random.nextLong());
+            rows.add(new RowDataHash().setPrimaryKey(primaryKey).setPrimaryKeyHash(HASH_UTIL.hashChars(primaryKey))
+                                      .setRowHash(random.nextLong()));
+        }
+        return rows;
+    }
+
+    private BucketRowStore store(List<RowDataHash> rows) {
+        final BucketRowStore store = new BucketRowStore(rows.size());
+        rows.forEach(store::put);
+        return store;
+    }
+
+    private PartitionDigest digest(List<RowDataHash> rows, int leafCount) {
+        long[] signatures = new long[leafCount];
+        long[] rowCounts = new long[leafCount];
+        rows.forEach(row -> {
+            final int leaf = PartitionDigest.leafOf(row.getPrimaryKeyHash(), leafCount);
+            signatures[leaf] ^= row.getRowHash();
+            rowCounts[leaf]++;
+        });
+        return new PartitionDigest().setSignatures(signatures).setRowCounts(rowCounts);
+    }
+}
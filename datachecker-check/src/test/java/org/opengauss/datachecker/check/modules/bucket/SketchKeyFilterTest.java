@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.bucket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
+import org.opengauss.datachecker.common.entry.check.InvertibleBloomFilter;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.util.LongHashFunctionWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SketchKeyFilterTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+class SketchKeyFilterTest {
+    private static final LongHashFunctionWrapper HASH_UTIL = new LongHashFunctionWrapper();
+
+    @DisplayName("comparing only the rows peeled from the sketches finds all the differences")
+    @Test
+    void testOnlyPeeledRowsCompared() {
+        final Random random = new Random(20230401L);
+        List<RowDataHash> sourceRows = rows(random, 5000);
+        List<RowDataHash> sinkRows = new ArrayList<>();
+        for (int idx = 0; idx < sourceRows.size(); idx++) {
+            final RowDataHash row = sourceRows.get(idx);
+            if (idx % 1000 == 1) {
+                sinkRows.add(new RowDataHash().setPrimaryKey(row.getPrimaryKey())
+                                              .setPrimaryKeyHash(row.getPrimaryKeyHash())
+                                              .setRowHash(random.nextLong()));
+            } else if (idx % 1000 != 2) {
+                sinkRows.add(row);
+            }
+        }
+        sinkRows.addAll(rows(random, 3));
+        final SketchKeyFilter keyFilter = SketchKeyFilter.of(digest(sourceRows, 20), digest(sinkRows, 20));
+        assertThat(keyFilter).isNotNull();
+        assertThat(keyFilter.getKeyCount()).isEqualTo(13);
+
+        final BucketRowStore sourceStore = new BucketRowStore(0);
+        final BucketRowStore sinkStore = new BucketRowStore(0);
+        sourceRows.stream().filter(keyFilter).forEach(sourceStore::put);
+        sinkRows.stream().filter(keyFilter).forEach(sinkStore::put);
+        final DifferencePair<Set<String>, Set<String>, Set<String>> expected =
+            store(sourceRows).difference(store(sinkRows));
+        final DifferencePair<Set<String>, Set<String>, Set<String>> result = sourceStore.difference(sinkStore);
+        assertThat(result.getOnlyOnLeft()).hasSize(5).isEqualTo(expected.getOnlyOnLeft());
+        assertThat(result.getOnlyOnRight()).hasSize(3).isEqualTo(expected.getOnlyOnRight());
+        assertThat(result.getDiffering()).hasSize(5).isEqualTo(expected.getDiffering());
+    }
+
+    @DisplayName("the filter is not created without comparable sketches or with too many different rows")
+    @Test
+    void testNotPeeled() {
+        final Random random = new Random(20230401L);
+        List<RowDataHash> rows = rows(random, 1000);
+        assertThat(SketchKeyFilter.of(digest(rows, 0), digest(rows, 10))).isNull();
+        assertThat(SketchKeyFilter.of(digest(rows, 20), digest(rows, 10))).isNull();
+        assertThat(SketchKeyFilter.of(digest(rows, 10), digest(rows(random, 1000), 10))).isNull();
+        assertThat(SketchKeyFilter.of(digest(rows, 10), digest(rows, 10)).isEmpty()).isTrue();
+    }
+
+    private List<RowDataHash> rows(Random random, int rowCount) {
+        List<RowDataHash> rows = new ArrayList<>(rowCount);
+        for (int idx = 0; idx < rowCount; idx++) {
+            final String primaryKey = String.valueOf(random.nextLong());
+            rows.add(new RowDataHash().setPrimaryKey(primaryKey).setPrimaryKeyHash(HASH_UTIL.hashChars(primaryKey))
+                                      .setRowHash(random.nextLong()));
+        }
+        return rows;
+    }
+
+    private BucketRowStore store(List<RowDataHash> rows) {
+        final BucketRowStore store = new BucketRowStore(rows.size());
+        rows.forEach(store::put);
+        return store;
+    }
+
+    private PartitionDigest digest(List<RowDataHash> rows, int sketchExpectedDiff) {
+        if (sketchExpectedDiff == 0) {
+            return new PartitionDigest();
+        }
+        final InvertibleBloomFilter sketch = InvertibleBloomFilter.create(sketchExpectedDiff);
+        rows.forEach(row -> sketch.add(row.getPrimaryKeyHash(), row.getRowHash()));
+        return new PartitionDigest().setSketch(sketch);
+    }
+}
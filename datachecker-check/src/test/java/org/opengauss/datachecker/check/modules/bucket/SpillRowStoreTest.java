@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.bucket;
+
+import com.google.common.collect.MapDifference;
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opengauss.datachecker.common.entry.check.DifferencePair;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.util.LongHashFunctionWrapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SpillRowStoreTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/30
+ * @since ：11
+ */
+class SpillRowStoreTest {
+    private static final LongHashFunctionWrapper HASH_UTIL = new LongHashFunctionWrapper();
+
+    @TempDir
+    Path spillDirectory;
+
+    @DisplayName("external merge difference of the spilled runs is the same as the map difference")
+    @Test
+    void testDifferenceSameAsMapDifference() throws IOException {
+        Random random = new Random(20230330L);
+        for (int round = 0; round < 30; round++) {
+            Map<String, RowDataHash> sourceMap = new HashMap<>();
+            Map<String, RowDataHash> sinkMap = new HashMap<>();
+            try (SpillRowStore sourceStore = new SpillRowStore(spillDirectory, "source", 1 + random.nextInt(64));
+                SpillRowStore sinkStore = new SpillRowStore(spillDirectory, "sink", 1 + random.nextInt(64))) {
+                final int rowCount = random.nextInt(1500);
+                for (int idx = 0; idx < rowCount; idx++) {
+                    // the same primary key is put again into the later runs
+                    final String primaryKey = (idx % 7 == 0 ? "主键" : "") + random.nextInt(rowCount + 1);
+                    final RowDataHash row = row(primaryKey, random.nextInt(3));
+                    final int target = random.nextInt(10);
+                    if (target < 8) {
+                        put(sourceStore, sourceMap, row);
+                    }
+                    if (target > 0) {
+                        final long rowHash = target == 9 ? random.nextLong() : row.getRowHash();
+                        put(sinkStore, sinkMap, row(primaryKey, row.getPartition()).setRowHash(rowHash));
+                    }
+                }
+                assertSameDifference(sourceStore.difference(sinkStore), Maps.difference(sourceMap, sinkMap));
+            }
+            try (Stream<Path> runFiles = Files.list(spillDirectory)) {
+                assertThat(runFiles).isEmpty();
+            }
+        }
+    }
+
+    @DisplayName("the last put row of the primary key wins across the runs and hash collisions")
+    @Test
+    void testLastRowWinsAcrossRuns() {
+        try (SpillRowStore sourceStore = new SpillRowStore(spillDirectory, "source", 2);
+            SpillRowStore sinkStore = new SpillRowStore(spillDirectory, "sink", 3)) {
+            sourceStore.put(new RowDataHash().setPrimaryKey("a").setPrimaryKeyHash(1L).setRowHash(10L));
+            sourceStore.put(new RowDataHash().setPrimaryKey("b").setPrimaryKeyHash(1L).setRowHash(20L));
+            sourceStore.put(new RowDataHash().setPrimaryKey("b").setPrimaryKeyHash(1L).setRowHash(21L));
+            sourceStore.put(new RowDataHash().setPrimaryKey("d").setPrimaryKeyHash(1L).setRowHash(40L));
+            sourceStore.put(new RowDataHash().setPrimaryKey("d").setPrimaryKeyHash(1L).setRowHash(41L));
+            sinkStore.put(new RowDataHash().setPrimaryKey("b").setPrimaryKeyHash(1L).setRowHash(21L));
+            sinkStore.put(new RowDataHash().setPrimaryKey("c").setPrimaryKeyHash(1L).setRowHash(30L));
+            sinkStore.put(new RowDataHash().setPrimaryKey("d").setPrimaryKeyHash(1L).setRowHash(41L));
+            sinkStore.put(new RowDataHash().setPrimaryKey("d").setPrimaryKeyHash(1L).setRowHash(42L));
+
+            final DifferencePair<Set<String>, Set<String>, Set<String>> difference = sourceStore.difference(sinkStore);
+            assertThat(sourceStore.getRunCount()).isEqualTo(3);
+            assertThat(sourceStore.getPutCount()).isEqualTo(5);
+            assertThat(difference.getOnlyOnLeft()).containsOnly("a");
+            assertThat(difference.getOnlyOnRight()).containsOnly("c");
+            assertThat(difference.getDiffering()).containsOnly("d");
+            // the runs are closed after the comparison, and opened again by the next comparison
+            assertThat(sourceStore.getOpenRunCount()).isZero();
+            assertThat(sinkStore.getOpenRunCount()).isZero();
+            assertThat(sourceStore.difference(sinkStore, 1).getOnlyOnLeft()).containsOnly("a");
+            assertThat(sourceStore.getOpenRunCount()).isZero();
+        }
+    }
+
+    @DisplayName("the records spanning two fills of a small read buffer are merged the same as the map difference")
+    @Test
+    void testDifferenceWithSmallReadBuffer() {
+        Random random = new Random(20230401L);
+        Map<String, RowDataHash> sourceMap = new HashMap<>();
+        Map<String, RowDataHash> sinkMap = new HashMap<>();
+        try (SpillRowStore sourceStore = new SpillRowStore(spillDirectory, "source", 50, 32);
+            SpillRowStore sinkStore = new SpillRowStore(spillDirectory, "sink", 70, 32)) {
+            for (int idx = 0; idx < 1000; idx++) {
+                // the primary keys are up to three times longer than the read buffer
+                final String primaryKey = "k".repeat(random.nextInt(100)) + random.nextInt(1000);
+                final RowDataHash row = row(primaryKey, 0);
+                final int target = random.nextInt(10);
+                if (target < 8) {
+                    put(sourceStore, sourceMap, row);
+                }
+                if (target > 0) {
+                    final long rowHash = target == 9 ? random.nextLong() : row.getRowHash();
+                    put(sinkStore, sinkMap, row(primaryKey, 0).setRowHash(rowHash));
+                }
+            }
+            assertSameDifference(sourceStore.difference(sinkStore), Maps.difference(sourceMap, sinkMap));
+            assertThat(sourceStore.getOpenRunCount()).isZero();
+        }
+    }
+
+    private void put(SpillRowStore store, Map<String, RowDataHash> map, RowDataHash row) {
+        store.put(row);
+        map.put(row.getPrimaryKey(), row);
+    }
+
+    private RowDataHash row(String primaryKey, int partition) {
+        return new RowDataHash().setPrimaryKey(primaryKey).setPrimaryKeyHash(HASH_UTIL.hashChars(primaryKey) << 4)
+                                .setRowHash(HASH_UTIL.hashChars(primaryKey + partition)).setPartition(partition);
+    }
+
+    private void assertSameDifference(DifferencePair<Set<String>, Set<String>, Set<String>> result,
+        MapDifference<String, RowDataHash> expected) {
+        assertThat(result.getOnlyOnLeft()).isEqualTo(expected.entriesOnlyOnLeft().keySet());
+        assertThat(result.getOnlyOnRight()).isEqualTo(expected.entriesOnlyOnRight().keySet());
+        assertThat(result.getDiffering()).isEqualTo(expected.entriesDiffering().keySet());
+    }
+}
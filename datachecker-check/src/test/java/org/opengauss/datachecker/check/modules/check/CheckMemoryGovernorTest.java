@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.check;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.check.modules.bucket.SpillRowStore;
+import org.opengauss.datachecker.common.entry.extract.ColumnsMetaData;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CheckMemoryGovernorTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/29
+ * @since ：11
+ */
+class CheckMemoryGovernorTest {
+    private static final long BUDGET = 1000L;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @DisplayName("tasks which do not fit the budget are queued and none of them are dropped")
+    @Test
+    void testQueueTasksInBudget() throws InterruptedException {
+        final CheckMemoryGovernor governor = new CheckMemoryGovernor(BUDGET);
+        final Random random = new Random(20230329L);
+        final int taskCount = 300;
+        final CountDownLatch completed = new CountDownLatch(taskCount);
+        final AtomicLong runningMemory = new AtomicLong();
+        final AtomicLong maxRunningMemory = new AtomicLong();
+        for (int idx = 0; idx < taskCount; idx++) {
+            final long memory = 50 + random.nextInt(400);
+            governor.submit(executor, () -> () -> {
+                maxRunningMemory.accumulateAndGet(runningMemory.addAndGet(memory), Math::max);
+                sleepQuietly(1L);
+                runningMemory.addAndGet(-memory);
+                completed.countDown();
+            }, memory);
+        }
+        assertThat(completed.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunningMemory.get()).isLessThanOrEqualTo(BUDGET);
+        assertThat(governor.getPendingCount()).isZero();
+    }
+
+    @DisplayName("a task larger than the budget runs alone, and the queue keeps the submission order")
+    @Test
+    void testLargeTaskRunsAlone() throws InterruptedException {
+        final CheckMemoryGovernor governor = new CheckMemoryGovernor(BUDGET);
+        final CountDownLatch smallRunning = new CountDownLatch(1);
+        final CountDownLatch releaseSmall = new CountDownLatch(1);
+        final CountDownLatch largeCompleted = new CountDownLatch(1);
+        final CountDownLatch lastCompleted = new CountDownLatch(1);
+        governor.submit(executor, () -> () -> {
+            smallRunning.countDown();
+            awaitQuietly(releaseSmall);
+        }, 600L);
+        governor.submit(executor, () -> () -> largeCompleted.countDown(), 5000L);
+        governor.submit(executor, () -> () -> lastCompleted.countDown(), 100L);
+        assertThat(smallRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        // the task of 100 fits the budget, but it waits behind the large task
+        assertThat(governor.getPendingCount()).isEqualTo(2);
+        assertThat(governor.getUsedMemory()).isEqualTo(600L);
+
+        releaseSmall.countDown();
+        assertThat(largeCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(lastCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(governor.getPendingCount()).isZero();
+    }
+
+    @DisplayName("the estimated memory grows with the partition rows and the primary key columns")
+    @Test
+    void testEstimate() {
+        final CheckMemoryGovernor governor = new CheckMemoryGovernor(BUDGET);
+        final TableMetadata single = new TableMetadata().setPrimaryMetas(List.of(new ColumnsMetaData()));
+        final TableMetadata composite =
+            new TableMetadata().setPrimaryMetas(List.of(new ColumnsMetaData(), new ColumnsMetaData()));
+        assertThat(governor.estimate(single, 2000L)).isGreaterThan(governor.estimate(single, 1000L));
+        assertThat(governor.estimate(composite, 1000L)).isGreaterThan(governor.estimate(single, 1000L));
+        // the primary key can not be larger than the average row
+        assertThat(governor.estimate(composite.setAvgRowLength(8L), 1000L)).isLessThan(
+            governor.estimate(single, 1000L));
+        assertThat(governor.estimate(null, 1000L)).isEqualTo(governor.estimate(single, 1000L));
+    }
+
+    @DisplayName("the partition above the spill threshold is estimated by the sorted runs kept in heap")
+    @Test
+    void testEstimateSpilled() {
+        final CheckMemoryGovernor governor = new CheckMemoryGovernor(BUDGET, 1000000);
+        final TableMetadata single = new TableMetadata().setPrimaryMetas(List.of(new ColumnsMetaData()));
+        final long runRows = SpillRowStore.DEFAULT_RUN_ROW_COUNT;
+        assertThat(governor.estimate(single, 1000000L)).isEqualTo(new CheckMemoryGovernor(BUDGET).estimate(single,
+            1000000L));
+        assertThat(governor.estimate(single, 5000000L)).isEqualTo(governor.estimate(single, 50000000L))
+                                                         .isEqualTo(governor.estimate(single, runRows))
+                                                         .isLessThan(governor.estimate(single, 1000000L));
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
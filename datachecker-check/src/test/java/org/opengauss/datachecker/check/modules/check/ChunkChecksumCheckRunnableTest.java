@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.check;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.opengauss.datachecker.check.cache.TableDigestRegister;
+import org.opengauss.datachecker.check.cache.TableStatusRegister;
+import org.opengauss.datachecker.check.client.FeignClientService;
+import org.opengauss.datachecker.check.config.DataCheckConfig;
+import org.opengauss.datachecker.check.config.DataCheckProperties;
+import org.opengauss.datachecker.check.load.CheckEnvironment;
+import org.opengauss.datachecker.check.modules.report.CheckResultManagerService;
+import org.opengauss.datachecker.check.service.StatisticalService;
+import org.opengauss.datachecker.common.entry.check.ChunkChecksum;
+import org.opengauss.datachecker.common.entry.check.DataCheckParam;
+import org.opengauss.datachecker.common.entry.enums.Endpoint;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ChunkChecksumCheckRunnableTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+class ChunkChecksumCheckRunnableTest {
+    private static final String TABLE_NAME = "t_chunk";
+    private static final int CHUNK_ROW_THRESHOLD = 100;
+
+    private final TreeMap<Long, RowDataHash> sourceRows = new TreeMap<>();
+    private final TreeMap<Long, RowDataHash> sinkRows = new TreeMap<>();
+    private FeignClientService feignClient;
+    private CheckResultManagerService checkResultManagerService;
+    private TableStatusRegister tableStatusRegister;
+    private DataCheckRunnableSupport support;
+
+    @BeforeEach
+    void setUp() {
+        feignClient = mock(FeignClientService.class);
+        checkResultManagerService = mock(CheckResultManagerService.class);
+        tableStatusRegister = mock(TableStatusRegister.class);
+        final DataCheckConfig dataCheckConfig = mock(DataCheckConfig.class);
+        final DataCheckProperties properties = new DataCheckProperties();
+        properties.setChunkFanOut(8);
+        properties.setChunkRowThreshold(CHUNK_ROW_THRESHOLD);
+        given(dataCheckConfig.getDataCheckProperties()).willReturn(properties);
+        support = new DataCheckRunnableSupport(feignClient, tableStatusRegister, mock(TableDigestRegister.class),
+            dataCheckConfig, mock(StatisticalService.class), mock(KafkaConsumerService.class),
+            checkResultManagerService, mock(CheckEnvironment.class), mock(RowPullService.class));
+        mockEndpoint(Endpoint.SOURCE, sourceRows);
+        mockEndpoint(Endpoint.SINK, sinkRows);
+        for (long key = 0; key < 20000; key++) {
+            sourceRows.put(key, row(key, key * 31));
+        }
+        sinkRows.putAll(sourceRows);
+    }
+
+    @DisplayName("the same table is checked by the checksum of the whole table")
+    @Test
+    void testSameTable() {
+        final CheckDiffResult result = check();
+        assertThat(result.getKeyUpdateSet()).isEmpty();
+        assertThat(result.getKeyInsertSet()).isEmpty();
+        assertThat(result.getKeyDeleteSet()).isEmpty();
+        verify(feignClient, never()).splitChunkChecksum(any(), any(), any(), anyInt());
+        verify(tableStatusRegister).update(TABLE_NAME, 0, TableStatusRegister.TASK_STATUS_CHECK_VALUE);
+    }
+
+    @DisplayName("only the rows of the small different chunks are compared row by row")
+    @Test
+    void testDifferentRows() {
+        sinkRows.put(1234L, row(1234L, -1L));
+        sinkRows.remove(15000L);
+        sinkRows.put(30000L, row(30000L, 1L));
+        final CheckDiffResult result = check();
+        assertThat(result.getKeyUpdateSet()).containsOnly("1234");
+        assertThat(result.getKeyInsertSet()).containsOnly("15000");
+        assertThat(result.getKeyDeleteSet()).containsOnly("30000");
+        verify(feignClient, atMost(6)).queryChunkRowData(any(), eq(TABLE_NAME), any());
+    }
+
+    @DisplayName("the range of more rows on the sink is split on the sink")
+    @Test
+    void testSplitOnSink() {
+        for (long key = 20000; key < 23000; key++) {
+            sinkRows.put(key, row(key, key));
+        }
+        final CheckDiffResult result = check();
+        assertThat(result.getKeyDeleteSet()).hasSize(3000).contains("20000", "22999");
+        assertThat(result.getKeyInsertSet()).isEmpty();
+        assertThat(result.getKeyUpdateSet()).isEmpty();
+    }
+
+    @DisplayName("the diff budget is computed from the row count of the source and the sink")
+    @Test
+    void testDiffBudgetOfSourceAndSink() {
+        // 6000 differences are more than the budget of the 20000 source rows,
+        // but not more than the budget of the 46000 source and sink rows
+        for (long key = 20000; key < 26000; key++) {
+            sinkRows.put(key, row(key, key));
+        }
+        final CheckDiffResult result = check();
+        assertThat(result.isTruncated()).isFalse();
+        assertThat(result.getKeyDeleteSet()).hasSize(6000).contains("20000", "25999");
+    }
+
+    private CheckDiffResult check() {
+        DataCheckParam checkParam = new DataCheckParam().setProcess("1").setTableName(TABLE_NAME).setSchema("test");
+        new ChunkChecksumCheckRunnable(checkParam, support).run();
+        ArgumentCaptor<CheckDiffResult> result = ArgumentCaptor.forClass(CheckDiffResult.class);
+        verify(checkResultManagerService).addResult(any(), result.capture());
+        return result.getValue();
+    }
+
+    private void mockEndpoint(Endpoint endpoint, TreeMap<Long, RowDataHash> rows) {
+        given(feignClient.queryChunkChecksum(eq(endpoint), eq(TABLE_NAME), anyList())).willAnswer(
+            invocation -> invocation.<List<ChunkChecksum>>getArgument(2).stream().map(range -> checksum(rows, range))
+                                    .collect(Collectors.toList()));
+        given(feignClient.splitChunkChecksum(eq(endpoint), eq(TABLE_NAME), any(), anyInt())).willAnswer(
+            invocation -> split(rows, invocation.getArgument(2), invocation.getArgument(3)));
+        given(feignClient.queryChunkRowData(eq(endpoint), eq(TABLE_NAME), any())).willAnswer(
+            invocation -> new ArrayList<>(subMap(rows, invocation.getArgument(2)).values()));
+    }
+
+    /**
+     * the same boundaries as the chunk checksum service of the extraction
+     */
+    private List<ChunkChecksum> split(TreeMap<Long, RowDataHash> rows, ChunkChecksum range, int chunkCount) {
+        final long step = Math.max(1L, (range.getRowCount() + chunkCount - 1) / chunkCount);
+        List<ChunkChecksum> chunks = new ArrayList<>();
+        Object lower = range.getLower();
+        for (int idx = 1; idx < chunkCount; idx++) {
+            final List<Long> keys = new ArrayList<>(
+                subMap(rows, new ChunkChecksum().setLower(lower).setUpper(range.getUpper())).keySet());
+            if (keys.size() <= step) {
+                break;
+            }
+            chunks.add(new ChunkChecksum().setLower(lower).setUpper(keys.get((int) step)));
+            lower = keys.get((int) step);
+        }
+        chunks.add(new ChunkChecksum().setLower(lower).setUpper(range.getUpper()));
+        return chunks.stream().map(chunk -> checksum(rows, chunk)).collect(Collectors.toList());
+    }
+
+    private ChunkChecksum checksum(TreeMap<Long, RowDataHash> rows, ChunkChecksum range) {
+        final NavigableMap<Long, RowDataHash> chunkRows = subMap(rows, range);
+        final long checksum = chunkRows.values().stream().mapToLong(row -> row.getRowHash() & 0xFFFFFFFFL).sum();
+        return range.range().setRowCount(chunkRows.size()).setChecksum(checksum);
+    }
+
+    private NavigableMap<Long, RowDataHash> subMap(TreeMap<Long, RowDataHash> rows, ChunkChecksum range) {
+        NavigableMap<Long, RowDataHash> chunkRows = rows;
+        if (Objects.nonNull(range.getLower())) {
+            chunkRows = chunkRows.tailMap((Long) range.getLower(), true);
+        }
+        if (Objects.nonNull(range.getUpper())) {
+            chunkRows = chunkRows.headMap((Long) range.getUpper(), false);
+        }
+        return chunkRows;
+    }
+
+    private RowDataHash row(long key, long rowHash) {
+        return new RowDataHash().setPrimaryKey(String.valueOf(key)).setPrimaryKeyHash(key * 0x9E3779B97F4A7C15L)
+                                .setRowHash(rowHash);
+    }
+}
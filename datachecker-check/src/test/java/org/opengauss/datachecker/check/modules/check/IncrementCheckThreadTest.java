@@ -9,6 +9,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.opengauss.datachecker.check.client.ExtractSinkFeignClient;
 import org.opengauss.datachecker.check.client.ExtractSourceFeignClient;
 import org.opengauss.datachecker.check.client.FeignClientService;
+import org.opengauss.datachecker.check.config.DataCheckConfig;
+import org.opengauss.datachecker.check.modules.merkle.MerkleTree.SignatureCombiner;
 import org.opengauss.datachecker.common.entry.check.IncrementDataCheckParam;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
 import org.opengauss.datachecker.common.entry.extract.SourceDataLog;
@@ -31,6 +33,8 @@ class IncrementCheckThreadTest {
     @MockBean
     private FeignClientService feignClientService;
     @MockBean
+    private DataCheckConfig dataCheckConfig;
+    @MockBean
     private ExtractSourceFeignClient extractSourceClient;
     @MockBean
     private ExtractSinkFeignClient extractSinkClient;
@@ -46,6 +50,8 @@ class IncrementCheckThreadTest {
         given(this.mockCheckParam.getErrorRate()).willReturn(20);
 
         given(this.mockSupport.getFeignClientService()).willReturn(feignClientService);
+        given(this.mockSupport.getDataCheckConfig()).willReturn(dataCheckConfig);
+        given(this.dataCheckConfig.getMerkleSignatureCombiner()).willReturn(SignatureCombiner.ADLER32);
         given(this.mockSupport.getFeignClientService().getClient(Endpoint.SOURCE)).willReturn(extractSourceClient);
         given(this.mockSupport.getFeignClientService().getClient(Endpoint.SINK)).willReturn(extractSinkClient);
 
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.check;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.exception.CheckingPollingException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * KafkaConsumerHandlerTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/26
+ * @since ：11
+ */
+class KafkaConsumerHandlerTest {
+    private static final String TOPIC = "check_topic";
+    private static final TopicPartition TOPIC_PARTITION = new TopicPartition(TOPIC, 0);
+
+    private KafkaConsumer<String, RowDataHash> kafkaConsumer;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        kafkaConsumer = mock(KafkaConsumer.class);
+        given(kafkaConsumer.beginningOffsets(anyList())).willReturn(Map.of(TOPIC_PARTITION, 5L));
+        given(kafkaConsumer.endOffsets(anyList())).willReturn(Map.of(TOPIC_PARTITION, 10L));
+    }
+
+    @DisplayName("consume stops at the end offset even if the offsets are not continuous")
+    @Test
+    void testConsumerStopsAtEndOffset() {
+        given(kafkaConsumer.position(TOPIC_PARTITION)).willReturn(5L, 8L, 8L, 10L);
+        given(kafkaConsumer.poll(any(Duration.class))).willReturn(records(5L, 7L), ConsumerRecords.empty(),
+            records(9L));
+        List<RowDataHash> rows = new ArrayList<>();
+
+        final long count = new KafkaConsumerHandler(kafkaConsumer, 1).consumerCheckRowData(TOPIC, 0, rows::add);
+
+        assertThat(count).isEqualTo(3L);
+        assertThat(rows).extracting(RowDataHash::getPrimaryKey).containsExactly("5", "7", "9");
+        verify(kafkaConsumer).seek(TOPIC_PARTITION, 5L);
+    }
+
+    @DisplayName("consume fails when the end offset is not reached before the idle timeout")
+    @Test
+    void testConsumerIdleTimeout() {
+        given(kafkaConsumer.position(TOPIC_PARTITION)).willReturn(5L, 9L);
+        given(kafkaConsumer.poll(any(Duration.class))).willReturn(records(5L, 7L), ConsumerRecords.empty());
+        final KafkaConsumerHandler consumerHandler = new KafkaConsumerHandler(kafkaConsumer, 1);
+
+        assertThatThrownBy(() -> consumerHandler.queryCheckRowData(TOPIC, 0)).isInstanceOf(
+            CheckingPollingException.class);
+    }
+
+    private ConsumerRecords<String, RowDataHash> records(long... offsets) {
+        final List<ConsumerRecord<String, RowDataHash>> records = new ArrayList<>();
+        for (long offset : offsets) {
+            final String primaryKey = String.valueOf(offset);
+            records.add(new ConsumerRecord<>(TOPIC, 0, offset, primaryKey,
+                new RowDataHash().setPrimaryKey(primaryKey).setPrimaryKeyHash(offset).setRowHash(offset)));
+        }
+        return new ConsumerRecords<>(Map.of(TOPIC_PARTITION, records));
+    }
+}
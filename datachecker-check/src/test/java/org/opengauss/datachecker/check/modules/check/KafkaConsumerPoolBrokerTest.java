@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+
+package org.opengauss.datachecker.check.modules.check;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.check.config.KafkaConsumerConfig;
+import org.opengauss.datachecker.common.codec.RowDataHashSerializer;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.util.ReflectUtil;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.condition.EmbeddedKafkaCondition;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The pooled consumers of {@link KafkaConsumerService} read the partitions of an embedded kafka broker
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Slf4j
+@EmbeddedKafka(partitions = KafkaConsumerPoolBrokerTest.PARTITIONS, topics = KafkaConsumerPoolBrokerTest.TOPIC)
+class KafkaConsumerPoolBrokerTest {
+    static final String TOPIC = "check_consumer_pool";
+    static final int PARTITIONS = 2;
+
+    private static final int PARTITION_ROWS = 1000;
+    private static final int POOL_SIZE = 2;
+    private static final int RETRY_TIMES = 5;
+    private static final long BENCHMARK_SECONDS = 600L;
+    private static final String BENCHMARK_TOPIC_PREFIX = "check_small_tables_";
+    private static final int BENCHMARK_TOPICS = 50;
+    private static final int BENCHMARK_TOPIC_PARTITIONS = 100;
+    private static final int BENCHMARK_TABLE_ROWS = 10;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private KafkaConsumerService kafkaConsumerService;
+
+    @BeforeAll
+    static void sendRows() {
+        final List<TopicPartition> partitions = IntStream.range(0, PARTITIONS)
+                                                         .mapToObj(partition -> new TopicPartition(TOPIC, partition))
+                                                         .collect(Collectors.toList());
+        sendRows(EmbeddedKafkaCondition.getBroker(), partitions, PARTITION_ROWS);
+    }
+
+    private static void sendRows(EmbeddedKafkaBroker broker, List<TopicPartition> partitions, int partitionRows) {
+        try (KafkaProducer<String, RowDataHash> producer = new KafkaProducer<>(KafkaTestUtils.producerProps(broker),
+            new StringSerializer(), new RowDataHashSerializer())) {
+            for (TopicPartition topicPartition : partitions) {
+                final int partition = topicPartition.partition();
+                for (int idx = 0; idx < partitionRows; idx++) {
+                    final String primaryKey = partition + "_" + idx;
+                    final RowDataHash row = new RowDataHash().setPrimaryKey(primaryKey).setPrimaryKeyHash(idx)
+                                                             .setRowHash(idx).setPartition(partition);
+                    producer.send(new ProducerRecord<>(topicPartition.topic(), partition, primaryKey, row));
+                }
+            }
+            producer.flush();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        final KafkaConsumerConfig kafkaConsumerConfig = new KafkaConsumerConfig();
+        setConfig(kafkaConsumerConfig, "servers", EmbeddedKafkaCondition.getBroker().getBrokersAsString());
+        setConfig(kafkaConsumerConfig, "isEnableAutoCommit", false);
+        setConfig(kafkaConsumerConfig, "groupId", "check_consumer_pool_group");
+        setConfig(kafkaConsumerConfig, "autoOffsetReset", "earliest");
+        setConfig(kafkaConsumerConfig, "maxPollRecordsConfig", 500);
+        setConfig(kafkaConsumerConfig, "fetchMaxBytes", 50 * 1024 * 1024);
+        setConfig(kafkaConsumerConfig, "requestTimeoutMs", 30000);
+        kafkaConsumerService = new KafkaConsumerService(kafkaConsumerConfig);
+        ReflectUtil.setField(KafkaConsumerService.class, kafkaConsumerService, "consumerPoolSize", POOL_SIZE);
+        kafkaConsumerService.initConsumerPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        kafkaConsumerService.shutdown();
+    }
+
+    @DisplayName("the released consumers are reassigned to other partitions and read them from the beginning")
+    @Test
+    void testLeaseAndRelease() {
+        final List<KafkaConsumer<String, RowDataHash>> first = kafkaConsumerService.leaseKafkaConsumers(POOL_SIZE);
+        assertPartitionRows(first.get(0), 0);
+        assertPartitionRows(first.get(1), 1);
+        first.forEach(kafkaConsumerService::releaseKafkaConsumer);
+        assertThat(kafkaConsumerService.getIdleConsumerCount()).isEqualTo(POOL_SIZE);
+        assertThat(first).allSatisfy(consumer -> assertThat(consumer.assignment()).isEmpty());
+
+        final List<KafkaConsumer<String, RowDataHash>> second = kafkaConsumerService.leaseKafkaConsumers(POOL_SIZE);
+        assertThat(second).containsExactlyInAnyOrderElementsOf(first);
+        assertPartitionRows(second.get(0), 1);
+        assertPartitionRows(second.get(1), 0);
+        second.forEach(kafkaConsumerService::releaseKafkaConsumer);
+        assertThat(kafkaConsumerService.getIdleConsumerCount()).isEqualTo(POOL_SIZE);
+    }
+
+    @DisplayName("the check tasks more than the pool size read all the partitions with the pooled consumers")
+    @Test
+    void testConcurrentLeases() throws InterruptedException {
+        final int taskCount = 8;
+        final CountDownLatch completed = new CountDownLatch(taskCount);
+        final Set<KafkaConsumer<String, RowDataHash>> leased =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        final List<Integer> readRows = new CopyOnWriteArrayList<>();
+        for (int idx = 0; idx < taskCount; idx++) {
+            final int partition = idx % PARTITIONS;
+            executor.execute(() -> {
+                final KafkaConsumer<String, RowDataHash> consumer = kafkaConsumerService.leaseKafkaConsumers(1).get(0);
+                try {
+                    leased.add(consumer);
+                    readRows.add(new KafkaConsumerHandler(consumer, RETRY_TIMES).queryCheckRowData(TOPIC, partition)
+                                                                                .size());
+                } finally {
+                    kafkaConsumerService.releaseKafkaConsumer(consumer);
+                    completed.countDown();
+                }
+            });
+        }
+        assertThat(completed.await(60, TimeUnit.SECONDS)).isTrue();
+        assertThat(readRows).hasSize(taskCount).containsOnly(PARTITION_ROWS);
+        assertThat(leased).hasSizeLessThanOrEqualTo(POOL_SIZE);
+        assertThat(kafkaConsumerService.getIdleConsumerCount()).isEqualTo(leased.size());
+    }
+
+    @DisplayName("benchmark: 5000 small tables are read faster by the pooled consumers than by a consumer per table")
+    @Test
+    void testSmallTablesThroughput() throws InterruptedException {
+        final EmbeddedKafkaBroker broker = EmbeddedKafkaCondition.getBroker();
+        final List<TopicPartition> tables = new ArrayList<>();
+        for (int topicIdx = 0; topicIdx < BENCHMARK_TOPICS; topicIdx++) {
+            final String topic = BENCHMARK_TOPIC_PREFIX + topicIdx;
+            broker.addTopics(new NewTopic(topic, BENCHMARK_TOPIC_PARTITIONS, (short) 1));
+            IntStream.range(0, BENCHMARK_TOPIC_PARTITIONS)
+                     .forEach(partition -> tables.add(new TopicPartition(topic, partition)));
+        }
+        sendRows(broker, tables, BENCHMARK_TABLE_ROWS);
+
+        final long freshNanos = readTables(tables, () -> kafkaConsumerService.buildKafkaConsumer(false),
+            KafkaConsumer::close);
+        final long pooledNanos = readTables(tables, () -> kafkaConsumerService.leaseKafkaConsumers(1).get(0),
+            kafkaConsumerService::releaseKafkaConsumer);
+        log.info("read {} small tables: consumer per table {} tables/s, pooled consumers {} tables/s", tables.size(),
+            throughput(tables.size(), freshNanos), throughput(tables.size(), pooledNanos));
+        assertThat(kafkaConsumerService.getIdleConsumerCount()).isLessThanOrEqualTo(POOL_SIZE);
+        assertThat(pooledNanos).isLessThan(freshNanos);
+    }
+
+    /**
+     * Read the tables on {@code POOL_SIZE} check threads, each table is read by a consumer of the supplier
+     *
+     * @param tables          the partitions of the small tables
+     * @param consumerFactory the consumer of each table
+     * @param consumerRelease the consumer is closed or released when the table is read
+     * @return nanos to read all the tables
+     */
+    private long readTables(List<TopicPartition> tables,
+        Supplier<KafkaConsumer<String, RowDataHash>> consumerFactory,
+        Consumer<KafkaConsumer<String, RowDataHash>> consumerRelease) throws InterruptedException {
+        final ExecutorService checkExecutor = Executors.newFixedThreadPool(POOL_SIZE);
+        final CountDownLatch completed = new CountDownLatch(tables.size());
+        final AtomicLong readRows = new AtomicLong();
+        final long start = System.nanoTime();
+        try {
+            tables.forEach(table -> checkExecutor.execute(() -> {
+                final KafkaConsumer<String, RowDataHash> consumer = consumerFactory.get();
+                try {
+                    readRows.addAndGet(new KafkaConsumerHandler(consumer, RETRY_TIMES).queryCheckRowData(
+                        table.topic(), table.partition()).size());
+                } finally {
+                    consumerRelease.accept(consumer);
+                    completed.countDown();
+                }
+            }));
+            assertThat(completed.await(BENCHMARK_SECONDS, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            checkExecutor.shutdownNow();
+        }
+        final long nanos = System.nanoTime() - start;
+        assertThat(readRows.get()).isEqualTo((long) tables.size() * BENCHMARK_TABLE_ROWS);
+        return nanos;
+    }
+
+    private static long throughput(int tableCount, long nanos) {
+        return tableCount * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1L);
+    }
+
+    private void assertPartitionRows(KafkaConsumer<String, RowDataHash> consumer, int partition) {
+        final List<RowDataHash> rows = new KafkaConsumerHandler(consumer, RETRY_TIMES).queryCheckRowData(TOPIC,
+            partition);
+        assertThat(rows).hasSize(PARTITION_ROWS).allSatisfy(row -> assertThat(row.getPartition()).isEqualTo(
+            partition));
+    }
+
+    private static void setConfig(KafkaConsumerConfig kafkaConsumerConfig, String fieldName, Object value) {
+        ReflectUtil.setField(KafkaConsumerConfig.class, kafkaConsumerConfig, fieldName, value);
+    }
+}
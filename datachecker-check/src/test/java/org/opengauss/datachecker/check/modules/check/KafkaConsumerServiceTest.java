@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.check;
+
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.check.config.KafkaConsumerConfig;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.util.ReflectUtil;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * KafkaConsumerServiceTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/31
+ * @since ：11
+ */
+class KafkaConsumerServiceTest {
+    private static final int POOL_SIZE = 4;
+
+    private final List<KafkaConsumer<String, RowDataHash>> createdConsumers = new ArrayList<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private KafkaConsumerService kafkaConsumerService;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        final KafkaConsumerConfig kafkaConsumerConfig = mock(KafkaConsumerConfig.class);
+        final ConsumerFactory<String, RowDataHash> consumerFactory = mock(ConsumerFactory.class);
+        given(kafkaConsumerConfig.consumerFactory()).willReturn(consumerFactory);
+        given(consumerFactory.createConsumer()).willAnswer(invocation -> {
+            final KafkaConsumer<String, RowDataHash> consumer = mock(KafkaConsumer.class);
+            synchronized (createdConsumers) {
+                createdConsumers.add(consumer);
+            }
+            return consumer;
+        });
+        kafkaConsumerService = new KafkaConsumerService(kafkaConsumerConfig);
+        ReflectUtil.setField(KafkaConsumerService.class, kafkaConsumerService, "consumerPoolSize", POOL_SIZE);
+        kafkaConsumerService.initConsumerPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @DisplayName("released consumers are reset and reused by the next lease")
+    @Test
+    void testConsumerReused() {
+        final List<KafkaConsumer<String, RowDataHash>> first = kafkaConsumerService.leaseKafkaConsumers(2);
+        first.forEach(kafkaConsumerService::releaseKafkaConsumer);
+        final List<KafkaConsumer<String, RowDataHash>> second = kafkaConsumerService.leaseKafkaConsumers(2);
+
+        assertThat(second).containsExactlyInAnyOrderElementsOf(first);
+        assertThat(createdConsumers).hasSize(2);
+        first.forEach(consumer -> verify(consumer).unsubscribe());
+        first.forEach(consumer -> verify(consumer, never()).close());
+    }
+
+    @DisplayName("many tasks leasing consumers concurrently never exceed the pool size")
+    @Test
+    void testLeaseBounded() throws InterruptedException {
+        final int taskCount = 500;
+        final CountDownLatch completed = new CountDownLatch(taskCount);
+        final Set<KafkaConsumer<String, RowDataHash>> inUse = ConcurrentHashMap.newKeySet();
+        final AtomicInteger maxInUse = new AtomicInteger();
+        for (int idx = 0; idx < taskCount; idx++) {
+            executor.execute(() -> {
+                final List<KafkaConsumer<String, RowDataHash>> consumers = kafkaConsumerService.leaseKafkaConsumers(2);
+                consumers.forEach(consumer -> assertThat(inUse.add(consumer)).isTrue());
+                maxInUse.accumulateAndGet(inUse.size(), Math::max);
+                consumers.forEach(inUse::remove);
+                consumers.forEach(kafkaConsumerService::releaseKafkaConsumer);
+                completed.countDown();
+            });
+        }
+        assertThat(completed.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxInUse.get()).isLessThanOrEqualTo(POOL_SIZE);
+        assertThat(createdConsumers).hasSizeLessThanOrEqualTo(POOL_SIZE);
+        assertThat(kafkaConsumerService.getIdleConsumerCount()).isEqualTo(createdConsumers.size());
+    }
+
+    @DisplayName("broken consumers are closed instead of pooled, the pool is closed on shutdown")
+    @Test
+    void testBrokenConsumerAndShutdown() {
+        final List<KafkaConsumer<String, RowDataHash>> consumers = kafkaConsumerService.leaseKafkaConsumers(3);
+        willThrow(new KafkaException("broken")).given(consumers.get(0)).unsubscribe();
+        kafkaConsumerService.releaseKafkaConsumer(consumers.get(0));
+        kafkaConsumerService.releaseKafkaConsumer(consumers.get(1));
+        verify(consumers.get(0)).close();
+        assertThat(kafkaConsumerService.getIdleConsumerCount()).isEqualTo(1);
+
+        kafkaConsumerService.shutdown();
+        verify(consumers.get(1)).close();
+        kafkaConsumerService.releaseKafkaConsumer(consumers.get(2));
+        verify(consumers.get(2)).close();
+        assertThatThrownBy(() -> kafkaConsumerService.leaseKafkaConsumers(1)).isInstanceOf(
+            IllegalStateException.class);
+        assertThatThrownBy(() -> kafkaConsumerService.leaseKafkaConsumers(POOL_SIZE + 1)).isInstanceOf(
+            IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+
+package org.opengauss.datachecker.check.modules.check;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.opengauss.datachecker.check.cache.TableDigestRegister;
+import org.opengauss.datachecker.check.client.FeignClientService;
+import org.opengauss.datachecker.common.entry.check.InvertibleBloomFilter;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
+import org.opengauss.datachecker.common.entry.check.RowPullPartition;
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
+import org.opengauss.datachecker.common.entry.enums.Endpoint;
+import org.opengauss.datachecker.common.exception.CheckingException;
+import org.opengauss.datachecker.common.exception.DispatchClientException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * RowPullServiceTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+class RowPullServiceTest {
+    private static final String TABLE_NAME = "t_pull";
+    private static final long PULL_TIMEOUT = 10L;
+
+    private FeignClientService feignClientService;
+    private TableDigestRegister tableDigestRegister;
+    private RowPullService rowPullService;
+
+    @BeforeEach
+    void setUp() {
+        feignClientService = mock(FeignClientService.class);
+        tableDigestRegister = new TableDigestRegister();
+        rowPullService = new RowPullService(feignClientService, tableDigestRegister);
+    }
+
+    @DisplayName("only the different leaves of the partitions are pulled, all the rows if a digest is missing")
+    @Test
+    void testPullDifferentLeaves() throws Exception {
+        tableDigestRegister.refresh(List.of(digest(Endpoint.SOURCE, 0, 0L), digest(Endpoint.SINK, 0, 0L),
+            digest(Endpoint.SOURCE, 1, 0L), digest(Endpoint.SINK, 1, 9L), digest(Endpoint.SOURCE, 2, 0L)));
+
+        rowPullService.pull(TABLE_NAME, List.of(0, 1, 2));
+
+        ArgumentCaptor<RowPullRequest> request = ArgumentCaptor.forClass(RowPullRequest.class);
+        verify(feignClientService).pullTableRows(eq(Endpoint.SOURCE), request.capture());
+        verify(feignClientService).pullTableRows(Endpoint.SINK, request.getValue());
+        final List<RowPullPartition> partitions = request.getValue().getPartitions();
+        assertThat(partitions).extracting(RowPullPartition::getPartition).containsExactly(1, 2);
+        assertThat(partitions.get(0).getLeafCount()).isEqualTo(4);
+        assertThat(partitions.get(0).getLeaves()).isEqualTo(Set.of(2));
+        assertThat(partitions.get(0).contains(6L)).isTrue();
+        assertThat(partitions.get(0).contains(5L)).isFalse();
+        assertThat(partitions.get(1).getLeafCount()).isZero();
+        assertThat(partitions.get(1).contains(5L)).isTrue();
+
+        final CompletableFuture<Void> checking =
+            CompletableFuture.runAsync(() -> rowPullService.awaitPulledRows(TABLE_NAME, PULL_TIMEOUT));
+        rowPullService.refreshPullStatus(TABLE_NAME, Endpoint.SOURCE, Endpoint.SOURCE.getCode());
+        rowPullService.refreshPullStatus(TABLE_NAME, Endpoint.SOURCE, Endpoint.SOURCE.getCode());
+        assertThat(checking).isNotDone();
+        rowPullService.refreshPullStatus(TABLE_NAME, Endpoint.SINK, Endpoint.SINK.getCode());
+        checking.get(10, TimeUnit.SECONDS);
+    }
+
+    @DisplayName("only the rows of the primary key hashes peeled from the sketches are pulled")
+    @Test
+    void testPullPeeledRows() {
+        final InvertibleBloomFilter sourceSketch = InvertibleBloomFilter.create(4);
+        final InvertibleBloomFilter sinkSketch = InvertibleBloomFilter.create(4);
+        sourceSketch.add(1L, 10L);
+        sinkSketch.add(1L, 10L);
+        sourceSketch.add(6L, 60L);
+        sinkSketch.add(6L, 61L);
+        tableDigestRegister.refresh(List.of(digest(Endpoint.SOURCE, 0, 60L).setSketch(sourceSketch),
+            digest(Endpoint.SINK, 0, 61L).setSketch(sinkSketch)));
+
+        final List<RowPullPartition> partitions = rowPullService.buildRequest(TABLE_NAME, List.of(0)).getPartitions();
+
+        assertThat(partitions).hasSize(1);
+        assertThat(partitions.get(0).getPrimaryKeyHashes()).isEqualTo(Set.of(6L));
+        assertThat(partitions.get(0).contains(6L)).isTrue();
+        assertThat(partitions.get(0).contains(2L)).isFalse();
+    }
+
+    @DisplayName("nothing is pulled when all the partitions are the same, and the check does not wait")
+    @Test
+    void testNothingPulled() {
+        tableDigestRegister.refresh(List.of(digest(Endpoint.SOURCE, 0, 0L), digest(Endpoint.SINK, 0, 0L)));
+
+        rowPullService.pull(TABLE_NAME, List.of(0));
+
+        verify(feignClientService, never()).pullTableRows(any(), any());
+        rowPullService.awaitPulledRows(TABLE_NAME, PULL_TIMEOUT);
+    }
+
+    @DisplayName("the check fails when the rows can not be pulled from an endpoint")
+    @Test
+    void testPullFailed() {
+        rowPullService.pull(TABLE_NAME, List.of(0));
+        rowPullService.refreshPullStatus(TABLE_NAME, Endpoint.SOURCE, Endpoint.SOURCE.getCode());
+        rowPullService.refreshPullStatus(TABLE_NAME, Endpoint.SINK, -1);
+
+        assertThatThrownBy(() -> rowPullService.awaitPulledRows(TABLE_NAME, PULL_TIMEOUT)).isInstanceOf(
+            CheckingException.class).hasMessageContaining("failed on");
+    }
+
+    @DisplayName("the check fails at once when the pull request of an endpoint fails")
+    @Test
+    void testPullRequestFailed() {
+        doThrow(new DispatchClientException(Endpoint.SINK, "pull the table rows failed")).when(feignClientService)
+                                                                                        .pullTableRows(
+                                                                                            eq(Endpoint.SINK),
+                                                                                            any());
+        rowPullService.pull(TABLE_NAME, List.of(0));
+
+        assertThatThrownBy(() -> rowPullService.awaitPulledRows(TABLE_NAME, PULL_TIMEOUT)).isInstanceOf(
+            CheckingException.class).hasMessageContaining("pull the table rows failed");
+    }
+
+    @DisplayName("the check fails when an endpoint does not report the pull status in time")
+    @Test
+    void testPullTimeout() {
+        rowPullService.pull(TABLE_NAME, List.of(0));
+        rowPullService.refreshPullStatus(TABLE_NAME, Endpoint.SOURCE, Endpoint.SOURCE.getCode());
+
+        assertThatThrownBy(() -> rowPullService.awaitPulledRows(TABLE_NAME, 1L)).isInstanceOf(
+            CheckingException.class).hasMessageContaining("not pulled in 1 seconds");
+    }
+
+    private PartitionDigest digest(Endpoint endpoint, int partition, long leafTwoSignature) {
+        return new PartitionDigest().setTableName(TABLE_NAME).setEndpoint(endpoint).setPartition(partition)
+                                    .setSignatures(new long[] {1L, 2L, leafTwoSignature, 3L})
+                                    .setRowCounts(new long[] {1L, 1L, 1L, 1L});
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.check.modules.merkle;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.check.modules.bucket.Bucket;
+import org.opengauss.datachecker.check.modules.merkle.MerkleTree.SignatureCombiner;
+import org.opengauss.datachecker.common.util.ByteUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Adler32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MerkleTreeTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/28
+ * @since ：11
+ */
+class MerkleTreeTest {
+    private static final int CONCURRENT_TREE_COUNT = 64;
+
+    @DisplayName("64 trees built concurrently have deterministic signatures")
+    @Test
+    void testConcurrentConstructDeterministic() {
+        final Random random = new Random(20230328L);
+        List<List<Bucket>> bucketLists = new ArrayList<>(CONCURRENT_TREE_COUNT);
+        List<byte[]> expectedSignatures = new ArrayList<>(CONCURRENT_TREE_COUNT);
+        for (int idx = 0; idx < CONCURRENT_TREE_COUNT; idx++) {
+            // some trees are large enough to build their levels in parallel
+            final int bucketCount = idx % 8 == 0 ? 20000 + random.nextInt(5000) : 2 + random.nextInt(3000);
+            final List<Bucket> bucketList = buildBucketList(random, bucketCount);
+            bucketLists.add(bucketList);
+            expectedSignatures.add(adler32RootSignature(bucketList));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_TREE_COUNT);
+        try {
+            final CountDownLatch startLatch = new CountDownLatch(1);
+            List<CompletableFuture<MerkleTree>> futures = new ArrayList<>(CONCURRENT_TREE_COUNT);
+            for (List<Bucket> bucketList : bucketLists) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    awaitQuietly(startLatch);
+                    return new MerkleTree(bucketList);
+                }, executor));
+            }
+            startLatch.countDown();
+            for (int idx = 0; idx < CONCURRENT_TREE_COUNT; idx++) {
+                final MerkleTree tree = futures.get(idx).join();
+                assertThat(tree.getRoot().getSignature()).isEqualTo(expectedSignatures.get(idx));
+                assertThat(tree.getNnodes()).isEqualTo(expectedNodeCount(bucketLists.get(idx).size()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("the 64-bit combiner is deterministic and detects a different bucket")
+    @Test
+    void testLongSignatureCombiner() {
+        final List<Bucket> bucketList = buildBucketList(new Random(1L), 30000);
+        final MerkleTree tree = new MerkleTree(bucketList, SignatureCombiner.XX_HASH64);
+        final MerkleTree same = new MerkleTree(bucketList, SignatureCombiner.XX_HASH64);
+        assertThat(tree.getRoot().signatureEqual(same.getRoot())).isTrue();
+        assertThat(tree.getDepth()).isEqualTo(new MerkleTree(bucketList).getDepth());
+
+        final List<Bucket> changed = new ArrayList<>(bucketList);
+        changed.set(12345, new Bucket(0).setNumber(12345).setSignature(7L));
+        assertThat(tree.getRoot().signatureEqual(new MerkleTree(changed, SignatureCombiner.XX_HASH64).getRoot()))
+            .isFalse();
+    }
+
+    private List<Bucket> buildBucketList(Random random, int bucketCount) {
+        List<Bucket> bucketList = new ArrayList<>(bucketCount);
+        for (int number = 0; number < bucketCount; number++) {
+            bucketList.add(new Bucket(0).setNumber(number).setSignature(random.nextLong()));
+        }
+        return bucketList;
+    }
+
+    private byte[] adler32RootSignature(List<Bucket> bucketList) {
+        List<byte[]> level = new ArrayList<>();
+        bucketList.forEach(bucket -> level.add(bucket.getSignature()));
+        List<byte[]> children = level;
+        do {
+            List<byte[]> parents = new ArrayList<>();
+            for (int idx = 0; idx < children.size(); idx += 2) {
+                if (idx + 1 == children.size()) {
+                    parents.add(children.get(idx));
+                } else {
+                    Adler32 adler32 = new Adler32();
+                    adler32.update(children.get(idx));
+                    adler32.update(children.get(idx + 1));
+                    parents.add(ByteUtil.toBytes(adler32.getValue()));
+                }
+            }
+            children = parents;
+        } while (children.size() > 1);
+        return children.get(0);
+    }
+
+    private int expectedNodeCount(int leafCount) {
+        int count = leafCount;
+        int levelSize = leafCount;
+        do {
+            levelSize = (levelSize + 1) / 2;
+            count += levelSize;
+        } while (levelSize > 1);
+        return count;
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
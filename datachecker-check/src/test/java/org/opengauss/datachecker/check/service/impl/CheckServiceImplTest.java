@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+
+package org.opengauss.datachecker.check.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengauss.datachecker.check.cache.TableStatusRegister;
+import org.opengauss.datachecker.check.client.FeignClientService;
+import org.opengauss.datachecker.check.event.KafkaTopicDeleteProvider;
+import org.opengauss.datachecker.check.load.CheckEnvironment;
+import org.opengauss.datachecker.check.modules.check.DataCheckService;
+import org.opengauss.datachecker.check.modules.check.ExportCheckResult;
+import org.opengauss.datachecker.check.modules.check.RowPullService;
+import org.opengauss.datachecker.check.service.CheckTableStructureService;
+import org.opengauss.datachecker.check.service.EndpointMetaDataManager;
+import org.opengauss.datachecker.common.entry.check.CheckPartition;
+import org.opengauss.datachecker.common.entry.enums.CheckMode;
+import org.opengauss.datachecker.common.entry.enums.Endpoint;
+import org.opengauss.datachecker.common.entry.extract.ExtractTask;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+import org.opengauss.datachecker.common.util.ReflectUtil;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.opengauss.datachecker.check.cache.TableStatusRegister.TASK_STATUS_CHECK_VALUE;
+import static org.opengauss.datachecker.check.cache.TableStatusRegister.TASK_STATUS_CONSUMER_VALUE;
+
+/**
+ * CheckServiceImplTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@ExtendWith(MockitoExtension.class)
+class CheckServiceImplTest {
+    private static final String CHECKED_TABLE = "t_checked";
+    private static final String UNCHECKED_TABLE = "t_unchecked";
+    private static final Set<String> TABLES = Set.of(CHECKED_TABLE, UNCHECKED_TABLE);
+    private static final int SOURCE = 1;
+    private static final int SINK = 2;
+
+    @TempDir
+    Path dataPath;
+
+    @Mock
+    private FeignClientService mockFeignClientService;
+    @Mock
+    private DataCheckService mockDataCheckService;
+    @Mock
+    private EndpointMetaDataManager mockEndpointMetaDataManager;
+    @Mock
+    private CheckTableStructureService mockCheckTableStructureService;
+    @Mock
+    private CheckEnvironment mockCheckEnvironment;
+    @Mock
+    private RowPullService mockRowPullService;
+    @Mock
+    private KafkaTopicDeleteProvider mockKafkaTopicDeleteProvider;
+
+    @InjectMocks
+    private CheckServiceImpl checkServiceUnderTest;
+
+    private final TableStatusRegister tableStatusRegister = new TableStatusRegister();
+
+    @BeforeEach
+    void setUp() {
+        ExportCheckResult.initEnvironment(dataPath.toString());
+        ReflectUtil.setField(CheckServiceImpl.class, checkServiceUnderTest, "tableStatusRegister",
+            tableStatusRegister);
+        // the check service is killed after the table t_checked is verified
+        TableStatusRegister killed = new TableStatusRegister();
+        killed.recover();
+        killed.init(TABLES);
+        killed.update(CHECKED_TABLE, SOURCE);
+        killed.update(CHECKED_TABLE, SINK);
+        killed.initPartitionsStatus(CHECKED_TABLE, 1);
+        killed.persistentResult(new CheckPartition(CHECKED_TABLE, 0), CHECKED_TABLE + "_0.txt");
+        killed.update(CHECKED_TABLE, 0, TASK_STATUS_CHECK_VALUE);
+        killed.update(UNCHECKED_TABLE, SOURCE);
+        killed.removeAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectUtil.getField(CheckServiceImpl.class, null, AtomicBoolean.class, "STARTED").set(false);
+        ReflectUtil.getField(CheckServiceImpl.class, null, AtomicReference.class, "PROCESS_SIGNATURE").set(null);
+        tableStatusRegister.removeCheckpoint();
+        tableStatusRegister.removeAll();
+    }
+
+    @DisplayName("only the tables not verified before the restart are extracted and checked again")
+    @Test
+    void testStartAfterRestart() {
+        // Setup
+        when(mockCheckEnvironment.isLoadMetaSuccess()).thenReturn(true);
+        when(mockCheckEnvironment.getCheckMode()).thenReturn(CheckMode.FULL);
+        final List<ExtractTask> sourceTasks =
+            TABLES.stream().map(table -> new ExtractTask().setTableName(table)).collect(Collectors.toList());
+        when(mockFeignClientService.buildExtractTaskAllTables(eq(Endpoint.SOURCE), anyString())).thenReturn(
+            sourceTasks);
+        List<String> sinkTables = new CopyOnWriteArrayList<>();
+        when(mockFeignClientService.buildExtractTaskAllTables(eq(Endpoint.SINK), anyString(), anyList())).thenAnswer(
+            invocation -> {
+                List<ExtractTask> sinkTasks = invocation.getArgument(2);
+                sinkTasks.forEach(task -> sinkTables.add(task.getTableName()));
+                return true;
+            });
+        doAnswer(invocation -> {
+            tableStatusRegister.init(TABLES);
+            return null;
+        }).when(mockCheckTableStructureService).check(anyString());
+        List<String> sourceExtracted = new CopyOnWriteArrayList<>();
+        List<String> sinkExtracted = new CopyOnWriteArrayList<>();
+        when(mockFeignClientService.execExtractTaskAllTables(eq(Endpoint.SOURCE), anyString())).thenAnswer(
+            invocation -> extractTables(TABLES, SOURCE, sourceExtracted));
+        when(mockFeignClientService.execExtractTaskAllTables(eq(Endpoint.SINK), anyString())).thenAnswer(
+            invocation -> extractTables(sinkTables, SINK, sinkExtracted));
+        when(mockEndpointMetaDataManager.getTableMetadata(Endpoint.SOURCE, UNCHECKED_TABLE)).thenReturn(
+            new TableMetadata().setTableName(UNCHECKED_TABLE).setTableRows(10L));
+        doAnswer(invocation -> {
+            tableStatusRegister.update(invocation.getArgument(1), invocation.getArgument(2), TASK_STATUS_CHECK_VALUE);
+            return null;
+        }).when(mockDataCheckService).checkTableData(anyString(), anyString(), anyInt(), anyInt());
+
+        // Run the test
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> checkServiceUnderTest.start(CheckMode.FULL));
+
+        // Verify the results
+        assertThat(tableStatusRegister.hasRecovered()).isTrue();
+        assertThat(sinkTables).containsExactly(UNCHECKED_TABLE);
+        assertThat(sourceExtracted).containsExactly(UNCHECKED_TABLE);
+        assertThat(sinkExtracted).containsExactly(UNCHECKED_TABLE);
+        verify(mockDataCheckService).checkTableData(anyString(), eq(UNCHECKED_TABLE), anyInt(), anyInt());
+        verify(mockDataCheckService, never()).checkTableData(anyString(), eq(CHECKED_TABLE), anyInt(), anyInt());
+        assertThat(tableStatusRegister.get(CHECKED_TABLE)).isEqualTo(TASK_STATUS_CONSUMER_VALUE);
+        assertThat(tableStatusRegister.isCheckCompleted()).isTrue();
+    }
+
+    /**
+     * the stub of the extract endpoint, like the extract service it skips the tables verified by the check service
+     */
+    private boolean extractTables(Collection<String> tables, int endpoint, List<String> extracted) {
+        final Map<String, Integer> tableCheckStatus = tableStatusRegister.get();
+        tables.stream().filter(table -> tableCheckStatus.get(table) != TASK_STATUS_CONSUMER_VALUE).forEach(table -> {
+            extracted.add(table);
+            tableStatusRegister.update(table, endpoint);
+        });
+        return true;
+    }
+}
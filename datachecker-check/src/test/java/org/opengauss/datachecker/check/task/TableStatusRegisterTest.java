@@ -16,13 +16,39 @@
 package org.opengauss.datachecker.check.task;
 
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.check.cache.TableState;
+import org.opengauss.datachecker.check.cache.TableStatusListener;
 import org.opengauss.datachecker.check.cache.TableStatusRegister;
+import org.opengauss.datachecker.common.entry.check.CheckPartition;
+import org.opengauss.datachecker.common.entry.check.CheckProgress;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.opengauss.datachecker.check.cache.TableStatusRegister.TASK_STATUS_CHECK_VALUE;
+import static org.opengauss.datachecker.check.cache.TableStatusRegister.TASK_STATUS_COMPLETED_VALUE;
+import static org.opengauss.datachecker.check.cache.TableStatusRegister.TASK_STATUS_ERROR;
 
 /**
  * TableStatusRegisterTest
@@ -33,14 +59,33 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 @Slf4j
 class TableStatusRegisterTest {
+    private static final long AWAIT_SECONDS = 30L;
+    private static final long IDLE_WINDOW_MILLIS = 1000L;
+    private static final long IDLE_CPU_NANOS = TimeUnit.MILLISECONDS.toNanos(50L);
+    private static final long EXTRACT_TABLE_NANOS = TimeUnit.MICROSECONDS.toNanos(50L);
+    private static final long DISPATCH_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(5L);
+    private static final int SMALL_TABLE_COUNT = 1_000;
+    private static final int LARGE_TABLE_COUNT = 100_000;
+    private static final int QUERY_ROUNDS = 100_000;
+    private static final long QUERY_COST_RATIO = 10L;
+    private static final long QUERY_COST_SLACK_NANOS = 1_000L;
+    private static final int SOURCE = 1;
+    private static final int SINK = 2;
+
     private TableStatusRegister tableStatusRegisterUnderTest;
 
     @BeforeEach
     void setUp() {
         tableStatusRegisterUnderTest = new TableStatusRegister();
+        tableStatusRegisterUnderTest.removeAll();
         testInit();
     }
 
+    @AfterEach
+    void tearDown() {
+        tableStatusRegisterUnderTest.removeAll();
+    }
+
     @Test
     void testInit() {
         // Setup
@@ -86,4 +131,273 @@ class TableStatusRegisterTest {
         tableStatusRegisterUnderTest.removeAll();
         // Verify the results
     }
+
+    @DisplayName("the check dispatcher is blocked without cpu cost until a table completes extraction")
+    @Test
+    void testCompletedTableTakeIdle() throws InterruptedException {
+        final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMxBean.isThreadCpuTimeSupported());
+        CountDownLatch dispatchedLatch = new CountDownLatch(1);
+        AtomicReference<String> dispatched = new AtomicReference<>();
+        Thread dispatcher = new Thread(() -> {
+            dispatched.set(tableStatusRegisterUnderTest.completedTableTake());
+            dispatchedLatch.countDown();
+        });
+        dispatcher.start();
+        awaitBlocked(dispatcher);
+        final long idleStartCpuTime = threadMxBean.getThreadCpuTime(dispatcher.getId());
+        Thread.sleep(IDLE_WINDOW_MILLIS);
+        final long idleCpuTime = threadMxBean.getThreadCpuTime(dispatcher.getId()) - idleStartCpuTime;
+        assertThat(dispatchedLatch.getCount()).isEqualTo(1L);
+        assertThat(dispatched.get()).isNull();
+        assertThat(idleCpuTime).isLessThan(IDLE_CPU_NANOS);
+
+        tableStatusRegisterUnderTest.update("tabel1", TableStatusRegister.TASK_STATUS_COMPLETED_VALUE);
+        assertThat(dispatchedLatch.await(AWAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        assertThat(dispatched.get()).isEqualTo("tabel1");
+        dispatcher.join();
+    }
+
+    @DisplayName("simulated 10k tables are dispatched as soon as both endpoints complete the extraction")
+    @Test
+    void testCompletedTableTakeTenThousandTables() throws InterruptedException {
+        final int tableCount = 10000;
+        tableStatusRegisterUnderTest.removeAll();
+        Set<String> tables = IntStream.range(0, tableCount).mapToObj(idx -> "table_" + idx).collect(Collectors.toSet());
+        tableStatusRegisterUnderTest.init(tables);
+        CountDownLatch dispatchedLatch = new CountDownLatch(tableCount);
+        Set<String> dispatched = ConcurrentHashMap.newKeySet();
+        Set<String> dispatchedIncomplete = ConcurrentHashMap.newKeySet();
+        Map<String, Long> completedTime = new ConcurrentHashMap<>();
+        List<Long> dispatchLatency = new ArrayList<>();
+        Thread dispatcher = new Thread(() -> {
+            String tableName;
+            while ((tableName = tableStatusRegisterUnderTest.completedTableTake()) != null) {
+                dispatchLatency.add(System.nanoTime() - completedTime.get(tableName));
+                if (tableStatusRegisterUnderTest.get(tableName) != TableStatusRegister.TASK_STATUS_COMPLETED_VALUE) {
+                    dispatchedIncomplete.add(tableName);
+                }
+                dispatched.add(tableName);
+                // simulate the check of the table
+                tableStatusRegisterUnderTest.update(tableName, TableStatusRegister.TASK_STATUS_CHECK_VALUE);
+                dispatchedLatch.countDown();
+            }
+        });
+        dispatcher.start();
+        tables.forEach(tableName -> {
+            // simulate the extraction of the table by the source and the sink
+            LockSupport.parkNanos(EXTRACT_TABLE_NANOS);
+            tableStatusRegisterUnderTest.update(tableName, 1);
+            completedTime.put(tableName, System.nanoTime());
+            tableStatusRegisterUnderTest.update(tableName, 2);
+        });
+
+        assertThat(dispatchedLatch.await(AWAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        dispatcher.join();
+        assertThat(dispatched).isEqualTo(tables);
+        assertThat(dispatchedIncomplete).isEmpty();
+        assertThat(tableStatusRegisterUnderTest.isCheckCompleted()).isTrue();
+        dispatchLatency.sort(Long::compare);
+        log.info("dispatch latency of {} tables: p50={} ns, p99={} ns", tableCount, dispatchLatency.get(tableCount / 2),
+            dispatchLatency.get(tableCount * 99 / 100));
+        assertThat(dispatchLatency.get(tableCount / 2)).isLessThan(DISPATCH_LATENCY_NANOS);
+        tableStatusRegisterUnderTest.removeAll();
+    }
+
+    @DisplayName("the state counts follow the status flags of the tables")
+    @Test
+    void testStateCounts() {
+        tableStatusRegisterUnderTest.removeAll();
+        tableStatusRegisterUnderTest.init(Set.of("t_1", "t_2", "t_3", "t_4"));
+        assertCounts(0, 4, 0, 0, 0);
+        tableStatusRegisterUnderTest.update("t_1", SOURCE);
+        tableStatusRegisterUnderTest.update("t_1", SINK);
+        tableStatusRegisterUnderTest.update("t_2", SINK);
+        tableStatusRegisterUnderTest.update("t_3", TASK_STATUS_ERROR);
+        tableStatusRegisterUnderTest.update("t_4", TASK_STATUS_CHECK_VALUE);
+        assertCounts(1, 1, 1, 1, 0);
+        assertThat(tableStatusRegisterUnderTest.isExtractCompleted()).isFalse();
+        assertThat(tableStatusRegisterUnderTest.completedTablePoll()).isEqualTo("t_1");
+
+        tableStatusRegisterUnderTest.update("t_1", SOURCE);
+        assertThat(tableStatusRegisterUnderTest.completedTablePoll()).isNull();
+        tableStatusRegisterUnderTest.update("t_1", TASK_STATUS_CHECK_VALUE);
+        tableStatusRegisterUnderTest.update("t_2", SOURCE);
+        tableStatusRegisterUnderTest.update("t_4", SOURCE | SINK);
+        assertCounts(1, 0, 1, 0, 2);
+        assertThat(tableStatusRegisterUnderTest.extractProgress()).isEqualTo(new CheckProgress(1, 0, 1, 2));
+        assertThat(tableStatusRegisterUnderTest.getCheckedCount()).isEqualTo(3);
+        assertThat(tableStatusRegisterUnderTest.isExtractCompleted()).isFalse();
+        assertThat(tableStatusRegisterUnderTest.isCheckCompleted()).isFalse();
+
+        tableStatusRegisterUnderTest.update("t_2", TASK_STATUS_CHECK_VALUE);
+        assertThat(tableStatusRegisterUnderTest.isCheckCompleted()).isTrue();
+        tableStatusRegisterUnderTest.remove("t_3");
+        assertCounts(0, 0, 0, 0, 3);
+        assertThat(tableStatusRegisterUnderTest.isExtractCompleted()).isTrue();
+        tableStatusRegisterUnderTest.removeAll();
+        assertCounts(0, 0, 0, 0, 0);
+        assertThat(tableStatusRegisterUnderTest.cacheSize()).isZero();
+    }
+
+    @DisplayName("the table is verified when the last unchecked partition is verified")
+    @Test
+    void testPartitionsCountdown() {
+        tableStatusRegisterUnderTest.removeAll();
+        tableStatusRegisterUnderTest.init(Set.of("t_1"));
+        tableStatusRegisterUnderTest.update("t_1", SOURCE | SINK);
+        tableStatusRegisterUnderTest.initPartitionsStatus("t_1", 3);
+        tableStatusRegisterUnderTest.update("t_1", 0, TASK_STATUS_CHECK_VALUE);
+        tableStatusRegisterUnderTest.update("t_1", 0, TASK_STATUS_CHECK_VALUE);
+        tableStatusRegisterUnderTest.update("t_1", 2, TASK_STATUS_CHECK_VALUE);
+        assertThat(tableStatusRegisterUnderTest.stateCount(TableState.CHECKED)).isZero();
+        tableStatusRegisterUnderTest.update("t_1", 1, 0);
+        assertThat(tableStatusRegisterUnderTest.stateCount(TableState.CHECKED)).isZero();
+        tableStatusRegisterUnderTest.update("t_1", 1, TASK_STATUS_CHECK_VALUE);
+        assertThat(tableStatusRegisterUnderTest.stateCount(TableState.CHECKED)).isEqualTo(1);
+        assertThat(tableStatusRegisterUnderTest.isCheckCompleted()).isTrue();
+    }
+
+    @DisplayName("the partition is taken once both endpoints have extracted it, ahead of the completed tables")
+    @Test
+    void testPartitionExtracted() {
+        tableStatusRegisterUnderTest.removeAll();
+        tableStatusRegisterUnderTest.init(Set.of("t_1", "t_2"));
+        tableStatusRegisterUnderTest.update("t_2", SOURCE | SINK);
+        tableStatusRegisterUnderTest.updatePartitionExtract("t_1", 1, SOURCE);
+        tableStatusRegisterUnderTest.updatePartitionExtract("t_1", 0, SINK);
+        tableStatusRegisterUnderTest.updatePartitionExtract("t_1", 1, SINK);
+        tableStatusRegisterUnderTest.updatePartitionExtract("t_1", 1, SOURCE);
+        List<CheckPartition> partitions = new ArrayList<>();
+        assertThat(tableStatusRegisterUnderTest.completedTableTake(partitions::add)).isEqualTo("t_2");
+        assertThat(partitions).containsExactly(new CheckPartition("t_1", 1));
+        tableStatusRegisterUnderTest.update("t_2", TASK_STATUS_CHECK_VALUE);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            Thread extractor = new Thread(() -> {
+                tableStatusRegisterUnderTest.updatePartitionExtract("t_1", 0, SOURCE);
+                tableStatusRegisterUnderTest.update("t_1", SOURCE | SINK);
+            });
+            extractor.start();
+            assertThat(tableStatusRegisterUnderTest.completedTableTake(partitions::add)).isEqualTo("t_1");
+            extractor.join();
+        });
+        assertThat(partitions).containsExactly(new CheckPartition("t_1", 1), new CheckPartition("t_1", 0));
+        assertThat(tableStatusRegisterUnderTest.startPartitionCheck("t_1", 0)).isTrue();
+        assertThat(tableStatusRegisterUnderTest.startPartitionCheck("t_1", 0)).isFalse();
+
+        tableStatusRegisterUnderTest.initPartitionsStatus("t_1", 2);
+        tableStatusRegisterUnderTest.update("t_1", 0, TASK_STATUS_CHECK_VALUE);
+        tableStatusRegisterUnderTest.initPartitionsStatus("t_1", 2);
+        tableStatusRegisterUnderTest.update("t_1", 1, TASK_STATUS_CHECK_VALUE);
+        assertThat(tableStatusRegisterUnderTest.isCheckCompleted()).isTrue();
+    }
+
+    @DisplayName("the listeners are notified once for each state transition")
+    @Test
+    void testListener() {
+        tableStatusRegisterUnderTest.removeAll();
+        List<String> events = new ArrayList<>();
+        TableStatusListener listener = (tableName, oldState, newState) -> events.add(
+            tableName + ":" + oldState + "->" + newState);
+        tableStatusRegisterUnderTest.addListener(listener);
+        try {
+            tableStatusRegisterUnderTest.init(Set.of("t_1"));
+            tableStatusRegisterUnderTest.update("t_1", SOURCE);
+            tableStatusRegisterUnderTest.update("t_1", SINK);
+            tableStatusRegisterUnderTest.update("t_1", SINK);
+            tableStatusRegisterUnderTest.update("t_1", TASK_STATUS_CHECK_VALUE);
+            tableStatusRegisterUnderTest.put("t_2", TASK_STATUS_ERROR);
+        } finally {
+            tableStatusRegisterUnderTest.removeListener(listener);
+        }
+        tableStatusRegisterUnderTest.update("t_1", SOURCE);
+        assertThat(events).containsExactly("t_1:null->EXTRACTING", "t_1:EXTRACTING->EXTRACTED",
+            "t_1:EXTRACTED->CHECKED", "t_2:null->ERROR");
+    }
+
+    @DisplayName("the progress of 100k tables is counted by the state counters")
+    @Test
+    void testProgressOf100kTables() {
+        tableStatusRegisterUnderTest.removeAll();
+        final int tableCount = 100_000;
+        final Set<String> tables =
+            IntStream.range(0, tableCount).mapToObj(idx -> "t_" + idx).collect(Collectors.toCollection(HashSet::new));
+        tableStatusRegisterUnderTest.init(tables);
+        int idx = 0;
+        for (String table : tables) {
+            tableStatusRegisterUnderTest.update(table, SOURCE);
+            tableStatusRegisterUnderTest.update(table, SINK);
+            tableStatusRegisterUnderTest.initPartitionsStatus(table, 1);
+            tableStatusRegisterUnderTest.update(table, 0, TASK_STATUS_CHECK_VALUE);
+            assertThat(tableStatusRegisterUnderTest.completedTablePoll()).isEqualTo(table);
+            assertThat(tableStatusRegisterUnderTest.isCheckCompleted()).isEqualTo(++idx == tableCount);
+            assertThat(tableStatusRegisterUnderTest.getCheckedCount()).isEqualTo(idx);
+            assertThat(tableStatusRegisterUnderTest.extractProgress()).isEqualTo(
+                new CheckProgress(0, tableCount - idx, 0, idx));
+        }
+        assertThat(tableStatusRegisterUnderTest.isExtractCompleted()).isTrue();
+        assertThat(tableStatusRegisterUnderTest.checkProgress().getSource()).isEqualTo(tableCount);
+    }
+
+    @DisplayName("benchmark: the progress queries cost the same at 1k and 100k tables")
+    @Test
+    void testProgressQueryBenchmark() {
+        // warm up the query paths before they are timed
+        progressQueryNanos(SMALL_TABLE_COUNT);
+        final long smallNanos = progressQueryNanos(SMALL_TABLE_COUNT);
+        final long largeNanos = progressQueryNanos(LARGE_TABLE_COUNT);
+        log.info("progress query of {} tables {} ns, of {} tables {} ns", SMALL_TABLE_COUNT, smallNanos,
+            LARGE_TABLE_COUNT, largeNanos);
+        // a scan of the table status is 100 times slower at 100k tables, the counters are not
+        assertThat(largeNanos).isLessThan(smallNanos * QUERY_COST_RATIO + QUERY_COST_SLACK_NANOS);
+    }
+
+    /**
+     * The average nanos of a round of the progress and completion queries, the half of the tables are checked
+     *
+     * @param tableCount table count
+     * @return average nanos of a query round
+     */
+    private long progressQueryNanos(int tableCount) {
+        tableStatusRegisterUnderTest.removeAll();
+        final List<String> tables = IntStream.range(0, tableCount).mapToObj(idx -> "t_" + idx)
+                                             .collect(Collectors.toList());
+        tableStatusRegisterUnderTest.init(new HashSet<>(tables));
+        tables.subList(0, tableCount / 2).forEach(table -> {
+            tableStatusRegisterUnderTest.update(table, SOURCE | SINK);
+            tableStatusRegisterUnderTest.update(table, TASK_STATUS_CHECK_VALUE);
+        });
+        long checksum = 0;
+        final long start = System.nanoTime();
+        for (int round = 0; round < QUERY_ROUNDS; round++) {
+            checksum += tableStatusRegisterUnderTest.isCheckCompleted() ? 1 : 0;
+            checksum += tableStatusRegisterUnderTest.isExtractCompleted() ? 1 : 0;
+            checksum += tableStatusRegisterUnderTest.getCheckedCount();
+            checksum += tableStatusRegisterUnderTest.extractProgress().getCheckCount();
+            checksum += tableStatusRegisterUnderTest.checkProgress().getSource();
+        }
+        final long nanos = (System.nanoTime() - start) / QUERY_ROUNDS;
+        assertThat(checksum).isEqualTo((long) QUERY_ROUNDS * tableCount / 2 * 3);
+        return nanos;
+    }
+
+    private static void awaitBlocked(Thread thread) {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(AWAIT_SECONDS);
+        while (thread.getState() != Thread.State.WAITING) {
+            if (System.nanoTime() - deadline > 0) {
+                fail("thread " + thread.getName() + " is not blocked in " + AWAIT_SECONDS + " seconds, it is "
+                    + thread.getState());
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void assertCounts(int error, int extracting, int extracted, int incomplete, int checked) {
+        assertThat(tableStatusRegisterUnderTest.stateCount(TableState.ERROR)).isEqualTo(error);
+        assertThat(tableStatusRegisterUnderTest.stateCount(TableState.EXTRACTING)).isEqualTo(extracting);
+        assertThat(tableStatusRegisterUnderTest.stateCount(TableState.EXTRACTED)).isEqualTo(extracted);
+        assertThat(tableStatusRegisterUnderTest.stateCount(TableState.INCOMPLETE)).isEqualTo(incomplete);
+        assertThat(tableStatusRegisterUnderTest.stateCount(TableState.CHECKED)).isEqualTo(checked);
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.common.codec;
+
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * <pre>
+ * Binary codec of {@link RowDataHash}.
+ * The encoding format is [rowHash][primaryKeyHash][partition][primaryKeyLength][primaryKey]
+ * rowHash and primaryKeyHash are fixed 8 bytes big endian longs,
+ * partition is an unsigned varint,
+ * primaryKeyLength is an unsigned varint of the UTF-8 byte length of the primary key plus one,
+ * 0 means the primary key is null,
+ * primaryKey is the UTF-8 bytes of the primary key.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/24
+ * @since ：11
+ */
+public final class RowDataHashCodec {
+    private static final int LONG_BYTES = Long.BYTES;
+    private static final int VARINT_DATA_BITS = 7;
+    private static final int VARINT_DATA_MASK = 0x7F;
+    private static final int VARINT_CONTINUE_FLAG = 0x80;
+    private static final int VARINT_MAX_SHIFT = 28;
+    private static final int NULL_KEY_LENGTH = 0;
+
+    private RowDataHashCodec() {
+    }
+
+    /**
+     * encode the row data hash into bytes
+     *
+     * @param rowDataHash row data hash
+     * @return encoded bytes
+     */
+    public static byte[] encode(RowDataHash rowDataHash) {
+        final String primaryKey = rowDataHash.getPrimaryKey();
+        final byte[] keyBytes = Objects.isNull(primaryKey) ? null : primaryKey.getBytes(StandardCharsets.UTF_8);
+        final int keyLength = Objects.isNull(keyBytes) ? NULL_KEY_LENGTH : keyBytes.length + 1;
+        final int partition = rowDataHash.getPartition();
+        final int size = LONG_BYTES * 2 + varintSize(partition) + varintSize(keyLength) + Math.max(keyLength - 1, 0);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(rowDataHash.getRowHash());
+        buffer.putLong(rowDataHash.getPrimaryKeyHash());
+        putVarint(buffer, partition);
+        putVarint(buffer, keyLength);
+        if (Objects.nonNull(keyBytes)) {
+            buffer.put(keyBytes);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * decode the bytes encoded by {@link #encode(RowDataHash)}
+     *
+     * @param bytes encoded bytes
+     * @return row data hash
+     * @throws IllegalArgumentException the bytes are not a complete row data hash
+     */
+    public static RowDataHash decode(byte[] bytes) {
+        if (Objects.isNull(bytes) || bytes.length < LONG_BYTES * 2 + 2) {
+            throw new IllegalArgumentException(Message.INCOMPLETE_CONTENT);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        RowDataHash rowDataHash = new RowDataHash();
+        rowDataHash.setRowHash(buffer.getLong()).setPrimaryKeyHash(buffer.getLong())
+                   .setPartition(getVarint(buffer));
+        final int keyLength = getVarint(buffer);
+        if (keyLength != NULL_KEY_LENGTH) {
+            if (buffer.remaining() != keyLength - 1) {
+                throw new IllegalArgumentException(Message.INCOMPLETE_CONTENT);
+            }
+            rowDataHash.setPrimaryKey(
+                new String(bytes, buffer.position(), keyLength - 1, StandardCharsets.UTF_8));
+        }
+        return rowDataHash;
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        int remaining = value >>> VARINT_DATA_BITS;
+        while (remaining != 0) {
+            size++;
+            remaining >>>= VARINT_DATA_BITS;
+        }
+        return size;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        int remaining = value;
+        while ((remaining & ~VARINT_DATA_MASK) != 0) {
+            buffer.put((byte) ((remaining & VARINT_DATA_MASK) | VARINT_CONTINUE_FLAG));
+            remaining >>>= VARINT_DATA_BITS;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift <= VARINT_MAX_SHIFT; shift += VARINT_DATA_BITS) {
+            if (!buffer.hasRemaining()) {
+                throw new IllegalArgumentException(Message.INCOMPLETE_CONTENT);
+            }
+            final byte current = buffer.get();
+            value |= (current & VARINT_DATA_MASK) << shift;
+            if ((current & VARINT_CONTINUE_FLAG) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException(Message.MALFORMED_VARINT);
+    }
+
+    interface Message {
+        /**
+         * error message tips
+         */
+        String INCOMPLETE_CONTENT = "incomplete row data hash content";
+
+        /**
+         * error message tips
+         */
+        String MALFORMED_VARINT = "malformed varint of row data hash content";
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.common.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+/**
+ * Kafka value deserializer of {@link RowDataHash}, decoded by {@link RowDataHashCodec}
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/24
+ * @since ：11
+ */
+public class RowDataHashDeserializer implements Deserializer<RowDataHash> {
+    @Override
+    public RowDataHash deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return RowDataHashCodec.decode(data);
+        } catch (IllegalArgumentException ex) {
+            throw new SerializationException("deserialize row data hash of topic " + topic + " error", ex);
+        }
+    }
+}
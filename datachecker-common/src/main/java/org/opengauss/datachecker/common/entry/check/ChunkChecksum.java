@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.common.entry.check;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Objects;
+
+/**
+ * <pre>
+ * The checksum of the rows in the primary key range {@code [lower, upper)} of a table, aggregated in the database.
+ * A null bound means the range is unbounded on that side.
+ * The checksum is the sum of the row checksums, so it does not depend on the scan order of the database.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Data
+@Accessors(chain = true)
+public class ChunkChecksum {
+    private Object lower;
+    private Object upper;
+    private long rowCount;
+    private long checksum;
+
+    /**
+     * the range of the chunk, without the checksum
+     *
+     * @return range
+     */
+    public ChunkChecksum range() {
+        return new ChunkChecksum().setLower(lower).setUpper(upper);
+    }
+
+    /**
+     * the rows of the two chunks of the same range are the same
+     *
+     * @param other chunk of the other endpoint
+     * @return true if the row count and the checksum are equal
+     */
+    public boolean isSameChecksum(ChunkChecksum other) {
+        return Objects.nonNull(other) && rowCount == other.rowCount && checksum == other.checksum;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + lower + ", " + upper + ") rows=" + rowCount + " checksum=" + checksum;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.common.entry.check;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <pre>
+ * Invertible bloom lookup table of the (primary key hash, row hash) pairs of one kafka partition of a table.
+ * Each pair is added to one cell of each of the {@value HASH_COUNT} sub tables, a cell keeps the pair count
+ * and the XOR of the primary key hashes, row hashes and check hashes of its pairs.
+ * The table of the sink subtracted from the table of the source only keeps the different pairs,
+ * which are peeled from the cells holding a single pair, so the size of the table depends on
+ * the expected different row count instead of the row count of the partition.
+ * An updated row is two different pairs of the same primary key hash.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Data
+@Accessors(chain = true)
+public class InvertibleBloomFilter {
+    private static final int HASH_COUNT = 3;
+    private static final int MIN_SUB_TABLE_CELLS = 4;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private int[] counts;
+    private long[] keySums;
+    private long[] valueSums;
+    private long[] hashSums;
+
+    /**
+     * Create the table of about 1.5 cells per different pair, an updated row is two different pairs
+     *
+     * @param expectedDiffCount expected different row count
+     * @return empty table
+     */
+    public static InvertibleBloomFilter create(int expectedDiffCount) {
+        final int cellCount = HASH_COUNT * (Math.max(expectedDiffCount, 0) + MIN_SUB_TABLE_CELLS);
+        return new InvertibleBloomFilter().setCounts(new int[cellCount]).setKeySums(new long[cellCount])
+                                          .setValueSums(new long[cellCount]).setHashSums(new long[cellCount]);
+    }
+
+    /**
+     * add the row
+     *
+     * @param primaryKeyHash primary key hash
+     * @param rowHash        row hash
+     */
+    public void add(long primaryKeyHash, long rowHash) {
+        toggle(primaryKeyHash, rowHash, 1);
+    }
+
+    /**
+     * add all the pairs of the other table of the same cell count
+     *
+     * @param other other table
+     */
+    public void addAll(InvertibleBloomFilter other) {
+        for (int cell = 0; cell < counts.length; cell++) {
+            counts[cell] += other.counts[cell];
+            keySums[cell] ^= other.keySums[cell];
+            valueSums[cell] ^= other.valueSums[cell];
+            hashSums[cell] ^= other.hashSums[cell];
+        }
+    }
+
+    /**
+     * both tables are created of the same expected different row count
+     *
+     * @param other other table
+     * @return true if they can be subtracted
+     */
+    public boolean isComparable(InvertibleBloomFilter other) {
+        return other != null && counts.length == other.counts.length;
+    }
+
+    /**
+     * the pairs of this table which are not in the other, the count of them is positive,
+     * and the pairs of the other table which are not in this, the count of them is negative
+     *
+     * @param other other table of the same cell count
+     * @return difference table
+     */
+    public InvertibleBloomFilter subtract(InvertibleBloomFilter other) {
+        final int cellCount = counts.length;
+        InvertibleBloomFilter difference = create(cellCount / HASH_COUNT - MIN_SUB_TABLE_CELLS);
+        for (int cell = 0; cell < cellCount; cell++) {
+            difference.counts[cell] = counts[cell] - other.counts[cell];
+            difference.keySums[cell] = keySums[cell] ^ other.keySums[cell];
+            difference.valueSums[cell] = valueSums[cell] ^ other.valueSums[cell];
+            difference.hashSums[cell] = hashSums[cell] ^ other.hashSums[cell];
+        }
+        return difference;
+    }
+
+    /**
+     * Peel the pairs of the difference table, the primary key hash of a pair which only exists in this table
+     * is on the left, only exists in the other table is on the right, and exists in both with different row hashes
+     * is differing.
+     * The table is emptied by peeling.
+     *
+     * @return primary key hashes of the different rows, or null if the pairs can not be peeled completely
+     */
+    public DifferencePair<Set<Long>, Set<Long>, Set<Long>> peel() {
+        Set<Long> onlyOnLeft = new HashSet<>();
+        Set<Long> onlyOnRight = new HashSet<>();
+        Deque<Integer> pureCells = new ArrayDeque<>();
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (isPure(cell)) {
+                pureCells.push(cell);
+            }
+        }
+        while (!pureCells.isEmpty()) {
+            final int cell = pureCells.pop();
+            if (!isPure(cell)) {
+                continue;
+            }
+            final int count = counts[cell];
+            final long primaryKeyHash = keySums[cell];
+            (count > 0 ? onlyOnLeft : onlyOnRight).add(primaryKeyHash);
+            for (int pairCell : toggle(primaryKeyHash, valueSums[cell], -count)) {
+                if (isPure(pairCell)) {
+                    pureCells.push(pairCell);
+                }
+            }
+        }
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (counts[cell] != 0 || keySums[cell] != 0L || valueSums[cell] != 0L || hashSums[cell] != 0L) {
+                return null;
+            }
+        }
+        Set<Long> differing = new HashSet<>(onlyOnLeft);
+        differing.retainAll(onlyOnRight);
+        onlyOnLeft.removeAll(differing);
+        onlyOnRight.removeAll(differing);
+        return DifferencePair.of(onlyOnLeft, onlyOnRight, differing);
+    }
+
+    private boolean isPure(int cell) {
+        return (counts[cell] == 1 || counts[cell] == -1)
+            && hashSums[cell] == checkHash(keySums[cell], valueSums[cell]);
+    }
+
+    private int[] toggle(long primaryKeyHash, long rowHash, int count) {
+        final long pairHash = checkHash(primaryKeyHash, rowHash);
+        final int subTableCells = counts.length / HASH_COUNT;
+        int[] cells = new int[HASH_COUNT];
+        for (int idx = 0; idx < HASH_COUNT; idx++) {
+            final long cellHash = mix(pairHash + (idx + 1) * GOLDEN_GAMMA);
+            cells[idx] = idx * subTableCells + (int) Long.remainderUnsigned(cellHash, subTableCells);
+            counts[cells[idx]] += count;
+            keySums[cells[idx]] ^= primaryKeyHash;
+            valueSums[cells[idx]] ^= rowHash;
+            hashSums[cells[idx]] ^= pairHash;
+        }
+        return cells;
+    }
+
+    private static long checkHash(long primaryKeyHash, long rowHash) {
+        return mix(primaryKeyHash ^ mix(rowHash + GOLDEN_GAMMA));
+    }
+
+    /**
+     * the finalizer of SplitMix64
+     */
+    private static long mix(long value) {
+        long hash = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.common.entry.check;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.opengauss.datachecker.common.entry.enums.Endpoint;
+
+/**
+ * <pre>
+ * The bucket signatures of one kafka partition of a table, aggregated by the extract service while extracting.
+ * The row of primary key hash h belongs to the leaf {@code |h| & (bucketCount - 1)}, the same as the check bucket,
+ * the signature of a leaf is the XOR of the row hash of its rows, and the row count of the leaf is kept too,
+ * so that the rows which are sent twice do not cancel each other silently.
+ * The bucket count is 2^n, a digest is folded to a smaller 2^m bucket count by XOR of the leaves of the same
+ * low m bits, so the digests of both endpoints are always comparable.
+ * The optional sketch of the rows is sized by the expected different row count, it is not folded.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/31
+ * @since ：11
+ */
+@Data
+@Accessors(chain = true)
+public class PartitionDigest {
+    private String tableName;
+    private Endpoint endpoint;
+    private int partition;
+    private long[] signatures;
+    private long[] rowCounts;
+
+    /**
+     * invertible bloom lookup table of the rows, null if it is not enabled by the extract service
+     */
+    private InvertibleBloomFilter sketch;
+
+    /**
+     * the leaf of the row in the digest of {@code bucketCount} leaves
+     *
+     * @param primaryKeyHash primary key hash of the row
+     * @param bucketCount    bucket count, 2^n
+     * @return leaf number
+     */
+    public static int leafOf(long primaryKeyHash, int bucketCount) {
+        return (int) (Math.abs(primaryKeyHash) & (bucketCount - 1));
+    }
+
+    /**
+     * the total row count of the partition
+     *
+     * @return row count
+     */
+    public long totalRowCount() {
+        long total = 0L;
+        for (long rowCount : rowCounts) {
+            total += rowCount;
+        }
+        return total;
+    }
+
+    /**
+     * Fold the digest to the smaller bucket count
+     *
+     * @param bucketCount bucket count, 2^m, not more than the current bucket count
+     * @return folded digest
+     */
+    public PartitionDigest fold(int bucketCount) {
+        if (bucketCount == signatures.length) {
+            return this;
+        }
+        long[] foldSignatures = new long[bucketCount];
+        long[] foldRowCounts = new long[bucketCount];
+        for (int leaf = 0; leaf < signatures.length; leaf++) {
+            foldSignatures[leaf & (bucketCount - 1)] ^= signatures[leaf];
+            foldRowCounts[leaf & (bucketCount - 1)] += rowCounts[leaf];
+        }
+        return new PartitionDigest().setTableName(tableName).setEndpoint(endpoint).setPartition(partition)
+                                    .setSignatures(foldSignatures).setRowCounts(foldRowCounts)
+                                    .setSketch(sketch);
+    }
+}
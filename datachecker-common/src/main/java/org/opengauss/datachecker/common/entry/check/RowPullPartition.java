@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+
+package org.opengauss.datachecker.common.entry.check;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <pre>
+ * The rows of a kafka partition pulled by the check service from the extract services of the table extracted
+ * digest first, they are the rows of the primary key hashes peeled from the sketches if they are peeled,
+ * otherwise the rows of the digest leaves which are different between the endpoints.
+ * All the rows of the partition are pulled if the leaf count is 0, the digest of an endpoint is missing then.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Data
+@Accessors(chain = true)
+public class RowPullPartition {
+    private int partition;
+    private int leafCount;
+    private Set<Integer> leaves = new HashSet<>();
+    private Set<Long> primaryKeyHashes = new HashSet<>();
+
+    /**
+     * the row of the primary key hash is pulled
+     *
+     * @param primaryKeyHash primary key hash of the row
+     * @return true if the row is pulled
+     */
+    public boolean contains(long primaryKeyHash) {
+        if (!primaryKeyHashes.isEmpty()) {
+            return primaryKeyHashes.contains(primaryKeyHash);
+        }
+        return leafCount == 0 || leaves.contains(PartitionDigest.leafOf(primaryKeyHash, leafCount));
+    }
+}
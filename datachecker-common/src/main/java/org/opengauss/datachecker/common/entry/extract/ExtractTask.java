@@ -19,6 +19,9 @@ import lombok.Data;
 import lombok.ToString;
 import lombok.experimental.Accessors;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * ExtractTask
  *
@@ -66,6 +69,34 @@ public class ExtractTask {
      */
     private TableMetadata tableMetadata;
 
+    /**
+     * The table is checked by the chunk checksums aggregated in the database,
+     * the rows are not extracted to kafka, only the rows of the different small chunks are queried
+     */
+    private boolean isChunkChecksum;
+
+    /**
+     * Only the partition digests of the table are shipped by the first extraction, the rows are not sent to kafka.
+     * The check service pulls the rows of the different digest leaves from both endpoints afterwards.
+     */
+    private boolean isDigestFirst;
+
+    /**
+     * The expected different row count of each kafka partition, the row sketches of the table extracted digest first
+     * are sized for. 0 if the sketches are not built. It is sized by the source endpoint and shipped to the sink
+     * with the task, so the sketches of both endpoints are comparable.
+     */
+    private int sketchExpectedDiff;
+
+    /**
+     * The upper bounds of the integer primary key ranges of the kafka partitions, except the last partition.
+     * The rows of the range {@code [bound(i-1), bound(i))} are sent to partition i by both endpoints,
+     * so a partition is completed when its range is extracted. Empty if the rows are sent to the partition
+     * of their primary key hash. The bounds are located by the source endpoint and shipped to the sink with the task,
+     * each partition takes about the same row count of the source table.
+     */
+    private List<Long> partitionBounds = new ArrayList<>();
+
     /**
      * Whether to slice the table corresponding to the current task
      *
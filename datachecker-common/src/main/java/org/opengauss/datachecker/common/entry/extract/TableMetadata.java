@@ -44,6 +44,11 @@ public class TableMetadata {
      */
     private long tableRows;
 
+    /**
+     * Average row length in bytes, it is 0 if the database does not provide it
+     */
+    private long avgRowLength;
+
     /**
      * Primary key column properties
      */
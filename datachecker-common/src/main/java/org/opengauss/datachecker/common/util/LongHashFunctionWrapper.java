@@ -45,6 +45,19 @@ public class LongHashFunctionWrapper {
         return XX_3_HASH.hashChars(input);
     }
 
+    /**
+     * Hash the chars of the array region using the XX3 hash algorithm,
+     * the result is the same as {@link #hashChars(String)} of the string with the same chars.
+     *
+     * @param input char array
+     * @param off   index of the first char of the region
+     * @param len   char count of the region
+     * @return Hash value
+     */
+    public long hashChars(@NonNull char[] input, int off, int len) {
+        return XX_3_HASH.hashChars(input, off, len);
+    }
+
     /**
      * Hash the byte array using the XX3 hash algorithm
      *
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.common.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * RowDataHashCodecTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/24
+ * @since ：11
+ */
+class RowDataHashCodecTest {
+    private final RowDataHashSerializer serializer = new RowDataHashSerializer();
+    private final RowDataHashDeserializer deserializer = new RowDataHashDeserializer();
+
+    @DisplayName("random row data hash encode and decode round trip")
+    @Test
+    void testRoundTrip() {
+        Random random = new Random(20230324L);
+        for (int round = 0; round < 1000; round++) {
+            RowDataHash rowDataHash = new RowDataHash().setPrimaryKey(randomKey(random, random.nextInt(300)))
+                                                       .setPrimaryKeyHash(random.nextLong())
+                                                       .setRowHash(random.nextLong())
+                                                       .setPartition(random.nextInt(Integer.MAX_VALUE));
+            final byte[] bytes = serializer.serialize("topic", rowDataHash);
+            assertThat(deserializer.deserialize("topic", bytes)).isEqualTo(rowDataHash);
+        }
+    }
+
+    @DisplayName("boundary values and keys longer than 99 chars")
+    @Test
+    void testBoundaryValues() {
+        RowDataHash longKey = new RowDataHash().setPrimaryKey("主键_#_".repeat(100)).setPrimaryKeyHash(Long.MIN_VALUE)
+                                               .setRowHash(Long.MAX_VALUE).setPartition(0);
+        assertThat(RowDataHashCodec.decode(RowDataHashCodec.encode(longKey))).isEqualTo(longKey);
+        RowDataHash nullKey = new RowDataHash().setPrimaryKeyHash(-1L).setRowHash(0L).setPartition(127);
+        assertThat(RowDataHashCodec.decode(RowDataHashCodec.encode(nullKey))).isEqualTo(nullKey);
+        RowDataHash emptyKey = new RowDataHash().setPrimaryKey("").setPartition(128);
+        assertThat(RowDataHashCodec.decode(RowDataHashCodec.encode(emptyKey))).isEqualTo(emptyKey);
+        RowDataHash negativePartition = new RowDataHash().setPrimaryKey("1").setPartition(-1);
+        assertThat(RowDataHashCodec.decode(RowDataHashCodec.encode(negativePartition))).isEqualTo(
+            negativePartition);
+    }
+
+    @DisplayName("binary encoding is smaller than the string encoding")
+    @Test
+    void testSmallerThanStringEncoding() {
+        RowDataHash rowDataHash = new RowDataHash().setPrimaryKey("100086").setPrimaryKeyHash(-6842287420743423413L)
+                                                   .setRowHash(8792487102942198749L).setPartition(3);
+        final byte[] bytes = RowDataHashCodec.encode(rowDataHash);
+        assertThat(bytes).hasSize(8 + 8 + 1 + 1 + 6);
+        assertThat(bytes.length).isLessThan(rowDataHash.toEncode().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @DisplayName("incomplete content is rejected")
+    @Test
+    void testIncompleteContent() {
+        RowDataHash rowDataHash = new RowDataHash().setPrimaryKey("abc").setPartition(1);
+        final byte[] bytes = RowDataHashCodec.encode(rowDataHash);
+        assertThatThrownBy(() -> RowDataHashCodec.decode(Arrays.copyOf(bytes, bytes.length - 1))).isInstanceOf(
+            IllegalArgumentException.class);
+        assertThatThrownBy(() -> deserializer.deserialize("topic", new byte[] {1, 2, 3})).isInstanceOf(
+            SerializationException.class);
+        assertThat(deserializer.deserialize("topic", null)).isNull();
+        assertThat(serializer.serialize("topic", null)).isNull();
+    }
+
+    private String randomKey(Random random, int length) {
+        StringBuilder key = new StringBuilder(length);
+        for (int idx = 0; idx < length; idx++) {
+            key.append(random.nextInt(4) == 0 ? (char) ('一' + random.nextInt(100)) : (char) ('0' + random.nextInt(75)));
+        }
+        return key.toString();
+    }
+}
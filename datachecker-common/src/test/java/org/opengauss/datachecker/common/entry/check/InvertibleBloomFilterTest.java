@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.common.entry.check;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * InvertibleBloomFilterTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+class InvertibleBloomFilterTest {
+    @DisplayName("the inserted, deleted and updated rows are peeled from the difference of the sketches")
+    @Test
+    void testPeelDifferentRows() {
+        final Random random = new Random(20230401L);
+        final InvertibleBloomFilter source = InvertibleBloomFilter.create(50);
+        final InvertibleBloomFilter sink = InvertibleBloomFilter.create(50);
+        Set<Long> insert = new HashSet<>();
+        Set<Long> delete = new HashSet<>();
+        Set<Long> update = new HashSet<>();
+        for (int idx = 0; idx < 10000; idx++) {
+            final long primaryKeyHash = random.nextLong();
+            final long rowHash = random.nextLong();
+            source.add(primaryKeyHash, rowHash);
+            if (idx < 10) {
+                insert.add(primaryKeyHash);
+            } else if (idx < 20) {
+                update.add(primaryKeyHash);
+                sink.add(primaryKeyHash, rowHash + 1);
+            } else {
+                sink.add(primaryKeyHash, rowHash);
+            }
+        }
+        for (int idx = 0; idx < 10; idx++) {
+            final long primaryKeyHash = random.nextLong();
+            delete.add(primaryKeyHash);
+            sink.add(primaryKeyHash, random.nextLong());
+        }
+
+        assertThat(source.isComparable(sink)).isTrue();
+        final DifferencePair<Set<Long>, Set<Long>, Set<Long>> difference = source.subtract(sink).peel();
+        assertThat(difference).isNotNull();
+        assertThat(difference.getOnlyOnLeft()).isEqualTo(insert);
+        assertThat(difference.getOnlyOnRight()).isEqualTo(delete);
+        assertThat(difference.getDiffering()).isEqualTo(update);
+    }
+
+    @DisplayName("the sketches of the same rows are peeled empty")
+    @Test
+    void testSameRows() {
+        final InvertibleBloomFilter source = InvertibleBloomFilter.create(10);
+        final InvertibleBloomFilter sink = InvertibleBloomFilter.create(10);
+        for (long idx = 0; idx < 1000; idx++) {
+            source.add(idx, idx * 7);
+            sink.add(999 - idx, (999 - idx) * 7);
+        }
+        final DifferencePair<Set<Long>, Set<Long>, Set<Long>> difference = source.subtract(sink).peel();
+        assertThat(difference).isNotNull();
+        assertThat(difference.getOnlyOnLeft()).isEmpty();
+        assertThat(difference.getOnlyOnRight()).isEmpty();
+        assertThat(difference.getDiffering()).isEmpty();
+    }
+
+    @DisplayName("the merged sketches of the shards are the same as the sketch of all the rows")
+    @Test
+    void testAddAllShards() {
+        final Random random = new Random(20230402L);
+        final InvertibleBloomFilter whole = InvertibleBloomFilter.create(20);
+        final InvertibleBloomFilter[] shards = new InvertibleBloomFilter[4];
+        for (int shard = 0; shard < shards.length; shard++) {
+            shards[shard] = InvertibleBloomFilter.create(20);
+        }
+        for (int idx = 0; idx < 5000; idx++) {
+            final long primaryKeyHash = random.nextLong();
+            final long rowHash = random.nextLong();
+            whole.add(primaryKeyHash, rowHash);
+            shards[random.nextInt(shards.length)].add(primaryKeyHash, rowHash);
+        }
+        final InvertibleBloomFilter merged = InvertibleBloomFilter.create(20);
+        for (InvertibleBloomFilter shard : shards) {
+            merged.addAll(shard);
+        }
+
+        assertThat(merged).isEqualTo(whole);
+        final DifferencePair<Set<Long>, Set<Long>, Set<Long>> difference = merged.subtract(whole).peel();
+        assertThat(difference).isNotNull();
+        assertThat(difference.getOnlyOnLeft()).isEmpty();
+        assertThat(difference.getOnlyOnRight()).isEmpty();
+        assertThat(difference.getDiffering()).isEmpty();
+    }
+
+    @DisplayName("more different rows than the sketch size can not be peeled")
+    @Test
+    void testTooManyDifferentRows() {
+        final InvertibleBloomFilter source = InvertibleBloomFilter.create(10);
+        final InvertibleBloomFilter sink = InvertibleBloomFilter.create(10);
+        for (long idx = 0; idx < 200; idx++) {
+            source.add(idx, idx);
+        }
+        assertThat(source.subtract(sink).peel()).isNull();
+        assertThat(source.isComparable(InvertibleBloomFilter.create(20))).isFalse();
+        assertThat(source.isComparable(null)).isFalse();
+    }
+}
@@ -15,6 +15,7 @@
 
 package org.opengauss.datachecker.extract.client;
 
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
 import org.opengauss.datachecker.common.entry.extract.SourceDataLog;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -56,6 +57,38 @@ public interface CheckingFeignClient {
     void refreshTableExtractStatus(@RequestParam(value = "tableName") @NotEmpty String tableName,
         @RequestParam(value = "endpoint") @NonNull Endpoint endpoint, @RequestParam(value = "status") int status);
 
+    /**
+     * Refresh the status of the rows of the table extracted digest first pulled by the check service,
+     * all the pulled rows are sent to kafka
+     *
+     * @param tableName table name
+     * @param endpoint  endpoint enum type {@link org.opengauss.datachecker.common.entry.enums.Endpoint}
+     * @param status    status, -1 if the rows can not be pulled
+     */
+    @PostMapping("/table/rows/pull/status")
+    void refreshTableRowPullStatus(@RequestParam(value = "tableName") @NotEmpty String tableName,
+        @RequestParam(value = "endpoint") @NonNull Endpoint endpoint, @RequestParam(value = "status") int status);
+
+    /**
+     * Refresh the bucket signatures of the partitions of a table, they are shipped before the extract status
+     *
+     * @param digests partition digests
+     */
+    @PostMapping("/table/extract/digest")
+    void refreshTableDigest(@RequestBody @NotEmpty List<PartitionDigest> digests);
+
+    /**
+     * Refresh the extraction status of a kafka partition of the table, all the rows of the partition are committed,
+     * its digest is shipped before the status
+     *
+     * @param tableName table name
+     * @param partition partition
+     * @param endpoint  endpoint enum type {@link org.opengauss.datachecker.common.entry.enums.Endpoint}
+     */
+    @PostMapping("/table/extract/partition/status")
+    void refreshPartitionExtractStatus(@RequestParam(value = "tableName") @NotEmpty String tableName,
+        @RequestParam(value = "partition") int partition, @RequestParam(value = "endpoint") @NonNull Endpoint endpoint);
+
     /**
      * Incremental verification log notification
      *
@@ -83,6 +83,63 @@ public class ExtractProperties {
     @Range(min = 1, max = 64, message = "invalid openGauss query dop config 1~64 , please check it.")
     private int queryDop = 8;
 
+    /**
+     * jdbc cursor fetch size of data extraction query, the rows are fetched from database in cursor batch
+     */
+    @Range(min = 1, max = 100000, message = "invalid jdbc fetch size config 1~100000 , please check it.")
+    private int fetchSize = 1000;
+
+    /**
+     * The row count of one batch pushed to kafka, which limits the extracted rows held in memory of one shard
+     */
+    @Range(min = 1, max = 100000, message = "invalid extract batch size config 1~100000 , please check it.")
+    private int extractBatchSize = 10000;
+
+    /**
+     * The max retry times of a failed extraction shard, each shard is sent to kafka in a transaction,
+     * a failed shard is aborted and extracted again without the other shards of the table
+     */
+    @Range(min = 0, max = 10, message = "invalid shard retry times config 0~10 , please check it.")
+    private int shardRetryTimes = 3;
+
+    /**
+     * The transaction timeout of an extraction shard in seconds, a shard must be committed in the timeout.
+     * It must not be larger than the {@code transaction.max.timeout.ms} of the kafka broker, 15 minutes by default
+     */
+    @Range(min = 1, max = 86400, message = "invalid shard transaction timeout config 1~86400 , please check it.")
+    private int shardTransactionTimeout = 900;
+
+    /**
+     * Whether to check the tables of single integer primary key by the chunk checksums aggregated in database,
+     * instead of extracting all the rows to kafka. the setting of the source endpoint takes effect,
+     * and both endpoints must be mysql or openGauss. By default,this function is disabled.
+     */
+    private boolean isChunkChecksumEnable = false;
+
+    /**
+     * Whether to send the rows of the single integer primary key tables of more than one kafka partition
+     * to the partition of their primary key range, so each partition is checked as soon as its range is extracted
+     * by both endpoints. the setting of the source endpoint takes effect. By default,this function is disabled.
+     */
+    private boolean isPartitionPipelineEnable = false;
+
+    /**
+     * Whether to ship only the partition digests of the tables by the first extraction, the check service pulls
+     * the rows of the different digest leaves from both endpoints afterwards, so the tables which are the same
+     * are not sent to kafka at all. the setting of the source endpoint takes effect. By default,this function is
+     * disabled.
+     */
+    private boolean isDigestFirstEnable = false;
+
+    /**
+     * The max expected different row count of one kafka partition of the tables extracted digest first.
+     * The extraction ships an invertible bloom lookup table of the rows with the partition digest, sized for 1% of
+     * the partition rows up to this count, and the check service pulls only the different rows peeled from it.
+     * the setting of the source endpoint takes effect. 0 means the sketch is not built.
+     */
+    @Range(min = 0, max = 100000, message = "invalid sketch expected diff config 0~100000 , please check it.")
+    private int sketchExpectedDiff = 0;
+
     private int debeziumTopicPartitions = 1;
     /**
      * incremental migration table name list
@@ -19,6 +19,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.opengauss.datachecker.common.codec.RowDataHashDeserializer;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.opengauss.datachecker.extract.constants.ExtConstants;
 import org.opengauss.datachecker.extract.debezium.DeserializerAdapter;
 import org.springframework.beans.factory.annotation.Value;
@@ -44,8 +46,9 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 @EnableConfigurationProperties(KafkaProperties.class)
 public class KafkaConsumerConfig {
+    private static final String READ_COMMITTED = "read_committed";
     private static final Object LOCK = new Object();
-    private static final Map<String, KafkaConsumer<String, String>> CONSUMER_MAP = new ConcurrentHashMap<>();
+    private static final Map<String, KafkaConsumer<String, RowDataHash>> CONSUMER_MAP = new ConcurrentHashMap<>();
 
     @Value("${spring.extract.debezium-groupId}")
     private String debeziumGroupId;
@@ -64,9 +67,9 @@ public class KafkaConsumerConfig {
      * @param partitions total number of partitions
      * @return the topic corresponds to the consumer client.
      */
-    public KafkaConsumer<String, String> getKafkaConsumer(String topic, int partitions) {
+    public KafkaConsumer<String, RowDataHash> getKafkaConsumer(String topic, int partitions) {
         String consumerKey = topic + "_" + partitions;
-        KafkaConsumer<String, String> consumer = CONSUMER_MAP.get(consumerKey);
+        KafkaConsumer<String, RowDataHash> consumer = CONSUMER_MAP.get(consumerKey);
         if (Objects.isNull(consumer)) {
             synchronized (LOCK) {
                 consumer = CONSUMER_MAP.get(consumerKey);
@@ -109,14 +112,16 @@ public class KafkaConsumerConfig {
         }
     }
 
-    private KafkaConsumer<String, String> buildKafkaConsumer() {
+    private KafkaConsumer<String, RowDataHash> buildKafkaConsumer() {
         Properties props = new Properties();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG,
             String.join(ExtConstants.DELIMITER, properties.getBootstrapServers()));
         props.put(ConsumerConfig.GROUP_ID_CONFIG, properties.getConsumer().getGroupId());
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, properties.getConsumer().getAutoOffsetReset());
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, RowDataHashDeserializer.class);
+        // the rows of the aborted extraction shards are skipped
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, READ_COMMITTED);
         return new KafkaConsumer<>(props);
     }
 
@@ -17,7 +17,10 @@ package org.opengauss.datachecker.extract.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.opengauss.datachecker.common.codec.RowDataHashSerializer;
 import org.opengauss.datachecker.common.constant.Constants.InitialCapacity;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -29,7 +32,9 @@ import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author ：wangchao
@@ -41,16 +46,39 @@ import java.util.Map;
 @EnableKafka
 @EnableConfigurationProperties(KafkaProperties.class)
 public class KafkaProducerConfig {
+    private static final String TRANSACTION_ID_PREFIX = "datachecker-extract-";
+
     @Autowired
     private KafkaProperties properties;
+    @Autowired
+    private ExtractProperties extractProperties;
 
-    public ProducerFactory<String, String> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(buildProducerConfig());
+    /**
+     * The producers are transactional, each extraction shard is sent in a transaction.
+     * The transactional id prefix is stable for the endpoint, so the unfinished transactions of a restarted
+     * extract service are fenced and aborted at once.
+     *
+     * @return producer factory
+     */
+    public ProducerFactory<String, RowDataHash> producerFactory() {
+        final DefaultKafkaProducerFactory<String, RowDataHash> producerFactory =
+            new DefaultKafkaProducerFactory<>(buildProducerConfig(), new StringSerializer(),
+                new RowDataHashSerializer());
+        producerFactory.setTransactionIdPrefix(
+            TRANSACTION_ID_PREFIX + extractProperties.getEndpoint().name().toLowerCase(Locale.ENGLISH) + "-");
+        return producerFactory;
     }
 
+    /**
+     * the incremental extraction sends the rows without transaction
+     *
+     * @return kafka template
+     */
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, RowDataHash> kafkaTemplate() {
+        final KafkaTemplate<String, RowDataHash> kafkaTemplate = new KafkaTemplate<>(producerFactory());
+        kafkaTemplate.setAllowNonTransactional(true);
+        return kafkaTemplate;
     }
 
     private Map<String, Object> buildProducerConfig() {
@@ -59,9 +87,12 @@ public class KafkaProducerConfig {
         // kafka server address
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, String.join(",", properties.getBootstrapServers()));
         props.put(ProducerConfig.ACKS_CONFIG, properties.getProducer().getAcks());
-        // sets the serialization processing class for data keys and values.
-        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, properties.getProducer().getKeySerializer());
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, properties.getProducer().getValueSerializer());
+        // a shard must be committed in the timeout, it is limited by the max transaction timeout of the broker
+        props.put(ProducerConfig.TRANSACTION_TIMEOUT_CONFIG,
+            (int) TimeUnit.SECONDS.toMillis(extractProperties.getShardTransactionTimeout()));
+        // the row data hash is serialized into the binary format of RowDataHashCodec
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, RowDataHashSerializer.class);
         // creating a kafka producer instance
         return props;
     }
@@ -18,6 +18,8 @@ package org.opengauss.datachecker.extract.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.opengauss.datachecker.common.entry.check.ChunkChecksum;
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
 import org.opengauss.datachecker.common.entry.extract.ExtractConfig;
 import org.opengauss.datachecker.common.entry.extract.ExtractTask;
 import org.opengauss.datachecker.common.entry.extract.RowDataHash;
@@ -29,6 +31,7 @@ import org.opengauss.datachecker.common.exception.TaskNotFoundException;
 import org.opengauss.datachecker.common.web.Result;
 import org.opengauss.datachecker.extract.service.DataExtractService;
 import org.opengauss.datachecker.extract.service.MetaDataService;
+import org.opengauss.datachecker.extract.task.ChunkChecksumService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -56,6 +59,8 @@ public class ExtractController {
     private MetaDataService metaDataService;
     @Autowired
     private DataExtractService dataExtractService;
+    @Autowired
+    private ChunkChecksumService chunkChecksumService;
 
     /**
      * loading database metadata information
@@ -125,6 +130,20 @@ public class ExtractController {
         return Result.success();
     }
 
+    /**
+     * pull the rows of the different digest leaves of the table extracted digest first,
+     * the pulled rows are sent to the topic of the table
+     *
+     * @param request the rows pulled by the check service
+     * @return interface invoking result
+     */
+    @Operation(summary = "pull the rows of the different digest leaves of the table extracted digest first")
+    @PostMapping("/extract/pull/table/rows")
+    public Result<Void> pullTableRows(@RequestBody RowPullRequest request) {
+        dataExtractService.pullTableRows(request);
+        return Result.success();
+    }
+
     /**
      * clear the cached task information of the corresponding endpoint and rest the task.
      *
@@ -233,4 +252,47 @@ public class ExtractController {
     Result<ExtractConfig> getEndpointConfig() {
         return Result.success(dataExtractService.getEndpointConfig());
     }
+
+    /**
+     * query the checksums of the chunks of the table, aggregated in database
+     *
+     * @param tableName table name
+     * @param ranges    primary key ranges of the chunks
+     * @return chunk checksums
+     */
+    @Operation(summary = "query the checksums of the chunks of the table")
+    @PostMapping("/extract/query/chunk/checksum")
+    Result<List<ChunkChecksum>> queryChunkChecksum(@RequestParam(name = "tableName") String tableName,
+        @RequestBody List<ChunkChecksum> ranges) {
+        return Result.success(chunkChecksumService.queryChunkChecksum(tableName, ranges));
+    }
+
+    /**
+     * split the range of the table to chunks and query the checksums of them
+     *
+     * @param tableName  table name
+     * @param chunkCount chunk count
+     * @param range      the range to split
+     * @return chunk checksums
+     */
+    @Operation(summary = "split the range of the table to chunks and query the checksums of them")
+    @PostMapping("/extract/split/chunk/checksum")
+    Result<List<ChunkChecksum>> splitChunkChecksum(@RequestParam(name = "tableName") String tableName,
+        @RequestParam(name = "chunkCount") int chunkCount, @RequestBody ChunkChecksum range) {
+        return Result.success(chunkChecksumService.splitChunkChecksum(tableName, range, chunkCount));
+    }
+
+    /**
+     * query the row hash of all the rows of the chunk
+     *
+     * @param tableName table name
+     * @param range     primary key range of the chunk
+     * @return row data hash
+     */
+    @Operation(summary = "query the row hash of all the rows of the chunk")
+    @PostMapping("/extract/query/chunk/data/row/hash")
+    Result<List<RowDataHash>> queryChunkRowData(@RequestParam(name = "tableName") String tableName,
+        @RequestBody ChunkChecksum range) {
+        return Result.success(chunkChecksumService.queryChunkRowData(tableName, range));
+    }
 }
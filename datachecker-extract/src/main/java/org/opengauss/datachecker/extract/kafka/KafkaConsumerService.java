@@ -15,7 +15,6 @@
 
 package org.opengauss.datachecker.extract.kafka;
 
-import com.alibaba.fastjson.JSON;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -53,12 +52,12 @@ public class KafkaConsumerService {
      */
     public List<RowDataHash> getTopicRecords(String tableName, int partitions) {
         Topic topic = kafkaCommonService.getTopic(tableName);
-        KafkaConsumer<String, String> kafkaConsumer = consumerConfig.getKafkaConsumer(topic.getTopicName(), partitions);
+        KafkaConsumer<String, RowDataHash> kafkaConsumer = consumerConfig.getKafkaConsumer(topic.getTopicName(), partitions);
         kafkaConsumer.assign(List.of(new TopicPartition(topic.getTopicName(), partitions)));
         List<RowDataHash> dataList = new LinkedList<>();
-        ConsumerRecords<String, String> consumerRecords = kafkaConsumer.poll(Duration.ofMillis(200));
+        ConsumerRecords<String, RowDataHash> consumerRecords = kafkaConsumer.poll(Duration.ofMillis(200));
         consumerRecords.forEach(record -> {
-            dataList.add(JSON.parseObject(record.value(), RowDataHash.class));
+            dataList.add(record.value());
         });
         log.debug("kafka consumer topic=[{}] partitions=[{}] dataList=[{}]", topic.toString(), partitions,
             dataList.size());
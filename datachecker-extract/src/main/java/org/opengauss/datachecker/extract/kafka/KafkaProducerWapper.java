@@ -37,14 +37,14 @@ public class KafkaProducerWapper {
     private static final int EMPTY = 0;
     private static final int MIN_PARTITION_NUM = 1;
 
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, RowDataHash> kafkaTemplate;
 
     /**
      * KafkaProducerWapper build
      *
      * @param kafkaTemplate kafkaTemplate
      */
-    public KafkaProducerWapper(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaProducerWapper(KafkaTemplate<String, RowDataHash> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
     }
 
@@ -60,18 +60,46 @@ public class KafkaProducerWapper {
         }
         final int partitions = topic.getPartitions();
         if (partitions <= MIN_PARTITION_NUM) {
-            sendRecordToSinglePartitionTopic(recordHashList, topic.getTopicName());
+            sendRecordToPartition(recordHashList, topic.getTopicName(), DEFAULT_PARTITION);
         } else {
             sendMultiPartitionTopic(recordHashList, topic.getTopicName(), partitions);
         }
         return recordHashList.size();
     }
 
-    private void sendRecordToSinglePartitionTopic(List<RowDataHash> recordHashList, String topicName) {
+    /**
+     * Push the data to the specified partition of the topic in batch
+     *
+     * @param topic          topic
+     * @param recordHashList data
+     * @param partition      partition
+     * @return pushed record count
+     */
+    public int syncSend(Topic topic, List<RowDataHash> recordHashList, int partition) {
+        if (CollectionUtils.isEmpty(recordHashList)) {
+            return EMPTY;
+        }
+        sendRecordToPartition(recordHashList, topic.getTopicName(), partition);
+        return recordHashList.size();
+    }
+
+    /**
+     * Assign the rows to the partitions of the topic the same as they are pushed, but the rows are not pushed
+     *
+     * @param topic          topic
+     * @param recordHashList data
+     */
+    public void assignPartition(Topic topic, List<RowDataHash> recordHashList) {
+        final int partitions = topic.getPartitions();
+        recordHashList.forEach(record -> record.setPartition(partitions <= MIN_PARTITION_NUM ? DEFAULT_PARTITION
+            : calcSimplePartition(record.getPrimaryKeyHash(), partitions)));
+    }
+
+    private void sendRecordToPartition(List<RowDataHash> recordHashList, String topicName, int partition) {
         recordHashList.forEach(record -> {
-            record.setPartition(DEFAULT_PARTITION);
-            final ProducerRecord<String, String> producerRecord =
-                new ProducerRecord<>(topicName, DEFAULT_PARTITION, record.getPrimaryKey(), record.toEncode());
+            record.setPartition(partition);
+            final ProducerRecord<String, RowDataHash> producerRecord =
+                new ProducerRecord<>(topicName, partition, record.getPrimaryKey(), record);
             kafkaTemplate.send(producerRecord);
         });
         kafkaTemplate.flush();
@@ -82,8 +110,8 @@ public class KafkaProducerWapper {
         recordHashList.forEach(record -> {
             int partition = calcSimplePartition(record.getPrimaryKeyHash(), partitions);
             record.setPartition(partition);
-            ProducerRecord<String, String> producerRecord =
-                new ProducerRecord<>(topicName, partition, record.getPrimaryKey(), record.toEncode());
+            ProducerRecord<String, RowDataHash> producerRecord =
+                new ProducerRecord<>(topicName, partition, record.getPrimaryKey(), record);
             kafkaTemplate.send(producerRecord);
         });
         kafkaTemplate.flush();
@@ -15,6 +15,7 @@
 
 package org.opengauss.datachecker.extract.service;
 
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
 import org.opengauss.datachecker.common.entry.extract.ExtractConfig;
 import org.opengauss.datachecker.common.entry.extract.ExtractTask;
 import org.opengauss.datachecker.common.entry.extract.RowDataHash;
@@ -64,6 +65,14 @@ public interface DataExtractService {
      */
     void execExtractTaskAllTables(String processNo) throws TaskNotFoundException;
 
+    /**
+     * Pull the rows of the different digest leaves of the table extracted digest first
+     *
+     * @param request the rows pulled by the check service
+     * @throws TaskNotFoundException If the task of the table is not found
+     */
+    void pullTableRows(RowPullRequest request) throws TaskNotFoundException;
+
     /**
      * Clean up the current build task
      */
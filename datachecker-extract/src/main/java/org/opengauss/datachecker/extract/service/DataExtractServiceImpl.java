@@ -18,6 +18,7 @@ package org.opengauss.datachecker.extract.service;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.opengauss.datachecker.common.constant.Constants;
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
 import org.opengauss.datachecker.common.entry.enums.DML;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
 import org.opengauss.datachecker.common.entry.extract.ColumnsMetaData;
@@ -33,7 +34,6 @@ import org.opengauss.datachecker.common.exception.BuildRepairStatementException;
 import org.opengauss.datachecker.common.exception.ProcessMultipleException;
 import org.opengauss.datachecker.common.exception.TableNotExistException;
 import org.opengauss.datachecker.common.exception.TaskNotFoundException;
-import org.opengauss.datachecker.common.thread.ThreadPoolFactory;
 import org.opengauss.datachecker.common.util.ThreadUtil;
 import org.opengauss.datachecker.extract.cache.MetaDataCache;
 import org.opengauss.datachecker.extract.cache.TableExtractStatusCache;
@@ -41,8 +41,8 @@ import org.opengauss.datachecker.extract.client.CheckingFeignClient;
 import org.opengauss.datachecker.extract.config.ExtractProperties;
 import org.opengauss.datachecker.extract.kafka.KafkaAdminService;
 import org.opengauss.datachecker.extract.kafka.KafkaCommonService;
-import org.opengauss.datachecker.extract.load.ExtractEnvironment;
 import org.opengauss.datachecker.extract.task.DataManipulationService;
+import org.opengauss.datachecker.extract.task.ExtractExecutor;
 import org.opengauss.datachecker.extract.task.ExtractTaskBuilder;
 import org.opengauss.datachecker.extract.task.ExtractTaskRunnable;
 import org.opengauss.datachecker.extract.task.ExtractThreadSupport;
@@ -59,7 +59,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -85,6 +84,11 @@ public class DataExtractServiceImpl implements DataExtractService {
     private static final int MAX_SLEEP_MILLIS_TIME = 2000;
     private static final int MAX_QUERY_PAGE_SIZE = 500;
     private static final String PROCESS_NO_RESET = "0";
+    /**
+     * The check status of the table verified by both endpoints, the tables restored as verified
+     * after the restart of the check service are not extracted again
+     */
+    private static final int TABLE_STATUS_CHECKED = 7;
 
     /**
      * After the service is started, the {code atomicProcessNo} attribute will be initialized,
@@ -114,7 +118,7 @@ public class DataExtractServiceImpl implements DataExtractService {
     @Value("${server.port}")
     private int serverPort = 0;
     @Resource
-    private ExtractEnvironment extractEnvironment;
+    private ExtractExecutor extractExecutor;
 
     /**
      * Data extraction service
@@ -282,7 +286,6 @@ public class DataExtractServiceImpl implements DataExtractService {
             if (CollectionUtils.isEmpty(taskList)) {
                 return;
             }
-            final ExecutorService executorService = getExecutorService(extractEnvironment);
             Map<String, Integer> tableCheckStatus = checkingFeignClient.queryTableCheckStatus();
             taskList.forEach(task -> {
                 log.info("Perform data extraction tasks {}", task.getTaskName());
@@ -291,18 +294,39 @@ public class DataExtractServiceImpl implements DataExtractService {
                     log.info("Abnormal table[{}] status, ignoring the current table data extraction task", tableName);
                     return;
                 }
+                if (tableCheckStatus.get(tableName) == TABLE_STATUS_CHECKED) {
+                    log.info("table[{}] has been verified before the restart, ignoring the data extraction task",
+                        tableName);
+                    return;
+                }
+                if (task.isChunkChecksum()) {
+                    // the chunk checksums are queried by the check service, no row is extracted to kafka
+                    log.info("table[{}] is checked by chunk checksum, ignoring the data extraction task", tableName);
+                    final Endpoint endpoint = extractProperties.getEndpoint();
+                    checkingFeignClient.refreshTableExtractStatus(tableName, endpoint, endpoint.getCode());
+                    return;
+                }
                 Topic topic = kafkaCommonService.getTopicInfo(processNo, tableName, task.getDivisionsTotalNumber());
                 kafkaAdminService.createTopic(topic.getTopicName(), topic.getPartitions());
-                executorService.submit(new ExtractTaskRunnable(task, topic, extractThreadSupport));
+                extractExecutor.execute(new ExtractTaskRunnable(task, topic, extractThreadSupport));
             });
         }
     }
 
-    private ExecutorService getExecutorService(ExtractEnvironment environment) {
-        final int core = Runtime.getRuntime().availableProcessors();
-        final int maxCorePoolSize = environment.getMaxCorePoolSize();
-        int corePoolSize = Math.min(core, maxCorePoolSize);
-        return ThreadPoolFactory.newThreadPool("extract", corePoolSize, environment.getQueueSize());
+    /**
+     * Pull the rows of the different digest leaves of the table extracted digest first,
+     * the table is queried again and only the pulled rows are sent to its topic
+     *
+     * @param request the rows pulled by the check service
+     * @throws TaskNotFoundException If the task of the table is not found
+     */
+    @Override
+    public void pullTableRows(RowPullRequest request) throws TaskNotFoundException {
+        final ExtractTask task = queryTableInfo(request.getTableName());
+        Topic topic = kafkaCommonService.getTopicInfo(atomicProcessNo.get(), task.getTableName(),
+            task.getDivisionsTotalNumber());
+        log.info("pull the rows of table [{}] partitions [{}]", task.getTableName(), request.getPartitions().size());
+        extractExecutor.execute(new ExtractTaskRunnable(task, topic, extractThreadSupport, request));
     }
 
     @Override
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.common.entry.check.ChunkChecksum;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+import org.opengauss.datachecker.common.exception.TableNotExistException;
+import org.opengauss.datachecker.extract.config.ExtractProperties;
+import org.opengauss.datachecker.extract.service.MetaDataService;
+import org.opengauss.datachecker.extract.task.sql.ChunkChecksumSqlBuilder;
+import org.opengauss.datachecker.extract.util.MetaDataUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * <pre>
+ * Chunk checksum service, the table is checked by the checksums of the primary key ranges aggregated in database.
+ * The check service locates the chunks on one endpoint, queries the checksums of the same chunks on the other
+ * endpoint, and splits the different chunks recursively until they are small enough to be compared row by row,
+ * so only the checksums and the rows of the different small chunks are transferred.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Slf4j
+@Service
+public class ChunkChecksumService {
+    private final ResultSetHashHandler resultSetHashHandler = new ResultSetHashHandler();
+    private final ResultSetHandlerFactory resultSetFactory = new ResultSetHandlerFactory();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplateOne;
+    @Autowired
+    private MetaDataService metaDataService;
+    @Autowired
+    private ExtractProperties extractProperties;
+
+    /**
+     * Query the checksums of the chunks
+     *
+     * @param tableName tableName
+     * @param ranges    primary key ranges of the chunks
+     * @return chunk checksums, in the order of the ranges
+     */
+    public List<ChunkChecksum> queryChunkChecksum(String tableName, List<ChunkChecksum> ranges) {
+        final ChunkChecksumSqlBuilder sqlBuilder = getSqlBuilder(tableName);
+        return ranges.stream().map(range -> queryChunkChecksum(sqlBuilder, range)).collect(Collectors.toList());
+    }
+
+    /**
+     * <pre>
+     * Split the range to {@code chunkCount} chunks of the same row count, and query the checksums of them.
+     * The boundaries are located by walking the primary key index from the lower bound of the range,
+     * the row count of the range is the row count of this endpoint, the last chunk takes the rest rows.
+     * </pre>
+     *
+     * @param tableName  tableName
+     * @param range      the range to split
+     * @param chunkCount chunk count
+     * @return chunk checksums, in the primary key order
+     */
+    public List<ChunkChecksum> splitChunkChecksum(String tableName, ChunkChecksum range, int chunkCount) {
+        Assert.isTrue(chunkCount > 0, "chunk count must be greater than 0");
+        final ChunkChecksumSqlBuilder sqlBuilder = getSqlBuilder(tableName);
+        final long step = Math.max(1L, (range.getRowCount() + chunkCount - 1) / chunkCount);
+        final boolean hasUpper = Objects.nonNull(range.getUpper());
+        List<ChunkChecksum> chunks = new ArrayList<>(chunkCount);
+        Object lower = range.getLower();
+        for (int idx = 1; idx < chunkCount; idx++) {
+            final String boundarySql = sqlBuilder.buildBoundarySql(Objects.nonNull(lower), hasUpper, step);
+            final List<Object> boundary = jdbcTemplateOne.query(boundarySql,
+                (RowMapper<Object>) (rs, rowNum) -> rs.getObject(1), args(lower, range.getUpper()));
+            if (boundary.isEmpty()) {
+                break;
+            }
+            chunks.add(new ChunkChecksum().setLower(lower).setUpper(boundary.get(0)));
+            lower = boundary.get(0);
+        }
+        chunks.add(new ChunkChecksum().setLower(lower).setUpper(range.getUpper()));
+        log.debug("split table[{}] range {} to {} chunks", tableName, range, chunks.size());
+        return chunks.stream().map(chunk -> queryChunkChecksum(sqlBuilder, chunk)).collect(Collectors.toList());
+    }
+
+    /**
+     * Query the row hash of all the rows of the chunk, the row hash is the same as the extraction
+     *
+     * @param tableName tableName
+     * @param range     primary key range of the chunk
+     * @return row data hash
+     */
+    public List<RowDataHash> queryChunkRowData(String tableName, ChunkChecksum range) {
+        final TableMetadata tableMetadata = getTableMetadata(tableName);
+        final ChunkChecksumSqlBuilder sqlBuilder = getSqlBuilder(tableMetadata);
+        final String querySql =
+            sqlBuilder.buildRowSql(Objects.nonNull(range.getLower()), Objects.nonNull(range.getUpper()));
+        final List<String> columns = MetaDataUtil.getTableColumns(tableMetadata);
+        final List<String> primary = MetaDataUtil.getTablePrimaryColumns(tableMetadata);
+        final ResultSetHandler resultSetHandler = resultSetFactory.createHandler(extractProperties.getDatabaseType());
+        return jdbcTemplateOne.query(querySql,
+            (rs, rowNum) -> resultSetHashHandler.handler(primary, columns, resultSetHandler.putOneResultSetToMap(rs)),
+            args(range.getLower(), range.getUpper()));
+    }
+
+    private ChunkChecksum queryChunkChecksum(ChunkChecksumSqlBuilder sqlBuilder, ChunkChecksum range) {
+        final String checksumSql =
+            sqlBuilder.buildChecksumSql(Objects.nonNull(range.getLower()), Objects.nonNull(range.getUpper()));
+        final List<ChunkChecksum> checksum = jdbcTemplateOne.query(checksumSql,
+            (rs, rowNum) -> range.range().setRowCount(rs.getLong(1)).setChecksum(rs.getLong(2)),
+            args(range.getLower(), range.getUpper()));
+        return checksum.isEmpty() ? range.range() : checksum.get(0);
+    }
+
+    /**
+     * jdbc parameters of the range, in the order of lower bound and upper bound
+     */
+    private Object[] args(Object lower, Object upper) {
+        List<Object> args = new ArrayList<>(2);
+        if (Objects.nonNull(lower)) {
+            args.add(lower);
+        }
+        if (Objects.nonNull(upper)) {
+            args.add(upper);
+        }
+        return args.toArray();
+    }
+
+    private ChunkChecksumSqlBuilder getSqlBuilder(String tableName) {
+        return getSqlBuilder(getTableMetadata(tableName));
+    }
+
+    private ChunkChecksumSqlBuilder getSqlBuilder(TableMetadata tableMetadata) {
+        return new ChunkChecksumSqlBuilder(tableMetadata, extractProperties.getSchema()).dataBaseType(
+            extractProperties.getDatabaseType());
+    }
+
+    private TableMetadata getTableMetadata(String tableName) {
+        final TableMetadata tableMetadata = metaDataService.getMetaDataOfSchemaByCache(tableName);
+        if (Objects.isNull(tableMetadata)) {
+            throw new TableNotExistException(tableName);
+        }
+        return tableMetadata;
+    }
+}
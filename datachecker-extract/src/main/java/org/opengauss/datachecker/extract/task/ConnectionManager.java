@@ -13,21 +13,49 @@
  * See the Mulan PSL v2 for more details.
  */
 
+
 package org.opengauss.datachecker.extract.task;
 
 import com.alibaba.druid.pool.DruidDataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.common.exception.ExtractDataAccessException;
+import org.opengauss.datachecker.common.util.ThreadUtil;
 import org.opengauss.datachecker.extract.config.DruidDataSourceConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * <pre>
+ * Admission of the extraction queries to the connections of the druid pool {@code dataSourceOne}.
+ * The permits are the max active connections of the pool except the reserved connections.
+ * A query which can not take a permit waits in the queue, blocked instead of polling, and a released permit
+ * is handed to the waiting query of the table which holds the fewest connections, first come first served for
+ * the same count. So the tables take the connections in turn, as the shard workers of {@link ExtractExecutor}
+ * take the shards of the tables in turn, and a small table is not starved by the large tables.
+ * A new query does not take a permit ahead of the waiting queries, and a table does not take more connections
+ * than {@code spring.extract.table-max-connections} if it is not 0.
+ * A query fails after waiting {@code spring.extract.connection-wait-timeout} seconds if it is not 0,
+ * the wait times are recorded for the metrics, which are logged every
+ * {@code spring.extract.connection-metrics-interval} seconds while the connections are taken.
+ * </pre>
+ *
  * @author ：wangchao
  * @date ：Created in 2023/3/25
  * @since ：11
@@ -36,44 +64,266 @@ import java.util.concurrent.locks.ReentrantLock;
 @Service
 @ConditionalOnBean(DruidDataSourceConfig.class)
 public class ConnectionManager {
-    private ReentrantLock lock = new ReentrantLock();
+    /**
+     * connections kept for the queries outside the extraction, such as the metadata and the chunk checksums
+     */
+    private static final int RESERVED_CONNECTION_COUNT = 2;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Set<Waiter> waiters = new LinkedHashSet<>();
+    private final Map<String, Integer> tableConnections = new HashMap<>();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder timeoutCount = new LongAdder();
+
     @Value("${spring.extract.query-dop}")
     private int queryDop;
+    @Value("${spring.extract.connection-wait-timeout:600}")
+    private long connectionWaitTimeout;
+    @Value("${spring.extract.table-max-connections:0}")
+    private int tableMaxConnections;
+    @Value("${spring.extract.connection-metrics-interval:60}")
+    private long connectionMetricsInterval;
     @Resource
     private DruidDataSourceConfig dataSourceConfig;
 
-    private volatile AtomicInteger connectionCount = new AtomicInteger(0);
+    private int maxConnectionCount;
+    private int availableCount;
+    private long loggedAcquiredCount;
+    private ScheduledExecutorService metricsExecutor;
 
     @PostConstruct
     public void initMaxConnectionCount() {
         final DruidDataSource dataSource = (DruidDataSource) dataSourceConfig.druidDataSourceOne();
-        connectionCount.set(dataSource.getMaxActive());
-        log.info("max active connection {}", connectionCount.get());
+        initPermits(dataSource.getMaxActive());
+        log.info("max active connection {}, extraction connection {}, druid max wait {} millis",
+            maxConnectionCount, getExtractConnectionCount(), dataSource.getMaxWait());
+        if (connectionMetricsInterval > 0) {
+            metricsExecutor = ThreadUtil.newSingleThreadScheduledExecutor();
+            metricsExecutor.scheduleWithFixedDelay(this::logMetrics, connectionMetricsInterval,
+                connectionMetricsInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdownMetrics() {
+        if (Objects.nonNull(metricsExecutor)) {
+            metricsExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * log the connection metrics, skipped if no permit is taken since the last log and no query is waiting
+     *
+     * @return true if the metrics are logged
+     */
+    boolean logMetrics() {
+        final long acquiredCount = getAcquiredCount();
+        final int waitingCount = getWaitingCount();
+        if (acquiredCount == loggedAcquiredCount && waitingCount == 0) {
+            return false;
+        }
+        loggedAcquiredCount = acquiredCount;
+        log.info("extraction connections: acquired {}, waiting {}, timeout {}, total wait {} millis, "
+                + "max wait {} millis", acquiredCount, waitingCount, getTimeoutCount(), getTotalWaitMillis(),
+            getMaxWaitMillis());
+        return true;
+    }
+
+    /**
+     * init the permits of the max active connections of the pool
+     *
+     * @param maxActive max active connections
+     */
+    void initPermits(int maxActive) {
+        lock.lock();
+        try {
+            maxConnectionCount = maxActive;
+            availableCount = getExtractConnectionCount();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public int getParallelQueryDop() {
         return queryDop;
     }
 
-    public boolean getConnection() {
+    /**
+     * the count of the connections which can be taken by the extraction at the same time
+     *
+     * @return connection count
+     */
+    public int getExtractConnectionCount() {
+        return Math.max(1, maxConnectionCount - RESERVED_CONNECTION_COUNT);
+    }
+
+    /**
+     * Take a connection permit for a query of the table, blocked until a permit is handed to the query
+     *
+     * @param tableName table name
+     * @return wait millis
+     * @throws ExtractDataAccessException no permit is handed in the connection wait timeout, or interrupted
+     */
+    public long acquire(String tableName) {
+        final long start = System.nanoTime();
         lock.lock();
         try {
-            if (connectionCount.get() > 2) {
-                connectionCount.decrementAndGet();
-                return true;
+            Waiter waiter = new Waiter(tableName, lock.newCondition());
+            waiters.add(waiter);
+            dispatch();
+            long nanos = connectionWaitTimeout > 0 ? TimeUnit.SECONDS.toNanos(connectionWaitTimeout) : Long.MAX_VALUE;
+            while (!waiter.isGranted()) {
+                if (nanos <= 0L) {
+                    waiters.remove(waiter);
+                    timeoutCount.increment();
+                    throw new ExtractDataAccessException(
+                        "wait for the connection of table " + tableName + " timeout " + connectionWaitTimeout + "s");
+                }
+                try {
+                    nanos = waiter.getCondition().awaitNanos(nanos);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    if (!waiter.isGranted()) {
+                        waiters.remove(waiter);
+                        throw new ExtractDataAccessException("interrupted while waiting for the connection");
+                    }
+                }
             }
         } finally {
             lock.unlock();
         }
-        return false;
+        final long waited = System.nanoTime() - start;
+        waitCount.increment();
+        waitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+        return TimeUnit.NANOSECONDS.toMillis(waited);
+    }
+
+    /**
+     * release the connection permit of the table, it is handed to the next waiting query
+     *
+     * @param tableName table name
+     */
+    public void release(String tableName) {
+        lock.lock();
+        try {
+            availableCount++;
+            tableConnections.computeIfPresent(tableName, (table, count) -> count > 1 ? count - 1 : null);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public void releaseConnection() {
+    /**
+     * hand the available permits to the waiting queries of the tables which hold the fewest connections,
+     * in arrival order for the same count, skip the tables of max connections
+     */
+    private void dispatch() {
+        Waiter waiter;
+        while (availableCount > 0 && (waiter = nextWaiter()) != null) {
+            waiters.remove(waiter);
+            availableCount--;
+            tableConnections.merge(waiter.getTableName(), 1, Integer::sum);
+            waiter.grant();
+        }
+    }
+
+    private Waiter nextWaiter() {
+        Waiter next = null;
+        int nextConnections = Integer.MAX_VALUE;
+        final Iterator<Waiter> iterator = waiters.iterator();
+        while (nextConnections > 0 && iterator.hasNext()) {
+            final Waiter waiter = iterator.next();
+            final int connections = tableConnections.getOrDefault(waiter.getTableName(), 0);
+            if (connections < nextConnections && (tableMaxConnections <= 0 || connections < tableMaxConnections)) {
+                next = waiter;
+                nextConnections = connections;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * the count of the queries waiting for a connection
+     *
+     * @return waiting count
+     */
+    public int getWaitingCount() {
         lock.lock();
         try {
-            connectionCount.incrementAndGet();
+            return waiters.size();
         } finally {
             lock.unlock();
         }
     }
+
+    /**
+     * the count of the permits taken
+     *
+     * @return acquired count
+     */
+    public long getAcquiredCount() {
+        return waitCount.sum();
+    }
+
+    /**
+     * the total wait millis of the permits taken
+     *
+     * @return wait millis
+     */
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos.sum());
+    }
+
+    /**
+     * the max wait millis of the permits taken
+     *
+     * @return wait millis
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * the count of the queries which failed to take a permit in the wait timeout
+     *
+     * @return timeout count
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * a query waiting for a connection permit
+     */
+    private static final class Waiter {
+        private final String tableName;
+        private final Condition condition;
+        private boolean isGranted;
+
+        private Waiter(String tableName, Condition condition) {
+            this.tableName = tableName;
+            this.condition = condition;
+        }
+
+        private String getTableName() {
+            return tableName;
+        }
+
+        private Condition getCondition() {
+            return condition;
+        }
+
+        private boolean isGranted() {
+            return isGranted;
+        }
+
+        private void grant() {
+            isGranted = true;
+            condition.signal();
+        }
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.common.entry.extract.ExtractTask;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * <pre>
+ * Order the extraction tasks by the estimated cost, longest processing time first.
+ * The cost of a table is its bytes, the row count multiplied by the average row length, divided by the
+ * extraction rate observed of the table in the previous runs of the extract service, or by the average rate
+ * of all the observed tables if the table is not extracted before.
+ * The extract pool runs the tasks in the submitted order, so the largest tables start first on all the workers,
+ * and the small tables at the tail fill the workers which are idle while the last large tables are extracted.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Slf4j
+@Service
+public class ExtractCostScheduler {
+    private static final long DEFAULT_AVG_ROW_LENGTH = 100L;
+    private static final long DEFAULT_BYTES_PER_MILLIS = 10_000L;
+    private static final long TABLE_OVERHEAD_MILLIS = 100L;
+
+    private final Map<String, Long> tableBytesPerMillis = new ConcurrentHashMap<>();
+    private final LongAdder observedBytes = new LongAdder();
+    private final LongAdder observedMillis = new LongAdder();
+
+    @Resource
+    private ExtractExecutor extractExecutor;
+
+    /**
+     * Order the tasks longest processing time first on the workers of the extract pool
+     *
+     * @param tasks tasks
+     * @return ordered tasks
+     */
+    public List<ExtractTask> schedule(List<ExtractTask> tasks) {
+        final int workers = workerCount();
+        final List<ExtractTask> ordered = schedule(tasks, this::estimateCost);
+        log.info("schedule {} extract tasks on {} workers, estimated makespan {} ms", ordered.size(), workers,
+            makespan(ordered, this::estimateCost, workers));
+        return ordered;
+    }
+
+    /**
+     * the worker count of the extract executor which runs the extraction tasks
+     *
+     * @return worker count
+     */
+    public int workerCount() {
+        return Objects.isNull(extractExecutor) ? 1 : extractExecutor.getParallelism();
+    }
+
+    /**
+     * Record the extraction rate of the table
+     *
+     * @param metadata      table metadata
+     * @param elapsedMillis extraction time of the table
+     */
+    public void recordExtracted(TableMetadata metadata, long elapsedMillis) {
+        final long bytes = tableBytes(metadata);
+        if (bytes <= 0 || elapsedMillis <= 0) {
+            return;
+        }
+        tableBytesPerMillis.put(metadata.getTableName(), Math.max(1L, bytes / elapsedMillis));
+        observedBytes.add(bytes);
+        observedMillis.add(elapsedMillis);
+    }
+
+    /**
+     * Estimate the extraction time of the task, the chunk checksum task does not extract any row
+     *
+     * @param task task
+     * @return estimated milliseconds
+     */
+    public long estimateCost(ExtractTask task) {
+        if (task.isChunkChecksum()) {
+            return 0L;
+        }
+        final TableMetadata metadata = task.getTableMetadata();
+        final Long tableRate = tableBytesPerMillis.get(metadata.getTableName());
+        final long rate = Objects.nonNull(tableRate) ? tableRate : averageBytesPerMillis();
+        return TABLE_OVERHEAD_MILLIS + tableBytes(metadata) / rate;
+    }
+
+    /**
+     * Order the tasks by the cost descending, the tasks of the same cost are ordered by the table name
+     *
+     * @param tasks tasks
+     * @param cost  cost of the task
+     * @return ordered tasks
+     */
+    static List<ExtractTask> schedule(List<ExtractTask> tasks, ToLongFunction<ExtractTask> cost) {
+        List<ExtractTask> ordered = new ArrayList<>(tasks);
+        ordered.sort(Comparator.comparingLong(cost).reversed().thenComparing(ExtractTask::getTableName));
+        return ordered;
+    }
+
+    /**
+     * Simulate the pool running the tasks in the order, each task is taken by the first idle worker
+     *
+     * @param tasks   ordered tasks
+     * @param cost    cost of the task
+     * @param workers worker count
+     * @return the time when all the tasks are completed
+     */
+    static long makespan(List<ExtractTask> tasks, ToLongFunction<ExtractTask> cost, int workers) {
+        PriorityQueue<Long> workerIdleTimes = new PriorityQueue<>();
+        for (int worker = 0; worker < workers; worker++) {
+            workerIdleTimes.add(0L);
+        }
+        long makespan = 0L;
+        for (ExtractTask task : tasks) {
+            final long completed = workerIdleTimes.poll() + cost.applyAsLong(task);
+            workerIdleTimes.add(completed);
+            makespan = Math.max(makespan, completed);
+        }
+        return makespan;
+    }
+
+    private long averageBytesPerMillis() {
+        final long millis = observedMillis.sum();
+        return millis <= 0 ? DEFAULT_BYTES_PER_MILLIS : Math.max(1L, observedBytes.sum() / millis);
+    }
+
+    private static long tableBytes(TableMetadata metadata) {
+        final long avgRowLength = metadata.getAvgRowLength() > 0 ? metadata.getAvgRowLength() : DEFAULT_AVG_ROW_LENGTH;
+        return Math.max(0L, metadata.getTableRows()) * avgRowLength;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+
+package org.opengauss.datachecker.extract.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.common.exception.ExtractDataAccessException;
+import org.opengauss.datachecker.common.thread.ThreadPoolFactory;
+import org.opengauss.datachecker.common.thread.ThreadPoolFactory.CheckThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <pre>
+ * The long-lived executor of the extract service, it runs the extraction tasks of all the tables and
+ * their shards, instead of a thread pool per extraction and a fork join pool per table.
+ * The shards of all the tables are run by the shard workers, which are as many as the database connections
+ * of the extraction, so no worker waits for a connection held by another.
+ * The tables of the running shards are rotated in the run queue, each idle worker takes one shard of the table
+ * at the head and moves the table to the tail, so a large table does not starve the small tables
+ * and the connections are kept busy until the last shard.
+ * The extraction tasks of the tables only split the shards and wait for them, they run on the table threads.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Slf4j
+@Service
+public class ExtractExecutor {
+    private final BlockingDeque<ShardJob> runQueue = new LinkedBlockingDeque<>();
+    private final Set<Thread> shardWorkers = ConcurrentHashMap.newKeySet();
+
+    @Resource
+    private ConnectionManager connectionManager;
+
+    private ExecutorService tableExecutor;
+    private int parallelism = 1;
+
+    /**
+     * start the shard workers as many as the extraction connections
+     */
+    @PostConstruct
+    public void init() {
+        start(connectionManager.getExtractConnectionCount());
+    }
+
+    /**
+     * start the table threads and the shard workers
+     *
+     * @param workers shard worker count
+     */
+    void start(int workers) {
+        parallelism = workers;
+        tableExecutor = ThreadPoolFactory.newThreadPool("extract-table", workers, Integer.MAX_VALUE);
+        ThreadFactory workerFactory = new CheckThreadFactory("extract", "extract-worker", true);
+        for (int idx = 0; idx < workers; idx++) {
+            Thread worker = workerFactory.newThread(this::runShards);
+            shardWorkers.add(worker);
+            worker.start();
+        }
+        log.info("start extract executor of {} shard workers", workers);
+    }
+
+    /**
+     * the shard worker count
+     *
+     * @return worker count
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * submit the extraction task of a table, the tasks are started in the submitted order
+     *
+     * @param tableTask extraction task of a table
+     */
+    public void execute(Runnable tableTask) {
+        tableExecutor.execute(tableTask);
+    }
+
+    /**
+     * Run the shards of a table on the shard workers and wait until all of them are completed.
+     * The shards which are not started are skipped after a shard fails.
+     * The shards are run in the current thread if it is a shard worker.
+     *
+     * @param shards shards of a table
+     * @throws RuntimeException the exception of the first failed shard
+     */
+    public void invokeShards(List<Runnable> shards) {
+        if (shards.isEmpty()) {
+            return;
+        }
+        if (shardWorkers.contains(Thread.currentThread())) {
+            shards.forEach(Runnable::run);
+            return;
+        }
+        final ShardJob job = new ShardJob(shards);
+        runQueue.offer(job);
+        job.await();
+    }
+
+    private void runShards() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final ShardJob job = runQueue.take();
+                final Runnable shard = job.poll();
+                if (Objects.isNull(shard)) {
+                    continue;
+                }
+                if (job.hasNext()) {
+                    // the other tables run their shards before the next shard of this table
+                    runQueue.offer(job);
+                }
+                job.run(shard);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            shardWorkers.remove(Thread.currentThread());
+        }
+    }
+
+    /**
+     * shutdown the table threads and the shard workers, the running tasks are not interrupted
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (Objects.nonNull(tableExecutor)) {
+            tableExecutor.shutdown();
+        }
+        shardWorkers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * the shards of a table, they are taken in order by the shard workers
+     */
+    private static final class ShardJob {
+        private final List<Runnable> shards;
+        private final AtomicInteger next = new AtomicInteger();
+        private final CountDownLatch remaining;
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        private ShardJob(List<Runnable> shards) {
+            this.shards = shards;
+            this.remaining = new CountDownLatch(shards.size());
+        }
+
+        private Runnable poll() {
+            final int idx = next.getAndIncrement();
+            return idx < shards.size() ? shards.get(idx) : null;
+        }
+
+        private boolean hasNext() {
+            return next.get() < shards.size();
+        }
+
+        private void run(Runnable shard) {
+            try {
+                if (Objects.isNull(failure.get())) {
+                    shard.run();
+                }
+            } catch (RuntimeException ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                remaining.countDown();
+            }
+        }
+
+        private void await() {
+            try {
+                remaining.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ExtractDataAccessException("interrupted while waiting for the extraction shards");
+            }
+            if (Objects.nonNull(failure.get())) {
+                throw failure.get();
+            }
+        }
+    }
+}
@@ -15,12 +15,20 @@
 
 package org.opengauss.datachecker.extract.task;
 
+import lombok.extern.slf4j.Slf4j;
 import org.opengauss.datachecker.common.constant.Constants.InitialCapacity;
 import org.opengauss.datachecker.common.entry.extract.ExtractTask;
 import org.opengauss.datachecker.common.entry.extract.TableMetadata;
 import org.opengauss.datachecker.common.util.TaskUtil;
+import org.opengauss.datachecker.common.util.TopicUtil;
 import org.opengauss.datachecker.extract.cache.MetaDataCache;
 import org.opengauss.datachecker.extract.cache.TableExtractStatusCache;
+import org.opengauss.datachecker.extract.config.ExtractProperties;
+import org.opengauss.datachecker.extract.task.sql.ChunkChecksumSqlBuilder;
+import org.opengauss.datachecker.extract.task.sql.SelectKeysetSqlBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
@@ -32,7 +40,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Data extraction task builder
@@ -41,9 +48,18 @@ import java.util.stream.Collectors;
  * @date 2022/5/8 19:27
  * @since 11
  **/
+@Slf4j
 @Service
 public class ExtractTaskBuilder {
     private static final String TASK_NAME_PREFIX = "extract_task_";
+    private static final int SKETCH_ROW_RATIO = 100;
+
+    @Autowired
+    private ExtractProperties extractProperties;
+    @Autowired
+    private ExtractCostScheduler costScheduler;
+    @Autowired
+    private JdbcTemplate jdbcTemplateOne;
 
     /**
      * <pre>
@@ -54,6 +70,7 @@ public class ExtractTaskBuilder {
      * The total number of query data of a single fragment task does not exceed {@value EXTRACT_MAX_ROW_COUNT}
      * {@code taskCountMap} It is used to count the number of tasks of fragment query of all tables to be extracted
      * {@code tableRows} Is the current table data amount counted in the table metadata information
+     * The tasks are ordered by {@link ExtractCostScheduler}, the most expensive table is extracted first.
      * </pre>
      *
      * @param tableNames Extraction task table set to be built
@@ -63,16 +80,9 @@ public class ExtractTaskBuilder {
         Assert.isTrue(!CollectionUtils.isEmpty(tableNames), "Build data extraction task table cannot be empty");
         List<ExtractTask> taskList = new ArrayList<>();
 
-        final List<String> tableNameOrderList =
-            tableNames.stream().filter(MetaDataCache::containsKey).sorted((tableName1, tableName2) -> {
-                TableMetadata metadata1 = MetaDataCache.get(tableName1);
-                TableMetadata metadata2 = MetaDataCache.get(tableName2);
-                return (int) (metadata1.getTableRows() - metadata2.getTableRows());
-            }).collect(Collectors.toList());
-
         // taskCountMap is used to count the number of tasks in table fragment query
         Map<String, Integer> taskCountMap = new HashMap<>(InitialCapacity.CAPACITY_1);
-        tableNameOrderList.forEach(tableName -> {
+        tableNames.forEach(tableName -> {
             TableMetadata metadata = MetaDataCache.get(tableName);
             if (Objects.nonNull(metadata)) {
                 taskList.add(buildTask(metadata));
@@ -81,14 +91,87 @@ public class ExtractTaskBuilder {
         });
 
         TableExtractStatusCache.init(taskCountMap);
-        return taskList;
+        return costScheduler.schedule(taskList);
     }
 
     private ExtractTask buildTask(TableMetadata metadata) {
-        return new ExtractTask().setTableMetadata(metadata).setOffset(metadata.getTableRows())
-                                .setTableName(metadata.getTableName())
-                                .setDivisionsTotalNumber(TaskUtil.calcAutoTaskCount(metadata.getTableRows()))
-                                .setTaskName(taskNameBuilder(metadata.getTableName()));
+        final int divisions = TaskUtil.calcAutoTaskCount(metadata.getTableRows());
+        final ExtractTask task = new ExtractTask().setTableMetadata(metadata).setOffset(metadata.getTableRows())
+                                                  .setTableName(metadata.getTableName())
+                                                  .setDivisionsTotalNumber(divisions)
+                                                  .setTaskName(taskNameBuilder(metadata.getTableName()))
+                                                  .setChunkChecksum(isChunkChecksum(metadata));
+        if (isPartitionPipeline(task)) {
+            task.setPartitionBounds(queryPartitionBounds(metadata, TopicUtil.calcPartitions(divisions)));
+        }
+        task.setDigestFirst(extractProperties.isDigestFirstEnable() && !task.isChunkChecksum()
+            && task.getPartitionBounds().isEmpty());
+        if (task.isDigestFirst()) {
+            task.setSketchExpectedDiff(
+                calcSketchExpectedDiff(metadata.getTableRows(), TopicUtil.calcPartitions(divisions)));
+        }
+        return task;
+    }
+
+    /**
+     * The sketch of a partition is sized for 1% of its rows, and no more than the configured expected diff,
+     * a partition which differs more is pulled by the digest leaves.
+     *
+     * @param tableRows  table rows
+     * @param partitions kafka partition count of the table topic
+     * @return expected different row count of a partition
+     */
+    int calcSketchExpectedDiff(long tableRows, int partitions) {
+        final long partitionRows = Math.max(tableRows, 0L) / Math.max(partitions, 1);
+        return (int) Math.min(extractProperties.getSketchExpectedDiff(), partitionRows / SKETCH_ROW_RATIO);
+    }
+
+    private boolean isPartitionPipeline(ExtractTask task) {
+        // the partition bounds are read by getLong, only the single integer primary key can be bounded
+        return extractProperties.isPartitionPipelineEnable() && !task.isChunkChecksum()
+            && TopicUtil.calcPartitions(task.getDivisionsTotalNumber()) > 1
+            && ChunkChecksumSqlBuilder.isIntegerPrimaryKey(task.getTableMetadata(),
+            extractProperties.getDatabaseType());
+    }
+
+    /**
+     * Locate the primary key bounds of the partitions by walking the primary key index,
+     * each boundary query scans the index entries of one partition, starting at the previous bound,
+     * so each partition takes about the same row count of the table.
+     * The rows are sent to the partition of their primary key hash if the bounds can not be located.
+     *
+     * @param metadata   table metadata
+     * @param partitions kafka partition count of the table topic
+     * @return partition bounds
+     */
+    List<Long> queryPartitionBounds(TableMetadata metadata, int partitions) {
+        final SelectKeysetSqlBuilder sqlBuilder =
+            new SelectKeysetSqlBuilder(metadata, extractProperties.getSchema()).dataBaseType(
+                extractProperties.getDatabaseType());
+        final long step = (metadata.getTableRows() + partitions - 1) / partitions;
+        List<Long> bounds = new ArrayList<>(partitions - 1);
+        try {
+            for (int partition = 1; partition < partitions; partition++) {
+                final boolean hasLowerBound = !bounds.isEmpty();
+                final Object[] args = hasLowerBound ? new Object[] {bounds.get(bounds.size() - 1)} : new Object[0];
+                final List<Long> boundary = jdbcTemplateOne.query(sqlBuilder.buildBoundarySql(hasLowerBound, step),
+                    (rs, rowNum) -> rs.getLong(1), args);
+                if (boundary.isEmpty()) {
+                    // the table has less rows than its statistics, the later partitions would be empty
+                    return new ArrayList<>();
+                }
+                bounds.add(boundary.get(0));
+            }
+            return bounds;
+        } catch (DataAccessException ex) {
+            log.error("query primary key bounds of table [{}] error : {}", metadata.getTableName(), ex.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private boolean isChunkChecksum(TableMetadata metadata) {
+        return extractProperties.isChunkChecksumEnable() && ChunkChecksumSqlBuilder.isSupported(metadata,
+            extractProperties.getDatabaseType());
     }
 
     /**
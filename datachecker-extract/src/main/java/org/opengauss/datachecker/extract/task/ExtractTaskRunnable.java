@@ -15,8 +15,11 @@
 
 package org.opengauss.datachecker.extract.task;
 
+import feign.FeignException;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.common.entry.check.RowPullPartition;
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
 import org.opengauss.datachecker.common.entry.enums.DataBaseType;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
 import org.opengauss.datachecker.common.entry.extract.ExtractTask;
@@ -26,28 +29,34 @@ import org.opengauss.datachecker.common.entry.extract.Topic;
 import org.opengauss.datachecker.common.exception.ExtractDataAccessException;
 import org.opengauss.datachecker.common.exception.ExtractException;
 import org.opengauss.datachecker.common.util.TaskUtil;
-import org.opengauss.datachecker.common.util.ThreadUtil;
 import org.opengauss.datachecker.extract.client.CheckingFeignClient;
 import org.opengauss.datachecker.extract.kafka.KafkaProducerWapper;
+import org.opengauss.datachecker.extract.task.sql.SelectKeysetSqlBuilder;
+import org.opengauss.datachecker.extract.task.sql.SelectKeysetSqlBuilder.LowerBound;
 import org.opengauss.datachecker.extract.task.sql.SelectSqlBuilder;
 import org.opengauss.datachecker.extract.util.MetaDataUtil;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.util.CollectionUtils;
 
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Data extraction thread class
@@ -64,9 +73,18 @@ public class ExtractTaskRunnable extends KafkaProducerWapper implements Runnable
     private final DataBaseType databaseType;
     private final String schema;
     private final JdbcTemplate jdbcTemplate;
+    private final StreamQueryHandler streamQueryHandler;
     private final ConnectionManager connectionManager;
     private final CheckingFeignClient checkingFeignClient;
+    private final ShardTransactionExecutor shardExecutor;
+    private final ExtractCostScheduler costScheduler;
+    private final ExtractExecutor extractExecutor;
+    private final AtomicLong connectionWaitMillis = new AtomicLong();
+    private final RowPullPartition[] pulledPartitions;
+    private TableDigestBuilder digestBuilder;
     private static final String OPEN_GAUSS_PARALLEL_QUERY = "set query_dop to %s;";
+    private static final int KEYSET_FETCH_SIZE = TaskUtil.EXTRACT_MAX_ROW_COUNT;
+    private static final int SHARD_RETRY_INTERVAL = 1000;
 
     /**
      * Thread Constructor
@@ -76,6 +94,20 @@ public class ExtractTaskRunnable extends KafkaProducerWapper implements Runnable
      * @param support Thread helper class
      */
     public ExtractTaskRunnable(ExtractTask task, Topic topic, ExtractThreadSupport support) {
+        this(task, topic, support, null);
+    }
+
+    /**
+     * Thread Constructor of the task which pulls the rows of the different digest leaves of the table
+     * extracted digest first, only the pulled rows are sent to kafka, and the digests are not shipped again
+     *
+     * @param task           task information
+     * @param topic          Kafka topic information
+     * @param support        Thread helper class
+     * @param rowPullRequest the rows pulled by the check service, null if the table is extracted
+     */
+    public ExtractTaskRunnable(ExtractTask task, Topic topic, ExtractThreadSupport support,
+        RowPullRequest rowPullRequest) {
         super(support.getKafkaTemplate());
         this.task = task;
         this.topic = topic;
@@ -84,26 +116,283 @@ public class ExtractTaskRunnable extends KafkaProducerWapper implements Runnable
         endpoint = support.getExtractProperties().getEndpoint();
         connectionManager = support.getConnectionManager();
         jdbcTemplate = new JdbcTemplate(support.getDataSourceOne());
+        streamQueryHandler = new StreamQueryHandler(jdbcTemplate, databaseType,
+            support.getExtractProperties().getFetchSize(), support.getExtractProperties().getExtractBatchSize());
         checkingFeignClient = support.getCheckingFeignClient();
+        shardExecutor = new ShardTransactionExecutor(support.getKafkaTemplate(),
+            support.getExtractProperties().getShardRetryTimes(), SHARD_RETRY_INTERVAL);
+        costScheduler = support.getCostScheduler();
+        extractExecutor = support.getExtractExecutor();
+        pulledPartitions = Objects.isNull(rowPullRequest) ? null : indexPulledPartitions(rowPullRequest);
+    }
+
+    private RowPullPartition[] indexPulledPartitions(RowPullRequest rowPullRequest) {
+        RowPullPartition[] partitions = new RowPullPartition[topic.getPartitions()];
+        rowPullRequest.getPartitions().forEach(partition -> partitions[partition.getPartition()] = partition);
+        return partitions;
     }
 
     @SneakyThrows
     @Override
     public void run() {
+        final String workerName = Thread.currentThread().getName();
         Thread.currentThread().setName(task.getTaskName() + "_" + Thread.currentThread().getId());
+        try {
+            extractTable();
+        } finally {
+            // the worker of the extract executor runs the tasks of the other tables later
+            Thread.currentThread().setName(workerName);
+        }
+    }
+
+    private void extractTable() {
         TableMetadata tableMetadata = task.getTableMetadata();
         QueryTableRowContext context = new QueryTableRowContext(tableMetadata, databaseType);
+        digestBuilder = new TableDigestBuilder(task.getTableName(), endpoint, topic.getPartitions(),
+            tableMetadata.getTableRows(), isRowPull() ? 0 : task.getSketchExpectedDiff());
         // Construct query SQL according to the metadata information of the table in the current task
         final int[][] taskOffset = TaskUtil.calcAutoTaskOffset(tableMetadata.getTableRows());
+        final long startMillis = System.currentTimeMillis();
         try {
-            if (taskOffset.length >= 2) {
+            if (isPartitionPipeline(tableMetadata)) {
+                executePartitionRanges(taskOffset, tableMetadata, context);
+            } else if (taskOffset.length >= 2 && SelectKeysetSqlBuilder.isSupported(tableMetadata, databaseType)) {
+                executeMultiTaskKeyset(taskOffset, tableMetadata, context);
+            } else if (taskOffset.length >= 2) {
                 executeMultiTaskOffset(taskOffset, tableMetadata, context);
             } else {
                 executeTask(taskOffset, tableMetadata, context);
             }
+            if (isRowPull()) {
+                log.info("pull the rows of table [{}] completed", task.getTableName());
+                checkingFeignClient.refreshTableRowPullStatus(task.getTableName(), endpoint, endpoint.getCode());
+                return;
+            }
+            costScheduler.recordExtracted(tableMetadata, System.currentTimeMillis() - startMillis);
+            log.info("extract table [{}] waited [{}] millis for the database connections", task.getTableName(),
+                connectionWaitMillis.get());
+            refreshTableDigest();
             checkingFeignClient.refreshTableExtractStatus(task.getTableName(), endpoint, endpoint.getCode());
         } catch (ExtractDataAccessException ex) {
-            checkingFeignClient.refreshTableExtractStatus(task.getTableName(), endpoint, -1);
+            if (isRowPull()) {
+                checkingFeignClient.refreshTableRowPullStatus(task.getTableName(), endpoint, -1);
+            } else {
+                checkingFeignClient.refreshTableExtractStatus(task.getTableName(), endpoint, -1);
+            }
+        } catch (RuntimeException ex) {
+            // the check of the table waits for the pulled rows, it fails at once instead of waiting for the timeout
+            if (isRowPull()) {
+                log.error("pull the rows of table [{}] failed", task.getTableName(), ex);
+                checkingFeignClient.refreshTableRowPullStatus(task.getTableName(), endpoint, -1);
+            }
+            throw ex;
+        }
+    }
+
+    private boolean isRowPull() {
+        return Objects.nonNull(pulledPartitions);
+    }
+
+    /**
+     * The bucket signatures are shipped before the table is reported as extracted,
+     * the check service compares them first and only builds the buckets of the different leaves.
+     * The check falls back to the rows of all the leaves if the digests are not received.
+     */
+    private void refreshTableDigest() {
+        try {
+            checkingFeignClient.refreshTableDigest(digestBuilder.build());
+        } catch (FeignException ex) {
+            log.error("refresh table [{}] digest error : {}", task.getTableName(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Extract the shard in a kafka transaction, a failed shard is aborted and retried without the other shards.
+     * The rows of each attempt are added to a new shard digest, which is merged to the table digest only after
+     * the shard is committed.
+     *
+     * @param shardName shard name
+     * @param shard     extraction of the shard by the shard digest, returns the extracted row count
+     * @return extracted row count
+     */
+    private long extractShard(String shardName, ToLongFunction<TableDigestBuilder> shard) {
+        final AtomicReference<TableDigestBuilder> shardDigest = new AtomicReference<>();
+        final long rowCount = shardExecutor.execute(shardName, () -> {
+            shardDigest.set(digestBuilder.newShardBuilder());
+            return shard.applyAsLong(shardDigest.get());
+        });
+        digestBuilder.merge(shardDigest.get());
+        return rowCount;
+    }
+
+    /**
+     * push the rows to kafka, then add them to the digests of the shard.
+     * The rows of the table extracted digest first are only added to the digests, they are pushed when the check
+     * service pulls the rows of their leaves.
+     *
+     * @param batch       rows
+     * @param shardDigest digest builder of the shard
+     */
+    private void sendAndDigest(List<RowDataHash> batch, TableDigestBuilder shardDigest) {
+        if (isRowPull()) {
+            sendPulledRows(batch);
+            return;
+        }
+        if (task.isDigestFirst()) {
+            assignPartition(topic, batch);
+        } else {
+            syncSend(topic, batch);
+        }
+        shardDigest.add(batch);
+    }
+
+    private void sendPulledRows(List<RowDataHash> batch) {
+        assignPartition(topic, batch);
+        syncSend(topic, batch.stream().filter(row -> {
+            final RowPullPartition partition = pulledPartitions[row.getPartition()];
+            return Objects.nonNull(partition) && partition.contains(row.getPrimaryKeyHash());
+        }).collect(Collectors.toList()));
+    }
+
+    /**
+     * push the rows to the partition of their primary key range, then add them to the digests of the shard
+     *
+     * @param batch       rows
+     * @param shardDigest digest builder of the shard
+     * @param partition   partition of the range
+     */
+    private void sendAndDigest(List<RowDataHash> batch, TableDigestBuilder shardDigest, int partition) {
+        syncSend(topic, batch, partition);
+        shardDigest.add(batch);
+    }
+
+    private boolean isPartitionPipeline(TableMetadata tableMetadata) {
+        final List<Long> partitionBounds = task.getPartitionBounds();
+        if (CollectionUtils.isEmpty(partitionBounds)) {
+            return false;
+        }
+        if (partitionBounds.size() + 1 != topic.getPartitions() || !SelectKeysetSqlBuilder.isSupported(tableMetadata,
+            databaseType)) {
+            log.warn("table [{}] can not be extracted by the primary key ranges of the partitions {}",
+                task.getTableName(), partitionBounds);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * <pre>
+     * Extract the primary key range of each kafka partition, the rows of the range are sent to its partition.
+     * The range of a partition is split to the keyset shards of the offset fragment size, each shard is extracted
+     * in its own kafka transaction. When all the shards of a partition are committed, the digest of the partition
+     * is shipped and the partition is reported as extracted, the check service checks the partition once both
+     * endpoints report it, without waiting for the other partitions of the table.
+     * </pre>
+     *
+     * @param taskOffset    offset fragments of the table
+     * @param tableMetadata tableMetadata
+     * @param context       query table row context
+     */
+    private void executePartitionRanges(int[][] taskOffset, TableMetadata tableMetadata,
+        QueryTableRowContext context) {
+        final LocalDateTime start = LocalDateTime.now();
+        final String tableName = tableMetadata.getTableName();
+        final SelectKeysetSqlBuilder sqlBuilder =
+            new SelectKeysetSqlBuilder(tableMetadata, schema).dataBaseType(databaseType);
+        try {
+            final List<List<KeysetRange>> partitionRanges = buildPartitionRanges(sqlBuilder, taskOffset[0][1]);
+            List<Runnable> shards = new ArrayList<>();
+            for (int partition = 0; partition < partitionRanges.size(); partition++) {
+                final int shardPartition = partition;
+                final List<KeysetRange> rangeList = partitionRanges.get(partition);
+                final AtomicInteger remainingShards = new AtomicInteger(rangeList.size());
+                rangeList.forEach(range -> shards.add(() -> {
+                    takeConnection();
+                    try {
+                        extractShard(range.toString(), shardDigest -> extractKeysetRange(range, sqlBuilder, context,
+                            batch -> sendAndDigest(batch, shardDigest, shardPartition)));
+                    } catch (DataAccessException exception) {
+                        log.error("jdbc query partition [{}] range [{}] of table [{}] error : {}", shardPartition,
+                            range, tableName, exception.getMessage());
+                        throw new ExtractDataAccessException();
+                    } finally {
+                        releaseConnection();
+                    }
+                    if (remainingShards.decrementAndGet() == 0) {
+                        refreshPartitionExtracted(shardPartition);
+                    }
+                }));
+            }
+            task.setDivisionsTotalNumber(shards.size());
+            enableDatabaseParallelQuery(Math.min(shards.size(), connectionManager.getParallelQueryDop()));
+            extractExecutor.invokeShards(shards);
+            log.info("extract table[{}] of {} partitions in {} shards cost [{}] millis", tableName,
+                partitionRanges.size(), shards.size(), Duration.between(start, LocalDateTime.now()).toMillis());
+        } catch (Exception ex) {
+            log.error("jdbc query partition ranges error [{}] : {}", tableName, ex.getMessage());
+            throw new ExtractDataAccessException();
+        }
+    }
+
+    /**
+     * Split the primary key range of each partition to the keyset ranges of about {@code shardRows} rows.
+     * The shard boundaries are located by walking the primary key index from the lower bound of the partition.
+     *
+     * @param sqlBuilder keyset sql builder
+     * @param shardRows  row count of one shard
+     * @return the keyset ranges of each partition
+     */
+    private List<List<KeysetRange>> buildPartitionRanges(SelectKeysetSqlBuilder sqlBuilder, long shardRows) {
+        final List<Long> partitionBounds = task.getPartitionBounds();
+        List<List<KeysetRange>> partitionRanges = new ArrayList<>(partitionBounds.size() + 1);
+        takeConnection();
+        try {
+            Long lower = null;
+            for (int partition = 0; partition <= partitionBounds.size(); partition++) {
+                final Long upper = partition < partitionBounds.size() ? partitionBounds.get(partition) : null;
+                List<KeysetRange> rangeList = new ArrayList<>();
+                Long shardLower = lower;
+                Long boundary = queryBoundary(sqlBuilder, shardLower, shardRows);
+                while (Objects.nonNull(boundary) && (Objects.isNull(upper) || boundary < upper)) {
+                    rangeList.add(new KeysetRange(shardLower, boundary));
+                    shardLower = boundary;
+                    boundary = queryBoundary(sqlBuilder, shardLower, shardRows);
+                }
+                rangeList.add(new KeysetRange(shardLower, upper));
+                partitionRanges.add(rangeList);
+                lower = upper;
+            }
+        } catch (DataAccessException exception) {
+            log.error("jdbc query partition shard boundary of table [{}] error : {}", task.getTableName(),
+                exception.getMessage());
+            throw new ExtractDataAccessException();
+        } finally {
+            releaseConnection();
+        }
+        log.debug("query table[{}] partition ranges : {}", task.getTableName(), partitionRanges);
+        return partitionRanges;
+    }
+
+    private Long queryBoundary(SelectKeysetSqlBuilder sqlBuilder, Long lower, long step) {
+        final Object[] args = Objects.isNull(lower) ? new Object[0] : new Object[] {lower};
+        final List<Long> boundary = jdbcTemplate.query(sqlBuilder.buildBoundarySql(Objects.nonNull(lower), step),
+            (rs, rowNum) -> rs.getLong(1), args);
+        return boundary.isEmpty() ? null : boundary.get(0);
+    }
+
+    /**
+     * The partition is reported after its digest, the partition is checked when the table is extracted
+     * if the report fails
+     *
+     * @param partition partition
+     */
+    private void refreshPartitionExtracted(int partition) {
+        try {
+            checkingFeignClient.refreshTableDigest(List.of(digestBuilder.build(partition)));
+            checkingFeignClient.refreshPartitionExtractStatus(task.getTableName(), partition, endpoint);
+        } catch (FeignException ex) {
+            log.error("refresh table [{}] partition [{}] extract status error : {}", task.getTableName(), partition,
+                ex.getMessage());
         }
     }
 
@@ -123,30 +412,23 @@ public class ExtractTaskRunnable extends KafkaProducerWapper implements Runnable
         String tableName = tableMetadata.getTableName();
         try {
             CountDownLatch countDownLatch = new CountDownLatch(taskOffset.length);
-            int dop = Math.min(taskOffset.length, connectionManager.getParallelQueryDop());
-            enableDatabaseParallelQuery(dop);
-            ForkJoinPool customThreadPool = new ForkJoinPool(dop);
-            customThreadPool.submit(() -> {
-                querySqlList.parallelStream().map(sql -> {
-                    takeConnection();
-                    try (final Stream<RowDataHash> resultStream = jdbcTemplate
-                        .queryForStream(sql, (RowMapper<RowDataHash>) (rs, rowNum) -> context.resultSetHandler(rs))) {
-                        // Push the data to Kafka according to the fragmentation order
-                        syncSend(topic, resultStream.collect(Collectors.toList()));
-                    } catch (DataAccessException exception) {
-                        log.error("jdbc query stream [{}] error : {}", sql, exception.getMessage());
-                        throw new ExtractDataAccessException();
-                    } finally {
-                        countDownLatch.countDown();
-                        if (countDownLatch.getCount() > 0) {
-                            log.info("extract table [{}] remaining [{}] tasks", tableName, countDownLatch.getCount());
-                        }
-                        releaseConnection();
+            enableDatabaseParallelQuery(Math.min(taskOffset.length, connectionManager.getParallelQueryDop()));
+            extractExecutor.invokeShards(querySqlList.stream().<Runnable>map(sql -> () -> {
+                takeConnection();
+                try {
+                    // Push the data to Kafka according to the fragmentation order
+                    streamQuery(sql, context);
+                } catch (DataAccessException exception) {
+                    log.error("jdbc query stream [{}] error : {}", sql, exception.getMessage());
+                    throw new ExtractDataAccessException();
+                } finally {
+                    countDownLatch.countDown();
+                    if (countDownLatch.getCount() > 0) {
+                        log.info("extract table [{}] remaining [{}] tasks", tableName, countDownLatch.getCount());
                     }
-                    return Duration.between(start, LocalDateTime.now()).toMillis();
-                }).collect(Collectors.toList());
-            }).get();
-            countDownLatch.await();
+                    releaseConnection();
+                }
+            }).collect(Collectors.toList()));
 
             // Fix inaccurate statistics of the total number of table row records
             final SelectSqlBuilder sqlBuilder = new SelectSqlBuilder(tableMetadata, schema);
@@ -160,11 +442,9 @@ public class ExtractTaskRunnable extends KafkaProducerWapper implements Runnable
                               .builder();
                 log.debug("query table[{}] sql: [{}]", tableMetadata.getTableName(), fixQuerySql);
                 takeConnection();
-                try (final Stream<RowDataHash> resultStream = jdbcTemplate.queryForStream(fixQuerySql,
-                    (RowMapper<RowDataHash>) (rs, rowNum) -> context.resultSetHandler(rs))) {
+                try {
                     // Push the data to Kafka according to the fragmentation order
-                    int recordSize = syncSend(topic, resultStream.collect(Collectors.toList()));
-                    queryRowSize.set(recordSize);
+                    queryRowSize.set(streamQuery(fixQuerySql, context));
                     fixStart = fixStart + fixOffset;
                 } catch (DataAccessException exception) {
                     log.error("jdbc query stream [{}] error : {}", fixQuerySql, exception.getMessage());
@@ -181,6 +461,112 @@ public class ExtractTaskRunnable extends KafkaProducerWapper implements Runnable
         }
     }
 
+    /**
+     * <pre>
+     * Extract the table by primary key ranges instead of offset fragments.
+     * The offset fragments {@code taskOffset} are converted to primary key ranges {@code [lower, upper)},
+     * the last range has no upper bound, so rows beyond the estimated table rows are extracted too.
+     * Each range is queried page by page, and each page seeks after the last primary key of the previous page.
+     * </pre>
+     *
+     * @param taskOffset    offset fragments of the table
+     * @param tableMetadata tableMetadata
+     * @param context       query table row context
+     */
+    private void executeMultiTaskKeyset(int[][] taskOffset, TableMetadata tableMetadata,
+        QueryTableRowContext context) {
+        final LocalDateTime start = LocalDateTime.now();
+        final String tableName = tableMetadata.getTableName();
+        final SelectKeysetSqlBuilder sqlBuilder =
+            new SelectKeysetSqlBuilder(tableMetadata, schema).dataBaseType(databaseType);
+        try {
+            List<KeysetRange> rangeList = buildKeysetRanges(taskOffset, sqlBuilder);
+            task.setDivisionsTotalNumber(rangeList.size());
+            CountDownLatch countDownLatch = new CountDownLatch(rangeList.size());
+            enableDatabaseParallelQuery(Math.min(rangeList.size(), connectionManager.getParallelQueryDop()));
+            extractExecutor.invokeShards(rangeList.stream().<Runnable>map(range -> () -> {
+                takeConnection();
+                try {
+                    extractShard(range.toString(), shardDigest -> extractKeysetRange(range, sqlBuilder, context,
+                        batch -> sendAndDigest(batch, shardDigest)));
+                } catch (DataAccessException exception) {
+                    log.error("jdbc query keyset range [{}] of table [{}] error : {}", range, tableName,
+                        exception.getMessage());
+                    throw new ExtractDataAccessException();
+                } finally {
+                    countDownLatch.countDown();
+                    if (countDownLatch.getCount() > 0) {
+                        log.info("extract table [{}] remaining [{}] tasks", tableName, countDownLatch.getCount());
+                    }
+                    releaseConnection();
+                }
+            }).collect(Collectors.toList()));
+            log.info("extract table[{}] cost [{}] millis", tableName,
+                Duration.between(start, LocalDateTime.now()).toMillis());
+        } catch (Exception ex) {
+            log.error("jdbc query keyset stream count latch error [{}] : {}", tableName, ex.getMessage());
+            throw new ExtractDataAccessException();
+        }
+    }
+
+    /**
+     * Locate the primary key boundary of each offset fragment by walking the primary key index.
+     * Each boundary query only scans the index entries of one fragment, starting at the previous boundary.
+     *
+     * @param taskOffset offset fragments of the table
+     * @param sqlBuilder keyset sql builder
+     * @return primary key ranges
+     */
+    private List<KeysetRange> buildKeysetRanges(int[][] taskOffset, SelectKeysetSqlBuilder sqlBuilder) {
+        List<KeysetRange> rangeList = new ArrayList<>(taskOffset.length);
+        Object lower = null;
+        takeConnection();
+        try {
+            for (int idx = 1; idx < taskOffset.length; idx++) {
+                final String boundarySql = sqlBuilder.buildBoundarySql(Objects.nonNull(lower), taskOffset[idx - 1][1]);
+                final Object[] args = Objects.isNull(lower) ? new Object[0] : new Object[] {lower};
+                final List<Object> boundary =
+                    jdbcTemplate.query(boundarySql, (RowMapper<Object>) (rs, rowNum) -> rs.getObject(1), args);
+                if (boundary.isEmpty()) {
+                    break;
+                }
+                rangeList.add(new KeysetRange(lower, boundary.get(0)));
+                lower = boundary.get(0);
+            }
+        } catch (DataAccessException exception) {
+            log.error("jdbc query keyset boundary of table [{}] error : {}", task.getTableName(),
+                exception.getMessage());
+            throw new ExtractDataAccessException();
+        } finally {
+            releaseConnection();
+        }
+        rangeList.add(new KeysetRange(lower, null));
+        log.debug("query table[{}] keyset ranges : {}", task.getTableName(), rangeList);
+        return rangeList;
+    }
+
+    private long extractKeysetRange(KeysetRange range, SelectKeysetSqlBuilder sqlBuilder,
+        QueryTableRowContext context, Consumer<List<RowDataHash>> batchSender) {
+        final String primaryKey = sqlBuilder.getPrimaryKeyColumn();
+        final AtomicReference<Object> lastKey = new AtomicReference<>(range.getLower());
+        LowerBound lowerBound = range.hasLower() ? LowerBound.INCLUSIVE : LowerBound.NONE;
+        long rowCount = 0L;
+        long pageSize;
+        do {
+            final String querySql = sqlBuilder.buildRangeSql(lowerBound, range.hasUpper(), KEYSET_FETCH_SIZE);
+            final Object[] args = range.args(lowerBound, lastKey.get());
+            log.debug("query table[{}] sql: [{}]", task.getTableName(), querySql);
+            // Push the data to Kafka according to the fragmentation order
+            pageSize = streamQueryHandler.query(querySql, (rs, rowNum) -> {
+                lastKey.set(rs.getObject(primaryKey));
+                return context.resultSetHandler(rs);
+            }, batchSender, args);
+            rowCount += pageSize;
+            lowerBound = LowerBound.EXCLUSIVE;
+        } while (pageSize >= KEYSET_FETCH_SIZE);
+        return rowCount;
+    }
+
     private void builderQuerySqlByTaskOffset(int[][] taskOffset, TableMetadata tableMetadata,
         List<String> querySqlList) {
         final int taskCount = taskOffset.length;
@@ -202,30 +588,90 @@ public class ExtractTaskRunnable extends KafkaProducerWapper implements Runnable
         builderQuerySqlByTaskOffset(taskOffset, tableMetadata, querySqlList);
         if (querySqlList.size() == 1) {
             String queryAllRows = querySqlList.get(0);
-            takeConnection();
-            try (Stream<RowDataHash> resultStream = jdbcTemplate
-                .queryForStream(queryAllRows, (RowMapper<RowDataHash>) (rs, rowNum) -> context.resultSetHandler(rs))) {
-                // Push the data to Kafka according to the fragmentation order
-                syncSend(topic, resultStream.collect(Collectors.toList()));
-            } catch (DataAccessException exception) {
-                log.error("jdbc query stream [{}] error : {}", queryAllRows, exception.getMessage());
-                throw new ExtractDataAccessException();
-            } finally {
-                releaseConnection();
-                final LocalDateTime end = LocalDateTime.now();
-                log.info("extract table[{}] cost [{}] millis", tableName, Duration.between(start, end).toMillis());
-            }
+            // the table of one shard takes its turn on the shard workers with the shards of the large tables
+            extractExecutor.invokeShards(List.of(() -> {
+                takeConnection();
+                try {
+                    // Push the data to Kafka according to the fragmentation order
+                    streamQuery(queryAllRows, context);
+                } catch (DataAccessException exception) {
+                    log.error("jdbc query stream [{}] error : {}", queryAllRows, exception.getMessage());
+                    throw new ExtractDataAccessException();
+                } finally {
+                    releaseConnection();
+                    final LocalDateTime end = LocalDateTime.now();
+                    log.info("extract table[{}] cost [{}] millis", tableName, Duration.between(start, end).toMillis());
+                }
+            }));
         }
     }
 
+    /**
+     * Query the sql in database cursor as a shard, and push the extracted rows to kafka in fixed-size batches
+     *
+     * @param querySql query sql
+     * @param context  query table row context
+     * @return extracted row count
+     */
+    private long streamQuery(String querySql, QueryTableRowContext context) {
+        return extractShard(querySql, shardDigest -> streamQueryHandler
+            .query(querySql, (rs, rowNum) -> context.resultSetHandler(rs), batch -> sendAndDigest(batch, shardDigest)));
+    }
+
     private void takeConnection() {
-        while (!connectionManager.getConnection()) {
-            ThreadUtil.sleep(50);
-        }
+        connectionWaitMillis.addAndGet(connectionManager.acquire(task.getTableName()));
     }
 
     private void releaseConnection() {
-        connectionManager.releaseConnection();
+        connectionManager.release(task.getTableName());
+    }
+
+    /**
+     * primary key range {@code [lower, upper)} of keyset extraction, null bound means unbounded
+     */
+    static class KeysetRange {
+        private final Object lower;
+        private final Object upper;
+
+        KeysetRange(Object lower, Object upper) {
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        Object getLower() {
+            return lower;
+        }
+
+        boolean hasLower() {
+            return Objects.nonNull(lower);
+        }
+
+        boolean hasUpper() {
+            return Objects.nonNull(upper);
+        }
+
+        /**
+         * jdbc parameters of the range page query, in the order of lower bound and upper bound
+         *
+         * @param lowerBound lower bound condition of current page
+         * @param seekKey    lower bound value of current page
+         * @return parameters
+         */
+        Object[] args(LowerBound lowerBound, Object seekKey) {
+            List<Object> args = new ArrayList<>(2);
+            if (lowerBound != LowerBound.NONE) {
+                args.add(seekKey);
+            }
+            if (hasUpper()) {
+                args.add(upper);
+            }
+            return args.toArray();
+        }
+
+        @Override
+        public String toString() {
+            return "[" + lower + ", " + upper + ")";
+        }
     }
 
     /**
@@ -237,6 +683,7 @@ public class ExtractTaskRunnable extends KafkaProducerWapper implements Runnable
         private ResultSetHandler resultSetHandler;
         private List<String> columns;
         private List<String> primary;
+        private volatile CompiledRowPlan compiledRowPlan;
 
         QueryTableRowContext(TableMetadata tableMetadata, DataBaseType databaseType) {
             this.resultSetHandler = this.resultSetFactory.createHandler(databaseType);
@@ -244,8 +691,38 @@ public class ExtractTaskRunnable extends KafkaProducerWapper implements Runnable
             this.primary = MetaDataUtil.getTablePrimaryColumns(tableMetadata);
         }
 
-        public RowDataHash resultSetHandler(ResultSet rs) {
-            return resultSetHashHandler.handler(primary, columns, resultSetHandler.putOneResultSetToMap(rs));
+        public RowDataHash resultSetHandler(ResultSet rs) throws SQLException {
+            final CompiledRowPlan rowPlan = getCompiledRowPlan(rs);
+            final BitSet undecodedColumns = new BitSet(rowPlan.decoderPlan.getColumnCount());
+            final String[] rowValues = rowPlan.decoderPlan.decode(rs, undecodedColumns);
+            return resultSetHashHandler.handler(rowPlan.primaryIndexes, rowPlan.columnIndexes, rowValues,
+                undecodedColumns);
+        }
+
+        /**
+         * All fragment queries of the table select the same column list,
+         * so the row decoder plan is compiled by the first row and shared by all the fragment queries.
+         */
+        private CompiledRowPlan getCompiledRowPlan(ResultSet rs) throws SQLException {
+            CompiledRowPlan rowPlan = compiledRowPlan;
+            if (rowPlan == null) {
+                final RowDecoderPlan decoderPlan = resultSetHandler.compile(rs.getMetaData());
+                rowPlan = new CompiledRowPlan(decoderPlan, decoderPlan.indexOf(primary), decoderPlan.indexOf(columns));
+                compiledRowPlan = rowPlan;
+            }
+            return rowPlan;
+        }
+    }
+
+    private static class CompiledRowPlan {
+        private final RowDecoderPlan decoderPlan;
+        private final int[] primaryIndexes;
+        private final int[] columnIndexes;
+
+        CompiledRowPlan(RowDecoderPlan decoderPlan, int[] primaryIndexes, int[] columnIndexes) {
+            this.decoderPlan = decoderPlan;
+            this.primaryIndexes = primaryIndexes;
+            this.columnIndexes = columnIndexes;
         }
     }
 }
@@ -16,6 +16,7 @@
 package org.opengauss.datachecker.extract.task;
 
 import lombok.Getter;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.opengauss.datachecker.extract.client.CheckingFeignClient;
 import org.opengauss.datachecker.extract.config.ExtractProperties;
 import org.opengauss.datachecker.extract.load.ExtractEnvironment;
@@ -40,11 +41,15 @@ public class ExtractThreadSupport {
     @Resource
     private ConnectionManager connectionManager;
     @Resource
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, RowDataHash> kafkaTemplate;
     @Resource
     private CheckingFeignClient checkingFeignClient;
     @Resource
     private ExtractProperties extractProperties;
     @Resource
     private ExtractEnvironment extractEnvironment;
+    @Resource
+    private ExtractCostScheduler costScheduler;
+    @Resource
+    private ExtractExecutor extractExecutor;
 }
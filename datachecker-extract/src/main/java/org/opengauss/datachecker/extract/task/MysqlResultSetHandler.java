@@ -18,8 +18,6 @@ package org.opengauss.datachecker.extract.task;
 import com.mysql.cj.MysqlType;
 import org.opengauss.datachecker.common.util.HexUtil;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,11 +33,11 @@ public class MysqlResultSetHandler extends ResultSetHandler {
     private final Map<MysqlType, TypeHandler> typeHandlers = new ConcurrentHashMap<>();
 
     {
-        TypeHandler binaryToString = (resultSet, columnLabel) -> byteToStringTrim(resultSet.getBytes(columnLabel));
-        TypeHandler varbinaryToString = (resultSet, columnLabel) -> bytesToString(resultSet.getBytes(columnLabel));
-        TypeHandler blobToString = (resultSet, columnLabel) -> HexUtil.byteToHexTrim(resultSet.getBytes(columnLabel));
-        TypeHandler numericToString = (resultSet, columnLabel) -> numericToString(resultSet.getBigDecimal(columnLabel));
-        TypeHandler bitBooleanToString = (resultSet, columnLabel) -> booleanToString(resultSet.getBoolean(columnLabel));
+        TypeHandler binaryToString = (resultSet, columnIdx) -> byteToStringTrim(resultSet.getBytes(columnIdx));
+        TypeHandler varbinaryToString = (resultSet, columnIdx) -> bytesToString(resultSet.getBytes(columnIdx));
+        TypeHandler blobToString = (resultSet, columnIdx) -> HexUtil.byteToHexTrim(resultSet.getBytes(columnIdx));
+        TypeHandler numericToString = (resultSet, columnIdx) -> numericToString(resultSet.getBigDecimal(columnIdx));
+        TypeHandler bitBooleanToString = (resultSet, columnIdx) -> booleanToString(resultSet.getBoolean(columnIdx));
 
         typeHandlers.put(MysqlType.FLOAT, numericToString);
         typeHandlers.put(MysqlType.DOUBLE, numericToString);
@@ -74,13 +72,8 @@ public class MysqlResultSetHandler extends ResultSetHandler {
     }
 
     @Override
-    public String convert(ResultSet resultSet, String columnTypeName, String columnLabel) throws SQLException {
+    protected TypeHandler getTypeHandler(String columnTypeName) {
         final MysqlType mysqlType = MysqlType.getByName(columnTypeName);
-        if (typeHandlers.containsKey(mysqlType)) {
-            return typeHandlers.get(mysqlType).convert(resultSet, columnLabel);
-        } else {
-            return Objects.isNull(resultSet.getObject(columnLabel)) ? NULL :
-                String.valueOf(resultSet.getObject(columnLabel));
-        }
+        return typeHandlers.getOrDefault(mysqlType, this::objectToString);
     }
 }
\ No newline at end of file
@@ -18,7 +18,6 @@ package org.opengauss.datachecker.extract.task;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -32,10 +31,10 @@ public class OpenGaussResultSetHandler extends ResultSetHandler {
     private final Map<String, TypeHandler> typeHandlers = new ConcurrentHashMap<>();
 
     {
-        TypeHandler byteaToString = (resultSet, columnLabel) -> bytesToString(resultSet.getBytes(columnLabel));
-        TypeHandler blobToString = (resultSet, columnLabel) -> resultSet.getString(columnLabel);
-        TypeHandler booleanToString = (resultSet, columnLabel) -> booleanToString(resultSet, columnLabel);
-        TypeHandler numericToString = (resultSet, columnLabel) -> numericToString(resultSet.getBigDecimal(columnLabel));
+        TypeHandler byteaToString = (resultSet, columnIdx) -> bytesToString(resultSet.getBytes(columnIdx));
+        TypeHandler blobToString = (resultSet, columnIdx) -> resultSet.getString(columnIdx);
+        TypeHandler booleanToString = (resultSet, columnIdx) -> booleanToString(resultSet, columnIdx);
+        TypeHandler numericToString = (resultSet, columnIdx) -> numericToString(resultSet.getBigDecimal(columnIdx));
 
         typeHandlers.put(OpenGaussType.NUMERIC, numericToString);
 
@@ -54,17 +53,12 @@ public class OpenGaussResultSetHandler extends ResultSetHandler {
     }
 
     @Override
-    public String convert(ResultSet resultSet, String columnTypeName, String columnLabel) throws SQLException {
-        if (typeHandlers.containsKey(columnTypeName)) {
-            return typeHandlers.get(columnTypeName).convert(resultSet, columnLabel);
-        } else {
-            return Objects.isNull(resultSet.getObject(columnLabel)) ? NULL :
-                String.valueOf(resultSet.getObject(columnLabel));
-        }
+    protected TypeHandler getTypeHandler(String columnTypeName) {
+        return typeHandlers.getOrDefault(columnTypeName, this::objectToString);
     }
 
-    protected String booleanToString(ResultSet rs, String columnLabel) throws SQLException {
-        final int booleanVal = rs.getInt(columnLabel);
+    protected String booleanToString(ResultSet rs, int columnIdx) throws SQLException {
+        final int booleanVal = rs.getInt(columnIdx);
         return booleanVal == 1 ? "true" : "false";
     }
 
@@ -34,7 +34,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TimeZone;
-import java.util.stream.IntStream;
 
 /**
  * Result set object processor
@@ -60,46 +59,67 @@ public abstract class ResultSetHandler {
      * @return JDBC Data encapsulation results
      */
     public Map<String, String> putOneResultSetToMap(ResultSet resultSet) {
-        Map<String, String> values = new HashMap<>(InitialCapacity.CAPACITY_64);
         try {
-            final ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-            IntStream.rangeClosed(1, resultSetMetaData.getColumnCount()).forEach(columnIdx -> {
-                try {
-                    // Get the column and its corresponding column name
-                    String columnLabel = resultSetMetaData.getColumnLabel(columnIdx);
-                    // Get the corresponding value from the result set according to the column name
-                    final String columnTypeName = resultSetMetaData.getColumnTypeName(columnIdx);
-                    values.put(columnLabel, convert(resultSet, columnTypeName, columnLabel));
-                } catch (SQLException ex) {
-                    log.error("putOneResultSetToMap Convert data according to result set metadata information.", ex);
-                }
-            });
+            return compile(resultSet.getMetaData()).decodeToMap(resultSet);
         } catch (SQLException ex) {
             log.error("putOneResultSetToMap get data metadata information exception", ex);
         }
-        return values;
+        return new HashMap<>(InitialCapacity.EMPTY);
     }
 
-    protected abstract String convert(ResultSet resultSet, String columnTypeName, String columnLabel)
-        throws SQLException;
+    /**
+     * <pre>
+     * Compile the row decoder plan of the query according to the metadata information of the result set.
+     * The column label and the type handler of each column are resolved only once,
+     * every row of the query is decoded by the column index with the plan.
+     * </pre>
+     *
+     * @param resultSetMetaData metadata information of the result set
+     * @return row decoder plan
+     * @throws SQLException SQLException
+     */
+    public RowDecoderPlan compile(ResultSetMetaData resultSetMetaData) throws SQLException {
+        final int columnCount = resultSetMetaData.getColumnCount();
+        String[] columnLabels = new String[columnCount];
+        TypeHandler[] typeHandlers = new TypeHandler[columnCount];
+        for (int columnIdx = 1; columnIdx <= columnCount; columnIdx++) {
+            columnLabels[columnIdx - 1] = resultSetMetaData.getColumnLabel(columnIdx);
+            typeHandlers[columnIdx - 1] = getTypeHandler(resultSetMetaData.getColumnTypeName(columnIdx));
+        }
+        return new RowDecoderPlan(columnLabels, typeHandlers);
+    }
+
+    /**
+     * Get the type handler of the column type, if the column type has no special handler,
+     * the value of the column is converted by {@link String#valueOf(Object)}
+     *
+     * @param columnTypeName column type name
+     * @return type handler
+     */
+    protected abstract TypeHandler getTypeHandler(String columnTypeName);
+
+    protected String objectToString(@NonNull ResultSet resultSet, int columnIdx) throws SQLException {
+        final Object object = resultSet.getObject(columnIdx);
+        return Objects.isNull(object) ? NULL : String.valueOf(object);
+    }
 
     protected String numericToString(BigDecimal bigDecimal) {
         return Objects.isNull(bigDecimal) ? NULL : bigDecimal.stripTrailingZeros().toPlainString();
     }
 
-    protected String getDateFormat(@NonNull ResultSet resultSet, String columnLabel) throws SQLException {
-        final Date date = resultSet.getDate(columnLabel);
+    protected String getDateFormat(@NonNull ResultSet resultSet, int columnIdx) throws SQLException {
+        final Date date = resultSet.getDate(columnIdx);
         return Objects.nonNull(date) ? DATE.format(date.toLocalDate()) : NULL;
     }
 
-    protected String getTimeFormat(@NonNull ResultSet resultSet, String columnLabel) throws SQLException {
-        final Time time = resultSet.getTime(columnLabel);
+    protected String getTimeFormat(@NonNull ResultSet resultSet, int columnIdx) throws SQLException {
+        final Time time = resultSet.getTime(columnIdx);
         return Objects.nonNull(time) ? TIME.format(time.toLocalTime()) : NULL;
     }
 
-    protected String getTimestampFormat(@NonNull ResultSet resultSet, String columnLabel) throws SQLException {
+    protected String getTimestampFormat(@NonNull ResultSet resultSet, int columnIdx) throws SQLException {
         final Timestamp timestamp =
-            resultSet.getTimestamp(columnLabel, Calendar.getInstance(TimeZone.getTimeZone("GMT+8")));
+            resultSet.getTimestamp(columnIdx, Calendar.getInstance(TimeZone.getTimeZone("GMT+8")));
         return Objects.nonNull(timestamp) ? formatTimestamp(timestamp) : NULL;
     }
 
@@ -108,8 +128,8 @@ public abstract class ResultSetHandler {
             TIMESTAMP.format(timestamp.toLocalDateTime());
     }
 
-    protected String getYearFormat(@NonNull ResultSet resultSet, String columnLabel) throws SQLException {
-        final Date date = resultSet.getDate(columnLabel);
+    protected String getYearFormat(@NonNull ResultSet resultSet, int columnIdx) throws SQLException {
+        final Date date = resultSet.getDate(columnIdx);
         return Objects.nonNull(date) ? YEAR.format(date.toLocalDate()) : NULL;
     }
 
@@ -123,8 +143,9 @@ public abstract class ResultSetHandler {
     protected String bytesToString(byte[] bytes) {
         return HexUtil.byteToHex(bytes);
     }
-    protected String trim(@NonNull ResultSet resultSet, String columnLabel) throws SQLException {
-        final String string = resultSet.getString(columnLabel);
+
+    protected String trim(@NonNull ResultSet resultSet, int columnIdx) throws SQLException {
+        final String string = resultSet.getString(columnIdx);
         return string == null ? NULL : string.stripTrailing();
     }
 
@@ -133,11 +154,11 @@ public abstract class ResultSetHandler {
         /**
          * result convert to string
          *
-         * @param resultSet   resultSet
-         * @param columnLabel columnLabel
+         * @param resultSet resultSet
+         * @param columnIdx column index of the result set, start with 1
          * @return result
          * @throws SQLException SQLException
          */
-        String convert(ResultSet resultSet, String columnLabel) throws SQLException;
+        String convert(ResultSet resultSet, int columnIdx) throws SQLException;
     }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ package org.opengauss.datachecker.extract.task;
 import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.opengauss.datachecker.extract.util.HashHandler;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -52,4 +53,24 @@ public class ResultSetHashHandler {
         hashData.setPrimaryKey(primaryValue).setPrimaryKeyHash(primaryHash).setRowHash(rowHash);
         return hashData;
     }
+
+    /**
+     * Hash the primary key value and the record value of the decoded row values.
+     * The result is the same as {@link #handler(List, List, Map)} with the same row data.
+     *
+     * @param primaryIndexes   positions of the primary columns in the row values
+     * @param columnIndexes    positions of the columns in the row values
+     * @param rowValues        decoded row values
+     * @param undecodedColumns positions of the columns failed to be decoded, they are skipped by the hash
+     * @return Returns the hash calculation result of extracted data
+     */
+    public RowDataHash handler(int[] primaryIndexes, int[] columnIndexes, String[] rowValues,
+        BitSet undecodedColumns) {
+        long rowHash = hashHandler.xx3Hash(rowValues, undecodedColumns, columnIndexes);
+        String primaryValue = hashHandler.value(rowValues, undecodedColumns, primaryIndexes);
+        long primaryHash = hashHandler.xx3Hash(rowValues, undecodedColumns, primaryIndexes);
+        RowDataHash hashData = new RowDataHash();
+        hashData.setPrimaryKey(primaryValue).setPrimaryKeyHash(primaryHash).setRowHash(rowHash);
+        return hashData;
+    }
 }
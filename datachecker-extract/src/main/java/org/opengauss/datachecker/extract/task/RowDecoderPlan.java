@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.extract.task.ResultSetHandler.TypeHandler;
+import org.springframework.util.CollectionUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <pre>
+ * Row decoder plan of a query, compiled once from the metadata information of the result set.
+ * The plan holds the column label and the type handler of each column in the order of the result set,
+ * the values of a row are read by column index, without looking up the metadata and the column label
+ * of the result set for every row.
+ * The plan is immutable and can be shared by the queries with the same column list.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/22
+ * @since ：11
+ */
+@Slf4j
+public class RowDecoderPlan {
+    private final String[] columnLabels;
+    private final TypeHandler[] typeHandlers;
+
+    RowDecoderPlan(String[] columnLabels, TypeHandler[] typeHandlers) {
+        this.columnLabels = columnLabels;
+        this.typeHandlers = typeHandlers;
+    }
+
+    /**
+     * column count of the plan
+     *
+     * @return column count
+     */
+    public int getColumnCount() {
+        return columnLabels.length;
+    }
+
+    /**
+     * Decode the current row of the result set, the values are in the order of the result set columns.
+     * If a column failed to be decoded, its value is null and its position is set in the undecoded columns,
+     * it is skipped by the hash like the column missing from the column map.
+     *
+     * @param resultSet        JDBC Data query result set
+     * @param undecodedColumns skip mask of the current row, cleared and then set with the positions of the columns
+     *                         failed to be decoded
+     * @return column values of the current row
+     */
+    public String[] decode(ResultSet resultSet, BitSet undecodedColumns) {
+        undecodedColumns.clear();
+        String[] values = new String[typeHandlers.length];
+        for (int idx = 0; idx < typeHandlers.length; idx++) {
+            try {
+                values[idx] = typeHandlers[idx].convert(resultSet, idx + 1);
+            } catch (SQLException ex) {
+                undecodedColumns.set(idx);
+                log.error("decode row data of column {} exception.", columnLabels[idx], ex);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Decode the current row of the result set into map, the key of the map is the column label.
+     * If a column failed to be decoded, the column is not put into the map.
+     *
+     * @param resultSet JDBC Data query result set
+     * @return JDBC Data encapsulation results
+     */
+    public Map<String, String> decodeToMap(ResultSet resultSet) {
+        Map<String, String> values = new HashMap<>(Math.max(16, (int) (typeHandlers.length / 0.75f) + 1));
+        for (int idx = 0; idx < typeHandlers.length; idx++) {
+            try {
+                values.put(columnLabels[idx], typeHandlers[idx].convert(resultSet, idx + 1));
+            } catch (SQLException ex) {
+                log.error("putOneResultSetToMap Convert data according to result set metadata information.", ex);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Resolve the positions of the named columns in the decoded row values.
+     * The columns which are not in the result set are skipped.
+     * If the column name list is empty, null is returned, it is hashed as an empty column list.
+     *
+     * @param columns column name list
+     * @return positions of the columns in the decoded row values
+     */
+    public int[] indexOf(List<String> columns) {
+        if (CollectionUtils.isEmpty(columns)) {
+            return null;
+        }
+        Map<String, Integer> positions = new HashMap<>(Math.max(16, (int) (columnLabels.length / 0.75f) + 1));
+        for (int idx = 0; idx < columnLabels.length; idx++) {
+            positions.put(columnLabels[idx], idx);
+        }
+        return columns.stream().filter(positions::containsKey).mapToInt(positions::get).toArray();
+    }
+}
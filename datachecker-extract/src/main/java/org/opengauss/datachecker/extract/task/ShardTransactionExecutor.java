@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.KafkaException;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.opengauss.datachecker.common.util.ThreadUtil;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * <pre>
+ * Execute the extraction shards of a table in kafka transactions.
+ * The rows of a shard are sent in one transaction of the calling thread, and are visible to the read_committed
+ * consumers of the check service only after the shard is committed.
+ * A shard failed by the database or kafka is aborted and retried up to {@code retryTimes} times,
+ * the committed shards of the table are not extracted again.
+ * If the kafka template is not transactional, the shard is executed once without retry,
+ * because the rows sent by the failed attempt can not be revoked.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@Slf4j
+public class ShardTransactionExecutor {
+    private final KafkaTemplate<String, RowDataHash> kafkaTemplate;
+    private final int retryTimes;
+    private final int retryIntervalMillis;
+
+    /**
+     * Shard transaction executor
+     *
+     * @param kafkaTemplate       kafka template of the transactional producer factory
+     * @param retryTimes          max retry times of a failed shard
+     * @param retryIntervalMillis retry interval, multiplied by the retry times
+     */
+    public ShardTransactionExecutor(KafkaTemplate<String, RowDataHash> kafkaTemplate, int retryTimes,
+        int retryIntervalMillis) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.retryTimes = retryTimes;
+        this.retryIntervalMillis = retryIntervalMillis;
+    }
+
+    /**
+     * Execute the shard, the rows of the shard must be sent by the kafka template in the calling thread
+     *
+     * @param shardName shard name of the log
+     * @param shard     extraction of the shard, returns the extracted row count
+     * @return extracted row count of the committed attempt
+     */
+    public long execute(String shardName, LongSupplier shard) {
+        if (!kafkaTemplate.isTransactional()) {
+            return shard.getAsLong();
+        }
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            try {
+                final Long rowCount = kafkaTemplate.executeInTransaction(operations -> shard.getAsLong());
+                return Objects.isNull(rowCount) ? 0L : rowCount;
+            } catch (DataAccessException | KafkaException ex) {
+                if (attempt > retryTimes) {
+                    log.error("extract shard [{}] is aborted, and failed after {} attempts : {}", shardName, attempt,
+                        ex.getMessage());
+                    throw ex;
+                }
+                log.warn("extract shard [{}] is aborted at attempt {}, retry it : {}", shardName, attempt,
+                    ex.getMessage());
+                ThreadUtil.sleep(retryIntervalMillis * attempt);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.opengauss.datachecker.common.entry.enums.DataBaseType;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * <pre>
+ * Streaming query processor of data extraction.
+ * The query result is read through a real database cursor, and the rows are hashed and pushed
+ * to the batch consumer in fixed-size batches, so the rows held in memory of one query are capped
+ * by the batch size, and do not grow with the query result.
+ * mysql : use server cursor if the jdbc url is configured with {@code useCursorFetch=true},
+ * otherwise use the row by row streaming result set.
+ * openGauss : the cursor fetch size only takes effect when the connection autocommit is off.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/21
+ * @since ：11
+ */
+@Slf4j
+public class StreamQueryHandler {
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final String MYSQL_USE_CURSOR_FETCH = "useCursorFetch=true";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataBaseType databaseType;
+    private final int fetchSize;
+    private final int batchSize;
+
+    /**
+     * Streaming query processor
+     *
+     * @param jdbcTemplate jdbcTemplate
+     * @param databaseType databaseType
+     * @param fetchSize    jdbc cursor fetch size
+     * @param batchSize    row count of one batch
+     */
+    public StreamQueryHandler(JdbcTemplate jdbcTemplate, DataBaseType databaseType, int fetchSize, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databaseType = databaseType;
+        this.fetchSize = fetchSize;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Execute the query in a database cursor, and push the mapped rows to {@code batchConsumer} batch by batch.
+     * The batch list is reused after it is consumed, so the consumer must not hold the list.
+     *
+     * @param sql           query sql
+     * @param rowMapper     row mapper
+     * @param batchConsumer batch consumer
+     * @param args          query parameters
+     * @return total row count of the query
+     */
+    public long query(String sql, RowMapper<RowDataHash> rowMapper, Consumer<List<RowDataHash>> batchConsumer,
+        Object... args) {
+        final Long rowCount = jdbcTemplate.execute(
+            (ConnectionCallback<Long>) connection -> queryInCursor(connection, sql, rowMapper, batchConsumer, args));
+        return Objects.isNull(rowCount) ? 0L : rowCount;
+    }
+
+    private long queryInCursor(Connection connection, String sql, RowMapper<RowDataHash> rowMapper,
+        Consumer<List<RowDataHash>> batchConsumer, Object[] args) throws SQLException {
+        final boolean isCursorTransaction = Objects.equals(DataBaseType.OG, databaseType) && connection.getAutoCommit();
+        if (isCursorTransaction) {
+            connection.setAutoCommit(false);
+        }
+        try (PreparedStatement statement = connection
+            .prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(getFetchSize(connection));
+            if (Objects.nonNull(args)) {
+                for (int idx = 0; idx < args.length; idx++) {
+                    statement.setObject(idx + 1, args[idx]);
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return consumeResultSet(resultSet, rowMapper, batchConsumer);
+            }
+        } finally {
+            if (isCursorTransaction) {
+                // end the read only cursor transaction, and return the connection to the pool as it was
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private long consumeResultSet(ResultSet resultSet, RowMapper<RowDataHash> rowMapper,
+        Consumer<List<RowDataHash>> batchConsumer) throws SQLException {
+        List<RowDataHash> batch = new ArrayList<>(batchSize);
+        long rowCount = 0L;
+        while (resultSet.next()) {
+            batch.add(rowMapper.mapRow(resultSet, (int) rowCount));
+            rowCount++;
+            if (batch.size() >= batchSize) {
+                batchConsumer.accept(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+            batch.clear();
+        }
+        return rowCount;
+    }
+
+    private int getFetchSize(Connection connection) throws SQLException {
+        if (Objects.equals(DataBaseType.MS, databaseType)) {
+            final String url = connection.getMetaData().getURL();
+            return Objects.nonNull(url) && url.contains(MYSQL_USE_CURSOR_FETCH) ? fetchSize :
+                MYSQL_STREAMING_FETCH_SIZE;
+        }
+        return fetchSize;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import org.opengauss.datachecker.common.entry.check.InvertibleBloomFilter;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
+import org.opengauss.datachecker.common.entry.enums.Endpoint;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ * Aggregate the bucket signatures of each kafka partition of the table while the rows are extracted,
+ * the rows must have been assigned to their kafka partition.
+ * The leaf count of a partition is 2^n with about {@value ROWS_PER_LEAF} rows per leaf,
+ * the check service folds the digests of both endpoints to the same leaf count.
+ * The sketch of each partition is built only if the expected different row count is configured.
+ * The builder is thread safe, the extraction fragments of a table add their batches concurrently.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/31
+ * @since ：11
+ */
+public class TableDigestBuilder {
+    private static final int ROWS_PER_LEAF = 256;
+    private static final int MIN_LEAF_COUNT = 2;
+    private static final int MAX_LEAF_COUNT = 1 << 15;
+
+    private final String tableName;
+    private final Endpoint endpoint;
+    private final int leafCount;
+    private final long[][] signatures;
+    private final long[][] rowCounts;
+    private final int sketchExpectedDiff;
+    private final InvertibleBloomFilter[] sketches;
+
+    /**
+     * Build the digest builder of the table
+     *
+     * @param tableName  table name
+     * @param endpoint   endpoint
+     * @param partitions kafka partition count of the table topic
+     * @param tableRows  estimated row count of the table
+     * @param sketchExpectedDiff expected different row count of a partition, 0 if the sketch is not built
+     */
+    public TableDigestBuilder(String tableName, Endpoint endpoint, int partitions, long tableRows,
+        int sketchExpectedDiff) {
+        this(tableName, endpoint, Math.max(partitions, 1),
+            calculateLeafCount(Math.max(tableRows, 0L) / Math.max(partitions, 1)), sketchExpectedDiff);
+    }
+
+    private TableDigestBuilder(String tableName, Endpoint endpoint, int partitionCount, int leafCount,
+        int sketchExpectedDiff) {
+        this.tableName = tableName;
+        this.endpoint = endpoint;
+        this.leafCount = leafCount;
+        this.sketchExpectedDiff = sketchExpectedDiff;
+        signatures = new long[partitionCount][leafCount];
+        rowCounts = new long[partitionCount][leafCount];
+        sketches = new InvertibleBloomFilter[sketchExpectedDiff > 0 ? partitionCount : 0];
+        for (int partition = 0; partition < sketches.length; partition++) {
+            sketches[partition] = InvertibleBloomFilter.create(sketchExpectedDiff);
+        }
+    }
+
+    private static int calculateLeafCount(long partitionRows) {
+        int leafCount = MIN_LEAF_COUNT;
+        while (leafCount < MAX_LEAF_COUNT && (long) leafCount * ROWS_PER_LEAF < partitionRows) {
+            leafCount = leafCount << 1;
+        }
+        return leafCount;
+    }
+
+    /**
+     * add the rows which have been sent to kafka
+     *
+     * @param rows rows
+     */
+    public synchronized void add(List<RowDataHash> rows) {
+        rows.forEach(row -> {
+            final int leaf = PartitionDigest.leafOf(row.getPrimaryKeyHash(), leafCount);
+            signatures[row.getPartition()][leaf] ^= row.getRowHash();
+            rowCounts[row.getPartition()][leaf]++;
+            if (sketches.length > 0) {
+                sketches[row.getPartition()].add(row.getPrimaryKeyHash(), row.getRowHash());
+            }
+        });
+    }
+
+    /**
+     * the empty builder of the same leaf count, the rows of an extraction shard are added to it, and it is merged
+     * to the table builder after the shard is committed, so the rows of an aborted shard are not added twice
+     *
+     * @return shard builder
+     */
+    public TableDigestBuilder newShardBuilder() {
+        return new TableDigestBuilder(tableName, endpoint, signatures.length, leafCount, sketchExpectedDiff);
+    }
+
+    /**
+     * add the rows of the committed shard
+     *
+     * @param shardBuilder shard builder created by {@link #newShardBuilder()}
+     */
+    public synchronized void merge(TableDigestBuilder shardBuilder) {
+        synchronized (shardBuilder) {
+            for (int partition = 0; partition < signatures.length; partition++) {
+                for (int leaf = 0; leaf < leafCount; leaf++) {
+                    signatures[partition][leaf] ^= shardBuilder.signatures[partition][leaf];
+                    rowCounts[partition][leaf] += shardBuilder.rowCounts[partition][leaf];
+                }
+            }
+            for (int partition = 0; partition < sketches.length; partition++) {
+                sketches[partition].addAll(shardBuilder.sketches[partition]);
+            }
+        }
+    }
+
+    /**
+     * the digests of all the partitions of the table
+     *
+     * @return partition digests
+     */
+    public synchronized List<PartitionDigest> build() {
+        List<PartitionDigest> digests = new ArrayList<>(signatures.length);
+        for (int partition = 0; partition < signatures.length; partition++) {
+            digests.add(build(partition));
+        }
+        return digests;
+    }
+
+    /**
+     * the digest of the partition, it is completed if no more row of the partition is added
+     *
+     * @param partition partition
+     * @return partition digest
+     */
+    public synchronized PartitionDigest build(int partition) {
+        return new PartitionDigest().setTableName(tableName).setEndpoint(endpoint).setPartition(partition)
+                                    .setSignatures(signatures[partition].clone())
+                                    .setRowCounts(rowCounts[partition].clone())
+                                    .setSketch(sketches.length > 0 ? sketch(partition) : null);
+    }
+
+    private InvertibleBloomFilter sketch(int partition) {
+        final InvertibleBloomFilter sketch = sketches[partition];
+        return new InvertibleBloomFilter().setCounts(sketch.getCounts().clone()).setKeySums(sketch.getKeySums().clone())
+                                          .setValueSums(sketch.getValueSums().clone())
+                                          .setHashSums(sketch.getHashSums().clone());
+    }
+}
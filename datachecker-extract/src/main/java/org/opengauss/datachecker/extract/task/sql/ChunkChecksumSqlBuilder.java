@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task.sql;
+
+import org.opengauss.datachecker.common.entry.enums.DataBaseType;
+import org.opengauss.datachecker.common.entry.extract.ColumnsMetaData;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.AND_CONDITION;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.COLUMN;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.DELIMITER;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.OFFSET;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.ORDER_BY;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.PRIMARY_KEY;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.QUERY_CHUNK_CHECKSUM;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.QUERY_CHUNK_ROWS;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.QUERY_KEYSET_BOUNDARY;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.ROW_CHECKSUM;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.SCHEMA;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.TABLE_NAME;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.WHERE;
+
+/**
+ * <pre>
+ * Chunk checksum SQL builder.
+ * The row count and the checksum of the primary key range {@code [lower, upper)} are aggregated in the database,
+ * the checksum of a row is the first 32 bits of the md5 of its column values joined by {@code CONCAT_WS},
+ * and the checksum of the range is the sum of the row checksums.
+ * Each column value is rendered as its character length, ':' and its text, and NULL is rendered as 'N',
+ * which is not the rendering of any value, so neither a NULL nor a separator in the values is mistaken for
+ * another value. md5 and the sum aggregate are the same on mysql and openGauss, so the checksums of both endpoints
+ * are comparable only if the column values are rendered to the same text by both databases.
+ * Only the table of single integer primary key whose columns are all integer or character types is supported,
+ * the text of datetime, decimal, float, boolean and binary values depends on the database.
+ * The range boundaries located on one endpoint bound the same rows on the other endpoint regardless of the
+ * collation.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+public class ChunkChecksumSqlBuilder {
+    private static final Set<String> INTEGER_TYPES =
+        Set.of("tinyint", "smallint", "mediumint", "int", "integer", "bigint", "int2", "int4", "int8");
+    private static final Set<String> CHARACTER_TYPES =
+        Set.of("char", "character", "bpchar", "nchar", "varchar", "character varying", "nvarchar", "nvarchar2",
+            "varchar2", "text", "tinytext", "mediumtext", "longtext");
+    private static final String WHERE_CONDITION = " WHERE ";
+    private static final String LOWER_BOUND_CONDITION = " >= ?";
+    private static final String UPPER_BOUND_CONDITION = " < ?";
+    private static final String NULL_VALUE = "'N'";
+    private static final String MYSQL_ROW_CHECKSUM =
+        "CAST(CONV(SUBSTRING(MD5(CONCAT_WS('#',%s)),1,8),16,10) AS UNSIGNED)";
+    private static final String OPENGAUSS_ROW_CHECKSUM = "('x'||SUBSTR(MD5(CONCAT_WS('#',%s)),1,8))::BIT(32)::BIGINT";
+    private static final String MYSQL_COLUMN_TEXT = "CASE WHEN %1$s IS NULL THEN " + NULL_VALUE
+        + " ELSE CONCAT(CHAR_LENGTH(CAST(%1$s AS CHAR)),':',CAST(%1$s AS CHAR)) END";
+    private static final String OPENGAUSS_COLUMN_TEXT = "CASE WHEN %1$s IS NULL THEN " + NULL_VALUE
+        + " ELSE CHAR_LENGTH(CAST(%1$s AS TEXT))||':'||CAST(%1$s AS TEXT) END";
+
+    private final String schema;
+    private final TableMetadata tableMetadata;
+    private DataBaseType dataBaseType;
+
+    /**
+     * Table chunk checksum SQL Statement Builder
+     *
+     * @param tableMetadata tableMetadata
+     * @param schema        schema
+     */
+    public ChunkChecksumSqlBuilder(TableMetadata tableMetadata, String schema) {
+        this.tableMetadata = tableMetadata;
+        this.schema = schema;
+    }
+
+    /**
+     * Whether the table can be checked by chunk checksums, only the table of single integer primary key
+     * of mysql and openGauss, whose columns are all rendered to the same text by both databases, is supported.
+     *
+     * @param tableMetadata tableMetadata
+     * @param dataBaseType  dataBaseType
+     * @return true if the chunk checksum is supported
+     */
+    public static boolean isSupported(TableMetadata tableMetadata, DataBaseType dataBaseType) {
+        if (!isIntegerPrimaryKey(tableMetadata, dataBaseType) || Objects.isNull(tableMetadata.getColumnsMetas())) {
+            return false;
+        }
+        return tableMetadata.getColumnsMetas().stream().map(ColumnsMetaData::getDataType).allMatch(
+            dataType -> isTypeOf(dataType, INTEGER_TYPES) || isTypeOf(dataType, CHARACTER_TYPES));
+    }
+
+    /**
+     * Whether the table is of single integer primary key of mysql and openGauss,
+     * so its primary key ranges bound the same rows on both endpoints.
+     *
+     * @param tableMetadata tableMetadata
+     * @param dataBaseType  dataBaseType
+     * @return true if the primary key is a single integer column
+     */
+    public static boolean isIntegerPrimaryKey(TableMetadata tableMetadata, DataBaseType dataBaseType) {
+        return SelectKeysetSqlBuilder.isSupported(tableMetadata, dataBaseType) && isTypeOf(
+            tableMetadata.getPrimaryMetas().get(0).getDataType(), INTEGER_TYPES);
+    }
+
+    private static boolean isTypeOf(String dataType, Set<String> types) {
+        return Objects.nonNull(dataType) && types.contains(dataType.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * set param dataBaseType
+     *
+     * @param dataBaseType dataBaseType
+     * @return builder
+     */
+    public ChunkChecksumSqlBuilder dataBaseType(DataBaseType dataBaseType) {
+        this.dataBaseType = dataBaseType;
+        return this;
+    }
+
+    /**
+     * Build the SQL that aggregates the row count and the checksum of the range.
+     * The parameters are bound in order: lower bound (if any) and upper bound (if any).
+     *
+     * @param hasLowerBound whether the range has lower bound
+     * @param hasUpperBound whether the range has upper bound
+     * @return build sql
+     */
+    public String buildChecksumSql(boolean hasLowerBound, boolean hasUpperBound) {
+        return QUERY_CHUNK_CHECKSUM.replace(ROW_CHECKSUM, getRowChecksum()).replace(SCHEMA, escape(schema))
+                                   .replace(TABLE_NAME, escape(tableMetadata.getTableName()))
+                                   .replace(" " + WHERE, getWhere(hasLowerBound, hasUpperBound));
+    }
+
+    /**
+     * Build the SQL that locates the next chunk boundary of the range, {@code step} rows after the lower bound.
+     * The parameters are bound in order: lower bound (if any) and upper bound (if any).
+     *
+     * @param hasLowerBound whether the range has lower bound
+     * @param hasUpperBound whether the range has upper bound
+     * @param step          the row count of the chunk
+     * @return build sql
+     */
+    public String buildBoundarySql(boolean hasLowerBound, boolean hasUpperBound, long step) {
+        final String primaryKey = getPrimaryKey();
+        return QUERY_KEYSET_BOUNDARY.replace(PRIMARY_KEY, primaryKey).replace(SCHEMA, escape(schema))
+                                    .replace(TABLE_NAME, escape(tableMetadata.getTableName()))
+                                    .replace(" " + WHERE, getWhere(hasLowerBound, hasUpperBound))
+                                    .replace(ORDER_BY, getOrderBy(primaryKey)).replace(OFFSET, String.valueOf(step));
+    }
+
+    /**
+     * Build the SQL that queries all the rows of the range, the range is small enough to be compared row by row.
+     * The parameters are bound in order: lower bound (if any) and upper bound (if any).
+     *
+     * @param hasLowerBound whether the range has lower bound
+     * @param hasUpperBound whether the range has upper bound
+     * @return build sql
+     */
+    public String buildRowSql(boolean hasLowerBound, boolean hasUpperBound) {
+        return QUERY_CHUNK_ROWS.replace(COLUMN, getColumnNameList(this::escape)).replace(SCHEMA, escape(schema))
+                               .replace(TABLE_NAME, escape(tableMetadata.getTableName()))
+                               .replace(" " + WHERE, getWhere(hasLowerBound, hasUpperBound));
+    }
+
+    private String getWhere(boolean hasLowerBound, boolean hasUpperBound) {
+        final String primaryKey = getPrimaryKey();
+        List<String> conditions = new ArrayList<>(2);
+        if (hasLowerBound) {
+            conditions.add(primaryKey + LOWER_BOUND_CONDITION);
+        }
+        if (hasUpperBound) {
+            conditions.add(primaryKey + UPPER_BOUND_CONDITION);
+        }
+        return conditions.isEmpty() ? "" : WHERE_CONDITION + String.join(AND_CONDITION, conditions);
+    }
+
+    private String getRowChecksum() {
+        if (Objects.equals(DataBaseType.MS, dataBaseType)) {
+            return String.format(MYSQL_ROW_CHECKSUM,
+                getColumnNameList(column -> String.format(MYSQL_COLUMN_TEXT, escape(column))));
+        }
+        return String.format(OPENGAUSS_ROW_CHECKSUM,
+            getColumnNameList(column -> String.format(OPENGAUSS_COLUMN_TEXT, escape(column))));
+    }
+
+    private String getPrimaryKey() {
+        Assert.isTrue(isIntegerPrimaryKey(tableMetadata, dataBaseType), Message.CHUNK_CHECKSUM_NOT_SUPPORTED);
+        return escape(tableMetadata.getPrimaryMetas().get(0).getColumnName());
+    }
+
+    private String getOrderBy(String primaryKey) {
+        return "order by " + primaryKey + " asc";
+    }
+
+    private String getColumnNameList(ColumnRender render) {
+        List<ColumnsMetaData> columnsMetas = tableMetadata.getColumnsMetas();
+        Assert.notEmpty(columnsMetas, Message.COLUMN_METADATA_EMPTY_NOT_TO_BUILD_SQL);
+        return columnsMetas.stream().map(ColumnsMetaData::getColumnName).map(render::render)
+                           .collect(Collectors.joining(DELIMITER));
+    }
+
+    private String escape(String content) {
+        return SelectSqlBuilder.escape(content, dataBaseType);
+    }
+
+    @FunctionalInterface
+    interface ColumnRender {
+        /**
+         * render the column of the select list
+         *
+         * @param column column name
+         * @return column expression
+         */
+        String render(String column);
+    }
+
+    interface Message {
+        /**
+         * error message tips
+         */
+        String CHUNK_CHECKSUM_NOT_SUPPORTED = "Table is not single integer primary key, failed to build checksum SQL";
+
+        /**
+         * error message tips
+         */
+        String COLUMN_METADATA_EMPTY_NOT_TO_BUILD_SQL = "Abnormal column metadata information, failed to build SQL";
+    }
+}
@@ -79,6 +79,38 @@ public interface QuerySqlTemplate {
     String QUERY_MULTIPLE_PRIMARY_KEY_OFF_SET = "SELECT :columnsList FROM :schema.:tableName a  RIGHT JOIN "
         + " (SELECT :primaryKey FROM :schema.:tableName order by :primaryKey LIMIT :start,:offset) b ON :joinOn";
 
+    /**
+     * Query SQL statement where fragment: primary key range condition of keyset query
+     */
+    String WHERE = ":where";
+
+    /**
+     * Query SQL statement fragment: locate the primary key value of the next keyset range boundary,
+     * the boundary is found by walking the primary key index from the previous boundary
+     */
+    String QUERY_KEYSET_BOUNDARY =
+        "SELECT :primaryKey FROM :schema.:tableName :where :orderBy LIMIT 1 OFFSET :offset";
+
+    /**
+     * Query SQL statement fragment: query one page of data in the primary key range using seek continuation
+     */
+    String QUERY_KEYSET_RANGE = "SELECT :columnsList FROM :schema.:tableName :where :orderBy LIMIT :offset";
+
+    /**
+     * Query SQL statement rowChecksum fragment: checksum expression of one row
+     */
+    String ROW_CHECKSUM = ":rowChecksum";
+
+    /**
+     * Query SQL statement fragment: aggregate the row count and the checksum of the primary key range in database
+     */
+    String QUERY_CHUNK_CHECKSUM = "SELECT COUNT(1), COALESCE(SUM(:rowChecksum),0) FROM :schema.:tableName :where";
+
+    /**
+     * Query SQL statement fragment: query all the rows of the primary key range
+     */
+    String QUERY_CHUNK_ROWS = "SELECT :columnsList FROM :schema.:tableName :where";
+
     /**
      * Query SQL statement fragment: SQL statement field spacing symbol
      */
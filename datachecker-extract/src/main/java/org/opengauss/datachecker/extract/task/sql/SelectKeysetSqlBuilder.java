@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task.sql;
+
+import org.opengauss.datachecker.common.entry.enums.DataBaseType;
+import org.opengauss.datachecker.common.entry.extract.ColumnsMetaData;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.AND_CONDITION;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.COLUMN;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.DELIMITER;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.OFFSET;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.ORDER_BY;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.PRIMARY_KEY;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.QUERY_KEYSET_BOUNDARY;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.QUERY_KEYSET_RANGE;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.SCHEMA;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.TABLE_NAME;
+import static org.opengauss.datachecker.extract.task.sql.QuerySqlTemplate.WHERE;
+
+/**
+ * <pre>
+ * Keyset (seek) data extraction SQL builder.
+ * The offset fragments of the table are replaced by primary key ranges {@code [lower, upper)},
+ * the range boundary is located by walking the primary key index, and the data of each range
+ * is queried page by page, each page continues from the last primary key of the previous page.
+ * The primary key values are bound as jdbc parameters, so the generated SQL contains placeholders.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/20
+ * @since ：11
+ */
+public class SelectKeysetSqlBuilder {
+    private static final String WHERE_CONDITION = " WHERE ";
+    private static final String UPPER_BOUND_CONDITION = " < ?";
+
+    private final String schema;
+    private final TableMetadata tableMetadata;
+    private DataBaseType dataBaseType;
+
+    /**
+     * Table keyset query SQL Statement Builder
+     *
+     * @param tableMetadata tableMetadata
+     * @param schema        schema
+     */
+    public SelectKeysetSqlBuilder(TableMetadata tableMetadata, String schema) {
+        this.tableMetadata = tableMetadata;
+        this.schema = schema;
+    }
+
+    /**
+     * Whether the table can be extracted by primary key range.
+     * only the table of single primary key without condition limit of mysql and openGauss is supported.
+     *
+     * @param tableMetadata tableMetadata
+     * @param dataBaseType  dataBaseType
+     * @return true if the keyset extraction is supported
+     */
+    public static boolean isSupported(TableMetadata tableMetadata, DataBaseType dataBaseType) {
+        if (Objects.isNull(tableMetadata) || Objects.nonNull(tableMetadata.getConditionLimit())) {
+            return false;
+        }
+        if (!Objects.equals(DataBaseType.MS, dataBaseType) && !Objects.equals(DataBaseType.OG, dataBaseType)) {
+            return false;
+        }
+        final List<ColumnsMetaData> primaryMetas = tableMetadata.getPrimaryMetas();
+        return !CollectionUtils.isEmpty(primaryMetas) && primaryMetas.size() == 1;
+    }
+
+    /**
+     * set param dataBaseType
+     *
+     * @param dataBaseType dataBaseType
+     * @return builder
+     */
+    public SelectKeysetSqlBuilder dataBaseType(DataBaseType dataBaseType) {
+        this.dataBaseType = dataBaseType;
+        return this;
+    }
+
+    /**
+     * Build the SQL that locates the next range boundary, {@code step} rows after the previous boundary.
+     * If {@code hasLowerBound} is true, the previous boundary is bound as the only parameter.
+     *
+     * @param hasLowerBound whether the previous boundary exists
+     * @param step          the row count of the range
+     * @return build sql
+     */
+    public String buildBoundarySql(boolean hasLowerBound, long step) {
+        final String primaryKey = getPrimaryKey();
+        final String where = hasLowerBound ? WHERE_CONDITION + primaryKey + LowerBound.INCLUSIVE.getCondition() : "";
+        return QUERY_KEYSET_BOUNDARY.replace(PRIMARY_KEY, primaryKey).replace(SCHEMA, escape(schema))
+                                    .replace(TABLE_NAME, escape(tableMetadata.getTableName()))
+                                    .replace(" " + WHERE, where).replace(ORDER_BY, getOrderBy(primaryKey))
+                                    .replace(OFFSET, String.valueOf(step));
+    }
+
+    /**
+     * Build the SQL that queries one page of the primary key range {@code [lower, upper)}.
+     * The parameters are bound in order: lower bound (if any) and upper bound (if any).
+     *
+     * @param lowerBound    lower bound condition of the page
+     * @param hasUpperBound whether the range has upper bound
+     * @param fetchSize     max row count of the page
+     * @return build sql
+     */
+    public String buildRangeSql(LowerBound lowerBound, boolean hasUpperBound, int fetchSize) {
+        Assert.isTrue(fetchSize > 0, Message.FETCH_SIZE_INVALID);
+        final String primaryKey = getPrimaryKey();
+        List<String> conditions = new ArrayList<>();
+        if (lowerBound != LowerBound.NONE) {
+            conditions.add(primaryKey + lowerBound.getCondition());
+        }
+        if (hasUpperBound) {
+            conditions.add(primaryKey + UPPER_BOUND_CONDITION);
+        }
+        final String where = conditions.isEmpty() ? "" : WHERE_CONDITION + String.join(AND_CONDITION, conditions);
+        return QUERY_KEYSET_RANGE.replace(COLUMN, getColumnNameList()).replace(SCHEMA, escape(schema))
+                                 .replace(TABLE_NAME, escape(tableMetadata.getTableName()))
+                                 .replace(" " + WHERE, where).replace(ORDER_BY, getOrderBy(primaryKey))
+                                 .replace(OFFSET, String.valueOf(fetchSize));
+    }
+
+    /**
+     * the column name of the primary key, which is used to read the primary key value from the result set
+     *
+     * @return primary key column name
+     */
+    public String getPrimaryKeyColumn() {
+        Assert.isTrue(isSupported(tableMetadata, dataBaseType), Message.KEYSET_NOT_SUPPORTED);
+        return tableMetadata.getPrimaryMetas().get(0).getColumnName();
+    }
+
+    private String getPrimaryKey() {
+        return escape(getPrimaryKeyColumn());
+    }
+
+    private String getOrderBy(String primaryKey) {
+        return "order by " + primaryKey + " asc";
+    }
+
+    private String getColumnNameList() {
+        List<ColumnsMetaData> columnsMetas = tableMetadata.getColumnsMetas();
+        Assert.notEmpty(columnsMetas, Message.COLUMN_METADATA_EMPTY_NOT_TO_BUILD_SQL);
+        return columnsMetas.stream().map(ColumnsMetaData::getColumnName).map(this::escape)
+                           .collect(Collectors.joining(DELIMITER));
+    }
+
+    private String escape(String content) {
+        return SelectSqlBuilder.escape(content, dataBaseType);
+    }
+
+    /**
+     * lower bound condition of keyset page query
+     */
+    public enum LowerBound {
+        /**
+         * the first range of the table, no lower bound
+         */
+        NONE(""),
+        /**
+         * the first page of the range, the range boundary is included
+         */
+        INCLUSIVE(" >= ?"),
+        /**
+         * the continuation page of the range, seek after the last primary key of the previous page
+         */
+        EXCLUSIVE(" > ?");
+
+        private final String condition;
+
+        LowerBound(String condition) {
+            this.condition = condition;
+        }
+
+        String getCondition() {
+            return condition;
+        }
+    }
+
+    interface Message {
+        /**
+         * error message tips
+         */
+        String KEYSET_NOT_SUPPORTED = "Table is not single primary key, failed to build keyset SQL";
+
+        /**
+         * error message tips
+         */
+        String COLUMN_METADATA_EMPTY_NOT_TO_BUILD_SQL = "Abnormal column metadata information, failed to build SQL";
+
+        /**
+         * error message tips
+         */
+        String FETCH_SIZE_INVALID = "keyset query fetch size must be greater than 0";
+    }
+}
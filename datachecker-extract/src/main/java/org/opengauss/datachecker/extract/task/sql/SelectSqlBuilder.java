@@ -176,7 +176,14 @@ public class SelectSqlBuilder {
         return getSqlGenerate(dataBaseType).replace(sqlGenerateMeta);
     }
 
-    private String escape(String content, DataBaseType dataBaseType) {
+    /**
+     * escape the object name according to the database type
+     *
+     * @param content      object name
+     * @param dataBaseType dataBaseType
+     * @return escaped object name
+     */
+    static String escape(String content, DataBaseType dataBaseType) {
         return ESCAPE.get(dataBaseType).escape(content);
     }
 
@@ -15,12 +15,13 @@
 
 package org.opengauss.datachecker.extract.util;
 
-import org.opengauss.datachecker.common.util.LongHashFunctionWrapper;
 import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 import static org.opengauss.datachecker.extract.constants.ExtConstants.PRIMARY_DELIMITER;
@@ -33,7 +34,8 @@ import static org.opengauss.datachecker.extract.constants.ExtConstants.PRIMARY_D
  * @since ：11
  */
 public class HashHandler {
-    private final LongHashFunctionWrapper hashFunctionWrapper = new LongHashFunctionWrapper();
+    private static final ThreadLocal<IncrementalRowHasher> ROW_HASHER =
+        ThreadLocal.withInitial(IncrementalRowHasher::new);
 
     /**
      * According to the field list set in the columns set,
@@ -47,13 +49,13 @@ public class HashHandler {
         if (CollectionUtils.isEmpty(columns)) {
             return 0L;
         }
-        StringBuffer sb = new StringBuffer();
-        columns.forEach(column -> {
+        final IncrementalRowHasher rowHasher = ROW_HASHER.get().reset();
+        for (String column : columns) {
             if (columnsValueMap.containsKey(column)) {
-                sb.append(columnsValueMap.get(column));
+                rowHasher.append(columnsValueMap.get(column));
             }
-        });
-        return hashFunctionWrapper.hashChars(sb.toString());
+        }
+        return rowHasher.hash();
     }
 
     /**
@@ -75,4 +77,52 @@ public class HashHandler {
         });
         return values.stream().map(String::valueOf).collect(Collectors.joining(PRIMARY_DELIMITER));
     }
+
+    /**
+     * According to the column positions, find the corresponding value of the column in the decoded row values,
+     * and splice the found value, the columns failed to be decoded are skipped like the columns missing from
+     * the column map, so the result is the same as {@link #xx3Hash(Map, List)}
+     *
+     * @param rowValues        decoded row values
+     * @param undecodedColumns positions of the columns failed to be decoded in the row values
+     * @param columnIndexes    positions of the columns in the row values, null if the column list is empty
+     * @return Hash calculation result corresponding to the current row
+     */
+    public long xx3Hash(String[] rowValues, BitSet undecodedColumns, int[] columnIndexes) {
+        if (columnIndexes == null) {
+            return 0L;
+        }
+        final IncrementalRowHasher rowHasher = ROW_HASHER.get().reset();
+        for (int columnIndex : columnIndexes) {
+            if (!undecodedColumns.get(columnIndex)) {
+                rowHasher.append(rowValues[columnIndex]);
+            }
+        }
+        return rowHasher.hash();
+    }
+
+    /**
+     * column value result, the columns failed to be decoded are skipped.
+     * The result is the same as {@link #value(Map, List)}
+     *
+     * @param rowValues        decoded row values
+     * @param undecodedColumns positions of the columns failed to be decoded in the row values
+     * @param columnIndexes    positions of the columns in the row values, null if the column list is empty
+     * @return column value result
+     */
+    public String value(String[] rowValues, BitSet undecodedColumns, int[] columnIndexes) {
+        if (columnIndexes == null) {
+            return "";
+        }
+        if (columnIndexes.length == 1 && !undecodedColumns.get(columnIndexes[0])) {
+            return String.valueOf(rowValues[columnIndexes[0]]);
+        }
+        StringJoiner joiner = new StringJoiner(PRIMARY_DELIMITER);
+        for (int columnIndex : columnIndexes) {
+            if (!undecodedColumns.get(columnIndex)) {
+                joiner.add(String.valueOf(rowValues[columnIndex]));
+            }
+        }
+        return joiner.toString();
+    }
 }
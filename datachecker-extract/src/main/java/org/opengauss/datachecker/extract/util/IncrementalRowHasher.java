@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.util;
+
+import org.opengauss.datachecker.common.util.LongHashFunctionWrapper;
+
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * Incremental row hasher.
+ * The column values of a row are appended one by one into a reusable char buffer,
+ * and the buffer is hashed in place when the row is finished.
+ * The hash result is the same as {@link HashHandler#xx3Hash(java.util.Map, java.util.List)},
+ * which concatenates the column values (null is appended as "null") and hashes the chars of the string,
+ * but without the synchronized string buffer and the copy of the concatenated string.
+ * The hasher is not thread safe, one hasher is used by one thread.
+ * </pre>
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/23
+ * @since ：11
+ */
+public class IncrementalRowHasher {
+    private static final String NULL_VALUE = "null";
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * the buffer grown by a huge row is released after the row is hashed, so that it is not held by the thread
+     */
+    private static final int RETAINED_CAPACITY = 64 * 1024;
+
+    private final LongHashFunctionWrapper hashFunctionWrapper = new LongHashFunctionWrapper();
+    private char[] buffer = new char[INITIAL_CAPACITY];
+    private int length = 0;
+
+    /**
+     * start hashing a new row
+     *
+     * @return hasher
+     */
+    public IncrementalRowHasher reset() {
+        length = 0;
+        return this;
+    }
+
+    /**
+     * append the value of the next column
+     *
+     * @param value column value
+     * @return hasher
+     */
+    public IncrementalRowHasher append(String value) {
+        final String content = value == null ? NULL_VALUE : value;
+        final int valueLength = content.length();
+        ensureCapacity(length + valueLength);
+        content.getChars(0, valueLength, buffer, length);
+        length += valueLength;
+        return this;
+    }
+
+    /**
+     * hash the appended column values of the current row
+     *
+     * @return Hash value
+     */
+    public long hash() {
+        final long hash = hashFunctionWrapper.hashChars(buffer, 0, length);
+        if (buffer.length > RETAINED_CAPACITY) {
+            buffer = new char[INITIAL_CAPACITY];
+        }
+        length = 0;
+        return hash;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(minCapacity, buffer.length << 1));
+        }
+    }
+}
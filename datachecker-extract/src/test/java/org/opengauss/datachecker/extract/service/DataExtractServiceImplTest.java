@@ -23,8 +23,8 @@ import org.opengauss.datachecker.extract.client.CheckingFeignClient;
 import org.opengauss.datachecker.extract.config.ExtractProperties;
 import org.opengauss.datachecker.extract.kafka.KafkaAdminService;
 import org.opengauss.datachecker.extract.kafka.KafkaCommonService;
-import org.opengauss.datachecker.extract.load.ExtractEnvironment;
 import org.opengauss.datachecker.extract.task.DataManipulationService;
+import org.opengauss.datachecker.extract.task.ExtractExecutor;
 import org.opengauss.datachecker.extract.task.ExtractTaskBuilder;
 import org.opengauss.datachecker.extract.task.ExtractThreadSupport;
 import org.opengauss.datachecker.extract.util.TestJsonUtil;
@@ -37,6 +37,11 @@ import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.opengauss.datachecker.extract.util.TestJsonUtil.KEY_META_DATA_13_TABLE;
 
@@ -60,7 +65,7 @@ class DataExtractServiceImplTest {
     @Mock
     private DataManipulationService mockDataManipulationService;
     @Mock
-    private ExtractEnvironment mockExtractEnvironment;
+    private ExtractExecutor mockExtractExecutor;
 
     @InjectMocks
     private DataExtractServiceImpl dataExtractServiceImplUnderTest;
@@ -109,6 +114,22 @@ class DataExtractServiceImplTest {
             .isInstanceOf(ProcessMultipleException.class);
     }
 
+    @DisplayName("the tables verified before the restart of the check service are not extracted again")
+    @Test
+    void testExecExtractTaskAllTables_SkipCheckedTables() {
+        // Setup
+        when(mockExtractProperties.getEndpoint()).thenReturn(Endpoint.SOURCE);
+        final ExtractTask task = new ExtractTask().setTableName("t_checked");
+        when(mockExtractTaskBuilder.builder(MetaDataCache.getAllKeys())).thenReturn(List.of(task));
+        when(mockCheckingFeignClient.queryTableCheckStatus()).thenReturn(Map.of("t_checked", 7));
+        dataExtractServiceImplUnderTest.buildExtractTaskAllTables("processNo");
+        // Run the test
+        dataExtractServiceImplUnderTest.execExtractTaskAllTables("processNo");
+        // Verify the results
+        verifyNoInteractions(mockKafkaCommonService, mockKafkaAdminService, mockExtractExecutor);
+        verify(mockCheckingFeignClient, never()).refreshTableExtractStatus(any(), any(), anyInt());
+    }
+
     @Test
     void testCleanBuildTask() {
         // Setup
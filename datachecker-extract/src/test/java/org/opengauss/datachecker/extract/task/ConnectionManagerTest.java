@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+
+package org.opengauss.datachecker.extract.task;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.exception.ExtractDataAccessException;
+import org.opengauss.datachecker.common.util.ReflectUtil;
+import org.opengauss.datachecker.common.util.ThreadUtil;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * ConnectionManagerTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+class ConnectionManagerTest {
+    private final ConnectionManager connectionManager = new ConnectionManager();
+
+    @DisplayName("a released connection is handed to the waiting table of the fewest connections, then first come")
+    @Test
+    void testHandOffInTurn() {
+        connectionManager.initPermits(4);
+        assertThat(connectionManager.getExtractConnectionCount()).isEqualTo(2);
+        connectionManager.acquire("t_large");
+        connectionManager.acquire("t_large");
+        List<String> granted = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<Void>> waiters = List.of(waitFor("t_large", granted, 1),
+            waitFor("t_small_1", granted, 2), waitFor("t_small_2", granted, 3));
+        connectionManager.release("t_large");
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> CompletableFuture.allOf(waiters.toArray(new CompletableFuture[0])).join());
+        assertThat(granted).containsExactly("t_small_1", "t_small_2", "t_large");
+        connectionManager.release("t_large");
+        assertThat(connectionManager.getAcquiredCount()).isEqualTo(5);
+        assertThat(connectionManager.getMaxWaitMillis()).isPositive();
+        assertThat(connectionManager.getWaitingCount()).isZero();
+    }
+
+    @DisplayName("the metrics are logged only when connections are taken since the last log")
+    @Test
+    void testLogMetrics() {
+        connectionManager.initPermits(3);
+        assertThat(connectionManager.logMetrics()).isFalse();
+        connectionManager.acquire("t_1");
+        connectionManager.release("t_1");
+        assertThat(connectionManager.logMetrics()).isTrue();
+        assertThat(connectionManager.logMetrics()).isFalse();
+    }
+
+    @DisplayName("a table does not take more connections than the table max connections")
+    @Test
+    void testTableMaxConnections() {
+        ReflectUtil.setField(ConnectionManager.class, connectionManager, "tableMaxConnections", 1);
+        connectionManager.initPermits(5);
+        connectionManager.acquire("t_1");
+        List<String> granted = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> waiter = waitFor("t_1", granted, 1);
+        connectionManager.acquire("t_2");
+        assertThat(granted).isEmpty();
+        connectionManager.release("t_1");
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> waiter.join());
+        assertThat(granted).containsExactly("t_1");
+    }
+
+    @DisplayName("the query fails when no connection is handed in the wait timeout")
+    @Test
+    void testWaitTimeout() {
+        ReflectUtil.setField(ConnectionManager.class, connectionManager, "connectionWaitTimeout", 1L);
+        connectionManager.initPermits(3);
+        connectionManager.acquire("t_1");
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThatThrownBy(
+            () -> connectionManager.acquire("t_2")).isInstanceOf(ExtractDataAccessException.class));
+        assertThat(connectionManager.getTimeoutCount()).isEqualTo(1);
+        assertThat(connectionManager.getWaitingCount()).isZero();
+        connectionManager.release("t_1");
+        connectionManager.acquire("t_2");
+        assertThat(connectionManager.getAcquiredCount()).isEqualTo(2);
+    }
+
+    /**
+     * start a query of the table, which takes a connection and releases it, and wait until it is queued
+     */
+    private CompletableFuture<Void> waitFor(String tableName, List<String> granted, int waiting) {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            connectionManager.acquire(tableName);
+            granted.add(tableName);
+            ThreadUtil.sleep(10);
+            connectionManager.release(tableName);
+        });
+        while (connectionManager.getWaitingCount() < waiting) {
+            ThreadUtil.sleep(1);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.entry.extract.ExtractTask;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ExtractCostSchedulerTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+class ExtractCostSchedulerTest {
+    private static final int WORKERS = 8;
+
+    private final ExtractCostScheduler scheduler = new ExtractCostScheduler();
+
+    @DisplayName("longest processing time first shortens the makespan of the skewed catalog")
+    @Test
+    void testSkewedCatalogMakespan() {
+        Random random = new Random(20230401L);
+        List<ExtractTask> tasks = new ArrayList<>();
+        for (int idx = 0; idx < 4; idx++) {
+            tasks.add(task("t_huge_" + idx, 20_000_000L, 0L));
+        }
+        for (int idx = 0; idx < 40; idx++) {
+            tasks.add(task("t_medium_" + idx, 500_000L + random.nextInt(1_000_000), 0L));
+        }
+        for (int idx = 0; idx < 1000; idx++) {
+            tasks.add(task("t_small_" + idx, random.nextInt(50_000), 20L + random.nextInt(200)));
+        }
+        final List<ExtractTask> rowsOrdered =
+            tasks.stream().sorted(Comparator.comparingLong(task -> task.getTableMetadata().getTableRows()))
+                 .collect(Collectors.toList());
+        final List<ExtractTask> scheduled = ExtractCostScheduler.schedule(tasks, scheduler::estimateCost);
+
+        final long rowsOrderedMakespan = ExtractCostScheduler.makespan(rowsOrdered, scheduler::estimateCost, WORKERS);
+        final long scheduledMakespan = ExtractCostScheduler.makespan(scheduled, scheduler::estimateCost, WORKERS);
+        final long totalCost = tasks.stream().mapToLong(scheduler::estimateCost).sum();
+        final long maxCost = tasks.stream().mapToLong(scheduler::estimateCost).max().orElse(0L);
+        final long lowerBound = Math.max(maxCost, totalCost / WORKERS);
+        assertThat(scheduled).hasSameSizeAs(tasks).startsWith(tasks.subList(0, 4).toArray(new ExtractTask[0]));
+        assertThat(scheduledMakespan).isLessThan(rowsOrderedMakespan * 3 / 4);
+        assertThat(scheduledMakespan).isLessThanOrEqualTo(lowerBound * 4 / 3);
+    }
+
+    @DisplayName("the cost is the bytes of the table divided by the observed extraction rate")
+    @Test
+    void testEstimateCost() {
+        final ExtractTask wide = task("t_wide", 100_000L, 2_000L);
+        final ExtractTask narrow = task("t_narrow", 1_000_000L, 50L);
+        final ExtractTask slow = task("t_slow", 200_000L, 100L);
+        final ExtractTask checksum = task("t_checksum", 10_000_000L, 100L).setChunkChecksum(true);
+        assertThat(ExtractCostScheduler.schedule(List.of(narrow, slow, checksum, wide), scheduler::estimateCost))
+            .containsExactly(wide, narrow, slow, checksum);
+
+        // t_slow is extracted at 100 bytes per millisecond, the others at the average rate of all the tables
+        scheduler.recordExtracted(slow.getTableMetadata(), 200_000L);
+        scheduler.recordExtracted(narrow.getTableMetadata(), 1_000L);
+        assertThat(scheduler.estimateCost(slow)).isEqualTo(100L + 200_000L);
+        assertThat(scheduler.estimateCost(wide)).isEqualTo(100L + 200_000_000L / (70_000_000L / 201_000L));
+        assertThat(scheduler.estimateCost(checksum)).isZero();
+        assertThat(scheduler.schedule(List.of(narrow, slow, checksum, wide))).containsExactly(wide, slow, narrow,
+            checksum);
+    }
+
+    private ExtractTask task(String tableName, long tableRows, long avgRowLength) {
+        final TableMetadata metadata =
+            new TableMetadata().setTableName(tableName).setTableRows(tableRows).setAvgRowLength(avgRowLength);
+        return new ExtractTask().setTableName(tableName).setTableMetadata(metadata);
+    }
+}
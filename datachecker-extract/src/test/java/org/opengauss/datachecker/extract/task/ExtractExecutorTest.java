@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+
+package org.opengauss.datachecker.extract.task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.util.ThreadUtil;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * ExtractExecutorTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+class ExtractExecutorTest {
+    private static final int WORKERS = 3;
+
+    private final ExtractExecutor executor = new ExtractExecutor();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        executor.start(WORKERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @DisplayName("the shards of the concurrent tables never run on more workers than the connections")
+    @Test
+    void testShardsBoundedByWorkers() {
+        AtomicInteger completed = new AtomicInteger();
+        List<CompletableFuture<Void>> tables = IntStream.range(0, 6).mapToObj(table -> {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            executor.execute(() -> {
+                executor.invokeShards(shards(10, 5, completed));
+                done.complete(null);
+            });
+            return done;
+        }).collect(Collectors.toList());
+        assertTimeoutPreemptively(Duration.ofSeconds(30),
+            () -> CompletableFuture.allOf(tables.toArray(new CompletableFuture[0])).join());
+        assertThat(completed.get()).isEqualTo(60);
+        assertThat(maxRunning.get()).isBetween(1, WORKERS);
+        assertThat(executor.getParallelism()).isEqualTo(WORKERS);
+    }
+
+    @DisplayName("a small table submitted after a large table is not delayed until the large table is extracted")
+    @Test
+    void testSmallTableNotStarved() {
+        AtomicInteger largeCompleted = new AtomicInteger();
+        AtomicInteger largeCompletedAtSmallDone = new AtomicInteger(-1);
+        CompletableFuture<Void> largeDone = new CompletableFuture<>();
+        CompletableFuture<Void> smallDone = new CompletableFuture<>();
+        executor.execute(() -> {
+            executor.invokeShards(shards(100, 10, largeCompleted));
+            largeDone.complete(null);
+        });
+        ThreadUtil.sleep(50);
+        executor.execute(() -> {
+            executor.invokeShards(shards(2, 10, new AtomicInteger()));
+            largeCompletedAtSmallDone.set(largeCompleted.get());
+            smallDone.complete(null);
+        });
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> CompletableFuture.allOf(largeDone, smallDone).join());
+        assertThat(largeCompletedAtSmallDone.get()).isBetween(0, 50);
+    }
+
+    @DisplayName("the shards invoked outside the workers are completed, the failure of a shard is thrown")
+    @Test
+    void testInvokeShardsOutsideWorkers() {
+        AtomicInteger completed = new AtomicInteger();
+        executor.invokeShards(shards(20, 1, completed));
+        assertThat(completed.get()).isEqualTo(20);
+        assertThatThrownBy(() -> executor.invokeShards(List.of(() -> {
+            throw new IllegalStateException("shard failed");
+        }))).isInstanceOf(IllegalStateException.class);
+    }
+
+    private List<Runnable> shards(int count, int millis, AtomicInteger completed) {
+        return IntStream.range(0, count).<Runnable>mapToObj(idx -> () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            ThreadUtil.sleep(millis);
+            running.decrementAndGet();
+            completed.incrementAndGet();
+        }).collect(Collectors.toList());
+    }
+}
@@ -18,9 +18,13 @@ package org.opengauss.datachecker.extract.task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.entry.enums.DataBaseType;
 import org.opengauss.datachecker.common.entry.extract.ExtractTask;
 import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+import org.opengauss.datachecker.common.util.ReflectUtil;
+import org.opengauss.datachecker.common.util.TopicUtil;
 import org.opengauss.datachecker.extract.cache.MetaDataCache;
+import org.opengauss.datachecker.extract.config.ExtractProperties;
 import org.opengauss.datachecker.extract.util.TestJsonUtil;
 
 import java.util.HashMap;
@@ -34,12 +38,19 @@ import static org.opengauss.datachecker.extract.util.TestJsonUtil.KEY_META_DATA_
 class ExtractTaskBuilderTest {
 
     private ExtractTaskBuilder extractTaskBuilderUnderTest;
+    private ExtractProperties extractProperties;
 
     @BeforeEach
     void setUp() {
         HashMap<String, TableMetadata> result = TestJsonUtil.parseHashMap(KEY_META_DATA_13_TABLE, TableMetadata.class);
         MetaDataCache.putMap(result);
         extractTaskBuilderUnderTest = new ExtractTaskBuilder();
+        extractProperties = new ExtractProperties();
+        extractProperties.setDatabaseType(DataBaseType.MS);
+        ReflectUtil.setField(ExtractTaskBuilder.class, extractTaskBuilderUnderTest, "extractProperties",
+            extractProperties);
+        ReflectUtil.setField(ExtractTaskBuilder.class, extractTaskBuilderUnderTest, "costScheduler",
+            new ExtractCostScheduler());
     }
 
     @DisplayName("build task table empty")
@@ -60,4 +71,71 @@ class ExtractTaskBuilderTest {
                   .setDivisionsOrdinal(1).setOffset(10).setStart(0).setTableMetadata(MetaDataCache.get(tableName));
         assertThat(resultTask).isEqualTo(expectTask);
     }
+
+    @DisplayName("build chunk checksum task of the single integer primary key table only if it is enabled")
+    @Test
+    void testBuilderChunkChecksum() {
+        final String textTable = "t_test_mock_function";
+        assertThat(extractTaskBuilderUnderTest.builder(Set.of(textTable)).get(0).isChunkChecksum()).isFalse();
+        extractProperties.setChunkChecksumEnable(true);
+        assertThat(extractTaskBuilderUnderTest.builder(Set.of(textTable)).get(0).isChunkChecksum()).isTrue();
+        // the timestamp columns are rendered differently by the databases
+        assertThat(extractTaskBuilderUnderTest.builder(Set.of("t_time")).get(0).isChunkChecksum()).isFalse();
+        final String datePrimaryTable = "t_data_checker_0033_02";
+        assertThat(extractTaskBuilderUnderTest.builder(Set.of(datePrimaryTable)).get(0).isChunkChecksum()).isFalse();
+    }
+
+    @DisplayName("the sketch of the digest first table is sized by its partition rows up to the configured diff")
+    @Test
+    void testBuilderSketchExpectedDiff() {
+        final TableMetadata metadata = MetaDataCache.get("t_time");
+        metadata.setTableRows(250000);
+        extractProperties.setSketchExpectedDiff(100000);
+        assertThat(extractTaskBuilderUnderTest.builder(Set.of("t_time")).get(0).getSketchExpectedDiff()).isZero();
+        extractProperties.setDigestFirstEnable(true);
+        final ExtractTask task = extractTaskBuilderUnderTest.builder(Set.of("t_time")).get(0);
+        final int partitions = TopicUtil.calcPartitions(task.getDivisionsTotalNumber());
+        assertThat(task.isDigestFirst()).isTrue();
+        assertThat(task.getSketchExpectedDiff()).isEqualTo(250000 / partitions / 100);
+
+        extractProperties.setSketchExpectedDiff(100);
+        assertThat(extractTaskBuilderUnderTest.calcSketchExpectedDiff(250000, partitions)).isEqualTo(100);
+        assertThat(extractTaskBuilderUnderTest.calcSketchExpectedDiff(50, partitions)).isZero();
+    }
+
+    @DisplayName("locate the partition bounds of the same row count by walking the primary key index")
+    @Test
+    void testQueryPartitionBounds() {
+        final KeysetTableStub table = new KeysetTableStub("id", 1L, 1000L);
+        ReflectUtil.setField(ExtractTaskBuilder.class, extractTaskBuilderUnderTest, "jdbcTemplateOne",
+            table.jdbcTemplate());
+        final TableMetadata metadata = MetaDataCache.get("t_time");
+        metadata.setTableRows(1000);
+        assertThat(extractTaskBuilderUnderTest.queryPartitionBounds(metadata, 4)).containsExactly(251L, 501L, 751L);
+        assertThat(table.getBoundaryQueryCount()).isEqualTo(3);
+
+        // the statistics count more rows than the table, the later partitions can not be located
+        metadata.setTableRows(2500);
+        assertThat(extractTaskBuilderUnderTest.queryPartitionBounds(metadata, 4)).isEmpty();
+    }
+
+    @DisplayName("the partition bounds are located only for the single integer primary key table")
+    @Test
+    void testPartitionPipelineIntegerPrimaryKeyOnly() {
+        final KeysetTableStub table = new KeysetTableStub("id", 1L, 1000L);
+        ReflectUtil.setField(ExtractTaskBuilder.class, extractTaskBuilderUnderTest, "jdbcTemplateOne",
+            table.jdbcTemplate());
+        extractProperties.setPartitionPipelineEnable(true);
+        final String datePrimaryTable = "t_data_checker_0033_02";
+        MetaDataCache.get(datePrimaryTable).setTableRows(10000000);
+        final ExtractTask dateTask = extractTaskBuilderUnderTest.builder(Set.of(datePrimaryTable)).get(0);
+        assertThat(TopicUtil.calcPartitions(dateTask.getDivisionsTotalNumber())).isGreaterThan(1);
+        // the bounds are read by getLong, the date primary key is sent to the partition of its hash
+        assertThat(dateTask.getPartitionBounds()).isEmpty();
+        assertThat(table.getBoundaryQueryCount()).isZero();
+
+        MetaDataCache.get("t_time").setTableRows(10000000);
+        extractTaskBuilderUnderTest.builder(Set.of("t_time"));
+        assertThat(table.getBoundaryQueryCount()).isPositive();
+    }
 }
@@ -1,5 +1,7 @@
 package org.opengauss.datachecker.extract.task;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,11 +12,15 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.opengauss.datachecker.common.entry.enums.DataBaseType;
 import org.opengauss.datachecker.common.entry.enums.Endpoint;
+import org.opengauss.datachecker.common.entry.check.PartitionDigest;
+import org.opengauss.datachecker.common.entry.check.RowPullPartition;
+import org.opengauss.datachecker.common.entry.check.RowPullRequest;
 import org.opengauss.datachecker.common.entry.extract.ExtractTask;
 import org.opengauss.datachecker.common.entry.extract.RowDataHash;
 import org.opengauss.datachecker.common.entry.extract.TableMetadata;
 import org.opengauss.datachecker.common.entry.extract.Topic;
 import org.opengauss.datachecker.common.util.IdGenerator;
+import org.opengauss.datachecker.common.util.TaskUtil;
 import org.opengauss.datachecker.common.util.TopicUtil;
 import org.opengauss.datachecker.extract.cache.MetaDataCache;
 import org.opengauss.datachecker.extract.client.CheckingFeignClient;
@@ -23,6 +29,7 @@ import org.opengauss.datachecker.extract.util.MetaDataUtil;
 import org.opengauss.datachecker.extract.util.TestJsonUtil;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaOperations.OperationsCallback;
 import org.springframework.kafka.core.KafkaTemplate;
 
 import javax.sql.DataSource;
@@ -31,9 +38,18 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 import static org.opengauss.datachecker.extract.util.TestJsonUtil.KEY_META_DATA_13_TABLE;
 
@@ -42,9 +58,14 @@ class ExtractTaskRunnableTest {
     @Mock
     private ExtractThreadSupport mockSupport;
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, RowDataHash> kafkaTemplate;
     private ExtractTaskRunnable extractTaskRunnableUnderTest;
 
+    private static final long PARTITION_TABLE_ROWS = 250000L;
+    private static final Long PARTITION_BOUND = 220001L;
+    private static final int SHARD_RETRY_TIMES = 3;
+    private static final int SHARD_RETRY_INTERVAL = 10;
+
     @BeforeAll
     static void setUp() {
         HashMap<String, TableMetadata> result = TestJsonUtil.parseHashMap(KEY_META_DATA_13_TABLE, TableMetadata.class);
@@ -61,6 +82,10 @@ class ExtractTaskRunnableTest {
         CheckingFeignClient checkingFeignClient = Mockito.mock(CheckingFeignClient.class);
         when(mockSupport.getCheckingFeignClient()).thenReturn(checkingFeignClient);
         when(mockSupport.getKafkaTemplate()).thenReturn(kafkaTemplate);
+        when(mockSupport.getCostScheduler()).thenReturn(new ExtractCostScheduler());
+        ExtractExecutor extractExecutor = new ExtractExecutor();
+        extractExecutor.start(1);
+        when(mockSupport.getExtractExecutor()).thenReturn(extractExecutor);
         final Connection connection = Mockito.mock(Connection.class);
         when(datasource.getConnection()).thenReturn(connection);
         when(datasource.getConnection().createStatement()).thenReturn(Mockito.mock(Statement.class));
@@ -71,9 +96,231 @@ class ExtractTaskRunnableTest {
         extractTaskRunnableUnderTest = new ExtractTaskRunnable(task, topic, mockSupport);
         String querySql = "SELECT `d1`,`d2`,`d3`,`d4`,`d5` FROM `test`.`t_data_checker_0033_02`";
         mockJdbcTemplateQueryStream(tableName, querySql, properties.getDatabaseType());
+        try {
+            extractTaskRunnableUnderTest.run();
+        } finally {
+            extractExecutor.shutdown();
+        }
+    }
+
+    @DisplayName("each partition range is extracted in shards, and reported once all its shards are committed")
+    @Test
+    void testPartitionRangesInShards() throws Exception {
+        final List<ProducerRecord<String, RowDataHash>> committedRecords = new CopyOnWriteArrayList<>();
+        final AtomicInteger transactions = new AtomicInteger();
+        final KafkaTemplate<String, RowDataHash> shardKafkaTemplate =
+            mockCommittingKafkaTemplate(committedRecords, transactions, new AtomicInteger());
+        final CheckingFeignClient checkingFeignClient = Mockito.mock(CheckingFeignClient.class);
+        final ExtractExecutor extractExecutor = new ExtractExecutor();
+        extractExecutor.start(2);
+        mockPartitionSupport(shardKafkaTemplate, checkingFeignClient, extractExecutor);
+        final String tableName = "t_time";
+        final ExtractTask task = mockExtractTask(tableName);
+        task.getTableMetadata().setTableRows(PARTITION_TABLE_ROWS);
+        task.setPartitionBounds(List.of(PARTITION_BOUND));
+        final Topic topic = mockTopic(tableName, Endpoint.SOURCE);
+        topic.setPartitions(2);
+        final List<PartitionDigest> reportedDigests = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            final List<PartitionDigest> digests = invocation.getArgument(0);
+            if (digests.size() == 1) {
+                reportedDigests.add(digests.get(0));
+            }
+            return null;
+        }).when(checkingFeignClient).refreshTableDigest(ArgumentMatchers.anyList());
+
+        extractTaskRunnableUnderTest = new ExtractTaskRunnable(task, topic, mockSupport);
+        final KeysetTableStub table = new KeysetTableStub("id", 1L, PARTITION_TABLE_ROWS);
+        setField("jdbcTemplate", table.jdbcTemplate());
+        setField("streamQueryHandler", table.streamQueryHandler(1000));
+        try {
+            extractTaskRunnableUnderTest.run();
+        } finally {
+            extractExecutor.shutdown();
+        }
+
+        // the first partition takes more rows than a shard, it is split to two shards of their own transaction
+        final int shardRows = TaskUtil.calcAutoTaskOffset(PARTITION_TABLE_ROWS)[0][1];
+        assertThat(shardRows).isLessThan(PARTITION_BOUND.intValue());
+        assertThat(task.getDivisionsTotalNumber()).isEqualTo(3);
+        assertThat(transactions.get()).isEqualTo(3);
+        final Map<Integer, Long> partitionRows = committedRecords.stream().collect(
+            Collectors.groupingBy(ProducerRecord::partition, Collectors.counting()));
+        assertThat(partitionRows).containsEntry(0, PARTITION_BOUND - 1).containsEntry(1,
+            PARTITION_TABLE_ROWS - PARTITION_BOUND + 1);
+        // the digest of the reported partition holds the rows of all its shards
+        assertThat(reportedDigests).hasSize(2).allSatisfy(digest -> assertThat(
+            LongStream.of(digest.getRowCounts()).sum()).isEqualTo(partitionRows.get(digest.getPartition())));
+        Mockito.verify(checkingFeignClient).refreshPartitionExtractStatus(tableName, 0, Endpoint.SOURCE);
+        Mockito.verify(checkingFeignClient).refreshPartitionExtractStatus(tableName, 1, Endpoint.SOURCE);
+        Mockito.verify(checkingFeignClient)
+               .refreshTableExtractStatus(tableName, Endpoint.SOURCE, Endpoint.SOURCE.getCode());
+    }
+
+    @DisplayName("the table extracted digest first ships only the digests, the pulled leaves are sent afterwards")
+    @Test
+    void testDigestFirstAndPullRows() throws Exception {
+        final List<ProducerRecord<String, RowDataHash>> sentRecords = new CopyOnWriteArrayList<>();
+        final KafkaTemplate<String, RowDataHash> shardKafkaTemplate =
+            mockCommittingKafkaTemplate(sentRecords, new AtomicInteger(), new AtomicInteger());
+        final CheckingFeignClient checkingFeignClient = Mockito.mock(CheckingFeignClient.class);
+        final ExtractExecutor extractExecutor = new ExtractExecutor();
+        extractExecutor.start(2);
+        mockPartitionSupport(shardKafkaTemplate, checkingFeignClient, extractExecutor);
+        final String tableName = "t_time";
+        final ExtractTask task = mockExtractTask(tableName);
+        task.getTableMetadata().setTableRows(PARTITION_TABLE_ROWS);
+        task.setDigestFirst(true);
+        final Topic topic = mockTopic(tableName, Endpoint.SOURCE);
+        topic.setPartitions(2);
+        final List<PartitionDigest> tableDigests = new CopyOnWriteArrayList<>();
+        Mockito.doAnswer(invocation -> tableDigests.addAll(invocation.getArgument(0))).when(checkingFeignClient)
+               .refreshTableDigest(ArgumentMatchers.anyList());
+        final KeysetTableStub table = new KeysetTableStub("id", 1L, PARTITION_TABLE_ROWS);
+        final RowPullRequest request = new RowPullRequest().setTableName(tableName).setPartitions(
+            List.of(new RowPullPartition().setPartition(0).setLeafCount(4).setLeaves(Set.of(1))));
+        try {
+            extractTaskRunnableUnderTest = new ExtractTaskRunnable(task, topic, mockSupport);
+            setField("jdbcTemplate", table.jdbcTemplate());
+            setField("streamQueryHandler", table.streamQueryHandler(1000));
+            extractTaskRunnableUnderTest.run();
+
+            assertThat(sentRecords).isEmpty();
+            assertThat(tableDigests).hasSize(2).allSatisfy(digest -> assertThat(digest.totalRowCount()).isPositive());
+            Mockito.verify(checkingFeignClient)
+                   .refreshTableExtractStatus(tableName, Endpoint.SOURCE, Endpoint.SOURCE.getCode());
+
+            extractTaskRunnableUnderTest = new ExtractTaskRunnable(task, topic, mockSupport, request);
+            setField("jdbcTemplate", table.jdbcTemplate());
+            setField("streamQueryHandler", table.streamQueryHandler(1000));
+            extractTaskRunnableUnderTest.run();
+        } finally {
+            extractExecutor.shutdown();
+        }
+
+        // only the rows of the pulled leaf are sent, the same rows as the leaf of the shipped digest
+        final PartitionDigest pulledDigest =
+            tableDigests.stream().filter(digest -> digest.getPartition() == 0).findFirst().orElseThrow().fold(4);
+        assertThat(sentRecords).hasSize((int) pulledDigest.getRowCounts()[1]).allSatisfy(record -> {
+            assertThat(record.partition()).isZero();
+            assertThat(PartitionDigest.leafOf(record.value().getPrimaryKeyHash(), 4)).isEqualTo(1);
+        });
+        Mockito.verify(checkingFeignClient).refreshTableDigest(ArgumentMatchers.anyList());
+        Mockito.verify(checkingFeignClient)
+               .refreshTableRowPullStatus(tableName, Endpoint.SOURCE, Endpoint.SOURCE.getCode());
+    }
+
+    @DisplayName("the digest of a retried shard holds only the rows of its committed attempt")
+    @Test
+    void testRetriedShardDigest() throws Exception {
+        final List<ProducerRecord<String, RowDataHash>> committedRecords = new CopyOnWriteArrayList<>();
+        final AtomicInteger transactions = new AtomicInteger();
+        final AtomicInteger failedCommits = new AtomicInteger();
+        final KafkaTemplate<String, RowDataHash> shardKafkaTemplate =
+            mockCommittingKafkaTemplate(committedRecords, transactions, failedCommits);
+        final CheckingFeignClient checkingFeignClient = Mockito.mock(CheckingFeignClient.class);
+        final ExtractExecutor extractExecutor = new ExtractExecutor();
+        extractExecutor.start(2);
+        mockPartitionSupport(shardKafkaTemplate, checkingFeignClient, extractExecutor);
+        final String tableName = "t_time";
+        final ExtractTask task = mockExtractTask(tableName);
+        task.getTableMetadata().setTableRows(PARTITION_TABLE_ROWS);
+        task.setPartitionBounds(List.of(PARTITION_BOUND));
+        final Topic topic = mockTopic(tableName, Endpoint.SOURCE);
+        topic.setPartitions(2);
+        final Map<Integer, PartitionDigest> reportedDigests = new ConcurrentHashMap<>();
+        Mockito.doAnswer(invocation -> {
+            final List<PartitionDigest> digests = invocation.getArgument(0);
+            digests.forEach(digest -> reportedDigests.put(digest.getPartition(), digest));
+            return null;
+        }).when(checkingFeignClient).refreshTableDigest(ArgumentMatchers.anyList());
+        final KeysetTableStub table = new KeysetTableStub("id", 1L, PARTITION_TABLE_ROWS);
+        final Map<Integer, PartitionDigest> cleanDigests;
+        final int cleanTransactions;
+        try {
+            runShards(task, topic, table, shardKafkaTemplate);
+            cleanDigests = new HashMap<>(reportedDigests);
+            cleanTransactions = transactions.getAndSet(0);
+            committedRecords.clear();
+            reportedDigests.clear();
+            // the commit of the first shard fails after all its rows are sent, the shard is aborted and retried
+            failedCommits.set(1);
+            runShards(task, topic, table, shardKafkaTemplate);
+        } finally {
+            extractExecutor.shutdown();
+        }
+
+        assertThat(transactions.get()).isEqualTo(cleanTransactions + 1);
+        final Map<Integer, Long> committedRows = committedRecords.stream().collect(
+            Collectors.groupingBy(ProducerRecord::partition, Collectors.counting()));
+        assertThat(committedRows).containsEntry(0, PARTITION_BOUND - 1).containsEntry(1,
+            PARTITION_TABLE_ROWS - PARTITION_BOUND + 1);
+        // the aborted rows are not merged, so the digest is the same as the digest extracted without retry
+        assertThat(reportedDigests).containsOnlyKeys(0, 1).allSatisfy((partition, digest) -> {
+            assertThat(LongStream.of(digest.getRowCounts()).sum()).isEqualTo(committedRows.get(partition));
+            assertThat(digest.getRowCounts()).isEqualTo(cleanDigests.get(partition).getRowCounts());
+            assertThat(digest.getSignatures()).isEqualTo(cleanDigests.get(partition).getSignatures());
+        });
+    }
+
+    private void runShards(ExtractTask task, Topic topic, KeysetTableStub table,
+        KafkaTemplate<String, RowDataHash> template) throws Exception {
+        extractTaskRunnableUnderTest = new ExtractTaskRunnable(task, topic, mockSupport);
+        setField("jdbcTemplate", table.jdbcTemplate());
+        setField("streamQueryHandler", table.streamQueryHandler(1000));
+        setField("shardExecutor", new ShardTransactionExecutor(template, SHARD_RETRY_TIMES, SHARD_RETRY_INTERVAL));
         extractTaskRunnableUnderTest.run();
     }
 
+    /**
+     * the transactional kafka template, the records sent in a transaction are kept once it is committed,
+     * and the commits fail as many times as the failed commits
+     */
+    @SuppressWarnings("unchecked")
+    private KafkaTemplate<String, RowDataHash> mockCommittingKafkaTemplate(
+        List<ProducerRecord<String, RowDataHash>> committedRecords, AtomicInteger transactions,
+        AtomicInteger failedCommits) {
+        final KafkaTemplate<String, RowDataHash> template =
+            Mockito.mock(KafkaTemplate.class, Mockito.withSettings().stubOnly());
+        final ThreadLocal<List<ProducerRecord<String, RowDataHash>>> transactionRecords =
+            ThreadLocal.withInitial(ArrayList::new);
+        when(template.isTransactional()).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            transactionRecords.get().add(invocation.getArgument(0));
+            return null;
+        }).when(template).send(ArgumentMatchers.<ProducerRecord<String, RowDataHash>>any());
+        when(template.executeInTransaction(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            transactionRecords.get().clear();
+            final Long rowCount = invocation.<OperationsCallback<String, RowDataHash, Long>>getArgument(0)
+                                            .doInOperations(template);
+            transactions.incrementAndGet();
+            if (failedCommits.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                throw new KafkaException("commit the shard transaction failed");
+            }
+            committedRecords.addAll(transactionRecords.get());
+            return rowCount;
+        });
+        return template;
+    }
+
+    private void mockPartitionSupport(KafkaTemplate<String, RowDataHash> template,
+        CheckingFeignClient checkingFeignClient, ExtractExecutor extractExecutor) {
+        ExtractProperties properties = mockExtractProperties();
+        when(mockSupport.getExtractProperties()).thenReturn(properties);
+        when(mockSupport.getDataSourceOne()).thenReturn(Mockito.mock(DataSource.class));
+        when(mockSupport.getCheckingFeignClient()).thenReturn(checkingFeignClient);
+        when(mockSupport.getKafkaTemplate()).thenReturn(template);
+        when(mockSupport.getConnectionManager()).thenReturn(Mockito.mock(ConnectionManager.class));
+        when(mockSupport.getCostScheduler()).thenReturn(new ExtractCostScheduler());
+        when(mockSupport.getExtractExecutor()).thenReturn(extractExecutor);
+    }
+
+    private void setField(String fieldName, Object value) throws NoSuchFieldException, IllegalAccessException {
+        final Field field = ExtractTaskRunnable.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(extractTaskRunnableUnderTest, value);
+    }
+
     private void mockJdbcTemplateQueryStream(String tableName, String querySql, DataBaseType databaseType)
         throws NoSuchFieldException, IllegalAccessException {
         final Field jdbcTemplateField = extractTaskRunnableUnderTest.getClass().getDeclaredField("jdbcTemplate");
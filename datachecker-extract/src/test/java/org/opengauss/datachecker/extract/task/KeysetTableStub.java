@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+
+package org.opengauss.datachecker.extract.task;
+
+import org.opengauss.datachecker.common.entry.enums.DataBaseType;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * In memory table of one integer primary key column, which answers the keyset boundary queries and
+ * the keyset range queries of the extraction like the primary key index of the database.
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+class KeysetTableStub {
+    private static final Pattern OFFSET = Pattern.compile("OFFSET (\\d+)");
+    private static final Pattern LIMIT = Pattern.compile("LIMIT (\\d+)$");
+
+    private final String primaryKey;
+    private final List<Long> keys;
+    private final AtomicInteger boundaryQueryCount = new AtomicInteger();
+    private final AtomicInteger rangeQueryCount = new AtomicInteger();
+
+    /**
+     * table of the primary key values {@code [firstKey, lastKey]}
+     *
+     * @param primaryKey primary key column name
+     * @param firstKey   first primary key value
+     * @param lastKey    last primary key value
+     */
+    KeysetTableStub(String primaryKey, long firstKey, long lastKey) {
+        this.primaryKey = primaryKey;
+        this.keys = LongStream.rangeClosed(firstKey, lastKey).boxed().collect(Collectors.toList());
+    }
+
+    int getBoundaryQueryCount() {
+        return boundaryQueryCount.get();
+    }
+
+    int getRangeQueryCount() {
+        return rangeQueryCount.get();
+    }
+
+    /**
+     * jdbc template answering the boundary queries {@code LIMIT 1 OFFSET step} from the bound parameter
+     *
+     * @return jdbc template
+     */
+    JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate() {
+            @Override
+            public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+                boundaryQueryCount.incrementAndGet();
+                final Matcher offset = OFFSET.matcher(sql);
+                if (!offset.find()) {
+                    throw new UnsupportedOperationException(sql);
+                }
+                final int from = args.length == 0 ? 0 : lowerIndex(((Number) args[0]).longValue(), false);
+                final long index = from + Long.parseLong(offset.group(1));
+                if (index >= keys.size()) {
+                    return new ArrayList<>();
+                }
+                return List.of(mapRow(rowMapper, keys.get((int) index)));
+            }
+        };
+    }
+
+    /**
+     * stream query handler answering the keyset range queries from the bound parameters
+     *
+     * @param batchSize row count of one batch
+     * @return stream query handler
+     */
+    StreamQueryHandler streamQueryHandler(int batchSize) {
+        return new StreamQueryHandler(null, DataBaseType.MS, 0, batchSize) {
+            @Override
+            public long query(String sql, RowMapper<RowDataHash> rowMapper,
+                Consumer<List<RowDataHash>> batchConsumer, Object... args) {
+                rangeQueryCount.incrementAndGet();
+                int argIdx = 0;
+                int from = 0;
+                if (sql.contains(" > ?") || sql.contains(" >= ?")) {
+                    from = lowerIndex(((Number) args[argIdx++]).longValue(), sql.contains(" > ?"));
+                }
+                final Long upper = sql.contains(" < ?") ? ((Number) args[argIdx]).longValue() : null;
+                final Matcher limit = LIMIT.matcher(sql.trim());
+                final long maxRows = limit.find() ? Long.parseLong(limit.group(1)) : Long.MAX_VALUE;
+                List<RowDataHash> batch = new ArrayList<>(batchSize);
+                long rowCount = 0L;
+                for (int idx = from; idx < keys.size() && rowCount < maxRows; idx++) {
+                    if (Objects.nonNull(upper) && keys.get(idx) >= upper) {
+                        break;
+                    }
+                    batch.add(mapRow(rowMapper, keys.get(idx)));
+                    rowCount++;
+                    if (batch.size() >= batchSize) {
+                        batchConsumer.accept(batch);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    batchConsumer.accept(batch);
+                }
+                return rowCount;
+            }
+        };
+    }
+
+    private int lowerIndex(long lower, boolean isExclusive) {
+        final int index = Collections.binarySearch(keys, lower);
+        if (index < 0) {
+            return -index - 1;
+        }
+        return isExclusive ? index + 1 : index;
+    }
+
+    private <T> T mapRow(RowMapper<T> rowMapper, long key) {
+        try {
+            return rowMapper.mapRow(resultSet(key), 0);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private ResultSet resultSet(long key) {
+        final ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (methodName) -> {
+            switch (methodName) {
+                case "getColumnCount":
+                    return 1;
+                case "getColumnLabel":
+                    return primaryKey;
+                case "getColumnTypeName":
+                    return "INT";
+                default:
+                    throw new UnsupportedOperationException(methodName);
+            }
+        });
+        return proxy(ResultSet.class, (methodName) -> {
+            switch (methodName) {
+                case "getLong":
+                case "getObject":
+                    return key;
+                case "getString":
+                    return String.valueOf(key);
+                case "wasNull":
+                    return false;
+                case "getMetaData":
+                    return metaData;
+                default:
+                    throw new UnsupportedOperationException(methodName);
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Function<String, Object> answer) {
+        return type.cast(Proxy.newProxyInstance(KeysetTableStub.class.getClassLoader(), new Class<?>[] {type},
+            (instance, method, args) -> answer.apply(method.getName())));
+    }
+}
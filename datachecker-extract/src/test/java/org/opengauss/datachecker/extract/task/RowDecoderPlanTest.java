@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RowDecoderPlanTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/22
+ * @since ：11
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RowDecoderPlanTest {
+    private static final List<String> PRIMARY = List.of("id", "code");
+    private static final List<String> COLUMNS = List.of("id", "code", "price", "name", "remark");
+
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private ResultSetMetaData metaData;
+
+    private final ResultSetHandler resultSetHandler = new OpenGaussResultSetHandler();
+    private final ResultSetHashHandler resultSetHashHandler = new ResultSetHashHandler();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(5);
+        mockColumn(1, "id", "int4");
+        mockColumn(2, "code", "bpchar");
+        mockColumn(3, "price", "numeric");
+        mockColumn(4, "name", "varchar");
+        mockColumn(5, "remark", "text");
+        when(resultSet.getObject(1)).thenReturn(10);
+        when(resultSet.getString(2)).thenReturn("A01  ");
+        when(resultSet.getBigDecimal(3)).thenReturn(new BigDecimal("12.500"));
+        when(resultSet.getObject(4)).thenReturn("name");
+        when(resultSet.getObject(5)).thenReturn(null);
+    }
+
+    private void mockColumn(int columnIdx, String label, String typeName) throws SQLException {
+        when(metaData.getColumnLabel(columnIdx)).thenReturn(label);
+        when(metaData.getColumnTypeName(columnIdx)).thenReturn(typeName);
+    }
+
+    @DisplayName("row values are decoded by column index in result set order")
+    @Test
+    void testDecode() throws SQLException {
+        final RowDecoderPlan plan = resultSetHandler.compile(resultSet.getMetaData());
+
+        final BitSet undecodedColumns = new BitSet();
+        undecodedColumns.set(2);
+
+        assertThat(plan.getColumnCount()).isEqualTo(5);
+        assertThat(plan.decode(resultSet, undecodedColumns)).containsExactly("10", "A01", "12.5", "name", null);
+        assertThat(undecodedColumns.isEmpty()).isTrue();
+        assertThat(plan.indexOf(List.of("remark", "missing", "id"))).containsExactly(4, 0);
+        assertThat(plan.indexOf(List.of())).isNull();
+    }
+
+    @DisplayName("metadata is resolved once when the plan decodes many rows")
+    @Test
+    void testCompileOnce() throws SQLException {
+        final RowDecoderPlan plan = resultSetHandler.compile(resultSet.getMetaData());
+        for (int row = 0; row < 3; row++) {
+            plan.decode(resultSet, new BitSet());
+        }
+        verify(metaData, times(1)).getColumnTypeName(3);
+        verify(resultSet, times(3)).getBigDecimal(3);
+    }
+
+    @DisplayName("row hash of the decoded values is the same as the row hash of the column map")
+    @Test
+    void testHashSameAsColumnMap() throws SQLException {
+        final Map<String, String> rowData = resultSetHandler.putOneResultSetToMap(resultSet);
+        final RowDecoderPlan plan = resultSetHandler.compile(resultSet.getMetaData());
+        final BitSet undecodedColumns = new BitSet();
+        final String[] rowValues = plan.decode(resultSet, undecodedColumns);
+
+        final RowDataHash expected = resultSetHashHandler.handler(PRIMARY, COLUMNS, rowData);
+        final RowDataHash result =
+            resultSetHashHandler.handler(plan.indexOf(PRIMARY), plan.indexOf(COLUMNS), rowValues, undecodedColumns);
+        assertThat(result.getPrimaryKey()).isEqualTo(expected.getPrimaryKey()).isEqualTo("10_#_A01");
+        assertThat(result.getPrimaryKeyHash()).isEqualTo(expected.getPrimaryKeyHash());
+        assertThat(result.getRowHash()).isEqualTo(expected.getRowHash());
+        final int[] emptyIndexes = plan.indexOf(List.of());
+        final RowDataHash empty =
+            resultSetHashHandler.handler(emptyIndexes, emptyIndexes, rowValues, undecodedColumns);
+        final RowDataHash expectedEmpty = resultSetHashHandler.handler(List.of(), List.of(), rowData);
+        assertThat(empty.getRowHash()).isEqualTo(expectedEmpty.getRowHash());
+    }
+
+    @DisplayName("the column failed to be decoded is skipped by the row hash like the column map")
+    @Test
+    void testUndecodedColumnSkipped() throws SQLException {
+        when(resultSet.getBigDecimal(3)).thenThrow(new SQLException("decode price"));
+        when(resultSet.getString(2)).thenThrow(new SQLException("decode code"));
+        final Map<String, String> rowData = resultSetHandler.putOneResultSetToMap(resultSet);
+        final RowDecoderPlan plan = resultSetHandler.compile(resultSet.getMetaData());
+        final BitSet undecodedColumns = new BitSet();
+        final String[] rowValues = plan.decode(resultSet, undecodedColumns);
+
+        assertThat(rowData).doesNotContainKeys("price", "code");
+        assertThat(undecodedColumns.stream()).containsExactly(1, 2);
+        final RowDataHash expected = resultSetHashHandler.handler(PRIMARY, COLUMNS, rowData);
+        final RowDataHash result =
+            resultSetHashHandler.handler(plan.indexOf(PRIMARY), plan.indexOf(COLUMNS), rowValues, undecodedColumns);
+        assertThat(result.getPrimaryKey()).isEqualTo(expected.getPrimaryKey()).isEqualTo("10");
+        assertThat(result.getPrimaryKeyHash()).isEqualTo(expected.getPrimaryKeyHash());
+        assertThat(result.getRowHash()).isEqualTo(expected.getRowHash());
+    }
+
+    @DisplayName("a column decoded as any text is hashed, only the columns of the skip mask are skipped")
+    @Test
+    void testDecodedTextNotSkipped() throws SQLException {
+        when(resultSet.getObject(4)).thenReturn("UNDECODED");
+        final Map<String, String> rowData = resultSetHandler.putOneResultSetToMap(resultSet);
+        final RowDecoderPlan plan = resultSetHandler.compile(resultSet.getMetaData());
+        final BitSet undecodedColumns = new BitSet();
+        final String[] rowValues = plan.decode(resultSet, undecodedColumns);
+
+        assertThat(undecodedColumns.isEmpty()).isTrue();
+        final RowDataHash expected = resultSetHashHandler.handler(PRIMARY, COLUMNS, rowData);
+        final RowDataHash result =
+            resultSetHashHandler.handler(plan.indexOf(PRIMARY), plan.indexOf(COLUMNS), rowValues, undecodedColumns);
+        assertThat(result.getRowHash()).isEqualTo(expected.getRowHash());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.opengauss.datachecker.common.entry.enums.DataBaseType;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.kafka.core.KafkaOperations.OperationsCallback;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ShardTransactionExecutorTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+class ShardTransactionExecutorTest {
+    private static final int ROW_COUNT = 25;
+    private static final int BATCH_SIZE = 10;
+    private static final int BROKEN_ROW = 15;
+
+    private final List<String> executedShards = new ArrayList<>();
+    private final List<RowDataHash> committedRows = new ArrayList<>();
+    private List<RowDataHash> transactionRows;
+    private KafkaTemplate<String, RowDataHash> kafkaTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        given(kafkaTemplate.isTransactional()).willReturn(true);
+        given(kafkaTemplate.executeInTransaction(any())).willAnswer(invocation -> {
+            transactionRows = new ArrayList<>();
+            try {
+                final Object result = invocation.<OperationsCallback<?, ?, ?>>getArgument(0).doInOperations(null);
+                committedRows.addAll(transactionRows);
+                return result;
+            } finally {
+                transactionRows = null;
+            }
+        });
+    }
+
+    @DisplayName("only the shard of the broken connection is aborted and extracted again")
+    @Test
+    void testRetryFailedShard() {
+        // the connection of the first attempt of shard b is broken after 15 rows are fetched
+        final StreamQueryHandler handler = handler(new FlakyDataSource(Set.of(2)));
+        final ShardTransactionExecutor executor = new ShardTransactionExecutor(kafkaTemplate, 3, 0);
+        long rowCount = 0L;
+        for (String shard : List.of("a", "b", "c")) {
+            rowCount += executor.execute(shard, () -> extract(handler, shard));
+        }
+
+        assertThat(rowCount).isEqualTo(3 * ROW_COUNT);
+        assertThat(executedShards).containsExactly("a", "b", "b", "c");
+        assertThat(committedRows).hasSize(3 * ROW_COUNT);
+        final Set<String> committedKeys =
+            committedRows.stream().map(RowDataHash::getPrimaryKey).collect(Collectors.toSet());
+        assertThat(committedKeys).hasSize(3 * ROW_COUNT).contains("a_0", "b_0", "b_24", "c_24");
+        verify(kafkaTemplate, times(4)).executeInTransaction(any());
+    }
+
+    @DisplayName("the shard is failed after the retry times are used up, and none of its rows is committed")
+    @Test
+    void testRetryTimesUsedUp() {
+        final StreamQueryHandler handler = handler(new FlakyDataSource(Set.of(1, 2, 3)));
+        final ShardTransactionExecutor executor = new ShardTransactionExecutor(kafkaTemplate, 2, 0);
+
+        assertThatThrownBy(() -> executor.execute("a", () -> extract(handler, "a"))).isInstanceOf(
+            DataAccessException.class);
+        assertThat(executedShards).containsExactly("a", "a", "a");
+        assertThat(committedRows).isEmpty();
+    }
+
+    @DisplayName("the shard is executed once without transaction if the kafka template is not transactional")
+    @Test
+    void testNotTransactional() {
+        given(kafkaTemplate.isTransactional()).willReturn(false);
+        final StreamQueryHandler handler = handler(new FlakyDataSource(Set.of(1)));
+        final ShardTransactionExecutor executor = new ShardTransactionExecutor(kafkaTemplate, 3, 0);
+
+        assertThatThrownBy(() -> executor.execute("a", () -> {
+            executedShards.add("a");
+            return handler.query("a", (rs, rowNum) -> new RowDataHash(), batch -> {
+            });
+        })).isInstanceOf(DataAccessException.class);
+        assertThat(executedShards).containsExactly("a");
+        verify(kafkaTemplate, never()).executeInTransaction(any());
+    }
+
+    private StreamQueryHandler handler(FlakyDataSource dataSource) {
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setExceptionTranslator(new SQLStateSQLExceptionTranslator());
+        return new StreamQueryHandler(jdbcTemplate, DataBaseType.OG, 1000, BATCH_SIZE);
+    }
+
+    private long extract(StreamQueryHandler handler, String shard) {
+        executedShards.add(shard);
+        return handler.query(shard, (rs, rowNum) -> new RowDataHash().setPrimaryKey(shard + "_" + rowNum),
+            batch -> transactionRows.addAll(batch));
+    }
+
+    /**
+     * The data source whose connections of the broken queries are reset after {@value BROKEN_ROW} rows are fetched,
+     * the queries are numbered from 1 in the order they are executed
+     */
+    private static class FlakyDataSource extends AbstractDataSource {
+        private final Set<Integer> brokenQueries;
+        private final AtomicInteger queryCount = new AtomicInteger(0);
+
+        FlakyDataSource(Set<Integer> brokenQueries) {
+            this.brokenQueries = brokenQueries;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            final Connection connection = mock(Connection.class);
+            given(connection.prepareStatement(anyString(), anyInt(), anyInt())).willAnswer(
+                invocation -> statement(brokenQueries.contains(queryCount.incrementAndGet())));
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        private PreparedStatement statement(boolean isBroken) throws SQLException {
+            final AtomicInteger cursor = new AtomicInteger(0);
+            final ResultSet resultSet = mock(ResultSet.class);
+            given(resultSet.next()).willAnswer(invocation -> {
+                if (isBroken && cursor.get() >= BROKEN_ROW) {
+                    throw new SQLException("connection reset", "08S01");
+                }
+                return cursor.incrementAndGet() <= ROW_COUNT;
+            });
+            final PreparedStatement statement = mock(PreparedStatement.class);
+            given(statement.executeQuery()).willReturn(resultSet);
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.opengauss.datachecker.common.entry.enums.DataBaseType;
+import org.opengauss.datachecker.common.entry.extract.RowDataHash;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * StreamQueryHandlerTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/21
+ * @since ：11
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StreamQueryHandlerTest {
+    private static final int ROW_COUNT = 25;
+    private static final int BATCH_SIZE = 10;
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private DatabaseMetaData databaseMetaData;
+    @Mock
+    private PreparedStatement statement;
+    @Mock
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(databaseMetaData);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        AtomicInteger cursor = new AtomicInteger(0);
+        when(resultSet.next()).thenAnswer(invocation -> cursor.incrementAndGet() <= ROW_COUNT);
+    }
+
+    @DisplayName("rows are pushed in fixed-size batches")
+    @Test
+    void testQueryInFixedSizeBatches() throws SQLException {
+        when(databaseMetaData.getURL()).thenReturn("jdbc:mysql://127.0.0.1:3306/test?useSSL=false");
+        StreamQueryHandler handler =
+            new StreamQueryHandler(new JdbcTemplate(dataSource), DataBaseType.MS, 1000, BATCH_SIZE);
+        List<Integer> batchSizeList = new ArrayList<>();
+        final long rowCount = handler.query("select 1", (rs, rowNum) -> new RowDataHash().setPrimaryKey("" + rowNum),
+            batch -> batchSizeList.add(batch.size()));
+
+        assertThat(rowCount).isEqualTo(ROW_COUNT);
+        assertThat(batchSizeList).containsExactly(10, 10, 5);
+        // mysql without useCursorFetch uses the streaming result set
+        verify(statement).setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @DisplayName("mysql use cursor fetch when the url enables it")
+    @Test
+    void testMysqlCursorFetch() throws SQLException {
+        when(databaseMetaData.getURL()).thenReturn("jdbc:mysql://127.0.0.1:3306/test?useCursorFetch=true");
+        StreamQueryHandler handler =
+            new StreamQueryHandler(new JdbcTemplate(dataSource), DataBaseType.MS, 1000, BATCH_SIZE);
+        handler.query("select ?", (rs, rowNum) -> new RowDataHash(), batch -> {
+        }, 1);
+
+        verify(statement).setFetchSize(1000);
+        verify(statement).setObject(1, 1);
+    }
+
+    @DisplayName("openGauss cursor fetch runs in a transaction")
+    @Test
+    void testOpenGaussCursorFetch() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(true);
+        StreamQueryHandler handler =
+            new StreamQueryHandler(new JdbcTemplate(dataSource), DataBaseType.OG, 1000, BATCH_SIZE);
+        final long rowCount = handler.query("select 1", (rs, rowNum) -> new RowDataHash(), batch -> {
+        });
+
+        assertThat(rowCount).isEqualTo(ROW_COUNT);
+        verify(statement).setFetchSize(1000);
+        verify(connection).setAutoCommit(false);
+        verify(connection).setAutoCommit(true);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengauss.datachecker.common.entry.enums.DataBaseType;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+/**
+ * ChunkChecksumSqlBuilderTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/4/1
+ * @since ：11
+ */
+@ExtendWith(MockitoExtension.class)
+class ChunkChecksumSqlBuilderTest extends MockTableMeta {
+    private static final List<String> COLUMNS =
+        List.of("id", "c_date_time", "c_date_time_3", "c_timestamp", "c_date", "c_time", "c_year");
+    private static final String MYSQL_TABLE = " FROM `test`.`t_data_checker_time_0018_01`";
+    private static final String OPENGAUSS_TABLE = " FROM \"test\".\"t_data_checker_time_0018_01\"";
+
+    private TableMetadata mockTableMetadata;
+    private ChunkChecksumSqlBuilder checksumSqlBuilder;
+
+    @BeforeEach
+    void setUp() {
+        mockTableMetadata = mockSingleTablePrimaryMetadata();
+        checksumSqlBuilder = new ChunkChecksumSqlBuilder(mockTableMetadata, getSchema());
+    }
+
+    @DisplayName("chunk checksum supported only single integer primary key of mysql and openGauss")
+    @Test
+    void testIsSupported() {
+        final TableMetadata textTable = mockTextTableMetadata();
+        assertThat(ChunkChecksumSqlBuilder.isSupported(textTable, DataBaseType.MS)).isTrue();
+        assertThat(ChunkChecksumSqlBuilder.isSupported(textTable, DataBaseType.OG)).isTrue();
+        assertThat(ChunkChecksumSqlBuilder.isSupported(textTable, DataBaseType.O)).isFalse();
+        TableMetadata datePrimary = mockSingleTablePrimaryMetadata();
+        datePrimary.setPrimaryMetas(List.of(datePrimary.getColumnsMetas().get(4)));
+        assertThat(ChunkChecksumSqlBuilder.isSupported(datePrimary, DataBaseType.MS)).isFalse();
+        final ChunkChecksumSqlBuilder sqlBuilder =
+            new ChunkChecksumSqlBuilder(datePrimary, getSchema()).dataBaseType(DataBaseType.MS);
+        assertThatThrownBy(() -> sqlBuilder.buildChecksumSql(true, true)).isInstanceOf(
+            IllegalArgumentException.class);
+    }
+
+    @DisplayName("only the columns rendered to the same text by mysql and openGauss are checked by chunk checksum")
+    @Test
+    void testDialectColumnTypes() {
+        // the datetime columns are rendered by the precision and the format of the database
+        assertThat(ChunkChecksumSqlBuilder.isSupported(mockTableMetadata, DataBaseType.MS)).isFalse();
+        assertThat(ChunkChecksumSqlBuilder.isIntegerPrimaryKey(mockTableMetadata, DataBaseType.MS)).isTrue();
+        for (String dataType : List.of("decimal", "numeric", "float", "double", "boolean", "bool", "binary",
+            "varbinary", "bytea", "blob", "datetime", "timestamp", "date", "time", "json")) {
+            final TableMetadata table = mockTextTableMetadata();
+            table.getColumnsMetas().get(1).setDataType(dataType);
+            assertThat(ChunkChecksumSqlBuilder.isSupported(table, DataBaseType.MS)).as(dataType).isFalse();
+            assertThat(ChunkChecksumSqlBuilder.isSupported(table, DataBaseType.OG)).as(dataType).isFalse();
+        }
+        for (String dataType : List.of("BIGINT", "int8", "character varying", "bpchar", "longtext", "nvarchar2")) {
+            final TableMetadata table = mockTextTableMetadata();
+            table.getColumnsMetas().get(1).setDataType(dataType);
+            assertThat(ChunkChecksumSqlBuilder.isSupported(table, DataBaseType.OG)).as(dataType).isTrue();
+        }
+    }
+
+    @DisplayName("both dialects render a column as its length and text, and NULL as a text no value renders to")
+    @Test
+    void testDialectColumnRendering() {
+        final ChunkChecksumSqlBuilder mysqlBuilder =
+            new ChunkChecksumSqlBuilder(mockTextTableMetadata(), getSchema()).dataBaseType(DataBaseType.MS);
+        final ChunkChecksumSqlBuilder openGaussBuilder =
+            new ChunkChecksumSqlBuilder(mockTextTableMetadata(), getSchema()).dataBaseType(DataBaseType.OG);
+        final String mysqlSql = mysqlBuilder.buildChecksumSql(false, false);
+        final String openGaussSql = openGaussBuilder.buildChecksumSql(false, false);
+        for (String column : COLUMNS) {
+            assertThat(mysqlSql).contains(String.format("CASE WHEN `%1$s` IS NULL THEN 'N' ELSE "
+                + "CONCAT(CHAR_LENGTH(CAST(`%1$s` AS CHAR)),':',CAST(`%1$s` AS CHAR)) END", column));
+            assertThat(openGaussSql).contains(String.format("CASE WHEN \"%1$s\" IS NULL THEN 'N' ELSE "
+                + "CHAR_LENGTH(CAST(\"%1$s\" AS TEXT))||':'||CAST(\"%1$s\" AS TEXT) END", column));
+        }
+        // the string 'NULL' is rendered as 4:NULL, it is not the same as the NULL value any more
+        assertThat(mysqlSql).doesNotContain("'NULL'");
+        assertThat(openGaussSql).doesNotContain("'NULL'");
+    }
+
+    @DisplayName("mysql chunk checksum SQL build")
+    @Test
+    void testMysqlChecksumSqlBuilder() {
+        checksumSqlBuilder.dataBaseType(DataBaseType.MS);
+        final String rowChecksum = "CAST(CONV(SUBSTRING(MD5(CONCAT_WS('#',"
+            + columnTexts("CASE WHEN `%1$s` IS NULL THEN 'N' ELSE CONCAT(CHAR_LENGTH(CAST(`%1$s` AS CHAR)),':',"
+            + "CAST(`%1$s` AS CHAR)) END") + ")),1,8),16,10) AS UNSIGNED)";
+        assertThat(checksumSqlBuilder.buildChecksumSql(false, false)).isEqualTo(
+            "SELECT COUNT(1), COALESCE(SUM(" + rowChecksum + "),0)" + MYSQL_TABLE);
+        assertThat(checksumSqlBuilder.buildChecksumSql(true, true)).isEqualTo(
+            "SELECT COUNT(1), COALESCE(SUM(" + rowChecksum + "),0)" + MYSQL_TABLE + " WHERE `id` >= ? and `id` < ?");
+    }
+
+    @DisplayName("openGauss chunk checksum SQL build")
+    @Test
+    void testOpenGaussChecksumSqlBuilder() {
+        checksumSqlBuilder.dataBaseType(DataBaseType.OG);
+        final String rowChecksum = "('x'||SUBSTR(MD5(CONCAT_WS('#',"
+            + columnTexts("CASE WHEN \"%1$s\" IS NULL THEN 'N' ELSE CHAR_LENGTH(CAST(\"%1$s\" AS TEXT))||':'||"
+            + "CAST(\"%1$s\" AS TEXT) END") + ")),1,8))::BIT(32)::BIGINT";
+        assertThat(checksumSqlBuilder.buildChecksumSql(false, true)).isEqualTo(
+            "SELECT COUNT(1), COALESCE(SUM(" + rowChecksum + "),0)" + OPENGAUSS_TABLE + " WHERE \"id\" < ?");
+    }
+
+    @DisplayName("chunk boundary SQL build")
+    @Test
+    void testBoundarySqlBuilder() {
+        checksumSqlBuilder.dataBaseType(DataBaseType.MS);
+        assertThat(checksumSqlBuilder.buildBoundarySql(false, false, 1000)).isEqualTo(
+            "SELECT `id`" + MYSQL_TABLE + " order by `id` asc LIMIT 1 OFFSET 1000");
+        assertThat(checksumSqlBuilder.buildBoundarySql(true, true, 1000)).isEqualTo(
+            "SELECT `id`" + MYSQL_TABLE + " WHERE `id` >= ? and `id` < ? order by `id` asc LIMIT 1 OFFSET 1000");
+        checksumSqlBuilder.dataBaseType(DataBaseType.OG);
+        assertThat(checksumSqlBuilder.buildBoundarySql(true, false, 1000)).isEqualTo(
+            "SELECT \"id\"" + OPENGAUSS_TABLE + " WHERE \"id\" >= ? order by \"id\" asc LIMIT 1 OFFSET 1000");
+    }
+
+    @DisplayName("chunk rows SQL build")
+    @Test
+    void testRowSqlBuilder() {
+        checksumSqlBuilder.dataBaseType(DataBaseType.MS);
+        assertThat(checksumSqlBuilder.buildRowSql(true, false)).isEqualTo(
+            "SELECT `id`,`c_date_time`,`c_date_time_3`,`c_timestamp`,`c_date`,`c_time`,`c_year`" + MYSQL_TABLE
+                + " WHERE `id` >= ?");
+    }
+
+    private TableMetadata mockTextTableMetadata() {
+        final TableMetadata table = mockSingleTablePrimaryMetadata();
+        table.getColumnsMetas().stream().filter(column -> !"id".equals(column.getColumnName()))
+             .forEach(column -> column.setDataType("varchar"));
+        return table;
+    }
+
+    private String columnTexts(String format) {
+        return COLUMNS.stream().map(column -> String.format(format, column)).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.task.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.opengauss.datachecker.common.entry.enums.DataBaseType;
+import org.opengauss.datachecker.common.entry.extract.ConditionLimit;
+import org.opengauss.datachecker.common.entry.extract.TableMetadata;
+import org.opengauss.datachecker.extract.task.sql.SelectKeysetSqlBuilder.LowerBound;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+/**
+ * SelectKeysetSqlBuilderTest
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/20
+ * @since ：11
+ */
+@ExtendWith(MockitoExtension.class)
+class SelectKeysetSqlBuilderTest extends MockTableMeta {
+    private static final String MYSQL_COLUMNS =
+        "SELECT `id`,`c_date_time`,`c_date_time_3`,`c_timestamp`,`c_date`,`c_time`,`c_year` FROM "
+            + "`test`.`t_data_checker_time_0018_01`";
+    private static final String OPENGAUSS_COLUMNS =
+        "SELECT \"id\",\"c_date_time\",\"c_date_time_3\",\"c_timestamp\",\"c_date\",\"c_time\",\"c_year\" FROM "
+            + "\"test\".\"t_data_checker_time_0018_01\"";
+
+    private TableMetadata mockTableMetadata;
+    private SelectKeysetSqlBuilder keysetSqlBuilder;
+
+    @BeforeEach
+    void setUp() {
+        mockTableMetadata = mockSingleTablePrimaryMetadata();
+        keysetSqlBuilder = new SelectKeysetSqlBuilder(mockTableMetadata, getSchema());
+    }
+
+    @DisplayName("keyset supported only single primary key of mysql and openGauss")
+    @Test
+    void testIsSupported() {
+        assertThat(SelectKeysetSqlBuilder.isSupported(mockTableMetadata, DataBaseType.MS)).isTrue();
+        assertThat(SelectKeysetSqlBuilder.isSupported(mockTableMetadata, DataBaseType.OG)).isTrue();
+        assertThat(SelectKeysetSqlBuilder.isSupported(mockTableMetadata, DataBaseType.O)).isFalse();
+        TableMetadata multiplePrimary = mockSingleTablePrimaryMetadata();
+        multiplePrimary.setPrimaryMetas(List.of(multiplePrimary.getColumnsMetas().get(0),
+            multiplePrimary.getColumnsMetas().get(1)));
+        assertThat(SelectKeysetSqlBuilder.isSupported(multiplePrimary, DataBaseType.MS)).isFalse();
+        TableMetadata conditionLimit = mockSingleTablePrimaryMetadata().setConditionLimit(new ConditionLimit(0, 10));
+        assertThat(SelectKeysetSqlBuilder.isSupported(conditionLimit, DataBaseType.MS)).isFalse();
+    }
+
+    @DisplayName("mysql keyset first boundary SQL build")
+    @Test
+    void testMysqlFirstBoundarySqlBuilder() {
+        String result = keysetSqlBuilder.dataBaseType(DataBaseType.MS).buildBoundarySql(false, 200000);
+        assertThat(result).isEqualTo(
+            "SELECT `id` FROM `test`.`t_data_checker_time_0018_01` order by `id` asc LIMIT 1 OFFSET 200000");
+    }
+
+    @DisplayName("mysql keyset next boundary SQL build")
+    @Test
+    void testMysqlNextBoundarySqlBuilder() {
+        String result = keysetSqlBuilder.dataBaseType(DataBaseType.MS).buildBoundarySql(true, 200000);
+        assertThat(result).isEqualTo("SELECT `id` FROM `test`.`t_data_checker_time_0018_01` WHERE `id` >= ? "
+            + "order by `id` asc LIMIT 1 OFFSET 200000");
+    }
+
+    @DisplayName("openGauss keyset next boundary SQL build")
+    @Test
+    void testOpenGaussNextBoundarySqlBuilder() {
+        String result = keysetSqlBuilder.dataBaseType(DataBaseType.OG).buildBoundarySql(true, 200000);
+        assertThat(result).isEqualTo("SELECT \"id\" FROM \"test\".\"t_data_checker_time_0018_01\" WHERE \"id\" >= ? "
+            + "order by \"id\" asc LIMIT 1 OFFSET 200000");
+    }
+
+    @DisplayName("mysql keyset range SQL build")
+    @Test
+    void testMysqlRangeSqlBuilder() {
+        keysetSqlBuilder.dataBaseType(DataBaseType.MS);
+        assertThat(keysetSqlBuilder.buildRangeSql(LowerBound.NONE, true, 50000)).isEqualTo(
+            MYSQL_COLUMNS + " WHERE `id` < ? order by `id` asc LIMIT 50000");
+        assertThat(keysetSqlBuilder.buildRangeSql(LowerBound.INCLUSIVE, true, 50000)).isEqualTo(
+            MYSQL_COLUMNS + " WHERE `id` >= ? and `id` < ? order by `id` asc LIMIT 50000");
+        assertThat(keysetSqlBuilder.buildRangeSql(LowerBound.EXCLUSIVE, false, 50000)).isEqualTo(
+            MYSQL_COLUMNS + " WHERE `id` > ? order by `id` asc LIMIT 50000");
+        assertThat(keysetSqlBuilder.buildRangeSql(LowerBound.NONE, false, 50000)).isEqualTo(
+            MYSQL_COLUMNS + " order by `id` asc LIMIT 50000");
+    }
+
+    @DisplayName("openGauss keyset range SQL build")
+    @Test
+    void testOpenGaussRangeSqlBuilder() {
+        keysetSqlBuilder.dataBaseType(DataBaseType.OG);
+        assertThat(keysetSqlBuilder.buildRangeSql(LowerBound.INCLUSIVE, true, 50000)).isEqualTo(
+            OPENGAUSS_COLUMNS + " WHERE \"id\" >= ? and \"id\" < ? order by \"id\" asc LIMIT 50000");
+        assertThat(keysetSqlBuilder.buildRangeSql(LowerBound.EXCLUSIVE, true, 50000)).isEqualTo(
+            OPENGAUSS_COLUMNS + " WHERE \"id\" > ? and \"id\" < ? order by \"id\" asc LIMIT 50000");
+    }
+}
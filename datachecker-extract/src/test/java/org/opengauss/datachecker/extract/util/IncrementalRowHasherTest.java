@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2022-2022 Huawei Technologies Co.,Ltd.
+ *
+ * openGauss is licensed under Mulan PSL v2.
+ * You can use this software according to the terms and conditions of the Mulan PSL v2.
+ * You may obtain a copy of Mulan PSL v2 at:
+ *
+ *           http://license.coscl.org.cn/MulanPSL2
+ *
+ * THIS SOFTWARE IS PROVIDED ON AN "AS IS" BASIS, WITHOUT WARRANTIES OF ANY KIND,
+ * EITHER EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO NON-INFRINGEMENT,
+ * MERCHANTABILITY OR FIT FOR A PARTICULAR PURPOSE.
+ * See the Mulan PSL v2 for more details.
+ */
+
+package org.opengauss.datachecker.extract.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opengauss.datachecker.common.util.LongHashFunctionWrapper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property tests of the incremental row hasher, the hash of random rows must be the same as
+ * the hash of the concatenated string used by the previous versions.
+ *
+ * @author ：wangchao
+ * @date ：Created in 2023/3/23
+ * @since ：11
+ */
+class IncrementalRowHasherTest {
+    private static final int ROUNDS = 2000;
+    private static final String ALPHABET = "abcXYZ019 _#-\t\n中文字符éß😀";
+
+    private final LongHashFunctionWrapper hashFunctionWrapper = new LongHashFunctionWrapper();
+    private final HashHandler hashHandler = new HashHandler();
+
+    @DisplayName("row hash is the same as the hash of the concatenated column values")
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 20230323L, 199972221018L})
+    void testRowHashSameAsConcatenatedString(long seed) {
+        Random random = new Random(seed);
+        IncrementalRowHasher rowHasher = new IncrementalRowHasher();
+        for (int round = 0; round < ROUNDS; round++) {
+            final List<String> values = randomRow(random);
+            rowHasher.reset();
+            StringBuffer concatenated = new StringBuffer();
+            values.forEach(value -> {
+                rowHasher.append(value);
+                concatenated.append(value);
+            });
+            assertThat(rowHasher.hash()).as("row %s", values)
+                                        .isEqualTo(hashFunctionWrapper.hashChars(concatenated.toString()));
+        }
+    }
+
+    @DisplayName("hash handler of column map and of decoded row values are the same as the previous versions")
+    @ParameterizedTest
+    @ValueSource(longs = {7L, 31L, 1024L})
+    void testHashHandlerSameAsConcatenatedString(long seed) {
+        Random random = new Random(seed);
+        for (int round = 0; round < ROUNDS; round++) {
+            final List<String> values = randomRow(random);
+            List<String> columns = new ArrayList<>();
+            Map<String, String> columnsValueMap = new HashMap<>();
+            StringBuffer concatenated = new StringBuffer();
+            for (int idx = 0; idx < values.size(); idx++) {
+                columns.add("c" + idx);
+                columnsValueMap.put("c" + idx, values.get(idx));
+                concatenated.append(values.get(idx));
+            }
+            // columns missing in the row are skipped
+            columns.add("missing");
+            final int[] columnIndexes = new int[values.size()];
+            for (int idx = 0; idx < columnIndexes.length; idx++) {
+                columnIndexes[idx] = idx;
+            }
+            final long expected = hashFunctionWrapper.hashChars(concatenated.toString());
+            assertThat(hashHandler.xx3Hash(columnsValueMap, columns)).isEqualTo(expected);
+            assertThat(hashHandler.xx3Hash(values.toArray(new String[0]), new BitSet(), columnIndexes)).isEqualTo(expected);
+        }
+    }
+
+    @DisplayName("hasher is reusable after a huge row")
+    @Test
+    void testHugeRowReuse() {
+        IncrementalRowHasher rowHasher = new IncrementalRowHasher();
+        final String huge = "x".repeat(200 * 1024);
+        assertThat(rowHasher.reset().append(huge).append(null).hash()).isEqualTo(
+            hashFunctionWrapper.hashChars(huge + "null"));
+        assertThat(rowHasher.reset().append("1").append("").append("a").hash()).isEqualTo(
+            hashFunctionWrapper.hashChars("1a"));
+        assertThat(rowHasher.reset().hash()).isEqualTo(hashFunctionWrapper.hashChars(""));
+    }
+
+    private List<String> randomRow(Random random) {
+        final int columnCount = random.nextInt(12);
+        List<String> values = new ArrayList<>(columnCount);
+        for (int idx = 0; idx < columnCount; idx++) {
+            final int kind = random.nextInt(10);
+            if (kind == 0) {
+                values.add(null);
+            } else if (kind == 1) {
+                values.add("");
+            } else {
+                // cover the short, middle and long input paths of xxh3
+                final int length = kind == 9 ? random.nextInt(600) : random.nextInt(24);
+                StringBuilder value = new StringBuilder(length);
+                for (int chr = 0; chr < length; chr++) {
+                    value.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+                values.add(value.toString());
+            }
+        }
+        return values;
+    }
+}